@@ -49,8 +49,23 @@ dependencies {
     testImplementation("com.h2database:h2:2.3.232")
 }
 
-tasks.withType<Test> {
-    useJUnitPlatform()
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+// Benchmarks are slow and timing dependent, so they only run on request:
+// ./gradlew benchmark
+val benchmark by tasks.registering(Test::class) {
+    description = "Runs the tests tagged benchmark."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    shouldRunAfter(tasks.test)
 }
 
 tasks {
@@ -0,0 +1,227 @@
+package COMP_49X_our_search.backend.database.entities;
+
+import COMP_49X_our_search.backend.database.enums.EmailOutboxStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting in (or done with) the outbox. The body is the template
+ * shared by every recipient of the run, and substitutions holds this
+ * recipient's values for its placeholders, as a JSON object.
+ *
+ * Once a sent email is past its retention, its content is cleared and
+ * purgedAt is set, but the row stays as a tombstone so its idempotency key
+ * keeps the email from being queued again.
+ */
+@Entity
+@Table(
+    name = "email_outbox",
+    indexes = @Index(name = "idx_email_outbox_status", columnList = "status, available_at"))
+public class EmailOutboxMessage {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "idempotency_key", nullable = false, unique = true, length = 512)
+  private String idempotencyKey;
+
+  @Column(name = "run_name", nullable = false)
+  private String runName;
+
+  @Column(nullable = false)
+  private String recipient;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String subject;
+
+  @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+  private String body;
+
+  @Column(name = "content_type", nullable = false)
+  private String contentType;
+
+  @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+  private String substitutions;
+
+  @Column(nullable = false)
+  @Enumerated(EnumType.STRING)
+  private EmailOutboxStatus status;
+
+  @Column(nullable = false)
+  private int attempts;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "available_at", nullable = false)
+  private LocalDateTime availableAt;
+
+  @Column(name = "claimed_at")
+  private LocalDateTime claimedAt;
+
+  @Column(name = "sent_at")
+  private LocalDateTime sentAt;
+
+  @Column(name = "last_error", columnDefinition = "TEXT")
+  private String lastError;
+
+  @Column(name = "purged_at")
+  private LocalDateTime purgedAt;
+
+  public EmailOutboxMessage() {}
+
+  public EmailOutboxMessage(
+      String idempotencyKey,
+      String runName,
+      String recipient,
+      String subject,
+      String body,
+      String contentType,
+      String substitutions) {
+    this.idempotencyKey = idempotencyKey;
+    this.runName = runName;
+    this.recipient = recipient;
+    this.subject = subject;
+    this.body = body;
+    this.contentType = contentType;
+    this.substitutions = substitutions;
+    this.status = EmailOutboxStatus.PENDING;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getIdempotencyKey() {
+    return idempotencyKey;
+  }
+
+  public void setIdempotencyKey(String idempotencyKey) {
+    this.idempotencyKey = idempotencyKey;
+  }
+
+  public String getRunName() {
+    return runName;
+  }
+
+  public void setRunName(String runName) {
+    this.runName = runName;
+  }
+
+  public String getRecipient() {
+    return recipient;
+  }
+
+  public void setRecipient(String recipient) {
+    this.recipient = recipient;
+  }
+
+  public String getSubject() {
+    return subject;
+  }
+
+  public void setSubject(String subject) {
+    this.subject = subject;
+  }
+
+  public String getBody() {
+    return body;
+  }
+
+  public void setBody(String body) {
+    this.body = body;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public void setContentType(String contentType) {
+    this.contentType = contentType;
+  }
+
+  public String getSubstitutions() {
+    return substitutions;
+  }
+
+  public void setSubstitutions(String substitutions) {
+    this.substitutions = substitutions;
+  }
+
+  public EmailOutboxStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(EmailOutboxStatus status) {
+    this.status = status;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public LocalDateTime getAvailableAt() {
+    return availableAt;
+  }
+
+  public void setAvailableAt(LocalDateTime availableAt) {
+    this.availableAt = availableAt;
+  }
+
+  public LocalDateTime getClaimedAt() {
+    return claimedAt;
+  }
+
+  public void setClaimedAt(LocalDateTime claimedAt) {
+    this.claimedAt = claimedAt;
+  }
+
+  public LocalDateTime getSentAt() {
+    return sentAt;
+  }
+
+  public void setSentAt(LocalDateTime sentAt) {
+    this.sentAt = sentAt;
+  }
+
+  public String getLastError() {
+    return lastError;
+  }
+
+  public void setLastError(String lastError) {
+    this.lastError = lastError;
+  }
+
+  public LocalDateTime getPurgedAt() {
+    return purgedAt;
+  }
+
+  public void setPurgedAt(LocalDateTime purgedAt) {
+    this.purgedAt = purgedAt;
+  }
+}
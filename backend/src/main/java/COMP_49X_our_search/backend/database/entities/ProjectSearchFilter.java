@@ -0,0 +1,71 @@
+package COMP_49X_our_search.backend.database.entities;
+
+import COMP_49X_our_search.backend.database.enums.ProjectFilterDimension;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * One filter value of a project in the "project_search_rows" projection: a
+ * major, research period or umbrella topic the project has. Filtering the
+ * rows checks that one of these exists for the selected values, which the
+ * (dimension, value_id, project_id) index answers without reading the rows,
+ * instead of matching LIKE "%,5,%" against every row's list of ids.
+ *
+ * Kept up to date with the rows by ProjectSearchProjectionService.
+ */
+@Entity
+@Table(
+    name = "project_search_filters",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_project_search_filters_value_project",
+            columnNames = {"dimension", "value_id", "project_id"}),
+    indexes = @Index(name = "idx_project_search_filters_project", columnList = "project_id"))
+public class ProjectSearchFilter {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Integer id;
+
+  @Column(name = "project_id", nullable = false)
+  private Integer projectId;
+
+  @Column(nullable = false, length = 32)
+  @Enumerated(EnumType.STRING)
+  private ProjectFilterDimension dimension;
+
+  @Column(name = "value_id", nullable = false)
+  private Integer valueId;
+
+  public ProjectSearchFilter() {}
+
+  public ProjectSearchFilter(Integer projectId, ProjectFilterDimension dimension, Integer valueId) {
+    this.projectId = projectId;
+    this.dimension = dimension;
+    this.valueId = valueId;
+  }
+
+  public Integer getId() {
+    return id;
+  }
+
+  public Integer getProjectId() {
+    return projectId;
+  }
+
+  public ProjectFilterDimension getDimension() {
+    return dimension;
+  }
+
+  public Integer getValueId() {
+    return valueId;
+  }
+}
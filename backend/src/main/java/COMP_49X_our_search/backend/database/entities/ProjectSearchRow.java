@@ -0,0 +1,264 @@
+package COMP_49X_our_search.backend.database.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * One row of the read-optimized copy of the projects browse data: a project
+ * as listed under one of its majors, with everything needed to build its
+ * ProjectProto already joined in. The rows are kept up to date by
+ * ProjectSearchProjectionService.
+ *
+ * Lists of names are stored joined with NAME_SEPARATOR. The rows are filtered
+ * through ProjectSearchFilter, which has an index per filter value. The ids
+ * of the project's majors, research periods and umbrella topics are still
+ * stored here as ",1,5," but nothing queries them anymore: the columns are
+ * NOT NULL in the databases created before ProjectSearchFilter, and
+ * ddl-auto=update doesn't drop them.
+ */
+@Entity
+@Table(
+    name = "project_search_rows",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_project_search_rows_major_project",
+            columnNames = {"major_id", "project_id"}),
+    indexes = @Index(name = "idx_project_search_rows_project", columnList = "project_id"))
+public class ProjectSearchRow {
+
+  public static final String NAME_SEPARATOR = "\u001F";
+  public static final String ID_SEPARATOR = ",";
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Integer id;
+
+  @Column(name = "major_id", nullable = false)
+  private Integer majorId;
+
+  @Column(name = "project_id", nullable = false)
+  private Integer projectId;
+
+  @Column(name = "project_name", nullable = false)
+  private String projectName;
+
+  @Column(columnDefinition = "TEXT")
+  private String description;
+
+  @Column(name = "desired_qualifications", columnDefinition = "TEXT")
+  private String desiredQualifications;
+
+  @Column(name = "is_active", nullable = false)
+  private Boolean isActive;
+
+  @Column(name = "major_names", nullable = false, columnDefinition = "TEXT")
+  private String majorNames;
+
+  @Column(name = "research_period_names", nullable = false, columnDefinition = "TEXT")
+  private String researchPeriodNames;
+
+  @Column(name = "umbrella_topic_names", nullable = false, columnDefinition = "TEXT")
+  private String umbrellaTopicNames;
+
+  @Column(name = "major_ids", nullable = false, length = 1024)
+  private String majorIds;
+
+  @Column(name = "research_period_ids", nullable = false, length = 1024)
+  private String researchPeriodIds;
+
+  @Column(name = "umbrella_topic_ids", nullable = false, length = 1024)
+  private String umbrellaTopicIds;
+
+  @Column(name = "faculty_id")
+  private Integer facultyId;
+
+  @Column(name = "faculty_first_name")
+  private String facultyFirstName;
+
+  @Column(name = "faculty_last_name")
+  private String facultyLastName;
+
+  @Column(name = "faculty_email")
+  private String facultyEmail;
+
+  @Column(name = "faculty_department_names", nullable = false, columnDefinition = "TEXT")
+  private String facultyDepartmentNames;
+
+  public ProjectSearchRow() {}
+
+  /** ",1,5," for ids 5 and 1, or "" without ids. */
+  public static String encodeIds(Collection<Integer> ids) {
+    if (ids.isEmpty()) {
+      return "";
+    }
+    return ids.stream()
+        .sorted()
+        .map(String::valueOf)
+        .collect(Collectors.joining(ID_SEPARATOR, ID_SEPARATOR, ID_SEPARATOR));
+  }
+
+  public static String encodeNames(Collection<String> names) {
+    return String.join(NAME_SEPARATOR, names);
+  }
+
+  public static List<String> decodeNames(String names) {
+    if (names == null || names.isEmpty()) {
+      return List.of();
+    }
+    return Arrays.asList(names.split(NAME_SEPARATOR, -1));
+  }
+
+  public Integer getId() {
+    return id;
+  }
+
+  public void setId(Integer id) {
+    this.id = id;
+  }
+
+  public Integer getMajorId() {
+    return majorId;
+  }
+
+  public void setMajorId(Integer majorId) {
+    this.majorId = majorId;
+  }
+
+  public Integer getProjectId() {
+    return projectId;
+  }
+
+  public void setProjectId(Integer projectId) {
+    this.projectId = projectId;
+  }
+
+  public String getProjectName() {
+    return projectName;
+  }
+
+  public void setProjectName(String projectName) {
+    this.projectName = projectName;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  public String getDesiredQualifications() {
+    return desiredQualifications;
+  }
+
+  public void setDesiredQualifications(String desiredQualifications) {
+    this.desiredQualifications = desiredQualifications;
+  }
+
+  public Boolean getIsActive() {
+    return isActive;
+  }
+
+  public void setIsActive(Boolean isActive) {
+    this.isActive = isActive;
+  }
+
+  public String getMajorNames() {
+    return majorNames;
+  }
+
+  public void setMajorNames(String majorNames) {
+    this.majorNames = majorNames;
+  }
+
+  public String getResearchPeriodNames() {
+    return researchPeriodNames;
+  }
+
+  public void setResearchPeriodNames(String researchPeriodNames) {
+    this.researchPeriodNames = researchPeriodNames;
+  }
+
+  public String getUmbrellaTopicNames() {
+    return umbrellaTopicNames;
+  }
+
+  public void setUmbrellaTopicNames(String umbrellaTopicNames) {
+    this.umbrellaTopicNames = umbrellaTopicNames;
+  }
+
+  public String getMajorIds() {
+    return majorIds;
+  }
+
+  public void setMajorIds(String majorIds) {
+    this.majorIds = majorIds;
+  }
+
+  public String getResearchPeriodIds() {
+    return researchPeriodIds;
+  }
+
+  public void setResearchPeriodIds(String researchPeriodIds) {
+    this.researchPeriodIds = researchPeriodIds;
+  }
+
+  public String getUmbrellaTopicIds() {
+    return umbrellaTopicIds;
+  }
+
+  public void setUmbrellaTopicIds(String umbrellaTopicIds) {
+    this.umbrellaTopicIds = umbrellaTopicIds;
+  }
+
+  public Integer getFacultyId() {
+    return facultyId;
+  }
+
+  public void setFacultyId(Integer facultyId) {
+    this.facultyId = facultyId;
+  }
+
+  public String getFacultyFirstName() {
+    return facultyFirstName;
+  }
+
+  public void setFacultyFirstName(String facultyFirstName) {
+    this.facultyFirstName = facultyFirstName;
+  }
+
+  public String getFacultyLastName() {
+    return facultyLastName;
+  }
+
+  public void setFacultyLastName(String facultyLastName) {
+    this.facultyLastName = facultyLastName;
+  }
+
+  public String getFacultyEmail() {
+    return facultyEmail;
+  }
+
+  public void setFacultyEmail(String facultyEmail) {
+    this.facultyEmail = facultyEmail;
+  }
+
+  public String getFacultyDepartmentNames() {
+    return facultyDepartmentNames;
+  }
+
+  public void setFacultyDepartmentNames(String facultyDepartmentNames) {
+    this.facultyDepartmentNames = facultyDepartmentNames;
+  }
+}
@@ -0,0 +1,8 @@
+package COMP_49X_our_search.backend.database.enums;
+
+public enum EmailOutboxStatus {
+  PENDING, // Waiting to be sent, possibly after a failed attempt
+  SENDING, // Claimed by a drainer, which hasn't reported back yet
+  SENT, // Accepted by SendGrid
+  FAILED, // Given up on, see lastError
+}
@@ -0,0 +1,7 @@
+package COMP_49X_our_search.backend.database.enums;
+
+public enum ProjectFilterDimension {
+  MAJOR,
+  RESEARCH_PERIOD,
+  UMBRELLA_TOPIC,
+}
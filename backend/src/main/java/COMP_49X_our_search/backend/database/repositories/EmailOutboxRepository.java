@@ -0,0 +1,74 @@
+package COMP_49X_our_search.backend.database.repositories;
+
+import COMP_49X_our_search.backend.database.entities.EmailOutboxMessage;
+import COMP_49X_our_search.backend.database.enums.EmailOutboxStatus;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+  @Query("SELECT m.idempotencyKey FROM EmailOutboxMessage m WHERE m.idempotencyKey IN :keys")
+  List<String> findExistingIdempotencyKeys(@Param("keys") Collection<String> keys);
+
+  // Messages in the pending status that are due, plus messages in the
+  // sending status whose claim expired (their drainer most likely died
+  // before reporting back).
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "SELECT m FROM EmailOutboxMessage m"
+          + " WHERE (m.status = :pending AND m.availableAt <= :now)"
+          + " OR (m.status = :sending AND m.claimedAt < :claimedBefore)"
+          + " ORDER BY m.id")
+  List<EmailOutboxMessage> findClaimable(
+      @Param("pending") EmailOutboxStatus pending,
+      @Param("now") LocalDateTime now,
+      @Param("sending") EmailOutboxStatus sending,
+      @Param("claimedBefore") LocalDateTime claimedBefore,
+      Pageable pageable);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE EmailOutboxMessage m SET m.status = :status, m.sentAt = :sentAt,"
+          + " m.lastError = NULL WHERE m.id IN :ids")
+  int markSent(
+      @Param("ids") Collection<Long> ids,
+      @Param("status") EmailOutboxStatus status,
+      @Param("sentAt") LocalDateTime sentAt);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE EmailOutboxMessage m SET m.status = :status, m.availableAt = :availableAt,"
+          + " m.lastError = :error WHERE m.id IN :ids")
+  int markUnsent(
+      @Param("ids") Collection<Long> ids,
+      @Param("status") EmailOutboxStatus status,
+      @Param("availableAt") LocalDateTime availableAt,
+      @Param("error") String error);
+
+  long countByStatus(EmailOutboxStatus status);
+
+  long countByStatusAndSentAtAfter(EmailOutboxStatus status, LocalDateTime sentAfter);
+
+  @Query("SELECT MIN(m.createdAt) FROM EmailOutboxMessage m WHERE m.status IN :statuses")
+  LocalDateTime findOldestCreatedAt(@Param("statuses") Collection<EmailOutboxStatus> statuses);
+
+  // Clears the content of the messages but keeps the rows, whose idempotency
+  // keys must outlive them (see EmailOutboxMessage).
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE EmailOutboxMessage m SET m.subject = '', m.body = '', m.substitutions = '{}',"
+          + " m.purgedAt = :purgedAt"
+          + " WHERE m.status = :status AND m.sentAt < :sentBefore AND m.purgedAt IS NULL")
+  int purgeByStatusAndSentAtBefore(
+      @Param("status") EmailOutboxStatus status,
+      @Param("sentBefore") LocalDateTime sentBefore,
+      @Param("purgedAt") LocalDateTime purgedAt);
+}
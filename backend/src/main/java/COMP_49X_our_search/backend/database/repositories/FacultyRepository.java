@@ -12,10 +12,16 @@ import COMP_49X_our_search.backend.database.entities.Faculty;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface FacultyRepository extends JpaRepository<Faculty, Integer> {
+public interface FacultyRepository
+    extends JpaRepository<Faculty, Integer>, JpaSpecificationExecutor<Faculty> {
   boolean existsByEmail(String email);
   Optional<Faculty> findFacultyByEmail(String email);
   void deleteByEmail(String email);
   List<Faculty> findAllByDepartments_Id(Integer departmentId);
+  @Query("SELECT DISTINCT f FROM Faculty f LEFT JOIN FETCH f.departments WHERE f IN :faculty")
+  List<Faculty> fetchDepartments(@Param("faculty") List<Faculty> faculty);
 }
@@ -0,0 +1,94 @@
+/**
+ * Queries that only select the ids of the entities matching a specification,
+ * for callers that only need to know which rows match (e.g. facet counts)
+ * and would otherwise load whole entities just to read their ids.
+ *
+ * findIdsByMajor reads one page of a keyset-paginated hierarchy (see
+ * HierarchyPaginator): the next (major id, id) pairs after a position, for
+ * all the majors of a discipline in one query instead of one query per
+ * major.
+ *
+ * Used by the ProjectIdQueries, StudentIdQueries and ProjectSearchRowIdQueries
+ * repository fragments.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.jpa.domain.Specification;
+
+final class IdQueries {
+
+  private IdQueries() {}
+
+  static <T> List<Integer> findIds(
+      EntityManager entityManager, Class<T> type, Specification<T> filter) {
+    return entityManager.createQuery(idQuery(entityManager, type, filter)).getResultList();
+  }
+
+  /**
+   * Returns at most limit of the distinct (major id, id) pairs of the
+   * entities matching the filter and listed under one of the given majors,
+   * ordered by major id and then id, starting after the given position (from
+   * the first pair if it is null).
+   *
+   * @param idAttribute the attribute holding the id of the entity
+   * @param majorIdOf the major id an entity is listed under, e.g. a join on
+   *     its majors, giving one pair per major of the entity
+   */
+  static <T> List<MajorAndId> findIdsByMajor(
+      EntityManager entityManager,
+      Class<T> type,
+      String idAttribute,
+      Function<Root<T>, Expression<Integer>> majorIdOf,
+      Specification<T> filter,
+      List<Integer> majorIds,
+      MajorAndId after,
+      int limit) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+    Root<T> root = query.from(type);
+    Path<Integer> id = root.get(idAttribute);
+    Expression<Integer> majorId = majorIdOf.apply(root);
+    query.multiselect(majorId, id).distinct(true).orderBy(cb.asc(majorId), cb.asc(id));
+
+    List<Predicate> predicates = new ArrayList<>();
+    predicates.add(majorId.in(majorIds));
+    if (after != null) {
+      predicates.add(
+          cb.or(
+              cb.greaterThan(majorId, after.majorId()),
+              cb.and(cb.equal(majorId, after.majorId()), cb.greaterThan(id, after.id()))));
+    }
+    Predicate predicate = filter.toPredicate(root, query, cb);
+    if (predicate != null) {
+      predicates.add(predicate);
+    }
+    query.where(predicates.toArray(Predicate[]::new));
+
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList().stream()
+        .map(row -> new MajorAndId((Integer) row[0], (Integer) row[1]))
+        .toList();
+  }
+
+  private static <T> CriteriaQuery<Integer> idQuery(
+      EntityManager entityManager, Class<T> type, Specification<T> filter) {
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+    Root<T> root = query.from(type);
+    query.select(root.get("id"));
+    Predicate predicate = filter.toPredicate(root, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    return query;
+  }
+}
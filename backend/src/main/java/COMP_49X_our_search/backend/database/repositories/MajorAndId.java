@@ -0,0 +1,15 @@
+/**
+ * An entity listed under a major, as read by the keyset queries of the
+ * paginated hierarchy (see IdQueries and HierarchyPaginator). Also used as
+ * the position to read after, which is why it orders by major id and then
+ * entity id.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import java.util.Comparator;
+
+public record MajorAndId(int majorId, int id) {
+
+  public static final Comparator<MajorAndId> ORDER =
+      Comparator.comparingInt(MajorAndId::majorId).thenComparingInt(MajorAndId::id);
+}
@@ -19,4 +19,6 @@ public interface MajorRepository extends JpaRepository<Major, Integer> {
   Optional<Major> findMajorByName(String name);
   @Query("SELECT m FROM Major m WHERE m.disciplines IS EMPTY")
   List<Major> findAllMajorsWithoutDisciplines();
+  @Query("SELECT DISTINCT m FROM Major m JOIN FETCH m.disciplines ORDER BY m.id")
+  List<Major> findAllWithDisciplines();
 }
@@ -0,0 +1,16 @@
+/**
+ * Fragment of ProjectRepository selecting only project ids, see IdQueries.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import COMP_49X_our_search.backend.database.entities.Project;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProjectIdQueries {
+  List<Integer> findIds(Specification<Project> filter);
+
+  /** See IdQueries.findIdsByMajor, a project being listed under each of its majors. */
+  List<MajorAndId> findIdsByMajor(
+      Specification<Project> filter, List<Integer> majorIds, MajorAndId after, int limit);
+}
@@ -0,0 +1,35 @@
+/**
+ * Implementation of the ProjectIdQueries fragment, picked up by Spring Data
+ * through the Impl suffix.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import COMP_49X_our_search.backend.database.entities.Project;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public class ProjectIdQueriesImpl implements ProjectIdQueries {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<Integer> findIds(Specification<Project> filter) {
+    return IdQueries.findIds(entityManager, Project.class, filter);
+  }
+
+  @Override
+  public List<MajorAndId> findIdsByMajor(
+      Specification<Project> filter, List<Integer> majorIds, MajorAndId after, int limit) {
+    return IdQueries.findIdsByMajor(
+        entityManager,
+        Project.class,
+        "id",
+        project -> project.join("majors").<Integer>get("id"),
+        filter,
+        majorIds,
+        after,
+        limit);
+  }
+}
@@ -12,11 +12,15 @@ import COMP_49X_our_search.backend.database.entities.Project;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
-public interface ProjectRepository extends JpaRepository<Project, Integer> {
+public interface ProjectRepository
+    extends JpaRepository<Project, Integer>,
+        JpaSpecificationExecutor<Project>,
+        ProjectIdQueries {
   List<Project> findAllByDisciplines_Id(Integer disciplineId);
   List<Project> findAllByMajors_Id(Integer majorId);
   List<Project> findAllByFaculty_Id(Integer facultyId);
@@ -24,4 +28,26 @@ public interface ProjectRepository extends JpaRepository<Project, Integer> {
   void deleteByFaculty_Id(int facultyId);
   @Query("SELECT p FROM Project p WHERE p.createdAt >= :createdAfter")
   List<Project> findProjectsCreatedAfter(@Param("createdAfter") LocalDateTime createdAfter);
+
+  // The queries below load every project together with the associations
+  // needed to build a ProjectProto. Each collection is fetched by its own
+  // query (instead of joining all of them at once) to avoid a cartesian
+  // product; within one persistence context the results are merged into the
+  // same Project instances.
+  @Query(
+      "SELECT DISTINCT p FROM Project p LEFT JOIN FETCH p.faculty"
+          + " LEFT JOIN FETCH p.majors ORDER BY p.id")
+  List<Project> findAllWithFacultyAndMajors();
+  @Query(
+      "SELECT DISTINCT p FROM Project p LEFT JOIN FETCH p.faculty"
+          + " LEFT JOIN FETCH p.majors WHERE p IN :projects")
+  List<Project> fetchFacultyAndMajors(@Param("projects") List<Project> projects);
+  @Query("SELECT DISTINCT p FROM Project p LEFT JOIN FETCH p.umbrellaTopics WHERE p IN :projects")
+  List<Project> fetchUmbrellaTopics(@Param("projects") List<Project> projects);
+  @Query("SELECT DISTINCT p FROM Project p LEFT JOIN FETCH p.researchPeriods WHERE p IN :projects")
+  List<Project> fetchResearchPeriods(@Param("projects") List<Project> projects);
+  @Query(
+      "SELECT DISTINCT p FROM Project p LEFT JOIN FETCH p.faculty f"
+          + " LEFT JOIN FETCH f.departments WHERE p IN :projects")
+  List<Project> fetchFacultyDepartments(@Param("projects") List<Project> projects);
 }
@@ -0,0 +1,28 @@
+/**
+ * Repository interface for the filter values of the "project_search_rows"
+ * projection, see ProjectSearchFilter and ProjectSearchProjectionService.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import COMP_49X_our_search.backend.database.entities.ProjectSearchFilter;
+import COMP_49X_our_search.backend.database.enums.ProjectFilterDimension;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProjectSearchFilterRepository extends JpaRepository<ProjectSearchFilter, Integer> {
+  @Query(
+      "SELECT f.projectId FROM ProjectSearchFilter f"
+          + " WHERE f.dimension = :dimension AND f.valueId = :valueId")
+  List<Integer> findProjectIds(
+      @Param("dimension") ProjectFilterDimension dimension, @Param("valueId") int valueId);
+  @Modifying
+  @Query("DELETE FROM ProjectSearchFilter f WHERE f.projectId IN :projectIds")
+  void deleteByProjectIdIn(@Param("projectIds") Collection<Integer> projectIds);
+  @Modifying
+  @Query("DELETE FROM ProjectSearchFilter f")
+  void deleteAllFilters();
+}
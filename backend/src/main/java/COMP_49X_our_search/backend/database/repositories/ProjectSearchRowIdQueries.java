@@ -0,0 +1,19 @@
+/**
+ * Fragment of ProjectSearchRowRepository selecting only project ids, see
+ * IdQueries.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import COMP_49X_our_search.backend.database.entities.ProjectSearchRow;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProjectSearchRowIdQueries {
+
+  /** See IdQueries.findIdsByMajor, a project having one row per major. */
+  List<MajorAndId> findProjectIdsByMajor(
+      Specification<ProjectSearchRow> filter,
+      List<Integer> majorIds,
+      MajorAndId after,
+      int limit);
+}
@@ -0,0 +1,33 @@
+/**
+ * Implementation of the ProjectSearchRowIdQueries fragment, picked up by
+ * Spring Data through the Impl suffix.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import COMP_49X_our_search.backend.database.entities.ProjectSearchRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public class ProjectSearchRowIdQueriesImpl implements ProjectSearchRowIdQueries {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<MajorAndId> findProjectIdsByMajor(
+      Specification<ProjectSearchRow> filter,
+      List<Integer> majorIds,
+      MajorAndId after,
+      int limit) {
+    return IdQueries.findIdsByMajor(
+        entityManager,
+        ProjectSearchRow.class,
+        "projectId",
+        row -> row.<Integer>get("majorId"),
+        filter,
+        majorIds,
+        after,
+        limit);
+  }
+}
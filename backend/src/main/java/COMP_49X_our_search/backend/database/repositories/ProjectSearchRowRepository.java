@@ -0,0 +1,30 @@
+/**
+ * Repository interface for the rows of the "project_search_rows" projection,
+ * see ProjectSearchRow and ProjectSearchProjectionService.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import COMP_49X_our_search.backend.database.entities.ProjectSearchRow;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProjectSearchRowRepository
+    extends JpaRepository<ProjectSearchRow, Integer>,
+        JpaSpecificationExecutor<ProjectSearchRow>,
+        ProjectSearchRowIdQueries {
+  @Query("SELECT DISTINCT r.projectId FROM ProjectSearchRow r WHERE r.majorId = :majorId")
+  List<Integer> findProjectIdsByMajorId(@Param("majorId") int majorId);
+  @Query("SELECT DISTINCT r.projectId FROM ProjectSearchRow r WHERE r.facultyId IN :facultyIds")
+  List<Integer> findProjectIdsByFacultyIdIn(@Param("facultyIds") Collection<Integer> facultyIds);
+  @Modifying
+  @Query("DELETE FROM ProjectSearchRow r WHERE r.projectId IN :projectIds")
+  void deleteByProjectIdIn(@Param("projectIds") Collection<Integer> projectIds);
+  @Modifying
+  @Query("DELETE FROM ProjectSearchRow r")
+  void deleteAllRows();
+}
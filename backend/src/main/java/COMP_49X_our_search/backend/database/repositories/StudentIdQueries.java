@@ -0,0 +1,19 @@
+/**
+ * Fragment of StudentRepository selecting only student ids, see IdQueries.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import COMP_49X_our_search.backend.database.entities.Student;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface StudentIdQueries {
+  List<Integer> findIds(Specification<Student> filter);
+
+  /**
+   * See IdQueries.findIdsByMajor, a student being listed under each of their
+   * majors and research field interests.
+   */
+  List<MajorAndId> findIdsByMajor(
+      Specification<Student> filter, List<Integer> majorIds, MajorAndId after, int limit);
+}
@@ -0,0 +1,42 @@
+/**
+ * Implementation of the StudentIdQueries fragment, picked up by Spring Data
+ * through the Impl suffix.
+ */
+package COMP_49X_our_search.backend.database.repositories;
+
+import COMP_49X_our_search.backend.database.entities.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+public class StudentIdQueriesImpl implements StudentIdQueries {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<Integer> findIds(Specification<Student> filter) {
+    return IdQueries.findIds(entityManager, Student.class, filter);
+  }
+
+  @Override
+  public List<MajorAndId> findIdsByMajor(
+      Specification<Student> filter, List<Integer> majorIds, MajorAndId after, int limit) {
+    // One query per collection, JPA having no UNION, merged back in order.
+    List<MajorAndId> ids = new ArrayList<>();
+    for (String collection : List.of("majors", "researchFieldInterests")) {
+      ids.addAll(
+          IdQueries.findIdsByMajor(
+              entityManager,
+              Student.class,
+              "id",
+              student -> student.join(collection).<Integer>get("id"),
+              filter,
+              majorIds,
+              after,
+              limit));
+    }
+    return ids.stream().distinct().sorted(MajorAndId.ORDER).limit(limit).toList();
+  }
+}
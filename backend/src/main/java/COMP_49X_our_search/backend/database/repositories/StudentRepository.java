@@ -12,11 +12,29 @@ import COMP_49X_our_search.backend.database.entities.Student;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface StudentRepository extends JpaRepository<Student, Integer> {
+public interface StudentRepository
+    extends JpaRepository<Student, Integer>,
+        JpaSpecificationExecutor<Student>,
+        StudentIdQueries {
   List<Student> findAllByMajors_Id(Integer majorId);
   List<Student> findAllByResearchFieldInterests_Id(Integer researchFieldInterestId);
   boolean existsByEmail(String email);
   Optional<Student> findStudentByEmail(String email);
   void deleteByEmail(String email);
+
+  // The queries below load the associations needed to group the given
+  // students by major and build a StudentProto. As with the project queries,
+  // each collection is fetched by its own query to avoid a cartesian product.
+  @Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.majors WHERE s IN :students")
+  List<Student> fetchMajors(@Param("students") List<Student> students);
+  @Query(
+      "SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.researchFieldInterests"
+          + " WHERE s IN :students")
+  List<Student> fetchResearchFieldInterests(@Param("students") List<Student> students);
+  @Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.researchPeriods WHERE s IN :students")
+  List<Student> fetchResearchPeriods(@Param("students") List<Student> students);
 }
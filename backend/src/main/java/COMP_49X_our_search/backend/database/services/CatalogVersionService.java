@@ -0,0 +1,44 @@
+/**
+ * Service class that keeps a global version number for the catalog data
+ * (disciplines, majors, projects, faculty, students, departments, research
+ * periods and umbrella topics).
+ *
+ * Every write path in the database services bumps the version, so any data
+ * derived from the catalog (e.g. cached fetcher responses) can be considered
+ * stale as soon as the version it was computed at is no longer current.
+ *
+ * The fingerprint combines the version with an id of this server instance,
+ * since the version starts over at 0 every time the server starts. It is used
+ * to build HTTP ETags for the catalog endpoints.
+ *
+ * When a write happens inside a transaction, the bump is deferred until the
+ * transaction commits. Otherwise a concurrent reader could recompute and cache
+ * the old data under the new version before the write becomes visible.
+ *
+ * This service is annotated with @Service to indicate that it's managed by
+ * Spring.
+ */
+package COMP_49X_our_search.backend.database.services;
+
+import COMP_49X_our_search.backend.util.AfterCommit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CatalogVersionService {
+
+  private final AtomicLong version = new AtomicLong();
+  private final String instanceId = Long.toHexString(System.currentTimeMillis());
+
+  public long getVersion() {
+    return version.get();
+  }
+
+  public String getFingerprint() {
+    return instanceId + "-" + getVersion();
+  }
+
+  public void bump() {
+    AfterCommit.run(version::incrementAndGet);
+  }
+}
@@ -25,11 +25,19 @@ public class DepartmentService {
 
   private final DepartmentRepository departmentRepository;
   private final FacultyService facultyService;
+  private final CatalogVersionService catalogVersionService;
+  private final ProjectSearchProjectionService projectSearchProjectionService;
 
   @Autowired
-  public DepartmentService(DepartmentRepository departmentRepository, FacultyService facultyService) {
+  public DepartmentService(
+      DepartmentRepository departmentRepository,
+      FacultyService facultyService,
+      CatalogVersionService catalogVersionService,
+      ProjectSearchProjectionService projectSearchProjectionService) {
     this.departmentRepository = departmentRepository;
     this.facultyService = facultyService;
+    this.catalogVersionService = catalogVersionService;
+    this.projectSearchProjectionService = projectSearchProjectionService;
   }
 
   public List<Department> getAllDepartments() {
@@ -55,14 +63,19 @@ public class DepartmentService {
         });
 
     departmentRepository.deleteById(id);
+    catalogVersionService.bump();
   }
 
   public Department getDepartmentById(int id) {
     return departmentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
 }
+  @Transactional
   public Department saveDepartment(Department department) {
-  return departmentRepository.save(department);
-}
+    Department savedDepartment = departmentRepository.save(department);
+    projectSearchProjectionService.refreshProjectsOfDepartment(savedDepartment.getId());
+    catalogVersionService.bump();
+    return savedDepartment;
+  }
 
 }
@@ -24,10 +24,13 @@ import org.springframework.transaction.annotation.Transactional;
 public class DisciplineService {
 
   private final DisciplineRepository disciplineRepository;
+  private final CatalogVersionService catalogVersionService;
 
   @Autowired
-  public DisciplineService(DisciplineRepository disciplineRepository) {
+  public DisciplineService(
+      DisciplineRepository disciplineRepository, CatalogVersionService catalogVersionService) {
     this.disciplineRepository = disciplineRepository;
+    this.catalogVersionService = catalogVersionService;
   }
 
   @PostConstruct
@@ -46,7 +49,9 @@ public class DisciplineService {
             () -> {
               Discipline otherDiscipline = new Discipline();
               otherDiscipline.setName(Constants.DISCIPLINE_OTHER);
-              return disciplineRepository.save(otherDiscipline);
+              Discipline savedDiscipline = disciplineRepository.save(otherDiscipline);
+              catalogVersionService.bump();
+              return savedDiscipline;
             });
   }
 
@@ -99,6 +104,7 @@ public class DisciplineService {
     discipline.getStudents().clear();
 
     disciplineRepository.delete(discipline);
+    catalogVersionService.bump();
   }
 
   public Discipline getDisciplineById(int id) {
@@ -119,7 +125,9 @@ public class DisciplineService {
           "Creating a discipline with name 'Other' is not allowed.");
     }
 
-    return disciplineRepository.save(discipline);
+    Discipline savedDiscipline = disciplineRepository.save(discipline);
+    catalogVersionService.bump();
+    return savedDiscipline;
   }
 
   @Transactional
@@ -131,6 +139,8 @@ public class DisciplineService {
     }
 
     existingDiscipline.setName(newName);
-    return disciplineRepository.save(existingDiscipline);
+    Discipline editedDiscipline = disciplineRepository.save(existingDiscipline);
+    catalogVersionService.bump();
+    return editedDiscipline;
   }
 }
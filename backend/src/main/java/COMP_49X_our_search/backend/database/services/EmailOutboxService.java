@@ -0,0 +1,183 @@
+/**
+ * Service class for the email outbox, a table of emails waiting to be sent.
+ *
+ * Emails are enqueued with an idempotency key, and enqueuing a key that is
+ * already in the outbox does nothing, so a notification run can be repeated
+ * (e.g. after a restart) without queuing its emails twice. Purging old sent
+ * emails only clears their content, so their keys are never forgotten.
+ *
+ * A drainer claims due emails, which moves them to SENDING, sends them and
+ * then reports back with markSent, retryLater or markFailed. A claim expires
+ * after the given lease, so the emails of a drainer that died mid-send are
+ * claimed again. This makes delivery at-least-once: an email that was sent
+ * just before the drainer died is sent a second time.
+ */
+package COMP_49X_our_search.backend.database.services;
+
+import COMP_49X_our_search.backend.database.entities.EmailOutboxMessage;
+import COMP_49X_our_search.backend.database.enums.EmailOutboxStatus;
+import COMP_49X_our_search.backend.database.repositories.EmailOutboxRepository;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class EmailOutboxService {
+
+  // Same as ProjectStudentMatchesService: IDENTITY ids keep Hibernate from
+  // batching inserts, so they go through JDBC directly.
+  private static final int INSERT_BATCH_SIZE = 500;
+  // Keys looked up per query when checking for emails already enqueued.
+  private static final int KEY_LOOKUP_CHUNK_SIZE = 1000;
+  private static final String INSERT_SQL =
+      "INSERT INTO email_outbox (idempotency_key, run_name, recipient, subject, body,"
+          + " content_type, substitutions, status, attempts, created_at, available_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+  private final EmailOutboxRepository emailOutboxRepository;
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  public EmailOutboxService(
+      EmailOutboxRepository emailOutboxRepository, JdbcTemplate jdbcTemplate) {
+    this.emailOutboxRepository = emailOutboxRepository;
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Adds the given emails to the outbox, skipping the ones whose idempotency
+   * key is already there. Returns the number of emails added.
+   */
+  @Transactional
+  public int enqueue(List<EmailOutboxMessage> messages) {
+    Set<String> seen = new HashSet<>();
+    List<String> keys = messages.stream().map(EmailOutboxMessage::getIdempotencyKey).toList();
+    for (int start = 0; start < keys.size(); start += KEY_LOOKUP_CHUNK_SIZE) {
+      seen.addAll(
+          emailOutboxRepository.findExistingIdempotencyKeys(
+              keys.subList(start, Math.min(keys.size(), start + KEY_LOOKUP_CHUNK_SIZE))));
+    }
+    List<EmailOutboxMessage> newMessages = new ArrayList<>();
+    for (EmailOutboxMessage message : messages) {
+      if (seen.add(message.getIdempotencyKey())) {
+        newMessages.add(message);
+      }
+    }
+
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(
+        INSERT_SQL,
+        newMessages,
+        INSERT_BATCH_SIZE,
+        (statement, message) -> {
+          statement.setString(1, message.getIdempotencyKey());
+          statement.setString(2, message.getRunName());
+          statement.setString(3, message.getRecipient());
+          statement.setString(4, message.getSubject());
+          statement.setString(5, message.getBody());
+          statement.setString(6, message.getContentType());
+          statement.setString(7, message.getSubstitutions());
+          statement.setString(8, EmailOutboxStatus.PENDING.name());
+          statement.setTimestamp(9, now);
+          statement.setTimestamp(10, now);
+        });
+    return newMessages.size();
+  }
+
+  /**
+   * Claims up to limit emails that are due, oldest first, counting an attempt
+   * for each of them. A claim that wasn't reported back within the lease
+   * expires.
+   */
+  @Transactional
+  public List<EmailOutboxMessage> claim(int limit, Duration lease) {
+    LocalDateTime now = LocalDateTime.now();
+    List<EmailOutboxMessage> claimed =
+        emailOutboxRepository.findClaimable(
+            EmailOutboxStatus.PENDING,
+            now,
+            EmailOutboxStatus.SENDING,
+            now.minus(lease),
+            PageRequest.of(0, limit));
+    for (EmailOutboxMessage message : claimed) {
+      message.setStatus(EmailOutboxStatus.SENDING);
+      message.setClaimedAt(now);
+      message.setAttempts(message.getAttempts() + 1);
+    }
+    return claimed;
+  }
+
+  @Transactional
+  public void markSent(Collection<Long> ids) {
+    if (!ids.isEmpty()) {
+      emailOutboxRepository.markSent(ids, EmailOutboxStatus.SENT, LocalDateTime.now());
+    }
+  }
+
+  /** Puts the emails back in the queue, to be claimed again at availableAt. */
+  @Transactional
+  public void retryLater(Collection<Long> ids, LocalDateTime availableAt, String error) {
+    if (!ids.isEmpty()) {
+      emailOutboxRepository.markUnsent(ids, EmailOutboxStatus.PENDING, availableAt, error);
+    }
+  }
+
+  @Transactional
+  public void markFailed(Collection<Long> ids, String error) {
+    if (!ids.isEmpty()) {
+      emailOutboxRepository.markUnsent(
+          ids, EmailOutboxStatus.FAILED, LocalDateTime.now(), error);
+    }
+  }
+
+  /**
+   * Clears the content of the emails sent before the given time, keeping
+   * their rows and idempotency keys. Returns how many were purged.
+   */
+  @Transactional
+  public int purgeSentBefore(LocalDateTime sentBefore) {
+    return emailOutboxRepository.purgeByStatusAndSentAtBefore(
+        EmailOutboxStatus.SENT, sentBefore, LocalDateTime.now());
+  }
+
+  public Stats getStats() {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime oldestUnsent =
+        emailOutboxRepository.findOldestCreatedAt(
+            List.of(EmailOutboxStatus.PENDING, EmailOutboxStatus.SENDING));
+    return new Stats(
+        emailOutboxRepository.countByStatus(EmailOutboxStatus.PENDING),
+        emailOutboxRepository.countByStatus(EmailOutboxStatus.SENDING),
+        emailOutboxRepository.countByStatus(EmailOutboxStatus.SENT),
+        emailOutboxRepository.countByStatus(EmailOutboxStatus.FAILED),
+        emailOutboxRepository.countByStatusAndSentAtAfter(
+            EmailOutboxStatus.SENT, now.minusMinutes(1)),
+        emailOutboxRepository.countByStatusAndSentAtAfter(
+            EmailOutboxStatus.SENT, now.minusHours(1)),
+        oldestUnsent == null ? 0 : Duration.between(oldestUnsent, now).toSeconds());
+  }
+
+  /**
+   * Counts of the outbox by status, plus throughput (emails sent in the last
+   * minute and hour) and lag (age of the oldest email not sent yet, 0 if
+   * there is none).
+   */
+  public record Stats(
+      long pending,
+      long sending,
+      long sent,
+      long failed,
+      long sentLastMinute,
+      long sentLastHour,
+      long oldestUnsentAgeSeconds) {}
+}
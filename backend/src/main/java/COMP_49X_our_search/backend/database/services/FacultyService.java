@@ -12,24 +12,38 @@ import COMP_49X_our_search.backend.database.entities.Faculty;
 import COMP_49X_our_search.backend.database.repositories.FacultyRepository;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class FacultyService {
 
   private final FacultyRepository facultyRepository;
+  private final CatalogVersionService catalogVersionService;
+  private final ProjectSearchProjectionService projectSearchProjectionService;
 
   @Autowired
-  public FacultyService(FacultyRepository facultyRepository) {
+  public FacultyService(
+      FacultyRepository facultyRepository,
+      CatalogVersionService catalogVersionService,
+      ProjectSearchProjectionService projectSearchProjectionService) {
     this.facultyRepository = facultyRepository;
+    this.catalogVersionService = catalogVersionService;
+    this.projectSearchProjectionService = projectSearchProjectionService;
   }
 
   public boolean existsByEmail(String email) {
     return facultyRepository.existsByEmail(email);
   }
 
+  @Transactional
   public Faculty saveFaculty(Faculty faculty) {
-    return facultyRepository.save(faculty);
+    Faculty savedFaculty = facultyRepository.save(faculty);
+    projectSearchProjectionService.refreshProjectsOfFaculty(savedFaculty.getId());
+    catalogVersionService.bump();
+    return savedFaculty;
   }
 
   public Faculty getFacultyByEmail(String email) {
@@ -44,6 +58,7 @@ public class FacultyService {
           String.format("Cannot delete faculty with email '%s'. Faculty not found.", email));
     }
     facultyRepository.deleteByEmail(email);
+    catalogVersionService.bump();
   }
 
   public List<Faculty> getFacultyByDepartmentId(Integer departmentId) {
@@ -59,4 +74,17 @@ public class FacultyService {
   public List<Faculty> getAllFaculty() {
     return facultyRepository.findAll();
   }
+
+  /**
+   * Returns the faculty members matching the given specification with their
+   * departments already loaded, in two queries.
+   */
+  @Transactional(readOnly = true)
+  public List<Faculty> getFacultyWithDepartments(Specification<Faculty> filter) {
+    List<Faculty> faculty = facultyRepository.findAll(filter, Sort.by("id"));
+    if (!faculty.isEmpty()) {
+      facultyRepository.fetchDepartments(faculty);
+    }
+    return faculty;
+  }
 }
@@ -12,6 +12,7 @@ import COMP_49X_our_search.backend.database.entities.Discipline;
 import COMP_49X_our_search.backend.database.entities.Major;
 import COMP_49X_our_search.backend.database.repositories.MajorRepository;
 
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import COMP_49X_our_search.backend.util.Constants;
 import COMP_49X_our_search.backend.util.exceptions.ForbiddenMajorActionException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -36,6 +37,9 @@ public class MajorService {
 
   private final MajorRepository majorRepository;
   private final DisciplineService disciplineService;
+  private final CatalogVersionService catalogVersionService;
+  private final SuggestionIndex suggestionIndex;
+  private final ProjectSearchProjectionService projectSearchProjectionService;
 
   @Value("${PREPOPULATE_MAJORS:false}")
   private boolean prepopulateMajors;
@@ -44,9 +48,17 @@ public class MajorService {
   private Resource defaultMajorsResource;
 
   @Autowired
-  public MajorService(MajorRepository majorRepository, DisciplineService disciplineService) {
+  public MajorService(
+      MajorRepository majorRepository,
+      DisciplineService disciplineService,
+      CatalogVersionService catalogVersionService,
+      SuggestionIndex suggestionIndex,
+      ProjectSearchProjectionService projectSearchProjectionService) {
     this.majorRepository = majorRepository;
     this.disciplineService = disciplineService;
+    this.catalogVersionService = catalogVersionService;
+    this.suggestionIndex = suggestionIndex;
+    this.projectSearchProjectionService = projectSearchProjectionService;
   }
 
   @PostConstruct
@@ -60,6 +72,7 @@ public class MajorService {
       undeclaredMajor.setDisciplines(disciplines);
 
       majorRepository.save(undeclaredMajor);
+      catalogVersionService.bump();
     }
   }
 
@@ -91,6 +104,7 @@ public class MajorService {
 
       if (!missingMajors.isEmpty()) {
         majorRepository.saveAll(missingMajors);
+        catalogVersionService.bump();
         System.out.println("Added missing majors: " + missingMajors);
       } else {
         System.out.println("All majors already exist. No new majors added on startup.");
@@ -112,7 +126,9 @@ public class MajorService {
               disciplines.add(otherDiscipline);
               undeclaredMajor.setDisciplines(disciplines);
 
-              return majorRepository.save(undeclaredMajor);
+              Major savedMajor = majorRepository.save(undeclaredMajor);
+              catalogVersionService.bump();
+              return savedMajor;
             });
   }
 
@@ -124,6 +140,14 @@ public class MajorService {
     return majorRepository.findAllByDisciplines_Id(disciplineId);
   }
 
+  /**
+   * Returns every major that belongs to at least one discipline, with its
+   * disciplines already loaded, in a single query.
+   */
+  public List<Major> getAllMajorsWithDisciplines() {
+    return majorRepository.findAllWithDisciplines();
+  }
+
   public Optional<Major> getMajorByName(String name) {
     return majorRepository.findMajorByName(name);
   }
@@ -166,7 +190,10 @@ public class MajorService {
 
     major.setDisciplines(disciplines);
 
-    return majorRepository.save(major);
+    Major savedMajor = majorRepository.save(major);
+    catalogVersionService.bump();
+    suggestionIndex.putMajor(savedMajor);
+    return savedMajor;
   }
 
   @Transactional
@@ -191,7 +218,11 @@ public class MajorService {
     }
 
     major.setDisciplines(disciplines);
-    return majorRepository.save(major);
+    Major editedMajor = majorRepository.save(major);
+    projectSearchProjectionService.refreshProjectsOfMajor(id);
+    catalogVersionService.bump();
+    suggestionIndex.putMajor(editedMajor);
+    return editedMajor;
   }
 
   @Transactional
@@ -217,6 +248,8 @@ public class MajorService {
     }
 
     majorRepository.delete(major);
+    catalogVersionService.bump();
+    suggestionIndex.removeMajor(id);
   }
 
   public List<Major> getMajorsWithoutDisciplines() {
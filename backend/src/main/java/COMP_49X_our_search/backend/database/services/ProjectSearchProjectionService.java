@@ -0,0 +1,310 @@
+/**
+ * Service class maintaining the "project_search_rows" projection: one row
+ * per project and major with the names and faculty fields the projects
+ * browse page needs already joined in (see ProjectSearchRow), plus the
+ * "project_search_filters" table the rows are filtered with (see
+ * ProjectSearchFilter).
+ * With it, ProjectFetcher reads the page with a single scan of one table
+ * instead of joining projects with its majors, research periods, umbrella
+ * topics, faculty and departments on every request.
+ *
+ * The projection is only used when fetcher.project-projection.enabled is
+ * true. It is then rebuilt once the application started, and every write
+ * path of the services that changes what a row holds refreshes the rows of
+ * the affected projects in the same transaction as the write. Writes made
+ * with the repositories directly are not seen until the next restart.
+ *
+ * This service is annotated with @Service to indicate that it's managed by
+ * Spring.
+ */
+package COMP_49X_our_search.backend.database.services;
+
+import COMP_49X_our_search.backend.database.entities.Department;
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ProjectSearchFilter;
+import COMP_49X_our_search.backend.database.entities.ProjectSearchRow;
+import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.enums.ProjectFilterDimension;
+import COMP_49X_our_search.backend.database.repositories.FacultyRepository;
+import COMP_49X_our_search.backend.database.repositories.MajorAndId;
+import COMP_49X_our_search.backend.database.repositories.ProjectRepository;
+import COMP_49X_our_search.backend.database.repositories.ProjectSearchFilterRepository;
+import COMP_49X_our_search.backend.database.repositories.ProjectSearchRowRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ProjectSearchProjectionService implements CommandLineRunner {
+
+  private final ProjectSearchRowRepository projectSearchRowRepository;
+  private final ProjectSearchFilterRepository projectSearchFilterRepository;
+  private final ProjectRepository projectRepository;
+  private final FacultyRepository facultyRepository;
+  private final boolean enabled;
+
+  @Autowired
+  public ProjectSearchProjectionService(
+      ProjectSearchRowRepository projectSearchRowRepository,
+      ProjectSearchFilterRepository projectSearchFilterRepository,
+      ProjectRepository projectRepository,
+      FacultyRepository facultyRepository,
+      @Value("${fetcher.project-projection.enabled:false}") boolean enabled) {
+    this.projectSearchRowRepository = projectSearchRowRepository;
+    this.projectSearchFilterRepository = projectSearchFilterRepository;
+    this.projectRepository = projectRepository;
+    this.facultyRepository = facultyRepository;
+    this.enabled = enabled;
+  }
+
+  // Runs once the schema is in place. Rebuilding on every start also picks up
+  // anything written while the projection was disabled.
+  @Override
+  @Transactional
+  public void run(String... args) {
+    if (!enabled) {
+      return;
+    }
+    rebuild();
+    System.out.println(
+        "Built project search projection with "
+            + projectSearchRowRepository.count()
+            + " rows");
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the rows matching the given specification, ordered by major and
+   * then project id.
+   */
+  @Transactional(readOnly = true)
+  public List<ProjectSearchRow> getRows(Specification<ProjectSearchRow> filter) {
+    return projectSearchRowRepository.findAll(filter, Sort.by("majorId", "projectId"));
+  }
+
+  /**
+   * Returns at most limit (major id, project id) pairs of the rows matching
+   * the given specification and of one of the given majors, in order, after
+   * the given position (see IdQueries).
+   */
+  public List<MajorAndId> getProjectIdsByMajor(
+      Specification<ProjectSearchRow> filter,
+      List<Integer> majorIds,
+      MajorAndId after,
+      int limit) {
+    return projectSearchRowRepository.findProjectIdsByMajor(filter, majorIds, after, limit);
+  }
+
+  @Transactional
+  public void refreshProject(int projectId) {
+    refreshProjects(List.of(projectId));
+  }
+
+  @Transactional
+  public void removeProject(int projectId) {
+    if (enabled) {
+      deleteProjects(List.of(projectId));
+    }
+  }
+
+  @Transactional
+  public void removeProjectsOfFaculty(int facultyId) {
+    if (enabled) {
+      deleteProjects(projectSearchRowRepository.findProjectIdsByFacultyIdIn(List.of(facultyId)));
+    }
+  }
+
+  /** For when a faculty member's name, email or departments changed. */
+  @Transactional
+  public void refreshProjectsOfFaculty(int facultyId) {
+    if (enabled) {
+      refreshProjects(projectSearchRowRepository.findProjectIdsByFacultyIdIn(List.of(facultyId)));
+    }
+  }
+
+  /** For when a department was renamed. */
+  @Transactional
+  public void refreshProjectsOfDepartment(int departmentId) {
+    if (!enabled) {
+      return;
+    }
+    List<Integer> facultyIds =
+        facultyRepository.findAllByDepartments_Id(departmentId).stream()
+            .map(Faculty::getId)
+            .toList();
+    if (!facultyIds.isEmpty()) {
+      refreshProjects(projectSearchRowRepository.findProjectIdsByFacultyIdIn(facultyIds));
+    }
+  }
+
+  /** For when a major was renamed. */
+  @Transactional
+  public void refreshProjectsOfMajor(int majorId) {
+    if (enabled) {
+      refreshProjects(projectSearchRowRepository.findProjectIdsByMajorId(majorId));
+    }
+  }
+
+  /** For when a research period was renamed. */
+  @Transactional
+  public void refreshProjectsOfResearchPeriod(int researchPeriodId) {
+    if (enabled) {
+      refreshProjects(
+          projectSearchFilterRepository.findProjectIds(
+              ProjectFilterDimension.RESEARCH_PERIOD, researchPeriodId));
+    }
+  }
+
+  /** For when an umbrella topic was renamed. */
+  @Transactional
+  public void refreshProjectsOfUmbrellaTopic(int umbrellaTopicId) {
+    if (enabled) {
+      refreshProjects(
+          projectSearchFilterRepository.findProjectIds(
+              ProjectFilterDimension.UMBRELLA_TOPIC, umbrellaTopicId));
+    }
+  }
+
+  /** Drops every row and rebuilds the projection from the projects. */
+  @Transactional
+  public void rebuild() {
+    if (!enabled) {
+      return;
+    }
+    projectSearchRowRepository.deleteAllRows();
+    projectSearchFilterRepository.deleteAllFilters();
+    List<Project> projects = projectRepository.findAllWithFacultyAndMajors();
+    if (projects.isEmpty()) {
+      return;
+    }
+    fetchAssociations(projects);
+    save(projects);
+  }
+
+  // Replaces the rows of the given projects, leaving out the ones that were
+  // deleted.
+  private void refreshProjects(Collection<Integer> projectIds) {
+    if (!enabled || projectIds.isEmpty()) {
+      return;
+    }
+    deleteProjects(projectIds);
+    List<Project> projects = projectRepository.findAllById(projectIds);
+    if (projects.isEmpty()) {
+      return;
+    }
+    projectRepository.fetchFacultyAndMajors(projects);
+    fetchAssociations(projects);
+    save(projects);
+  }
+
+  private void deleteProjects(Collection<Integer> projectIds) {
+    if (projectIds.isEmpty()) {
+      return;
+    }
+    projectSearchRowRepository.deleteByProjectIdIn(projectIds);
+    projectSearchFilterRepository.deleteByProjectIdIn(projectIds);
+  }
+
+  private void save(List<Project> projects) {
+    projectSearchRowRepository.saveAll(toRows(projects));
+    projectSearchFilterRepository.saveAll(toFilters(projects));
+  }
+
+  private void fetchAssociations(List<Project> projects) {
+    projectRepository.fetchUmbrellaTopics(projects);
+    projectRepository.fetchResearchPeriods(projects);
+    projectRepository.fetchFacultyDepartments(projects);
+  }
+
+  private static List<ProjectSearchRow> toRows(List<Project> projects) {
+    List<ProjectSearchRow> rows = new ArrayList<>();
+    for (Project project : projects) {
+      Faculty faculty = project.getFaculty();
+      String majorNames = ProjectSearchRow.encodeNames(names(project.getMajors(), Major::getName));
+      String researchPeriodNames =
+          ProjectSearchRow.encodeNames(
+              names(project.getResearchPeriods(), ResearchPeriod::getName));
+      String umbrellaTopicNames =
+          ProjectSearchRow.encodeNames(names(project.getUmbrellaTopics(), UmbrellaTopic::getName));
+      String majorIds = ProjectSearchRow.encodeIds(ids(project.getMajors(), Major::getId));
+      String researchPeriodIds =
+          ProjectSearchRow.encodeIds(ids(project.getResearchPeriods(), ResearchPeriod::getId));
+      String umbrellaTopicIds =
+          ProjectSearchRow.encodeIds(ids(project.getUmbrellaTopics(), UmbrellaTopic::getId));
+      String departmentNames =
+          faculty == null
+              ? ""
+              : ProjectSearchRow.encodeNames(
+                  names(faculty.getDepartments(), Department::getName));
+
+      for (Major major : project.getMajors()) {
+        ProjectSearchRow row = new ProjectSearchRow();
+        row.setMajorId(major.getId());
+        row.setProjectId(project.getId());
+        row.setProjectName(project.getName());
+        row.setDescription(project.getDescription());
+        row.setDesiredQualifications(project.getDesiredQualifications());
+        row.setIsActive(project.getIsActive());
+        row.setMajorNames(majorNames);
+        row.setResearchPeriodNames(researchPeriodNames);
+        row.setUmbrellaTopicNames(umbrellaTopicNames);
+        row.setMajorIds(majorIds);
+        row.setResearchPeriodIds(researchPeriodIds);
+        row.setUmbrellaTopicIds(umbrellaTopicIds);
+        if (faculty != null) {
+          row.setFacultyId(faculty.getId());
+          row.setFacultyFirstName(faculty.getFirstName());
+          row.setFacultyLastName(faculty.getLastName());
+          row.setFacultyEmail(faculty.getEmail());
+        }
+        row.setFacultyDepartmentNames(departmentNames);
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+
+  private static List<ProjectSearchFilter> toFilters(List<Project> projects) {
+    List<ProjectSearchFilter> filters = new ArrayList<>();
+    for (Project project : projects) {
+      for (Major major : project.getMajors()) {
+        filters.add(
+            new ProjectSearchFilter(project.getId(), ProjectFilterDimension.MAJOR, major.getId()));
+      }
+      for (ResearchPeriod researchPeriod : project.getResearchPeriods()) {
+        filters.add(
+            new ProjectSearchFilter(
+                project.getId(), ProjectFilterDimension.RESEARCH_PERIOD, researchPeriod.getId()));
+      }
+      for (UmbrellaTopic umbrellaTopic : project.getUmbrellaTopics()) {
+        filters.add(
+            new ProjectSearchFilter(
+                project.getId(), ProjectFilterDimension.UMBRELLA_TOPIC, umbrellaTopic.getId()));
+      }
+    }
+    return filters;
+  }
+
+  private static <T> List<String> names(Set<T> entities, Function<T, String> nameOf) {
+    return entities.stream().map(nameOf).sorted().toList();
+  }
+
+  private static <T> List<Integer> ids(Set<T> entities, Function<T, Integer> idOf) {
+    return entities.stream().map(idOf).toList();
+  }
+}
@@ -9,10 +9,15 @@
 package COMP_49X_our_search.backend.database.services;
 
 import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.repositories.MajorAndId;
 import COMP_49X_our_search.backend.database.repositories.ProjectRepository;
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,10 +25,17 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProjectService {
 
   private final ProjectRepository projectRepository;
+  private final CatalogVersionService catalogVersionService;
+  private final ProjectSearchProjectionService projectSearchProjectionService;
 
   @Autowired
-  public ProjectService(ProjectRepository projectRepository) {
+  public ProjectService(
+      ProjectRepository projectRepository,
+      CatalogVersionService catalogVersionService,
+      ProjectSearchProjectionService projectSearchProjectionService) {
     this.projectRepository = projectRepository;
+    this.catalogVersionService = catalogVersionService;
+    this.projectSearchProjectionService = projectSearchProjectionService;
   }
 
   // TODO(@acescudero): Rename this to getAllProjects for consistency.
@@ -35,6 +47,56 @@ public class ProjectService {
     return projectRepository.findAllByMajors_Id(majorId);
   }
 
+  /**
+   * Returns every project with its majors, umbrella topics, research periods
+   * and faculty (including departments) already loaded, so they can be
+   * converted to protos without any further lazy loading. Uses a fixed number
+   * of queries regardless of how many projects there are.
+   */
+  @Transactional(readOnly = true)
+  public List<Project> getAllProjectsWithAssociations() {
+    List<Project> projects = projectRepository.findAllWithFacultyAndMajors();
+    if (projects.isEmpty()) {
+      return projects;
+    }
+    projectRepository.fetchUmbrellaTopics(projects);
+    projectRepository.fetchResearchPeriods(projects);
+    projectRepository.fetchFacultyDepartments(projects);
+    return projects;
+  }
+
+  /**
+   * Same as getAllProjectsWithAssociations, but only returns the projects
+   * matching the given specification, which is checked by the database.
+   */
+  @Transactional(readOnly = true)
+  public List<Project> getProjectsWithAssociations(Specification<Project> filter) {
+    List<Project> projects = projectRepository.findAll(filter, Sort.by("id"));
+    if (projects.isEmpty()) {
+      return projects;
+    }
+    projectRepository.fetchFacultyAndMajors(projects);
+    projectRepository.fetchUmbrellaTopics(projects);
+    projectRepository.fetchResearchPeriods(projects);
+    projectRepository.fetchFacultyDepartments(projects);
+    return projects;
+  }
+
+  /** Returns only the ids of the projects matching the given specification. */
+  public Set<Integer> getProjectIds(Specification<Project> filter) {
+    return new HashSet<>(projectRepository.findIds(filter));
+  }
+
+  /**
+   * Returns at most limit (major id, project id) pairs of the projects
+   * matching the given specification and listed under one of the given
+   * majors, in order, after the given position (see IdQueries).
+   */
+  public List<MajorAndId> getProjectIdsByMajor(
+      Specification<Project> filter, List<Integer> majorIds, MajorAndId after, int limit) {
+    return projectRepository.findIdsByMajor(filter, majorIds, after, limit);
+  }
+
   public List<Project> getProjectsByFacultyId(int facultyId) {
     return projectRepository.findAllByFaculty_Id(facultyId);
   }
@@ -42,10 +104,16 @@ public class ProjectService {
   @Transactional
   public void deleteByFacultyId(int facultyId) {
     projectRepository.deleteByFaculty_Id(facultyId);
+    projectSearchProjectionService.removeProjectsOfFaculty(facultyId);
+    catalogVersionService.bump();
   }
 
+  @Transactional
   public Project saveProject(Project project) {
-    return projectRepository.save(project);
+    Project savedProject = projectRepository.save(project);
+    projectSearchProjectionService.refreshProject(savedProject.getId());
+    catalogVersionService.bump();
+    return savedProject;
   }
 
   @Transactional
@@ -54,6 +122,8 @@ public class ProjectService {
       throw new RuntimeException("Project not found with id: " + id);
     }
     projectRepository.deleteById(id);
+    projectSearchProjectionService.removeProject(id);
+    catalogVersionService.bump();
   }
 
   public Project getProjectById(int id) {
@@ -2,18 +2,36 @@ package COMP_49X_our_search.backend.database.services;
 
 import COMP_49X_our_search.backend.database.entities.ProjectStudentMatches;
 import COMP_49X_our_search.backend.database.repositories.ProjectStudentMatchesRepository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ProjectStudentMatchesService {
 
+  // Rows sent to the database per JDBC batch by createMatches. The ids are
+  // generated with IDENTITY, which keeps Hibernate from batching inserts, so
+  // the batch goes through JDBC directly.
+  private static final int INSERT_BATCH_SIZE = 500;
+  private static final String INSERT_SQL =
+      "INSERT INTO project_student_matches (project_id, student_id, created_at) VALUES (?, ?, ?)";
+
   private ProjectStudentMatchesRepository projectStudentMatchesRepository;
+  private JdbcTemplate jdbcTemplate;
 
   @Autowired
-  public ProjectStudentMatchesService(ProjectStudentMatchesRepository projectStudentMatchesRepository) {
+  public ProjectStudentMatchesService(
+      ProjectStudentMatchesRepository projectStudentMatchesRepository, JdbcTemplate jdbcTemplate) {
     this.projectStudentMatchesRepository = projectStudentMatchesRepository;
+    this.jdbcTemplate = jdbcTemplate;
   }
 
   public void createMatch(Integer projectId, Integer studentId) {
@@ -29,4 +47,41 @@ public class ProjectStudentMatchesService {
     return projectStudentMatchesRepository.findByProjectId(projectId);
   }
 
+  /**
+   * Stores the given matches with batched inserts, skipping the ones that are
+   * already stored. Returns the number of matches inserted.
+   */
+  @Transactional
+  public int createMatches(List<ProjectStudentMatches> matches) {
+    if (matches.isEmpty()) {
+      return 0;
+    }
+    Set<Integer> projectIds =
+        matches.stream().map(ProjectStudentMatches::getProjectId).collect(Collectors.toSet());
+    // Matches already stored, plus the ones queued for insertion.
+    Set<List<Integer>> seen = new HashSet<>();
+    List<ProjectStudentMatches> storedMatches =
+        projectStudentMatchesRepository.findByProjectIdIn(projectIds);
+    for (ProjectStudentMatches match : storedMatches) {
+      seen.add(List.of(match.getProjectId(), match.getStudentId()));
+    }
+    List<ProjectStudentMatches> newMatches = new ArrayList<>();
+    for (ProjectStudentMatches match : matches) {
+      if (seen.add(List.of(match.getProjectId(), match.getStudentId()))) {
+        newMatches.add(match);
+      }
+    }
+
+    Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(
+        INSERT_SQL,
+        newMatches,
+        INSERT_BATCH_SIZE,
+        (statement, match) -> {
+          statement.setInt(1, match.getProjectId());
+          statement.setInt(2, match.getStudentId());
+          statement.setTimestamp(3, createdAt);
+        });
+    return newMatches.size();
+  }
 }
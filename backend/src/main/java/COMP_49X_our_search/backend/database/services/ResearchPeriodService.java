@@ -24,10 +24,17 @@ import org.springframework.transaction.annotation.Transactional;
 public class ResearchPeriodService {
 
   private final ResearchPeriodRepository researchPeriodRepository;
+  private final CatalogVersionService catalogVersionService;
+  private final ProjectSearchProjectionService projectSearchProjectionService;
 
   @Autowired
-  public ResearchPeriodService(ResearchPeriodRepository ResearchPeriodRepository) {
+  public ResearchPeriodService(
+      ResearchPeriodRepository ResearchPeriodRepository,
+      CatalogVersionService catalogVersionService,
+      ProjectSearchProjectionService projectSearchProjectionService) {
     this.researchPeriodRepository = ResearchPeriodRepository;
+    this.catalogVersionService = catalogVersionService;
+    this.projectSearchProjectionService = projectSearchProjectionService;
   }
 
   public Optional<ResearchPeriod> getResearchPeriodByName(String name) {
@@ -44,8 +51,12 @@ public class ResearchPeriodService {
       .orElseThrow(() -> new RuntimeException("Research period not found with id: " + id));
   }
 
+  @Transactional
   public ResearchPeriod saveResearchPeriod(ResearchPeriod researchPeriod) {
-    return researchPeriodRepository.save(researchPeriod);
+    ResearchPeriod savedResearchPeriod = researchPeriodRepository.save(researchPeriod);
+    projectSearchProjectionService.refreshProjectsOfResearchPeriod(savedResearchPeriod.getId());
+    catalogVersionService.bump();
+    return savedResearchPeriod;
   }
 
   @Transactional
@@ -64,6 +75,7 @@ public class ResearchPeriodService {
     }
 
     researchPeriodRepository.delete(researchPeriod);
+    catalogVersionService.bump();
   }
 
 
@@ -2,18 +2,36 @@ package COMP_49X_our_search.backend.database.services;
 
 import COMP_49X_our_search.backend.database.entities.StudentFacultyMatches;
 import COMP_49X_our_search.backend.database.repositories.StudentFacultyMatchesRepository;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class StudentFacultyMatchesService {
 
+  // Rows sent to the database per JDBC batch by createMatches. The ids are
+  // generated with IDENTITY, which keeps Hibernate from batching inserts, so
+  // the batch goes through JDBC directly.
+  private static final int INSERT_BATCH_SIZE = 500;
+  private static final String INSERT_SQL =
+      "INSERT INTO student_faculty_mathces (student_id, faculty_id, created_at) VALUES (?, ?, ?)";
+
   private StudentFacultyMatchesRepository studentFacultyMatchesRepository;
+  private JdbcTemplate jdbcTemplate;
 
   @Autowired
-  public StudentFacultyMatchesService(StudentFacultyMatchesRepository studentFacultyMatchesRepository) {
+  public StudentFacultyMatchesService(
+      StudentFacultyMatchesRepository studentFacultyMatchesRepository, JdbcTemplate jdbcTemplate) {
     this.studentFacultyMatchesRepository = studentFacultyMatchesRepository;
+    this.jdbcTemplate = jdbcTemplate;
   }
 
   public void createMatch(Integer studentId, Integer facultyId) {
@@ -28,4 +46,42 @@ public class StudentFacultyMatchesService {
   public List<StudentFacultyMatches> getMatchesForFaculty(Integer facultyId) {
     return studentFacultyMatchesRepository.findByFacultyId(facultyId);
   }
+
+  /**
+   * Stores the given matches with batched inserts, skipping the ones that are
+   * already stored. Returns the number of matches inserted.
+   */
+  @Transactional
+  public int createMatches(List<StudentFacultyMatches> matches) {
+    if (matches.isEmpty()) {
+      return 0;
+    }
+    Set<Integer> studentIds =
+        matches.stream().map(StudentFacultyMatches::getStudentId).collect(Collectors.toSet());
+    // Matches already stored, plus the ones queued for insertion.
+    Set<List<Integer>> seen = new HashSet<>();
+    List<StudentFacultyMatches> storedMatches =
+        studentFacultyMatchesRepository.findByStudentIdIn(studentIds);
+    for (StudentFacultyMatches match : storedMatches) {
+      seen.add(List.of(match.getStudentId(), match.getFacultyId()));
+    }
+    List<StudentFacultyMatches> newMatches = new ArrayList<>();
+    for (StudentFacultyMatches match : matches) {
+      if (seen.add(List.of(match.getStudentId(), match.getFacultyId()))) {
+        newMatches.add(match);
+      }
+    }
+
+    Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+    jdbcTemplate.batchUpdate(
+        INSERT_SQL,
+        newMatches,
+        INSERT_BATCH_SIZE,
+        (statement, match) -> {
+          statement.setInt(1, match.getStudentId());
+          statement.setInt(2, match.getFacultyId());
+          statement.setTimestamp(3, createdAt);
+        });
+    return newMatches.size();
+  }
 }
@@ -13,23 +13,41 @@ package COMP_49X_our_search.backend.database.services;
 import COMP_49X_our_search.backend.database.entities.Student;
 import COMP_49X_our_search.backend.database.entities.User;
 import COMP_49X_our_search.backend.database.enums.UserRole;
+import COMP_49X_our_search.backend.database.repositories.MajorAndId;
 import COMP_49X_our_search.backend.database.repositories.StudentRepository;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class StudentService {
 
+  private static final Specification<Student> IS_ACTIVE =
+      (student, query, cb) -> cb.isTrue(student.<Boolean>get("isActive"));
+
   private final StudentRepository studentRepository;
   private final UserService userService;
+  private final CatalogVersionService catalogVersionService;
 
   @Autowired
-  public StudentService(StudentRepository studentRepository, UserService userService) {
+  public StudentService(
+      StudentRepository studentRepository,
+      UserService userService,
+      CatalogVersionService catalogVersionService) {
     this.studentRepository = studentRepository;
     this.userService = userService;
+    this.catalogVersionService = catalogVersionService;
   }
 
   public List<Student> getAllStudents() {
@@ -44,8 +62,64 @@ public class StudentService {
     return studentRepository.findAllByResearchFieldInterests_Id(researchFieldId);
   }
 
+  /**
+   * Returns the active students matching the given specification, grouped by
+   * major id. A student is listed under every major they are majoring in and
+   * every major they are interested in researching, with their majors,
+   * research field interests and research periods already loaded. Uses a
+   * fixed number of queries regardless of how many students or majors there
+   * are.
+   */
+  @Transactional(readOnly = true)
+  public Map<Integer, Set<Student>> getActiveStudentsByMajorId(Specification<Student> filter) {
+    Map<Integer, Set<Student>> studentsByMajor = new HashMap<>();
+    for (Student student : getActiveStudentsWithAssociations(filter)) {
+      Stream.concat(student.getMajors().stream(), student.getResearchFieldInterests().stream())
+          .forEach(
+              major ->
+                  studentsByMajor
+                      .computeIfAbsent(major.getId(), id -> new LinkedHashSet<>())
+                      .add(student));
+    }
+    return studentsByMajor;
+  }
+
+  /**
+   * Returns the active students matching the given specification in id
+   * order, with their majors, research field interests and research periods
+   * already loaded.
+   */
+  @Transactional(readOnly = true)
+  public List<Student> getActiveStudentsWithAssociations(Specification<Student> filter) {
+    List<Student> students = studentRepository.findAll(IS_ACTIVE.and(filter), Sort.by("id"));
+    if (students.isEmpty()) {
+      return students;
+    }
+    studentRepository.fetchMajors(students);
+    studentRepository.fetchResearchFieldInterests(students);
+    studentRepository.fetchResearchPeriods(students);
+    return students;
+  }
+
+  /** Returns only the ids of the active students matching the given specification. */
+  public Set<Integer> getActiveStudentIds(Specification<Student> filter) {
+    return new HashSet<>(studentRepository.findIds(IS_ACTIVE.and(filter)));
+  }
+
+  /**
+   * Returns at most limit (major id, student id) pairs of the active students
+   * matching the given specification and listed under one of the given
+   * majors, in order, after the given position (see IdQueries).
+   */
+  public List<MajorAndId> getActiveStudentIdsByMajor(
+      Specification<Student> filter, List<Integer> majorIds, MajorAndId after, int limit) {
+    return studentRepository.findIdsByMajor(IS_ACTIVE.and(filter), majorIds, after, limit);
+  }
+
   public Student saveStudent(Student student) {
-    return studentRepository.save(student);
+    Student savedStudent = studentRepository.save(student);
+    catalogVersionService.bump();
+    return savedStudent;
   }
 
   public boolean existsByEmail(String email) {
@@ -73,6 +147,7 @@ public class StudentService {
       );
     }
     studentRepository.deleteByEmail(email);
+    catalogVersionService.bump();
   }
 
   public List<Student> getNewStudents() {
@@ -13,10 +13,12 @@ package COMP_49X_our_search.backend.database.services;
 import COMP_49X_our_search.backend.database.entities.Student;
 import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
 import COMP_49X_our_search.backend.database.repositories.UmbrellaTopicRepository;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -24,10 +26,20 @@ import java.util.List;
 public class UmbrellaTopicService {
 
     private final UmbrellaTopicRepository umbrellaTopicRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final SuggestionIndex suggestionIndex;
+    private final ProjectSearchProjectionService projectSearchProjectionService;
 
     @Autowired
-    public UmbrellaTopicService(UmbrellaTopicRepository repository) {
+    public UmbrellaTopicService(
+            UmbrellaTopicRepository repository,
+            CatalogVersionService catalogVersionService,
+            SuggestionIndex suggestionIndex,
+            ProjectSearchProjectionService projectSearchProjectionService) {
         this.umbrellaTopicRepository = repository;
+        this.catalogVersionService = catalogVersionService;
+        this.suggestionIndex = suggestionIndex;
+        this.projectSearchProjectionService = projectSearchProjectionService;
     }
 
     public List<UmbrellaTopic> getAllUmbrellaTopics() {
@@ -43,8 +55,13 @@ public class UmbrellaTopicService {
                 .orElseThrow(() -> new RuntimeException("Umbrella topic not found with id: " + id));
     }
 
+    @Transactional
     public UmbrellaTopic saveUmbrellaTopic(UmbrellaTopic umbrellaTopic) {
-        return umbrellaTopicRepository.save(umbrellaTopic);
+        UmbrellaTopic savedUmbrellaTopic = umbrellaTopicRepository.save(umbrellaTopic);
+        projectSearchProjectionService.refreshProjectsOfUmbrellaTopic(savedUmbrellaTopic.getId());
+        catalogVersionService.bump();
+        suggestionIndex.putUmbrellaTopic(savedUmbrellaTopic);
+        return savedUmbrellaTopic;
     }
 
     public void deleteUmbrellaTopicById(int id) {
@@ -58,5 +75,7 @@ public class UmbrellaTopicService {
         }
 
         umbrellaTopicRepository.deleteById(id);
+        catalogVersionService.bump();
+        suggestionIndex.removeUmbrellaTopic(id);
     }
 }
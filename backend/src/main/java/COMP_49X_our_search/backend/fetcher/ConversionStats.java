@@ -0,0 +1,61 @@
+/**
+ * Counters of the proto conversions made while building hierarchies, for
+ * monitoring how much the per-request memoization of ConversionContext saves.
+ *
+ * Every fetcher building a hierarchy starts a context with newContext() and
+ * hands it back with record() once the hierarchy is built, which logs the
+ * conversions that request saved.
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import COMP_49X_our_search.backend.util.ConversionContext;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ConversionStats {
+
+  private final AtomicLong requests = new AtomicLong();
+  private final AtomicLong conversions = new AtomicLong();
+  private final AtomicLong savedConversions = new AtomicLong();
+
+  public ConversionContext newContext() {
+    return new ConversionContext();
+  }
+
+  /**
+   * Adds the conversions of one request to the counters and logs them.
+   *
+   * @param hierarchy the hierarchy that was built, e.g. "projects"
+   */
+  public void record(String hierarchy, ConversionContext context) {
+    requests.incrementAndGet();
+    conversions.addAndGet(context.getConversions());
+    savedConversions.addAndGet(context.getSavedConversions());
+    System.out.printf(
+        "[%s] Built hierarchy with %d proto conversions, %d saved by memoization"
+            + " (%.1f saved per request on average)%n",
+        hierarchy,
+        context.getConversions(),
+        context.getSavedConversions(),
+        getSavedConversionsPerRequest());
+  }
+
+  public long getRequests() {
+    return requests.get();
+  }
+
+  public long getConversions() {
+    return conversions.get();
+  }
+
+  public long getSavedConversions() {
+    return savedConversions.get();
+  }
+
+  /** Average number of conversions saved per hierarchy built. */
+  public double getSavedConversionsPerRequest() {
+    long count = requests.get();
+    return count == 0 ? 0 : (double) savedConversions.get() / count;
+  }
+}
@@ -0,0 +1,483 @@
+/**
+ * In-memory index of which projects and active students have which majors,
+ * research periods and umbrella topics, used to compute the facet counts of
+ * the browse pages (see FacetCounts in fetcher_module.proto).
+ *
+ * Each filter value maps to a bitset of the entity ids having it, so the
+ * counts for a set of filters are a few unions and intersections of bitsets
+ * plus one cardinality per value, instead of a COUNT query per value. The
+ * count of a value leaves out the filters of its own dimension, so it tells
+ * how many results selecting that value would give.
+ *
+ * Project keywords are not indexed here, the fetcher resolves them through
+ * ProjectSearchIndex first. Student keywords are matched here, against the
+ * tokens of each student's interest reason and name (see TrigramIndex), the
+ * same way the LIKE filters match them but without going to the database.
+ *
+ * The index is built lazily from the database on first use and is then kept up
+ * to date by ProjectCreator, ProjectEditor, ProjectDeleter, the faculty profile
+ * deleter and the student profile creator/editor/deleter, one entity at a
+ * time. Updates made inside a transaction are applied once it commits, so a
+ * rolled back write never shows up in the counts.
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
+import COMP_49X_our_search.backend.database.entities.Student;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.database.services.StudentService;
+import COMP_49X_our_search.backend.search.TrigramIndex;
+import COMP_49X_our_search.backend.util.AfterCommit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import proto.fetcher.FetcherModule.FacetCount;
+import proto.fetcher.FetcherModule.FacetCounts;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+
+@Component
+public class FacetIndex {
+
+  // Same separators the keywords are split on (see FilterPlan), so a keyword
+  // is inside a text exactly when it is inside one of the text's tokens.
+  private static final String TOKEN_DELIMITERS = "[ ,]+";
+
+  /** The filter values of an entity, with the faculty member owning it if any. */
+  private record Entry(
+      Integer facultyId,
+      List<Integer> majorIds,
+      List<Integer> researchPeriodIds,
+      List<Integer> umbrellaTopicIds) {}
+
+  // The ids having each value of each dimension, for one type of entity.
+  private static final class Facets {
+    private final BitSet all = new BitSet();
+    private final Map<Integer, BitSet> majors = new TreeMap<>();
+    private final Map<Integer, BitSet> researchPeriods = new TreeMap<>();
+    private final Map<Integer, BitSet> umbrellaTopics = new TreeMap<>();
+    // id -> the values it was added with, to clear them when it changes
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    // Entities without a major aren't listed in the hierarchy, so they are
+    // left out.
+    private void put(int id, Entry entry) {
+      remove(id);
+      if (entry.majorIds().isEmpty()) {
+        return;
+      }
+      entries.put(id, entry);
+      all.set(id);
+      set(majors, entry.majorIds(), id);
+      set(researchPeriods, entry.researchPeriodIds(), id);
+      set(umbrellaTopics, entry.umbrellaTopicIds(), id);
+    }
+
+    private void remove(int id) {
+      Entry entry = entries.remove(id);
+      if (entry == null) {
+        return;
+      }
+      all.clear(id);
+      clear(majors, entry.majorIds(), id);
+      clear(researchPeriods, entry.researchPeriodIds(), id);
+      clear(umbrellaTopics, entry.umbrellaTopicIds(), id);
+    }
+
+    private void clear() {
+      all.clear();
+      majors.clear();
+      researchPeriods.clear();
+      umbrellaTopics.clear();
+      entries.clear();
+    }
+
+    private static void set(Map<Integer, BitSet> byValue, List<Integer> values, int id) {
+      values.forEach(value -> byValue.computeIfAbsent(value, v -> new BitSet()).set(id));
+    }
+
+    private static void clear(Map<Integer, BitSet> byValue, List<Integer> values, int id) {
+      for (int value : values) {
+        BitSet ids = byValue.get(value);
+        if (ids != null) {
+          ids.clear(id);
+          if (ids.isEmpty()) {
+            byValue.remove(value);
+          }
+        }
+      }
+    }
+  }
+
+  // The ids whose text contains each lowercase token, for one text field.
+  private static final class Texts {
+    private final Map<String, BitSet> postings = new HashMap<>();
+    private final TrigramIndex vocabulary = new TrigramIndex();
+    // ids whose text isn't null
+    private final BitSet notNull = new BitSet();
+    // id -> the tokens of its text, to clear them when it changes
+    private final Map<Integer, Set<String>> tokens = new HashMap<>();
+
+    private void put(int id, String text) {
+      remove(id);
+      if (text == null) {
+        return;
+      }
+      notNull.set(id);
+      Set<String> textTokens =
+          Arrays.stream(text.toLowerCase().split(TOKEN_DELIMITERS))
+              .filter(token -> !token.isEmpty())
+              .collect(Collectors.toSet());
+      tokens.put(id, textTokens);
+      for (String token : textTokens) {
+        postings
+            .computeIfAbsent(
+                token,
+                t -> {
+                  vocabulary.add(t);
+                  return new BitSet();
+                })
+            .set(id);
+      }
+    }
+
+    private void remove(int id) {
+      notNull.clear(id);
+      Set<String> textTokens = tokens.remove(id);
+      if (textTokens == null) {
+        return;
+      }
+      for (String token : textTokens) {
+        BitSet ids = postings.get(token);
+        ids.clear(id);
+        if (ids.isEmpty()) {
+          postings.remove(token);
+          vocabulary.remove(token);
+        }
+      }
+    }
+
+    private void clear() {
+      postings.clear();
+      vocabulary.clear();
+      notNull.clear();
+      tokens.clear();
+    }
+
+    // The ids whose text contains one of the keywords.
+    private BitSet containing(Collection<String> keywords) {
+      BitSet matches = new BitSet();
+      for (String keyword : keywords) {
+        for (String token : vocabulary.containing(keyword)) {
+          matches.or(postings.get(token));
+        }
+      }
+      return matches;
+    }
+  }
+
+  private final ProjectService projectService;
+  private final StudentService studentService;
+
+  private final Facets projects = new Facets();
+  private final Facets students = new Facets();
+  private final Texts studentInterests = new Texts();
+  private final Texts studentNames = new Texts();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile boolean initialized = false;
+
+  @Autowired
+  public FacetIndex(ProjectService projectService, StudentService studentService) {
+    this.projectService = projectService;
+    this.studentService = studentService;
+  }
+
+  /**
+   * Counts the projects matching the filters of the plan. keywordMatches are
+   * the ids of the projects matching its keywords, or null if the keywords
+   * don't restrict the projects.
+   */
+  public FacetCounts countProjects(FilterPlan plan, Set<Integer> keywordMatches) {
+    ensureInitialized();
+    lock.readLock().lock();
+    try {
+      return count(
+          projects, plan, keywordMatches == null ? projects.all : toBitSet(keywordMatches));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Counts the active students matching the filters of the plan, where the
+   * major filter also matches research field interests and the keywords are
+   * matched against the interest reasons and names. Students have no
+   * umbrella topics, so their counts are always empty.
+   */
+  public FacetCounts countStudents(FilterPlan plan) {
+    ensureInitialized();
+    lock.readLock().lock();
+    try {
+      BitSet keywords =
+          switch (plan.getKeywordMatch()) {
+            case ANY -> students.all;
+            case NONE -> new BitSet();
+            case NOT_NULL -> union(studentInterests.notNull, studentNames.notNull);
+            case CONTAINS ->
+                union(
+                    studentInterests.containing(plan.getKeywords()),
+                    studentNames.containing(plan.getKeywords()));
+          };
+      return count(students, plan, keywords);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Same as countStudents(plan), for keywords already matched against the
+   * interest reasons elsewhere (e.g. by FullTextSearch), giving the ids of
+   * the students whose interest reason matched. Names are still matched here.
+   */
+  public FacetCounts countStudents(FilterPlan plan, Set<Integer> interestMatches) {
+    ensureInitialized();
+    lock.readLock().lock();
+    try {
+      return count(
+          students,
+          plan,
+          union(toBitSet(interestMatches), studentNames.containing(plan.getKeywords())));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Adds a project, replacing any previously indexed version of it. */
+  public void putProject(Project project) {
+    if (project == null || project.getId() == null) {
+      return;
+    }
+    // Read now, while the associations can still be loaded.
+    int id = project.getId();
+    Entry entry = projectEntry(project);
+    write(() -> projects.put(id, entry));
+  }
+
+  public void removeProject(int projectId) {
+    write(() -> projects.remove(projectId));
+  }
+
+  public void removeProjectsOfFaculty(int facultyId) {
+    write(
+        () -> {
+          List<Integer> projectIds = new ArrayList<>();
+          projects.entries.forEach(
+              (id, entry) -> {
+                if (Integer.valueOf(facultyId).equals(entry.facultyId())) {
+                  projectIds.add(id);
+                }
+              });
+          projectIds.forEach(projects::remove);
+        });
+  }
+
+  /**
+   * Adds a student, replacing any previously indexed version of them. Only
+   * active students are counted, so an inactive one is removed instead.
+   */
+  public void putStudent(Student student) {
+    if (student == null || student.getId() == null) {
+      return;
+    }
+    int id = student.getId();
+    if (!Boolean.TRUE.equals(student.getIsActive())) {
+      removeStudent(id);
+      return;
+    }
+    Entry entry = studentEntry(student);
+    String interestReason = student.getInterestReason();
+    String name = fullName(student);
+    write(() -> putStudentInternal(id, entry, interestReason, name));
+  }
+
+  public void removeStudent(int studentId) {
+    write(
+        () -> {
+          students.remove(studentId);
+          studentInterests.remove(studentId);
+          studentNames.remove(studentId);
+        });
+  }
+
+  /**
+   * Drops the current contents and rebuilds the index from the database. The
+   * entities are read while holding the write lock, so an update made while
+   * they are read is applied after the rebuild instead of being overwritten
+   * by the older snapshot.
+   */
+  public void rebuild() {
+    lock.writeLock().lock();
+    try {
+      List<Project> allProjects = projectService.getAllProjectsWithAssociations();
+      // Every active student listed in the hierarchy, which is grouped by major.
+      List<Student> activeStudents =
+          studentService.getActiveStudentsWithAssociations(
+              FilterSpecifications.studentsMatching(
+                  FilterPlan.compile(FilteredFetcher.getDefaultInstance())));
+      projects.clear();
+      students.clear();
+      studentInterests.clear();
+      studentNames.clear();
+      allProjects.forEach(project -> projects.put(project.getId(), projectEntry(project)));
+      for (Student student : activeStudents) {
+        putStudentInternal(
+            student.getId(),
+            studentEntry(student),
+            student.getInterestReason(),
+            fullName(student));
+      }
+      initialized = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void putStudentInternal(int id, Entry entry, String interestReason, String name) {
+    students.put(id, entry);
+    studentInterests.put(id, interestReason);
+    studentNames.put(id, name);
+  }
+
+  private static Entry projectEntry(Project project) {
+    return new Entry(
+        project.getFaculty() != null ? project.getFaculty().getId() : null,
+        project.getMajors().stream().map(Major::getId).toList(),
+        project.getResearchPeriods().stream().map(ResearchPeriod::getId).toList(),
+        project.getUmbrellaTopics().stream().map(UmbrellaTopic::getId).toList());
+  }
+
+  private static Entry studentEntry(Student student) {
+    return new Entry(
+        null,
+        Stream.concat(student.getMajors().stream(), student.getResearchFieldInterests().stream())
+            .map(Major::getId)
+            .distinct()
+            .toList(),
+        student.getResearchPeriods().stream().map(ResearchPeriod::getId).toList(),
+        List.of());
+  }
+
+  // Same as the name the LIKE filters match against (see FilterSpecifications).
+  private static String fullName(Student student) {
+    if (student.getFirstName() == null || student.getLastName() == null) {
+      return null;
+    }
+    return student.getFirstName() + " " + student.getLastName();
+  }
+
+  private static FacetCounts count(Facets facets, FilterPlan plan, BitSet keywords) {
+    BitSet majors = anyOf(facets.majors, plan.getMajorIds(), facets.all);
+    BitSet researchPeriods =
+        anyOf(facets.researchPeriods, plan.getResearchPeriodIds(), facets.all);
+    BitSet umbrellaTopics = anyOf(facets.umbrellaTopics, plan.getUmbrellaTopicIds(), facets.all);
+
+    return FacetCounts.newBuilder()
+        .setTotal(allOf(keywords, majors, researchPeriods, umbrellaTopics).cardinality())
+        .addAllMajors(counts(facets.majors, allOf(keywords, researchPeriods, umbrellaTopics)))
+        .addAllResearchPeriods(
+            counts(facets.researchPeriods, allOf(keywords, majors, umbrellaTopics)))
+        .addAllUmbrellaTopics(
+            counts(facets.umbrellaTopics, allOf(keywords, majors, researchPeriods)))
+        .build();
+  }
+
+  // How many of the matching ids have each value, leaving out values no
+  // matching entity has.
+  private static List<FacetCount> counts(Map<Integer, BitSet> byValue, BitSet matching) {
+    return byValue.entrySet().stream()
+        .map(
+            entry -> {
+              BitSet withValue = (BitSet) entry.getValue().clone();
+              withValue.and(matching);
+              return FacetCount.newBuilder()
+                  .setId(entry.getKey())
+                  .setCount(withValue.cardinality())
+                  .build();
+            })
+        .filter(count -> count.getCount() > 0)
+        .toList();
+  }
+
+  // The ids having any of the selected values, or every id without any.
+  private static BitSet anyOf(Map<Integer, BitSet> byValue, List<Integer> selected, BitSet all) {
+    if (selected.isEmpty()) {
+      return all;
+    }
+    BitSet union = new BitSet();
+    for (int value : selected) {
+      BitSet ids = byValue.get(value);
+      if (ids != null) {
+        union.or(ids);
+      }
+    }
+    return union;
+  }
+
+  private static BitSet allOf(BitSet first, BitSet... others) {
+    BitSet intersection = (BitSet) first.clone();
+    for (BitSet other : others) {
+      intersection.and(other);
+    }
+    return intersection;
+  }
+
+  private static BitSet union(BitSet first, BitSet second) {
+    BitSet union = (BitSet) first.clone();
+    union.or(second);
+    return union;
+  }
+
+  private static BitSet toBitSet(Set<Integer> ids) {
+    BitSet bits = new BitSet();
+    ids.forEach(bits::set);
+    return bits;
+  }
+
+  // Applies an update under the write lock once the current transaction, if
+  // any, commits (see AfterCommit), so a rolled back write never shows up.
+  private void write(Runnable update) {
+    AfterCommit.run(
+        () -> {
+          lock.writeLock().lock();
+          try {
+            update.run();
+          } finally {
+            lock.writeLock().unlock();
+          }
+        });
+  }
+
+  private void ensureInitialized() {
+    if (initialized) {
+      return;
+    }
+    synchronized (this) {
+      if (!initialized) {
+        rebuild();
+      }
+    }
+  }
+}
@@ -6,12 +6,17 @@ import COMP_49X_our_search.backend.database.entities.Project;
 import COMP_49X_our_search.backend.database.services.DepartmentService;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
+import COMP_49X_our_search.backend.util.ConversionContext;
 import COMP_49X_our_search.backend.util.ProtoConverter;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import proto.fetcher.DataTypes.DepartmentHierarchy;
 import proto.fetcher.DataTypes.DepartmentWithFaculty;
@@ -28,26 +33,34 @@ public class FacultyFetcher implements Fetcher {
   private final DepartmentService departmentService;
   private final FacultyService facultyService;
   private final ProjectService projectService;
+  private final SuggestionIndex suggestionIndex;
+  private final ConversionStats conversionStats;
 
   @Autowired
   public FacultyFetcher(
       DepartmentService departmentService,
       FacultyService facultyService,
-      ProjectService projectService) {
+      ProjectService projectService,
+      SuggestionIndex suggestionIndex,
+      ConversionStats conversionStats) {
     this.departmentService = departmentService;
     this.facultyService = facultyService;
     this.projectService = projectService;
+    this.suggestionIndex = suggestionIndex;
+    this.conversionStats = conversionStats;
   }
 
   @Override
   public FetcherResponse fetch(FetcherRequest request) {
     validateRequest(request);
     List<Department> departments = departmentService.getAllDepartments();
+    FacultyDirectory directory = loadFacultyDirectory(request.getFilteredFetcher());
 
     List<DepartmentWithFaculty> departmentsWithFacultyProto =
         departments.stream()
-            .map(department -> buildDepartmentWithFaculty(department, request.getFilteredFetcher()))
+            .map(department -> buildDepartmentWithFaculty(department, directory))
             .toList();
+    conversionStats.record("faculty", directory.conversions());
 
     return FetcherResponse.newBuilder()
         .setDepartmentHierarchy(
@@ -55,55 +68,92 @@ public class FacultyFetcher implements Fetcher {
         .build();
   }
 
-  private DepartmentWithFaculty buildDepartmentWithFaculty(
-      Department department, FilteredFetcher filters) {
-    List<Faculty> facultyMembers = facultyService.getFacultyByDepartmentId(department.getId());
-
-    if (!filters.getKeywords().isEmpty()) {
-      facultyMembers =
-          facultyMembers.stream()
-              .filter(
-                  faculty ->
-                      containsKeyword(
-                          faculty.getFirstName() + " " + faculty.getLastName(),
-                          filters.getKeywords()))
-              .toList();
+  /**
+   * Loads the matching faculty members and their projects up front, so
+   * building the hierarchy takes the same number of queries however many
+   * departments, faculty members and projects there are.
+   */
+  private FacultyDirectory loadFacultyDirectory(FilteredFetcher filters) {
+    FilterPlan plan = FilterPlan.compile(filters);
+    Specification<Faculty> filter = FilterSpecifications.facultyMatching(plan);
+    // Misspelled names are corrected with the words of every faculty name.
+    Set<String> corrections = suggestionIndex.correctFacultyNames(plan.getSearchKeywords());
+    if (!corrections.isEmpty()) {
+      filter = filter.or(FilterSpecifications.facultyNameContainsAny(corrections));
     }
+    List<Faculty> facultyMembers = facultyService.getFacultyWithDepartments(filter);
+
+    Map<Integer, List<Faculty>> facultyByDepartment = new HashMap<>();
+    facultyMembers.forEach(
+        faculty ->
+            faculty
+                .getDepartments()
+                .forEach(
+                    department ->
+                        facultyByDepartment
+                            .computeIfAbsent(department.getId(), id -> new ArrayList<>())
+                            .add(faculty)));
+
+    // Only the projects of the faculty members listed.
+    Set<Integer> facultyIds =
+        facultyMembers.stream().map(Faculty::getId).collect(Collectors.toSet());
+    Map<Integer, List<Project>> projectsByFaculty =
+        facultyIds.isEmpty()
+            ? Map.of()
+            : projectService
+                .getProjectsWithAssociations(FilterSpecifications.projectsOfFacultyIn(facultyIds))
+                .stream()
+                .collect(Collectors.groupingBy(project -> project.getFaculty().getId()));
+
+    return new FacultyDirectory(
+        facultyByDepartment, projectsByFaculty, new HashMap<>(), conversionStats.newContext());
+  }
 
+  private DepartmentWithFaculty buildDepartmentWithFaculty(
+      Department department, FacultyDirectory directory) {
     DepartmentWithFaculty.Builder departmentBuilder =
         DepartmentWithFaculty.newBuilder()
             .setDepartment(ProtoConverter.toDepartmentProto(department));
 
-    facultyMembers.forEach(
-        faculty -> {
-          List<Project> projects = projectService.getProjectsByFacultyId(faculty.getId());
-
-          FacultyWithProjects facultyWithProjects =
-              FacultyWithProjects.newBuilder()
-                  .setFaculty(ProtoConverter.toFacultyProto(faculty))
-                  .addAllProjects(projects.stream().map(ProtoConverter::toProjectProto).toList())
-                  .build();
-
-          departmentBuilder.addFacultyWithProjects(facultyWithProjects);
-        });
+    directory
+        .facultyByDepartment()
+        .getOrDefault(department.getId(), List.of())
+        .forEach(
+            faculty ->
+                departmentBuilder.addFacultyWithProjects(
+                    // Faculty in several departments are only converted once.
+                    directory
+                        .converted()
+                        .computeIfAbsent(
+                            faculty,
+                            f -> buildFacultyWithProjects(f, directory))));
 
     return departmentBuilder.build();
   }
 
-  private boolean containsKeyword(String text, String keywords) {
-    if (text == null || keywords == null || keywords.trim().isEmpty()) {
-      return false;
-    }
-
-    String lowercaseText = text.toLowerCase();
-    Set<String> keywordSet =
-        Arrays.stream(keywords.toLowerCase().split("[ ,]"))
-            .filter(k -> !k.trim().isEmpty())
-            .collect(Collectors.toSet());
-
-    return keywordSet.isEmpty() || keywordSet.stream().anyMatch(lowercaseText::contains);
+  private FacultyWithProjects buildFacultyWithProjects(
+      Faculty faculty, FacultyDirectory directory) {
+    List<Project> projects =
+        directory.projectsByFaculty().getOrDefault(faculty.getId(), List.of());
+    ConversionContext conversions = directory.conversions();
+    return FacultyWithProjects.newBuilder()
+        .setFaculty(conversions.toFacultyProto(faculty))
+        .addAllProjects(projects.stream().map(conversions::toProjectProto).toList())
+        .build();
   }
 
+  /**
+   * The faculty members of each department and the projects of each faculty
+   * member for one request, plus the faculty members converted so far. The
+   * faculty member of each project is converted once as well, through the
+   * conversion context.
+   */
+  private record FacultyDirectory(
+      Map<Integer, List<Faculty>> facultyByDepartment,
+      Map<Integer, List<Project>> projectsByFaculty,
+      Map<Faculty, FacultyWithProjects> converted,
+      ConversionContext conversions) {}
+
   private void validateRequest(FetcherRequest request) {
     if (request.getFetcherTypeCase() == FetcherTypeCase.FETCHERTYPE_NOT_SET) {
       throw new IllegalArgumentException(
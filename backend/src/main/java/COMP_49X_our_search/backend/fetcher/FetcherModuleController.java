@@ -15,6 +15,8 @@
  * (not implemented yet). For example, fetching all students in a specific major
  * or projects available during a particular research period.
  *
+ * Responses are served from FetcherResponseCache when a valid entry exists.
+ *
  * Implements the ModuleController interface.
  *
  * @author Augusto Escudero
@@ -42,10 +44,12 @@ public class FetcherModuleController implements ModuleController {
   private final ProjectFetcher projectFetcher;
   private final StudentFetcher studentFetcher;
   private final FacultyFetcher facultyFetcher;
+  private final FetcherResponseCache fetcherResponseCache;
 
   @Autowired
   public FetcherModuleController(DisciplineFetcher disciplineFetcher,
-      ProjectFetcher projectFetcher, StudentFetcher studentFetcher, FacultyFetcher facultyFetcher) {
+      ProjectFetcher projectFetcher, StudentFetcher studentFetcher, FacultyFetcher facultyFetcher,
+      FetcherResponseCache fetcherResponseCache) {
     // Initialize EnumMaps for mapping fetcher types to fetcher implementations
     this.directTypeFetcherMap = new EnumMap<>(DirectType.class);
     this.filteredTypeFetcherMap = new EnumMap<>(FilteredType.class);
@@ -54,6 +58,7 @@ public class FetcherModuleController implements ModuleController {
     this.projectFetcher = projectFetcher;
     this.studentFetcher = studentFetcher;
     this.facultyFetcher = facultyFetcher;
+    this.fetcherResponseCache = fetcherResponseCache;
 
     // Map DirectType values to the appropriate fetcher implementation
     directTypeFetcherMap.put(DirectType.DIRECT_TYPE_DISCIPLINES, disciplineFetcher);
@@ -69,21 +74,22 @@ public class FetcherModuleController implements ModuleController {
     validateConfig(moduleConfig);
 
     FetcherRequest request = moduleConfig.getFetcherRequest();
-    FetcherResponse response;
+    FetcherResponse response = fetcherResponseCache.get(request, () -> fetch(request));
+
+    return ModuleResponse.newBuilder().setFetcherResponse(response).build();
+  }
+
+  private FetcherResponse fetch(FetcherRequest request) {
     switch (request.getFetcherTypeCase()) {
       case DIRECT_FETCHER:
-        response = handleDirectFetcher(request);
-        break;
+        return handleDirectFetcher(request);
       case FILTERED_FETCHER:
-        response = handleFilteredFetcher(request);
-        break;
+        return handleFilteredFetcher(request);
       // Add more cases if other fetcher types are added.
       default:
         throw new UnsupportedOperationException(
             "Unsupported FetcherType: " + request.getFetcherTypeCase());
     }
-
-    return ModuleResponse.newBuilder().setFetcherResponse(response).build();
   }
 
   private void validateConfig(ModuleConfig moduleConfig) {
@@ -0,0 +1,184 @@
+/**
+ * Cache for fetcher responses, used by FetcherModuleController so that the
+ * same hierarchy is not rebuilt from the database on every request.
+ *
+ * Entries are keyed by the normalized FetcherRequest: filter ids are sorted and
+ * de-duplicated and the keywords are replaced by the way FilterPlan matches
+ * them, so requests that are guaranteed to produce the same response share an
+ * entry.
+ *
+ * An entry is dropped when:
+ * - The catalog version (see CatalogVersionService) changes, meaning something
+ *   was written to the database after the entry was built.
+ * - It is older than the configured TTL.
+ * - The cache is full and it is the least recently used entry.
+ *
+ * Hit, miss and eviction counters are served by the /fetcher-cache-stats
+ * admin endpoint, for monitoring.
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import proto.fetcher.FetcherModule.FetcherRequest;
+import proto.fetcher.FetcherModule.FetcherResponse;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+
+@Component
+public class FetcherResponseCache {
+
+  private final CatalogVersionService catalogVersionService;
+  private final int maxEntries;
+  private final Duration ttl;
+  private final Clock clock;
+
+  // Access-ordered, so iteration starts at the least recently used entry.
+  private final LinkedHashMap<FetcherRequest, CachedResponse> entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+  // Catalog version all the current entries were built at.
+  private long entriesVersion;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  @Autowired
+  public FetcherResponseCache(
+      CatalogVersionService catalogVersionService,
+      @Value("${fetcher.cache.max-entries:256}") int maxEntries,
+      @Value("${fetcher.cache.ttl-seconds:300}") long ttlSeconds) {
+    this(catalogVersionService, maxEntries, Duration.ofSeconds(ttlSeconds), Clock.systemUTC());
+  }
+
+  FetcherResponseCache(
+      CatalogVersionService catalogVersionService, int maxEntries, Duration ttl, Clock clock) {
+    this.catalogVersionService = catalogVersionService;
+    this.maxEntries = maxEntries;
+    this.ttl = ttl;
+    this.clock = clock;
+    this.entriesVersion = catalogVersionService.getVersion();
+  }
+
+  /**
+   * Returns the cached response for the given request, or computes it with
+   * the given supplier and caches it if there is no valid entry.
+   */
+  public FetcherResponse get(FetcherRequest request, Supplier<FetcherResponse> fetch) {
+    if (maxEntries <= 0) {
+      return fetch.get();
+    }
+    FetcherRequest key = normalize(request);
+    long version = catalogVersionService.getVersion();
+
+    synchronized (this) {
+      evictIfStale(version);
+      CachedResponse cached = entries.get(key);
+      if (cached != null) {
+        if (clock.instant().isBefore(cached.expiresAt())) {
+          hits.incrementAndGet();
+          return cached.response();
+        }
+        entries.remove(key);
+        evictions.incrementAndGet();
+      }
+    }
+
+    misses.incrementAndGet();
+    FetcherResponse response = fetch.get();
+
+    synchronized (this) {
+      // If something was written while the response was being built, it may
+      // already be stale, so it is returned but not cached.
+      if (version == catalogVersionService.getVersion()) {
+        evictIfStale(version);
+        entries.put(key, new CachedResponse(response, clock.instant().plus(ttl)));
+        Iterator<Map.Entry<FetcherRequest, CachedResponse>> iterator =
+            entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+          iterator.next();
+          iterator.remove();
+          evictions.incrementAndGet();
+        }
+      }
+    }
+    return response;
+  }
+
+  public synchronized void clear() {
+    evictions.addAndGet(entries.size());
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  /**
+   * Returns a request equivalent to the given one in which the order and
+   * repetition of filter ids and keywords, and the case of the keywords, no
+   * longer matter.
+   */
+  static FetcherRequest normalize(FetcherRequest request) {
+    if (!request.hasFilteredFetcher()) {
+      return request;
+    }
+    FilteredFetcher filters = request.getFilteredFetcher();
+    FilteredFetcher normalizedFilters =
+        filters.toBuilder()
+            .clearMajorIds()
+            .addAllMajorIds(new TreeSet<>(filters.getMajorIdsList()))
+            .clearResearchPeriodIds()
+            .addAllResearchPeriodIds(new TreeSet<>(filters.getResearchPeriodIdsList()))
+            .clearUmbrellaTopicIds()
+            .addAllUmbrellaTopicIds(new TreeSet<>(filters.getUmbrellaTopicIdsList()))
+            .setKeywords(normalizeKeywords(FilterPlan.compile(filters)))
+            .build();
+    return request.toBuilder().setFilteredFetcher(normalizedFilters).build();
+  }
+
+  // The shortest keywords compiling to the same keyword match as the plan's.
+  // Blank and separator-only keywords don't match the same texts as no
+  // keywords at all, so they must not share its entry.
+  private static String normalizeKeywords(FilterPlan plan) {
+    return switch (plan.getKeywordMatch()) {
+      case ANY -> "";
+      case NONE -> " ";
+      case NOT_NULL -> ",";
+      case CONTAINS -> String.join(" ", plan.getKeywords());
+    };
+  }
+
+  // Must be called while holding the lock.
+  private void evictIfStale(long version) {
+    if (version > entriesVersion) {
+      evictions.addAndGet(entries.size());
+      entries.clear();
+      entriesVersion = version;
+    }
+  }
+
+  private record CachedResponse(FetcherResponse response, Instant expiresAt) {}
+}
@@ -0,0 +1,111 @@
+/**
+ * The filters of a FilteredFetcher, compiled once per request into the form
+ * the fetchers and FacultyProfileRetriever query with.
+ *
+ * Filter ids are de-duplicated and sorted, so repeated ids don't grow the IN
+ * lists sent to the database. Keywords are split once, both into the keywords
+ * matched with LIKE (see FilterSpecifications) and into the keywords looked
+ * up in ProjectSearchIndex, instead of every filter splitting them again.
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+
+public final class FilterPlan {
+
+  /** How the keywords restrict the texts they are matched against. */
+  public enum KeywordMatch {
+    // No keywords, every text matches.
+    ANY,
+    // Blank keywords, no text matches.
+    NONE,
+    // Only separators, every text that isn't null matches.
+    NOT_NULL,
+    // Texts containing one of the keywords, ignoring case.
+    CONTAINS
+  }
+
+  private final List<Integer> majorIds;
+  private final List<Integer> researchPeriodIds;
+  private final List<Integer> umbrellaTopicIds;
+  private final KeywordMatch keywordMatch;
+  private final List<String> keywords;
+  private final Set<String> searchKeywords;
+
+  private FilterPlan(
+      List<Integer> majorIds,
+      List<Integer> researchPeriodIds,
+      List<Integer> umbrellaTopicIds,
+      KeywordMatch keywordMatch,
+      List<String> keywords,
+      Set<String> searchKeywords) {
+    this.majorIds = majorIds;
+    this.researchPeriodIds = researchPeriodIds;
+    this.umbrellaTopicIds = umbrellaTopicIds;
+    this.keywordMatch = keywordMatch;
+    this.keywords = keywords;
+    this.searchKeywords = searchKeywords;
+  }
+
+  public static FilterPlan compile(FilteredFetcher filters) {
+    String keywords = filters.getKeywords();
+    List<String> keywordList = List.of();
+    KeywordMatch keywordMatch;
+    if (keywords.isEmpty()) {
+      keywordMatch = KeywordMatch.ANY;
+    } else if (keywords.trim().isEmpty()) {
+      keywordMatch = KeywordMatch.NONE;
+    } else {
+      // Split the way the fetchers always have: on spaces and commas,
+      // dropping blank keywords.
+      keywordList =
+          Arrays.stream(keywords.toLowerCase().split("[ ,]"))
+              .filter(k -> !k.trim().isEmpty())
+              .distinct()
+              .sorted()
+              .toList();
+      keywordMatch = keywordList.isEmpty() ? KeywordMatch.NOT_NULL : KeywordMatch.CONTAINS;
+    }
+    return new FilterPlan(
+        distinctSorted(filters.getMajorIdsList()),
+        distinctSorted(filters.getResearchPeriodIdsList()),
+        distinctSorted(filters.getUmbrellaTopicIdsList()),
+        keywordMatch,
+        keywordList,
+        Set.copyOf(ProjectSearchIndex.tokenizeKeywords(keywords)));
+  }
+
+  public List<Integer> getMajorIds() {
+    return majorIds;
+  }
+
+  public List<Integer> getResearchPeriodIds() {
+    return researchPeriodIds;
+  }
+
+  public List<Integer> getUmbrellaTopicIds() {
+    return umbrellaTopicIds;
+  }
+
+  public KeywordMatch getKeywordMatch() {
+    return keywordMatch;
+  }
+
+  /** The lowercase keywords, only set when matching with CONTAINS. */
+  public List<String> getKeywords() {
+    return keywords;
+  }
+
+  /** The keywords to look up in ProjectSearchIndex, empty when there are none. */
+  public Set<String> getSearchKeywords() {
+    return searchKeywords;
+  }
+
+  private static List<Integer> distinctSorted(List<Integer> ids) {
+    return ids.stream().mapToInt(Integer::intValue).distinct().sorted().boxed().toList();
+  }
+}
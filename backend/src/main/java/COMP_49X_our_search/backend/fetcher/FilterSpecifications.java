@@ -0,0 +1,267 @@
+/**
+ * Turns the filters of a request (see FilterPlan) into JPA Specifications, so
+ * the database only returns the projects, students and faculty that match
+ * them instead of everything being loaded and then filtered in Java.
+ *
+ * Filters over a collection (majors, research periods, umbrella topics)
+ * become EXISTS subqueries on its join table (or, on the rows of the project
+ * search projection, on the project_search_filters table) and keyword filters
+ * become LIKE predicates, with the filter values always passed as parameters.
+ *
+ * The fetchers keep all of a major's projects or students when that major is
+ * in the major filter, and otherwise only the ones with one of the filtered
+ * majors. Everything listed under a major has that major, so both cases come
+ * down to "has one of the filtered majors", which is what is checked here.
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ProjectSearchFilter;
+import COMP_49X_our_search.backend.database.entities.ProjectSearchRow;
+import COMP_49X_our_search.backend.database.entities.Student;
+import COMP_49X_our_search.backend.database.enums.ProjectFilterDimension;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class FilterSpecifications {
+
+  // Escapes % and _ in keywords, so they are matched literally.
+  private static final char LIKE_ESCAPE = '!';
+
+  private FilterSpecifications() {}
+
+  /**
+   * Projects matching the major, research period and umbrella topic filters.
+   * Keywords aren't checked, see projectIdIn and projectTextContains.
+   */
+  public static Specification<Project> projectsMatching(FilterPlan plan) {
+    return (project, query, cb) ->
+        cb.and(
+            hasAny(project, query, cb, "majors", plan.getMajorIds()),
+            hasAny(project, query, cb, "researchPeriods", plan.getResearchPeriodIds()),
+            hasAny(project, query, cb, "umbrellaTopics", plan.getUmbrellaTopicIds()));
+  }
+
+  /** Projects with one of the given ids (e.g. the matches of a keyword search). */
+  public static Specification<Project> projectIdIn(Set<Integer> ids) {
+    return (project, query, cb) -> ids.isEmpty() ? cb.disjunction() : project.get("id").in(ids);
+  }
+
+  public static Specification<Project> projectsOfFaculty(int facultyId) {
+    return (project, query, cb) -> cb.equal(project.get("faculty").get("id"), facultyId);
+  }
+
+  /** Projects of one of the given faculty members. */
+  public static Specification<Project> projectsOfFacultyIn(Set<Integer> facultyIds) {
+    return (project, query, cb) ->
+        facultyIds.isEmpty() ? cb.disjunction() : project.get("faculty").get("id").in(facultyIds);
+  }
+
+  /** Projects whose name, description or desired qualifications contain a keyword. */
+  public static Specification<Project> projectTextContains(FilterPlan plan) {
+    return (project, query, cb) ->
+        containsAnyKeyword(
+            cb,
+            plan,
+            List.of(
+                project.<String>get("name"),
+                project.<String>get("description"),
+                project.<String>get("desiredQualifications")));
+  }
+
+  /** Projects whose faculty member's name contains one of the keywords. */
+  public static Specification<Project> projectFacultyNameContains(FilterPlan plan) {
+    return (project, query, cb) ->
+        containsAnyKeyword(cb, plan, List.of(fullName(project.join("faculty", JoinType.LEFT), cb)));
+  }
+
+  /**
+   * Rows of the project search projection (see ProjectSearchRow) whose
+   * project matches the major, research period and umbrella topic filters,
+   * same as projectsMatching but looking the values up in ProjectSearchFilter,
+   * whose (dimension, value_id, project_id) index answers each of them.
+   */
+  public static Specification<ProjectSearchRow> projectRowsMatching(FilterPlan plan) {
+    return (row, query, cb) ->
+        cb.and(
+            hasAnyFilter(row, query, cb, ProjectFilterDimension.MAJOR, plan.getMajorIds()),
+            hasAnyFilter(
+                row,
+                query,
+                cb,
+                ProjectFilterDimension.RESEARCH_PERIOD,
+                plan.getResearchPeriodIds()),
+            hasAnyFilter(
+                row,
+                query,
+                cb,
+                ProjectFilterDimension.UMBRELLA_TOPIC,
+                plan.getUmbrellaTopicIds()));
+  }
+
+  /** Rows of the projects with one of the given ids. */
+  public static Specification<ProjectSearchRow> projectRowIdIn(Set<Integer> projectIds) {
+    return (row, query, cb) ->
+        projectIds.isEmpty() ? cb.disjunction() : row.get("projectId").in(projectIds);
+  }
+
+  /** Same as projectFacultyNameContains, for rows of the projection. */
+  public static Specification<ProjectSearchRow> projectRowFacultyNameContains(FilterPlan plan) {
+    return (row, query, cb) ->
+        containsAnyKeyword(
+            cb,
+            plan,
+            List.of(
+                cb.concat(
+                    cb.concat(row.<String>get("facultyFirstName"), " "),
+                    row.<String>get("facultyLastName"))));
+  }
+
+  /**
+   * Students matching the major, research period and keyword filters. The
+   * major filter checks research field interests as well as majors, since
+   * students are listed under both.
+   */
+  public static Specification<Student> studentsMatching(FilterPlan plan) {
+    return (student, query, cb) ->
+        cb.and(
+            studentFilters(student, query, cb, plan),
+            containsAnyKeyword(
+                cb,
+                plan,
+                List.of(student.<String>get("interestReason"), fullName(student, cb))));
+  }
+
+  /**
+   * Same as studentsMatching(plan), for keywords already matched against the
+   * interest reasons elsewhere (e.g. by FullTextSearch), giving the ids of
+   * the students whose interest reason matched.
+   */
+  public static Specification<Student> studentsMatching(
+      FilterPlan plan, Set<Integer> interestMatches) {
+    return (student, query, cb) ->
+        cb.and(
+            studentFilters(student, query, cb, plan),
+            cb.or(
+                interestMatches.isEmpty()
+                    ? cb.disjunction()
+                    : student.get("id").in(interestMatches),
+                containsAnyKeyword(cb, plan, List.of(fullName(student, cb)))));
+  }
+
+  public static Specification<Student> studentIdIn(Collection<Integer> ids) {
+    return (student, query, cb) -> ids.isEmpty() ? cb.disjunction() : student.get("id").in(ids);
+  }
+
+  private static Predicate studentFilters(
+      Root<Student> student, CriteriaQuery<?> query, CriteriaBuilder cb, FilterPlan plan) {
+    return cb.and(
+        plan.getMajorIds().isEmpty()
+            ? cb.conjunction()
+            : cb.or(
+                hasAny(student, query, cb, "majors", plan.getMajorIds()),
+                hasAny(student, query, cb, "researchFieldInterests", plan.getMajorIds())),
+        hasAny(student, query, cb, "researchPeriods", plan.getResearchPeriodIds()));
+  }
+
+  /** Faculty whose name contains one of the keywords. */
+  public static Specification<Faculty> facultyMatching(FilterPlan plan) {
+    return (faculty, query, cb) -> containsAnyKeyword(cb, plan, List.of(fullName(faculty, cb)));
+  }
+
+  /** Faculty whose name contains one of the given lowercase words. */
+  public static Specification<Faculty> facultyNameContainsAny(Collection<String> words) {
+    return (faculty, query, cb) -> containsAny(cb, words, List.of(fullName(faculty, cb)));
+  }
+
+  // EXISTS a row in the join table of the collection with one of the ids, or
+  // no restriction at all without ids.
+  private static <T> Predicate hasAny(
+      Root<T> root,
+      CriteriaQuery<?> query,
+      CriteriaBuilder cb,
+      String collection,
+      List<Integer> ids) {
+    if (ids.isEmpty()) {
+      return cb.conjunction();
+    }
+    Subquery<Integer> subquery = query.subquery(Integer.class);
+    Join<T, ?> element = subquery.correlate(root).join(collection);
+    subquery.select(element.<Integer>get("id")).where(element.get("id").in(ids));
+    return cb.exists(subquery);
+  }
+
+  // The project of a projection row has one of the ids in the dimension, or
+  // no restriction at all without ids.
+  private static Predicate hasAnyFilter(
+      Root<ProjectSearchRow> row,
+      CriteriaQuery<?> query,
+      CriteriaBuilder cb,
+      ProjectFilterDimension dimension,
+      List<Integer> ids) {
+    if (ids.isEmpty()) {
+      return cb.conjunction();
+    }
+    Subquery<Integer> subquery = query.subquery(Integer.class);
+    Root<ProjectSearchFilter> filter = subquery.from(ProjectSearchFilter.class);
+    subquery
+        .select(filter.<Integer>get("projectId"))
+        .where(
+            cb.equal(filter.get("dimension"), dimension),
+            filter.get("valueId").in(ids),
+            cb.equal(filter.get("projectId"), row.get("projectId")));
+    return cb.exists(subquery);
+  }
+
+  // Matches the keyword filter the fetchers applied in Java: a text matches if
+  // it contains any of the keywords, ignoring case.
+  private static Predicate containsAnyKeyword(
+      CriteriaBuilder cb, FilterPlan plan, List<Expression<String>> texts) {
+    switch (plan.getKeywordMatch()) {
+      case ANY:
+        return cb.conjunction();
+      case NONE:
+        return cb.disjunction();
+      case NOT_NULL:
+        return cb.or(texts.stream().map(cb::isNotNull).toArray(Predicate[]::new));
+      default:
+        return containsAny(cb, plan.getKeywords(), texts);
+    }
+  }
+
+  private static Predicate containsAny(
+      CriteriaBuilder cb, Collection<String> keywords, List<Expression<String>> texts) {
+    List<Predicate> matches = new ArrayList<>();
+    for (String keyword : keywords) {
+      for (Expression<String> text : texts) {
+        matches.add(cb.like(cb.lower(text), "%" + escapeLike(keyword) + "%", LIKE_ESCAPE));
+      }
+    }
+    return cb.or(matches.toArray(Predicate[]::new));
+  }
+
+  private static Expression<String> fullName(From<?, ?> person, CriteriaBuilder cb) {
+    return cb.concat(
+        cb.concat(person.<String>get("firstName"), " "), person.<String>get("lastName"));
+  }
+
+  private static String escapeLike(String keyword) {
+    return keyword
+        .replace(String.valueOf(LIKE_ESCAPE), "" + LIKE_ESCAPE + LIKE_ESCAPE)
+        .replace("%", LIKE_ESCAPE + "%")
+        .replace("_", LIKE_ESCAPE + "_");
+  }
+}
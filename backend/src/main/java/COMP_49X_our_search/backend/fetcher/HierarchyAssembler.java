@@ -0,0 +1,92 @@
+/**
+ * Builds the part of a hierarchy that belongs to each discipline, used by
+ * ProjectFetcher and StudentFetcher.
+ *
+ * By default the disciplines are built one after another on the request
+ * thread. Setting fetcher.assembly.parallelism above 1 builds them
+ * concurrently on a pool of that many threads instead, which lowers the
+ * latency of requests over many disciplines at the cost of more threads busy
+ * per request. Either way the results come back in the order of the
+ * disciplines.
+ *
+ * Anything a discipline queries from the database runs in the repositories'
+ * own read-only transactions on the pool threads, so each concurrent build
+ * takes its own connection and the parallelism should stay well below the
+ * connection pool size.
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HierarchyAssembler {
+
+  private final int parallelism;
+  // Only created when building in parallel.
+  private final ExecutorService executor;
+
+  @Autowired
+  public HierarchyAssembler(@Value("${fetcher.assembly.parallelism:1}") int parallelism) {
+    this.parallelism = Math.max(1, parallelism);
+    this.executor =
+        this.parallelism > 1
+            ? Executors.newFixedThreadPool(
+                this.parallelism,
+                Thread.ofPlatform().name("hierarchy-assembly-", 1).daemon().factory())
+            : null;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /** Builds each discipline, returning the results in the same order. */
+  public <D, R> List<R> assemble(List<D> disciplines, Function<D, R> build) {
+    if (executor == null || disciplines.size() < 2) {
+      return disciplines.stream().map(build).toList();
+    }
+
+    List<Future<R>> futures = new ArrayList<>(disciplines.size());
+    for (D discipline : disciplines) {
+      futures.add(executor.submit(() -> build.apply(discipline)));
+    }
+    List<R> results = new ArrayList<>(futures.size());
+    try {
+      for (Future<R> future : futures) {
+        results.add(future.get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while building the hierarchy", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException("Failed to build the hierarchy", e.getCause());
+    } finally {
+      // No-op for the futures that are done, stops the rest after a failure.
+      futures.forEach(future -> future.cancel(true));
+    }
+    return results;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+}
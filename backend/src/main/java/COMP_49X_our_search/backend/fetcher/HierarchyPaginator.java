@@ -0,0 +1,197 @@
+/**
+ * Cursor-based pagination over a discipline -> major -> entity hierarchy, used
+ * by the fetchers that return a ProjectHierarchy (projects and students).
+ *
+ * Every entity in the hierarchy has a position, made of its discipline id, its
+ * major id and its own id. Disciplines, majors and entities are walked in that
+ * order and a page holds the next page_size entities after the position
+ * encoded in the cursor. Since the cursor is a position and not an offset,
+ * inserting or deleting entities never makes a page repeat or skip entities
+ * that were already there (entities inserted before the cursor are only seen
+ * on the next full traversal). Only ids go into the cursor, so renaming a
+ * discipline between two pages doesn't move the position either.
+ *
+ * The page is cut by the database, not out of the full hierarchy: for each
+ * discipline walked, the PageSource is asked in one go for the ids after the
+ * cursor under all of its majors, ordered by (major, id), up to the number
+ * still missing from the page (plus one, to know whether there is a next
+ * page). Only the entities in the page are then loaded, in one go.
+ *
+ * Majors without any entity in the page are left out of it.
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import static COMP_49X_our_search.backend.util.ProtoConverter.toDisciplineProto;
+
+import COMP_49X_our_search.backend.database.entities.Discipline;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.repositories.MajorAndId;
+import COMP_49X_our_search.backend.util.exceptions.InvalidPageCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import proto.fetcher.DataTypes.DisciplineWithMajors;
+import proto.fetcher.DataTypes.MajorWithEntityCollection;
+import proto.fetcher.DataTypes.ProjectHierarchy;
+import proto.fetcher.FetcherModule.FetcherResponse;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+
+final class HierarchyPaginator {
+
+  private static final Comparator<Discipline> DISCIPLINE_ORDER =
+      Comparator.comparing(Discipline::getId);
+  private static final Comparator<Major> MAJOR_ORDER = Comparator.comparing(Major::getId);
+
+  /** Where the (already filtered) entities of a page are read from. */
+  interface PageSource<E> {
+
+    /**
+     * Returns at most limit (major id, entity id) pairs of the entities
+     * listed under one of the given majors, ordered by major id and then
+     * entity id, after the given position (or from the first pair if it is
+     * null).
+     */
+    List<MajorAndId> idsAfter(List<Integer> majorIds, MajorAndId after, int limit);
+
+    /** Loads the entities with the given ids, by id. */
+    Map<Integer, E> load(Set<Integer> ids);
+  }
+
+  private HierarchyPaginator() {}
+
+  static boolean isPaginated(FilteredFetcher filters) {
+    return filters.getPageSize() > 0;
+  }
+
+  /**
+   * Builds the page of the hierarchy requested by the given filters.
+   *
+   * @param majorsOf returns the majors of a discipline
+   * @param source reads the ids and entities of the page
+   * @param toMajorWithEntities converts a major and the entities in the page to
+   *     its proto
+   */
+  static <E> FetcherResponse buildPage(
+      FilteredFetcher filters,
+      List<Discipline> disciplines,
+      Function<Discipline, List<Major>> majorsOf,
+      PageSource<E> source,
+      BiFunction<Major, List<E>, MajorWithEntityCollection> toMajorWithEntities) {
+    Position after =
+        filters.getPageCursor().isEmpty() ? null : decodeCursor(filters.getPageCursor());
+    int pageSize = filters.getPageSize();
+
+    // The ids in the page, by discipline and major, in traversal order.
+    Map<Discipline, Map<Major, List<Integer>>> pageIds = new LinkedHashMap<>();
+    Position last = null;
+    int count = 0;
+    boolean hasMore = false;
+
+    List<Discipline> sortedDisciplines = disciplines.stream().sorted(DISCIPLINE_ORDER).toList();
+    for (Discipline discipline : sortedDisciplines) {
+      if (after != null && discipline.getId() < after.disciplineId()) {
+        continue;
+      }
+      boolean cursorDiscipline = after != null && discipline.getId() == after.disciplineId();
+
+      List<Major> sortedMajors =
+          majorsOf.apply(discipline).stream()
+              .filter(major -> !cursorDiscipline || major.getId() >= after.majorId())
+              .sorted(MAJOR_ORDER)
+              .toList();
+      if (sortedMajors.isEmpty()) {
+        continue;
+      }
+      MajorAndId afterInDiscipline =
+          cursorDiscipline ? new MajorAndId(after.majorId(), after.entityId()) : null;
+      // One more than still fits, to know whether the page is the last one.
+      List<MajorAndId> ids =
+          source.idsAfter(
+              sortedMajors.stream().map(Major::getId).toList(),
+              afterInDiscipline,
+              pageSize - count + 1);
+      if (count + ids.size() > pageSize) {
+        ids = ids.subList(0, pageSize - count);
+        hasMore = true;
+      }
+      Map<Integer, List<Integer>> idsByMajor = new LinkedHashMap<>();
+      for (MajorAndId id : ids) {
+        idsByMajor.computeIfAbsent(id.majorId(), majorId -> new ArrayList<>()).add(id.id());
+      }
+      for (Major major : sortedMajors) {
+        List<Integer> majorPageIds = idsByMajor.get(major.getId());
+        if (majorPageIds != null) {
+          pageIds.computeIfAbsent(discipline, d -> new LinkedHashMap<>()).put(major, majorPageIds);
+        }
+      }
+      if (!ids.isEmpty()) {
+        MajorAndId lastId = ids.get(ids.size() - 1);
+        last = new Position(discipline.getId(), lastId.majorId(), lastId.id());
+        count += ids.size();
+      }
+      if (hasMore) {
+        break;
+      }
+    }
+
+    Set<Integer> allIds = new LinkedHashSet<>();
+    pageIds.values().forEach(majors -> majors.values().forEach(allIds::addAll));
+    Map<Integer, E> entities = allIds.isEmpty() ? Map.of() : source.load(allIds);
+
+    List<DisciplineWithMajors> page = new ArrayList<>();
+    pageIds.forEach(
+        (discipline, majors) -> {
+          DisciplineWithMajors.Builder disciplineBuilder =
+              DisciplineWithMajors.newBuilder().setDiscipline(toDisciplineProto(discipline));
+          majors.forEach(
+              (major, ids) ->
+                  disciplineBuilder.addMajors(
+                      toMajorWithEntities.apply(
+                          major,
+                          // Entities deleted since their ids were read are skipped.
+                          ids.stream().map(entities::get).filter(Objects::nonNull).toList())));
+          page.add(disciplineBuilder.build());
+        });
+
+    FetcherResponse.Builder response =
+        FetcherResponse.newBuilder()
+            .setProjectHierarchy(ProjectHierarchy.newBuilder().addAllDisciplines(page));
+    if (hasMore) {
+      response.setNextPageCursor(encodeCursor(last));
+    }
+    return response.build();
+  }
+
+  static String encodeCursor(Position position) {
+    String raw = position.disciplineId() + ":" + position.majorId() + ":" + position.entityId();
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static Position decodeCursor(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = raw.split(":", -1);
+      if (parts.length != 3) {
+        throw new IllegalArgumentException("Expected 3 ids, got " + parts.length);
+      }
+      return new Position(
+          Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPageCursorException("Invalid page cursor: " + cursor, e);
+    }
+  }
+
+  /** Position of an entity in the hierarchy, in traversal order. */
+  record Position(int disciplineId, int majorId, int entityId) {}
+}
@@ -5,6 +5,12 @@
  *
  * <p>It ensures that requests are valid and only processes requests of type FILTERED_TYPE_PROJECTS.
  *
+ * <p>When the project search projection is enabled (see ProjectSearchProjectionService), the
+ * projects are read from it instead of being loaded with their associations.
+ *
+ * <p>Every project and faculty member is converted once per request however many majors the project
+ * is listed under (see ConversionContext).
+ *
  * <p>Implements the Fetcher interface.
  *
  * @author Augusto Escudero
@@ -17,20 +23,31 @@ import static COMP_49X_our_search.backend.util.ProtoConverter.toMajorProto;
 import COMP_49X_our_search.backend.database.entities.Discipline;
 import COMP_49X_our_search.backend.database.entities.Major;
 import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ProjectSearchRow;
+import COMP_49X_our_search.backend.database.repositories.MajorAndId;
 import COMP_49X_our_search.backend.database.services.DisciplineService;
 import COMP_49X_our_search.backend.database.services.MajorService;
+import COMP_49X_our_search.backend.database.services.ProjectSearchProjectionService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
-import COMP_49X_our_search.backend.util.ProtoConverter;
-import java.util.Arrays;
+import COMP_49X_our_search.backend.search.FullTextSearch;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.util.ConversionContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import proto.data.Entities.ProjectProto;
 import proto.fetcher.DataTypes.DisciplineWithMajors;
 import proto.fetcher.DataTypes.MajorWithEntityCollection;
 import proto.fetcher.DataTypes.ProjectCollection;
 import proto.fetcher.DataTypes.ProjectHierarchy;
+import proto.fetcher.FetcherModule.FacetCounts;
 import proto.fetcher.FetcherModule.FetcherRequest;
 import proto.fetcher.FetcherModule.FetcherRequest.FetcherTypeCase;
 import proto.fetcher.FetcherModule.FetcherResponse;
@@ -43,128 +60,305 @@ public class ProjectFetcher implements Fetcher {
   private final DisciplineService disciplineService;
   private final MajorService majorService;
   private final ProjectService projectService;
+  private final ProjectSearchIndex projectSearchIndex;
+  private final HierarchyAssembler hierarchyAssembler;
+  private final FullTextSearch fullTextSearch;
+  private final FacetIndex facetIndex;
+  private final ProjectSearchProjectionService projectSearchProjectionService;
+  private final ConversionStats conversionStats;
 
   @Autowired
   public ProjectFetcher(
       DisciplineService disciplineService,
       MajorService majorService,
-      ProjectService projectService) {
+      ProjectService projectService,
+      ProjectSearchIndex projectSearchIndex,
+      HierarchyAssembler hierarchyAssembler,
+      FullTextSearch fullTextSearch,
+      FacetIndex facetIndex,
+      ProjectSearchProjectionService projectSearchProjectionService,
+      ConversionStats conversionStats) {
     this.disciplineService = disciplineService;
     this.majorService = majorService;
     this.projectService = projectService;
+    this.projectSearchIndex = projectSearchIndex;
+    this.hierarchyAssembler = hierarchyAssembler;
+    this.fullTextSearch = fullTextSearch;
+    this.facetIndex = facetIndex;
+    this.projectSearchProjectionService = projectSearchProjectionService;
+    this.conversionStats = conversionStats;
   }
 
   @Override
   public FetcherResponse fetch(FetcherRequest request) {
     validateRequest(request);
+    FilteredFetcher filters = request.getFilteredFetcher();
+    FilterPlan plan = FilterPlan.compile(filters);
+    if (filters.getCountsOnly()) {
+      return FetcherResponse.newBuilder().setFacetCounts(facetCounts(plan)).build();
+    }
     List<Discipline> disciplines = disciplineService.getAllDisciplines();
 
+    // Load the whole discipline -> major -> project graph up front with a
+    // fixed number of queries and group it in memory, instead of querying
+    // majors once per discipline and projects once per major.
+    Map<Integer, List<Major>> majorsByDiscipline = new HashMap<>();
+    for (Major major : majorService.getAllMajorsWithDisciplines()) {
+      for (Discipline discipline : major.getDisciplines()) {
+        majorsByDiscipline.computeIfAbsent(discipline.getId(), id -> new ArrayList<>()).add(major);
+      }
+    }
+
+    ConversionContext conversions = conversionStats.newContext();
+    FetcherResponse response;
+    // The database only returns the projects matching the filters. Keywords
+    // are resolved through the search backend first and passed on as ids.
+    if (HierarchyPaginator.isPaginated(filters)) {
+      // Only the ids of the page are read per major, and only its projects
+      // are loaded.
+      response =
+          projectSearchProjectionService.isEnabled()
+              ? buildPage(
+                  filters,
+                  plan,
+                  disciplines,
+                  majorsByDiscipline,
+                  rowPageSource(plan),
+                  conversions::toProjectProto)
+              : buildPage(
+                  filters,
+                  plan,
+                  disciplines,
+                  majorsByDiscipline,
+                  projectPageSource(plan),
+                  conversions::toProjectProto);
+    } else if (projectSearchProjectionService.isEnabled()) {
+      // Already one row per project and major, with everything joined in.
+      Map<Integer, List<ProjectSearchRow>> rowsByMajor = new HashMap<>();
+      for (ProjectSearchRow row : projectSearchProjectionService.getRows(rowFilter(plan))) {
+        rowsByMajor.computeIfAbsent(row.getMajorId(), id -> new ArrayList<>()).add(row);
+      }
+      response =
+          buildResponse(
+              filters,
+              plan,
+              disciplines,
+              majorsByDiscipline,
+              rowsByMajor,
+              conversions::toProjectProto);
+    } else {
+      response =
+          buildResponse(
+              filters,
+              plan,
+              disciplines,
+              majorsByDiscipline,
+              projectsByMajor(plan),
+              conversions::toProjectProto);
+    }
+    conversionStats.record("projects", conversions);
+    return response;
+  }
+
+  private Specification<Project> projectFilter(FilterPlan plan) {
+    Specification<Project> filter = FilterSpecifications.projectsMatching(plan);
+    if (plan.getKeywordMatch() != FilterPlan.KeywordMatch.ANY) {
+      filter = filter.and(keywordFilter(plan));
+    }
+    return filter;
+  }
+
+  private Map<Integer, List<Project>> projectsByMajor(FilterPlan plan) {
+    Map<Integer, List<Project>> projectsByMajor = new HashMap<>();
+    for (Project project : projectService.getProjectsWithAssociations(projectFilter(plan))) {
+      for (Major major : project.getMajors()) {
+        projectsByMajor.computeIfAbsent(major.getId(), id -> new ArrayList<>()).add(project);
+      }
+    }
+    return projectsByMajor;
+  }
+
+  private HierarchyPaginator.PageSource<Project> projectPageSource(FilterPlan plan) {
+    // Built once, so keywords are only resolved once per page.
+    Specification<Project> filter = projectFilter(plan);
+    return new HierarchyPaginator.PageSource<>() {
+      @Override
+      public List<MajorAndId> idsAfter(List<Integer> majorIds, MajorAndId after, int limit) {
+        return projectService.getProjectIdsByMajor(filter, majorIds, after, limit);
+      }
+
+      @Override
+      public Map<Integer, Project> load(Set<Integer> ids) {
+        Map<Integer, Project> projects = new HashMap<>();
+        for (Project project :
+            projectService.getProjectsWithAssociations(FilterSpecifications.projectIdIn(ids))) {
+          projects.put(project.getId(), project);
+        }
+        return projects;
+      }
+    };
+  }
+
+  private HierarchyPaginator.PageSource<ProjectSearchRow> rowPageSource(FilterPlan plan) {
+    Specification<ProjectSearchRow> filter = rowFilter(plan);
+    return new HierarchyPaginator.PageSource<>() {
+      @Override
+      public List<MajorAndId> idsAfter(List<Integer> majorIds, MajorAndId after, int limit) {
+        return projectSearchProjectionService.getProjectIdsByMajor(filter, majorIds, after, limit);
+      }
+
+      @Override
+      public Map<Integer, ProjectSearchRow> load(Set<Integer> ids) {
+        // A project has one row per major, any of them converts to the same
+        // proto.
+        Map<Integer, ProjectSearchRow> rows = new HashMap<>();
+        for (ProjectSearchRow row :
+            projectSearchProjectionService.getRows(FilterSpecifications.projectRowIdIn(ids))) {
+          rows.putIfAbsent(row.getProjectId(), row);
+        }
+        return rows;
+      }
+    };
+  }
+
+  private <E> FetcherResponse buildPage(
+      FilteredFetcher filters,
+      FilterPlan plan,
+      List<Discipline> disciplines,
+      Map<Integer, List<Major>> majorsByDiscipline,
+      HierarchyPaginator.PageSource<E> source,
+      Function<E, ProjectProto> toProto) {
+    return withFacetCounts(
+        filters,
+        plan,
+        HierarchyPaginator.buildPage(
+            filters,
+            disciplines,
+            discipline -> majorsByDiscipline.getOrDefault(discipline.getId(), List.of()),
+            source,
+            (major, projects) -> buildMajorWithProjects(major, projects, toProto)));
+  }
+
+  // Builds the hierarchy from the projects grouped by major, either as
+  // entities or as rows of the projection.
+  private <E> FetcherResponse buildResponse(
+      FilteredFetcher filters,
+      FilterPlan plan,
+      List<Discipline> disciplines,
+      Map<Integer, List<Major>> majorsByDiscipline,
+      Map<Integer, List<E>> projectsByMajor,
+      Function<E, ProjectProto> toProto) {
     List<DisciplineWithMajors> disciplineWithMajors =
-        disciplines.stream()
-            .map(discipline -> buildDisciplineWithMajors(discipline, request.getFilteredFetcher()))
-            .toList();
+        hierarchyAssembler.assemble(
+            disciplines,
+            discipline ->
+                buildDisciplineWithMajors(
+                    discipline,
+                    majorsByDiscipline.getOrDefault(discipline.getId(), List.of()),
+                    projectsByMajor,
+                    toProto));
 
-    return FetcherResponse.newBuilder()
-        .setProjectHierarchy(
-            ProjectHierarchy.newBuilder().addAllDisciplines(disciplineWithMajors).build())
-        .build();
+    return withFacetCounts(
+        filters,
+        plan,
+        FetcherResponse.newBuilder()
+            .setProjectHierarchy(
+                ProjectHierarchy.newBuilder().addAllDisciplines(disciplineWithMajors).build())
+            .build());
   }
 
-  private DisciplineWithMajors buildDisciplineWithMajors(
-      Discipline discipline, FilteredFetcher filters) {
-    List<Major> majors = majorService.getMajorsByDisciplineId(discipline.getId());
+  private FetcherResponse withFacetCounts(
+      FilteredFetcher filters, FilterPlan plan, FetcherResponse response) {
+    if (!filters.getIncludeFacetCounts()) {
+      return response;
+    }
+    return response.toBuilder().setFacetCounts(facetCounts(plan)).build();
+  }
+
+  // Resolves the keywords the same way keywordFilter does, but through the
+  // in-memory indexes instead of a query (the FULLTEXT match aside).
+  private FacetCounts facetCounts(FilterPlan plan) {
+    // Every project has a name, so separator-only keywords match them all.
+    if (plan.getKeywordMatch() == FilterPlan.KeywordMatch.ANY
+        || plan.getKeywordMatch() == FilterPlan.KeywordMatch.NOT_NULL) {
+      return facetIndex.countProjects(plan, null);
+    }
+    if (plan.getKeywordMatch() == FilterPlan.KeywordMatch.NONE) {
+      return facetIndex.countProjects(plan, Set.of());
+    }
+    if (!fullTextSearch.isEnabled()) {
+      return facetIndex.countProjects(plan, projectSearchIndex.search(plan.getSearchKeywords()));
+    }
+    // The FULLTEXT index only covers the project's own text.
+    Set<Integer> matches = new HashSet<>(fullTextSearch.matchProjects(plan.getSearchKeywords()));
+    matches.addAll(projectSearchIndex.searchFacultyNames(plan.getSearchKeywords()));
+    return facetIndex.countProjects(plan, matches);
+  }
+
+  private Specification<Project> keywordFilter(FilterPlan plan) {
+    if (plan.getKeywordMatch() != FilterPlan.KeywordMatch.CONTAINS) {
+      // Blank keywords match no project and separator-only keywords every
+      // project with some text, same as for students and faculty.
+      return FilterSpecifications.projectTextContains(plan)
+          .or(FilterSpecifications.projectFacultyNameContains(plan));
+    }
+    if (fullTextSearch.isEnabled()) {
+      // The FULLTEXT index only covers the project's own text.
+      return FilterSpecifications.projectIdIn(
+              fullTextSearch.matchProjects(plan.getSearchKeywords()))
+          .or(FilterSpecifications.projectFacultyNameContains(plan));
+    }
+    return FilterSpecifications.projectIdIn(projectSearchIndex.search(plan.getSearchKeywords()));
+  }
+
+  // Same filters as projectsMatching and keywordFilter, on the projection.
+  private Specification<ProjectSearchRow> rowFilter(FilterPlan plan) {
+    Specification<ProjectSearchRow> filter = FilterSpecifications.projectRowsMatching(plan);
+    if (plan.getKeywordMatch() == FilterPlan.KeywordMatch.ANY) {
+      return filter;
+    }
+    if (plan.getKeywordMatch() != FilterPlan.KeywordMatch.CONTAINS) {
+      return filter.and(
+          FilterSpecifications.projectRowIdIn(
+              projectService.getProjectIds(keywordFilter(plan))));
+    }
+    if (fullTextSearch.isEnabled()) {
+      return filter.and(
+          FilterSpecifications.projectRowIdIn(
+                  fullTextSearch.matchProjects(plan.getSearchKeywords()))
+              .or(FilterSpecifications.projectRowFacultyNameContains(plan)));
+    }
+    return filter.and(
+        FilterSpecifications.projectRowIdIn(projectSearchIndex.search(plan.getSearchKeywords())));
+  }
+
+  private <E> DisciplineWithMajors buildDisciplineWithMajors(
+      Discipline discipline,
+      List<Major> majors,
+      Map<Integer, List<E>> projectsByMajor,
+      Function<E, ProjectProto> toProto) {
     return DisciplineWithMajors.newBuilder()
         .setDiscipline(toDisciplineProto(discipline))
         .addAllMajors(
             majors.stream()
-                .map(major -> buildMajorWithProjects(major, discipline.getId(), filters))
+                .map(
+                    major ->
+                        buildMajorWithProjects(
+                            major, projectsByMajor.getOrDefault(major.getId(), List.of()), toProto))
                 .toList())
         .build();
   }
 
-  private MajorWithEntityCollection buildMajorWithProjects(
-      Major major, Integer disciplineId, FilteredFetcher filters) {
-    List<Project> projects = projectService.getProjectsByMajorId(major.getId());
-
-    List<Project> filteredProjects = projects;
-
-    if (!filters.getMajorIdsList().isEmpty()
-        && !filters.getMajorIdsList().contains(major.getId())) {
-      // Only filter if: 1) Major filters exist AND 2) Current major is not in filter list
-      filteredProjects =
-          filteredProjects.stream()
-              .filter(
-                  project ->
-                      project.getMajors().stream()
-                          .anyMatch(
-                              projectMajor ->
-                                  filters.getMajorIdsList().contains(projectMajor.getId())))
-              .toList();
-    }
-
-    if (!filters.getResearchPeriodIdsList().isEmpty()) {
-      filteredProjects =
-          filteredProjects.stream()
-              .filter(
-                  project ->
-                      project.getResearchPeriods().stream()
-                          .anyMatch(
-                              period ->
-                                  filters.getResearchPeriodIdsList().contains(period.getId())))
-              .toList();
-    }
-
-    if (!filters.getUmbrellaTopicIdsList().isEmpty()) {
-      filteredProjects =
-          filteredProjects.stream()
-              .filter(
-                  project ->
-                      project.getUmbrellaTopics().stream()
-                          .anyMatch(
-                              topic -> filters.getUmbrellaTopicIdsList().contains(topic.getId())))
-              .toList();
-    }
-
-    if (!filters.getKeywords().isEmpty()) {
-      filteredProjects =
-          filteredProjects.stream()
-              .filter(
-                  project ->
-                      containsKeyword(project.getDescription(), filters.getKeywords())
-                          || containsKeyword(
-                              project.getDesiredQualifications(), filters.getKeywords())
-                          || containsKeyword(project.getName(), filters.getKeywords())
-                          || containsKeyword(
-                              project.getFaculty().getFirstName()
-                                  + " "
-                                  + project.getFaculty().getLastName(),
-                              filters.getKeywords()))
-              .toList();
-    }
-
+  private <E> MajorWithEntityCollection buildMajorWithProjects(
+      Major major, List<E> projects, Function<E, ProjectProto> toProto) {
     return MajorWithEntityCollection.newBuilder()
         .setMajor(toMajorProto(major))
         .setProjectCollection(
             ProjectCollection.newBuilder()
-                .addAllProjects(
-                    filteredProjects.stream().map(ProtoConverter::toProjectProto).toList()))
+                .addAllProjects(projects.stream().map(toProto).toList()))
         .build();
   }
 
-  private boolean containsKeyword(String text, String keywords) {
-    if (text == null || keywords == null || keywords.trim().isEmpty()) {
-      return false;
-    }
-
-    String lowercaseText = text.toLowerCase();
-    Set<String> keywordSet =
-        Arrays.stream(keywords.toLowerCase().split("[ ,]"))
-            .filter(k -> !k.trim().isEmpty())
-            .collect(Collectors.toSet());
-
-    return keywordSet.isEmpty() || keywordSet.stream().anyMatch(lowercaseText::contains);
-  }
-
   private void validateRequest(FetcherRequest request) {
     if (request.getFetcherTypeCase() == FetcherTypeCase.FETCHERTYPE_NOT_SET) {
       throw new IllegalArgumentException(
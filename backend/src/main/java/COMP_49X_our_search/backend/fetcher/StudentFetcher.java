@@ -8,6 +8,8 @@
  * Students are included in the response if they are either majoring in the
  * discipline or have expressed research interest in it (even if they are not
  * majoring in it).
+ * A student listed under several majors is only converted once per request
+ * (see ConversionContext).
  *
  * Implements the fetcher interface.
  *
@@ -21,21 +23,26 @@ import static COMP_49X_our_search.backend.util.ProtoConverter.toMajorProto;
 import COMP_49X_our_search.backend.database.entities.Discipline;
 import COMP_49X_our_search.backend.database.entities.Major;
 import COMP_49X_our_search.backend.database.entities.Student;
+import COMP_49X_our_search.backend.database.repositories.MajorAndId;
 import COMP_49X_our_search.backend.database.services.DisciplineService;
 import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.StudentService;
-import COMP_49X_our_search.backend.util.ProtoConverter;
-import java.util.Arrays;
-import java.util.HashSet;
+import COMP_49X_our_search.backend.search.FullTextSearch;
+import COMP_49X_our_search.backend.util.ConversionContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import proto.fetcher.DataTypes.DisciplineWithMajors;
 import proto.fetcher.DataTypes.MajorWithEntityCollection;
 import proto.fetcher.DataTypes.ProjectHierarchy;
 import proto.fetcher.DataTypes.StudentCollection;
+import proto.fetcher.FetcherModule.FacetCounts;
 import proto.fetcher.FetcherModule.FetcherRequest;
 import proto.fetcher.FetcherModule.FetcherRequest.FetcherTypeCase;
 import proto.fetcher.FetcherModule.FetcherResponse;
@@ -48,109 +55,158 @@ public class StudentFetcher implements Fetcher {
   private final DisciplineService disciplineService;
   private final MajorService majorService;
   private final StudentService studentService;
+  private final HierarchyAssembler hierarchyAssembler;
+  private final FullTextSearch fullTextSearch;
+  private final FacetIndex facetIndex;
+  private final ConversionStats conversionStats;
 
   @Autowired
   public StudentFetcher(
       DisciplineService disciplineService,
       MajorService majorService,
-      StudentService studentService) {
+      StudentService studentService,
+      HierarchyAssembler hierarchyAssembler,
+      FullTextSearch fullTextSearch,
+      FacetIndex facetIndex,
+      ConversionStats conversionStats) {
     this.disciplineService = disciplineService;
     this.majorService = majorService;
     this.studentService = studentService;
+    this.hierarchyAssembler = hierarchyAssembler;
+    this.fullTextSearch = fullTextSearch;
+    this.facetIndex = facetIndex;
+    this.conversionStats = conversionStats;
   }
 
   @Override
   public FetcherResponse fetch(FetcherRequest request) {
     validateRequest(request);
+    FilteredFetcher filters = request.getFilteredFetcher();
+    if (filters.getCountsOnly()) {
+      return FetcherResponse.newBuilder().setFacetCounts(facetCounts(filters)).build();
+    }
     List<Discipline> disciplines = disciplineService.getAllDisciplines();
+    Specification<Student> filter = studentFilter(FilterPlan.compile(filters));
+    // All majors with their disciplines in one query, instead of one query
+    // per discipline.
+    Map<Integer, List<Major>> majorsByDiscipline = new HashMap<>();
+    for (Major major : majorService.getAllMajorsWithDisciplines()) {
+      for (Discipline discipline : major.getDisciplines()) {
+        majorsByDiscipline.computeIfAbsent(discipline.getId(), id -> new ArrayList<>()).add(major);
+      }
+    }
 
-    List<DisciplineWithMajors> disciplineWithMajors = disciplines.stream()
-      .map(discipline -> buildDisciplineWithMajors(discipline, request.getFilteredFetcher()))
-      .toList();
-
-    return FetcherResponse.newBuilder()
-        .setProjectHierarchy(ProjectHierarchy.newBuilder().addAllDisciplines(disciplineWithMajors))
-        .build();
-  }
-
-  private DisciplineWithMajors buildDisciplineWithMajors(Discipline discipline, FilteredFetcher filters) {
-    List<Major> majors = majorService.getMajorsByDisciplineId(discipline.getId());
-    return DisciplineWithMajors.newBuilder()
-        .setDiscipline(toDisciplineProto(discipline))
-        .addAllMajors(majors.stream().map(major -> buildMajorWithStudents(major, filters)).toList())
-        .build();
+    ConversionContext conversions = conversionStats.newContext();
+    FetcherResponse response;
+    if (HierarchyPaginator.isPaginated(filters)) {
+      // Only the ids of the page are read per major, and only its students
+      // are loaded.
+      response =
+          HierarchyPaginator.buildPage(
+              filters,
+              disciplines,
+              discipline -> majorsByDiscipline.getOrDefault(discipline.getId(), List.of()),
+              studentPageSource(filter),
+              (major, students) -> buildMajorWithStudents(major, students, conversions));
+    } else {
+      // Loaded once for the whole request instead of twice per major, and
+      // only the students matching the filters.
+      Map<Integer, Set<Student>> studentsByMajor =
+          studentService.getActiveStudentsByMajorId(filter);
+      List<DisciplineWithMajors> disciplineWithMajors =
+          hierarchyAssembler.assemble(
+              disciplines,
+              discipline ->
+                  buildDisciplineWithMajors(
+                      discipline,
+                      majorsByDiscipline.getOrDefault(discipline.getId(), List.of()),
+                      studentsByMajor,
+                      conversions));
+      response =
+          FetcherResponse.newBuilder()
+              .setProjectHierarchy(
+                  ProjectHierarchy.newBuilder().addAllDisciplines(disciplineWithMajors))
+              .build();
+    }
+    conversionStats.record("students", conversions);
+    return withFacetCounts(filters, response);
   }
 
-  private MajorWithEntityCollection buildMajorWithStudents(Major major, FilteredFetcher filters) {
-    List<Student> studentsMajoring = studentService.getStudentsByMajorId(major.getId());
-    List<Student> studentsInterested =
-        studentService.getStudentsByResearchFieldInterestId(major.getId());
-    // The set should include:
-    // 1) Students who are majoring in the given major.
-    // 2) Students who have expressed interest in researching this field,
-    //    even if they are majoring in a different discipline.
-    Set<Student> uniqueStudents = new HashSet<>(studentsMajoring);
-    uniqueStudents.addAll(studentsInterested);
-
-    Set<Student> activeUniqueStudents =
-        uniqueStudents.stream().filter(Student::getIsActive).collect(Collectors.toSet());
-
-    Set<Student> filteredStudents = activeUniqueStudents;
+  private HierarchyPaginator.PageSource<Student> studentPageSource(Specification<Student> filter) {
+    return new HierarchyPaginator.PageSource<>() {
+      @Override
+      public List<MajorAndId> idsAfter(List<Integer> majorIds, MajorAndId after, int limit) {
+        return studentService.getActiveStudentIdsByMajor(filter, majorIds, after, limit);
+      }
 
-    // If major filter is applied, only keep students if:
-    // 1. The current major being processed is in the filter list, OR
-    // 2. No major filter is applied (empty list)
-    if (!filters.getMajorIdsList().isEmpty()) {
-      // If this major is in the filter list, show all students for this major
-      if (filters.getMajorIdsList().contains(major.getId())) {
-        // Keep all students for this major
-      } else {
-        // This major isn't in the filter list, so we only show students
-        // who have the filtered majors as their research interests
-        filteredStudents = activeUniqueStudents.stream()
-            .filter(student -> student.getMajors().stream()
-                .anyMatch(studentMajor -> filters.getMajorIdsList().contains(studentMajor.getId()))
-                || student.getResearchFieldInterests().stream()
-                    .anyMatch(interest -> filters.getMajorIdsList().contains(interest.getId())))
-            .collect(Collectors.toSet());
+      @Override
+      public Map<Integer, Student> load(Set<Integer> ids) {
+        Map<Integer, Student> students = new HashMap<>();
+        for (Student student :
+            studentService.getActiveStudentsWithAssociations(
+                FilterSpecifications.studentIdIn(ids))) {
+          students.put(student.getId(), student);
+        }
+        return students;
       }
+    };
+  }
+
+  private FetcherResponse withFacetCounts(FilteredFetcher filters, FetcherResponse response) {
+    if (!filters.getIncludeFacetCounts()) {
+      return response;
     }
+    return response.toBuilder().setFacetCounts(facetCounts(filters)).build();
+  }
 
-    if (!filters.getResearchPeriodIdsList().isEmpty()) {
-      filteredStudents = filteredStudents.stream()
-          .filter(student -> student.getResearchPeriods().stream()
-              .anyMatch(period -> filters.getResearchPeriodIdsList().contains(period.getId())))
-          .collect(Collectors.toSet());
+  // The keywords are matched by the index, except against interest reasons
+  // when they go through the FULLTEXT index, same as in studentFilter.
+  private FacetCounts facetCounts(FilteredFetcher filters) {
+    FilterPlan plan = FilterPlan.compile(filters);
+    if (fullTextSearch.isEnabled() && !plan.getSearchKeywords().isEmpty()) {
+      return facetIndex.countStudents(
+          plan, fullTextSearch.matchStudentInterests(plan.getSearchKeywords()));
     }
+    return facetIndex.countStudents(plan);
+  }
 
-    if (!filters.getKeywords().isEmpty()) {
-      filteredStudents = filteredStudents.stream()
-          .filter(student -> containsKeyword(student.getInterestReason(), filters.getKeywords())
-          || containsKeyword(student.getFirstName() + " " + student.getLastName(), filters.getKeywords()))
-          .collect(Collectors.toSet());
+  private Specification<Student> studentFilter(FilterPlan plan) {
+    if (fullTextSearch.isEnabled() && !plan.getSearchKeywords().isEmpty()) {
+      return FilterSpecifications.studentsMatching(
+          plan, fullTextSearch.matchStudentInterests(plan.getSearchKeywords()));
     }
+    return FilterSpecifications.studentsMatching(plan);
+  }
+
+  private DisciplineWithMajors buildDisciplineWithMajors(
+      Discipline discipline,
+      List<Major> majors,
+      Map<Integer, Set<Student>> studentsByMajor,
+      ConversionContext conversions) {
+    return DisciplineWithMajors.newBuilder()
+        .setDiscipline(toDisciplineProto(discipline))
+        .addAllMajors(
+            majors.stream()
+                .map(
+                    major ->
+                        buildMajorWithStudents(
+                            major,
+                            studentsByMajor.getOrDefault(major.getId(), Set.of()),
+                            conversions))
+                .toList())
+        .build();
+  }
 
+  private MajorWithEntityCollection buildMajorWithStudents(
+      Major major, Collection<Student> students, ConversionContext conversions) {
     return MajorWithEntityCollection.newBuilder()
         .setMajor(toMajorProto(major))
         .setStudentCollection(
             StudentCollection.newBuilder()
-                .addAllStudents(
-                    filteredStudents.stream().map(ProtoConverter::toStudentProto).toList()))
+                .addAllStudents(students.stream().map(conversions::toStudentProto).toList()))
         .build();
   }
 
-  private boolean containsKeyword(String text, String keywords) {
-    if (text == null || keywords == null || keywords.trim().isEmpty()) {
-      return false;
-    }
-
-    String lowercaseText = text.toLowerCase();
-    Set<String> keywordSet = Arrays.stream(keywords.toLowerCase().split("[ ,]"))
-        .filter(k -> !k.trim().isEmpty()).collect(Collectors.toSet());
-
-    return keywordSet.isEmpty() || keywordSet.stream().anyMatch(lowercaseText::contains);
-  }
-
   private void validateRequest(FetcherRequest request) {
     if (request.getFetcherTypeCase() == FetcherTypeCase.FETCHERTYPE_NOT_SET) {
       throw new IllegalArgumentException(
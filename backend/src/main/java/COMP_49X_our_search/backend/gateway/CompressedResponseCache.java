@@ -0,0 +1,110 @@
+/**
+ * Cache of gzip-compressed response bodies for the heaviest catalog GET
+ * endpoints (the unfiltered /all-projects and /all-faculty JSON).
+ *
+ * Each body is compressed once per catalog version, when it is first asked
+ * for, and then served as is to every client accepting gzip until the next
+ * write changes the version. Requests for the current version therefore cost
+ * no serialization or compression at all.
+ *
+ * Only gzip is kept: the JDK has no brotli encoder, and clients accepting br
+ * all accept gzip as well.
+ */
+package COMP_49X_our_search.backend.gateway;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@Component
+public class CompressedResponseCache {
+
+  private record Entry(String version, byte[] gzip) {}
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  // One lock per key, so compressing one body never holds up another.
+  private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the gzip-compressed body cached under the given key for the given
+   * data version, writing and compressing it with the given writer first if
+   * the cached one is missing or of another version.
+   */
+  public byte[] gzip(String key, String version, StreamingResponseBody writer) {
+    Entry entry = entries.get(key);
+    if (entry != null && entry.version().equals(version)) {
+      return entry.gzip();
+    }
+    // Only one request compresses the body of a key at a time, the others
+    // waiting for it then find it cached.
+    synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+      entry = entries.get(key);
+      if (entry == null || !entry.version().equals(version)) {
+        entry = new Entry(version, compress(writer));
+        entries.put(key, entry);
+      }
+      return entry.gzip();
+    }
+  }
+
+  /**
+   * Returns true if the value of an Accept-Encoding header allows a gzip
+   * response body, i.e. it lists gzip (or *) without q=0.
+   */
+  public static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.isBlank()) {
+      return false;
+    }
+    for (String candidate : acceptEncoding.split(",")) {
+      String[] parts = candidate.split(";");
+      String coding = parts[0].trim();
+      if (!coding.equalsIgnoreCase("gzip")
+          && !coding.equalsIgnoreCase("x-gzip")
+          && !coding.equals("*")) {
+        continue;
+      }
+      if (isAcceptable(parts)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // A coding is acceptable unless its quality value is 0.
+  private static boolean isAcceptable(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2)) > 0;
+        } catch (NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static byte[] compress(StreamingResponseBody writer) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    // Compressed once per version, so the best compression is worth its cost.
+    try (OutputStream out =
+        new GZIPOutputStream(bytes) {
+          {
+            def.setLevel(Deflater.BEST_COMPRESSION);
+          }
+        }) {
+      writer.writeTo(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+}
@@ -15,6 +15,7 @@ package COMP_49X_our_search.backend.gateway;
 
 import COMP_49X_our_search.backend.security.RoleAuthorizationService;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.format.TextStyle;
@@ -23,10 +24,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -36,10 +40,12 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import COMP_49X_our_search.backend.authentication.OAuthChecker;
 import COMP_49X_our_search.backend.database.entities.Department;
@@ -55,9 +61,11 @@ import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
 import COMP_49X_our_search.backend.database.entities.WeeklyNotificationSchedule;
 import COMP_49X_our_search.backend.database.enums.FaqType;
 import COMP_49X_our_search.backend.database.enums.UserRole;
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
 import COMP_49X_our_search.backend.database.services.DepartmentService;
 import COMP_49X_our_search.backend.database.services.DisciplineService;
 import COMP_49X_our_search.backend.database.services.EmailNotificationService;
+import COMP_49X_our_search.backend.database.services.EmailOutboxService;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.FaqService;
 import COMP_49X_our_search.backend.database.services.MajorService;
@@ -68,6 +76,7 @@ import COMP_49X_our_search.backend.database.services.UmbrellaTopicService;
 import COMP_49X_our_search.backend.database.services.UserService;
 import COMP_49X_our_search.backend.database.services.YearlyNotificationScheduleService;
 import COMP_49X_our_search.backend.database.services.WeeklyNotificationScheduleService;
+import COMP_49X_our_search.backend.fetcher.FetcherResponseCache;
 import COMP_49X_our_search.backend.gateway.dto.AdminEmailDTO;
 import COMP_49X_our_search.backend.gateway.dto.CreateFacultyRequestDTO;
 import COMP_49X_our_search.backend.gateway.dto.CreateMajorRequestDTO;
@@ -83,23 +92,36 @@ import COMP_49X_our_search.backend.gateway.dto.EditMajorRequestDTO;
 import COMP_49X_our_search.backend.gateway.dto.EditStudentRequestDTO;
 import COMP_49X_our_search.backend.gateway.dto.EmailNotificationDTO;
 import COMP_49X_our_search.backend.gateway.dto.EmailNotificationTimeDTO;
+import COMP_49X_our_search.backend.gateway.dto.EmailOutboxStatsDTO;
+import COMP_49X_our_search.backend.gateway.dto.FacetCountDTO;
+import COMP_49X_our_search.backend.gateway.dto.FacetCountsDTO;
 import COMP_49X_our_search.backend.gateway.dto.FacultyDTO;
 import COMP_49X_our_search.backend.gateway.dto.FacultyProfileDTO;
+import COMP_49X_our_search.backend.gateway.dto.FetcherCacheStatsDTO;
 import COMP_49X_our_search.backend.gateway.dto.FaqDTO;
 import COMP_49X_our_search.backend.gateway.dto.FaqRequestDTO;
 import COMP_49X_our_search.backend.gateway.dto.MajorDTO;
 import COMP_49X_our_search.backend.gateway.dto.ProjectDTO;
 import COMP_49X_our_search.backend.gateway.dto.ResearchPeriodDTO;
 import COMP_49X_our_search.backend.gateway.dto.StudentDTO;
+import COMP_49X_our_search.backend.gateway.dto.SuggestionDTO;
 import COMP_49X_our_search.backend.gateway.dto.UmbrellaTopicDTO;
 import COMP_49X_our_search.backend.gateway.dto.WeeklyNotificationDayDTO;
+import COMP_49X_our_search.backend.gateway.util.CompactHierarchyJsonWriter;
+import COMP_49X_our_search.backend.gateway.util.ETagUtils;
+import COMP_49X_our_search.backend.gateway.util.HierarchyJsonWriter;
 import COMP_49X_our_search.backend.gateway.util.ProjectHierarchyConverter;
 import static COMP_49X_our_search.backend.gateway.util.ProjectHierarchyConverter.protoFacultyToFacultyDto;
 import static COMP_49X_our_search.backend.gateway.util.ProjectHierarchyConverter.protoStudentToStudentDto;
+import COMP_49X_our_search.backend.search.RankedProjectSearch;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import COMP_49X_our_search.backend.security.LogoutService;
 import static COMP_49X_our_search.backend.util.ClassStatusConverter.toClassStatus;
+import COMP_49X_our_search.backend.util.ProtoConverter;
 import COMP_49X_our_search.backend.util.exceptions.ForbiddenDisciplineActionException;
 import COMP_49X_our_search.backend.util.exceptions.ForbiddenMajorActionException;
+import COMP_49X_our_search.backend.util.exceptions.InvalidPageCursorException;
+import com.google.protobuf.MessageLite;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import proto.core.Core.ModuleConfig;
@@ -107,6 +129,10 @@ import proto.core.Core.ModuleResponse;
 import proto.data.Entities.FacultyProto;
 import proto.data.Entities.ProjectProto;
 import proto.data.Entities.StudentProto;
+import proto.fetcher.DataTypes.DepartmentWithFaculty;
+import proto.fetcher.DataTypes.DisciplineWithMajors;
+import proto.fetcher.FetcherModule.FacetCount;
+import proto.fetcher.FetcherModule.FacetCounts;
 import proto.fetcher.FetcherModule.FetcherRequest;
 import proto.fetcher.FetcherModule.FetcherResponse;
 import proto.fetcher.FetcherModule.FilteredFetcher;
@@ -131,6 +157,23 @@ import proto.project.ProjectModule.ProjectRequest;
 @RestController
 @RequestMapping
 public class GatewayController {
+  // Response header holding the cursor of the next page of a paginated
+  // hierarchy, absent on the last page.
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  // Most results /all-projects/ranked returns at once.
+  public static final int MAX_RANKED_RESULTS = 100;
+  // Most suggestions /suggest returns at once.
+  public static final int MAX_SUGGESTIONS = 25;
+  // Media type clients put in their Accept header to get the hierarchy
+  // endpoints as the fetcher's proto bytes instead of JSON.
+  public static final String PROTOBUF_MEDIA_TYPE = "application/x-protobuf";
+
+  // Writes the disciplines of a hierarchy as JSON.
+  @FunctionalInterface
+  private interface HierarchyWriter {
+    void write(List<DisciplineWithMajors> disciplines, OutputStream out) throws IOException;
+  }
+
   private final ModuleInvoker moduleInvoker;
   private final OAuthChecker oAuthChecker;
   private final DepartmentService departmentService;
@@ -148,6 +191,12 @@ public class GatewayController {
   private final YearlyNotificationScheduleService yearlyScheduleService;
   private final WeeklyNotificationScheduleService weeklyNotificationScheduleService;
   private final RoleAuthorizationService roleAuthorizationService;
+  private final CatalogVersionService catalogVersionService;
+  private final EmailOutboxService emailOutboxService;
+  private final RankedProjectSearch rankedProjectSearch;
+  private final SuggestionIndex suggestionIndex;
+  private final CompressedResponseCache compressedResponseCache;
+  private final FetcherResponseCache fetcherResponseCache;
 
   @Autowired
   public GatewayController(
@@ -167,7 +216,13 @@ public class GatewayController {
       UserService userService,
       YearlyNotificationScheduleService yearlyScheduleService,
       WeeklyNotificationScheduleService weeklyNotificationScheduleService,
-      RoleAuthorizationService roleAuthorizationService) {
+      RoleAuthorizationService roleAuthorizationService,
+      CatalogVersionService catalogVersionService,
+      EmailOutboxService emailOutboxService,
+      RankedProjectSearch rankedProjectSearch,
+      SuggestionIndex suggestionIndex,
+      CompressedResponseCache compressedResponseCache,
+      FetcherResponseCache fetcherResponseCache) {
     this.moduleInvoker = moduleInvoker;
     this.oAuthChecker = oAuthChecker;
     this.departmentService = departmentService;
@@ -185,40 +240,221 @@ public class GatewayController {
     this.yearlyScheduleService = yearlyScheduleService;
     this.weeklyNotificationScheduleService = weeklyNotificationScheduleService;
     this.roleAuthorizationService = roleAuthorizationService;
+    this.catalogVersionService = catalogVersionService;
+    this.emailOutboxService = emailOutboxService;
+    this.rankedProjectSearch = rankedProjectSearch;
+    this.suggestionIndex = suggestionIndex;
+    this.compressedResponseCache = compressedResponseCache;
+    this.fetcherResponseCache = fetcherResponseCache;
   }
 
+  // Unfiltered requests from clients accepting gzip get the body cached and
+  // compressed for the current catalog version (see CompressedResponseCache),
+  // under an ETag of its own.
   @GetMapping("/all-projects")
-  public ResponseEntity<List<DisciplineDTO>> getProjects(
+  public ResponseEntity<?> getProjects(
       @RequestParam(required = false) List<Integer> majors,
       @RequestParam(required = false) List<Integer> researchPeriods,
       @RequestParam(required = false) List<Integer> umbrellaTopics,
-      @RequestParam(required = false) String search) {
+      @RequestParam(required = false) String search,
+      @RequestParam(required = false) Integer pageSize,
+      @RequestParam(required = false) String cursor,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding) {
     FilteredFetcher.Builder filteredFetcherBuilder =
-        FilteredFetcher.newBuilder().setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS);
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_PROJECTS, majors, researchPeriods, umbrellaTopics, search);
+    if (!setPagination(filteredFetcherBuilder, pageSize, cursor)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+    boolean unfiltered =
+        filteredFetcherBuilder
+            .build()
+            .equals(
+                FilteredFetcher.newBuilder()
+                    .setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS)
+                    .build());
+    boolean gzip = unfiltered && CompressedResponseCache.acceptsGzip(acceptEncoding);
+    String eTag = gzip ? gzipETag() : catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    ModuleConfig moduleConfig = toFetcherConfig(filteredFetcherBuilder);
+    if (gzip) {
+      byte[] body =
+          compressedResponseCache.gzip(
+              "all-projects",
+              eTag,
+              out ->
+                  HierarchyJsonWriter.writeDisciplines(
+                      moduleInvoker
+                          .processConfig(moduleConfig)
+                          .getFetcherResponse()
+                          .getProjectHierarchy()
+                          .getDisciplinesList(),
+                      out));
+      return gzipResponse(eTag, body);
+    }
+    return hierarchyResponse(
+        moduleConfig,
+        ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+  }
 
-    if (majors != null) {
-      filteredFetcherBuilder.addAllMajorIds(majors);
+  // Protobuf mode of /all-projects, picked when the Accept header asks for
+  // PROTOBUF_MEDIA_TYPE: the body is the fetched ProjectHierarchy as is, with
+  // no DTO conversion or JSON encoding.
+  @GetMapping(value = "/all-projects", produces = PROTOBUF_MEDIA_TYPE)
+  public ResponseEntity<byte[]> getProjectsProtobuf(
+      @RequestParam(required = false) List<Integer> majors,
+      @RequestParam(required = false) List<Integer> researchPeriods,
+      @RequestParam(required = false) List<Integer> umbrellaTopics,
+      @RequestParam(required = false) String search,
+      @RequestParam(required = false) Integer pageSize,
+      @RequestParam(required = false) String cursor,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = protobufETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
     }
-    if (researchPeriods != null) {
-      filteredFetcherBuilder.addAllResearchPeriodIds(researchPeriods);
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_PROJECTS, majors, researchPeriods, umbrellaTopics, search);
+    if (!setPagination(filteredFetcherBuilder, pageSize, cursor)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
     }
-    if (umbrellaTopics != null) {
-      filteredFetcherBuilder.addAllUmbrellaTopicIds(umbrellaTopics);
+    return protobufHierarchyResponse(
+        toFetcherConfig(filteredFetcherBuilder),
+        ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT),
+        FetcherResponse::getProjectHierarchy);
+  }
+
+  // Streaming mode of /all-projects: the same response, but the JSON is
+  // written while walking the fetched hierarchy instead of first converting it
+  // to DTOs.
+  @GetMapping(value = "/all-projects", params = {"stream=true", "format!=compact"})
+  public ResponseEntity<StreamingResponseBody> streamProjects(
+      @RequestParam(required = false) List<Integer> majors,
+      @RequestParam(required = false) List<Integer> researchPeriods,
+      @RequestParam(required = false) List<Integer> umbrellaTopics,
+      @RequestParam(required = false) String search,
+      @RequestParam(required = false) Integer pageSize,
+      @RequestParam(required = false) String cursor,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
     }
-    if (search != null && !search.isEmpty()) {
-      filteredFetcherBuilder.setKeywords(search);
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_PROJECTS, majors, researchPeriods, umbrellaTopics, search);
+    if (!setPagination(filteredFetcherBuilder, pageSize, cursor)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
     }
+    ModuleConfig moduleConfig = toFetcherConfig(filteredFetcherBuilder);
+    return streamingHierarchyResponse(
+        moduleConfig, ResponseEntity.ok().eTag(eTag), HierarchyJsonWriter::writeDisciplines);
+  }
 
-    ModuleConfig moduleConfig =
-        ModuleConfig.newBuilder()
-            .setFetcherRequest(
-                FetcherRequest.newBuilder().setFilteredFetcher(filteredFetcherBuilder))
+  // Compact mode of /all-projects: every project, faculty member and name is
+  // written once and referenced by id or index wherever it is listed (see
+  // CompactHierarchyJsonWriter).
+  @GetMapping(value = "/all-projects", params = "format=compact")
+  public ResponseEntity<StreamingResponseBody> getCompactProjects(
+      @RequestParam(required = false) List<Integer> majors,
+      @RequestParam(required = false) List<Integer> researchPeriods,
+      @RequestParam(required = false) List<Integer> umbrellaTopics,
+      @RequestParam(required = false) String search,
+      @RequestParam(required = false) Integer pageSize,
+      @RequestParam(required = false) String cursor,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_PROJECTS, majors, researchPeriods, umbrellaTopics, search);
+    if (!setPagination(filteredFetcherBuilder, pageSize, cursor)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+    return streamingHierarchyResponse(
+        toFetcherConfig(filteredFetcherBuilder),
+        ResponseEntity.ok().eTag(eTag),
+        CompactHierarchyJsonWriter::writeProjects);
+  }
+
+  // Ranked mode of /all-projects: instead of the hierarchy, a flat list of the
+  // projects best matching the search, the most relevant first (see
+  // RankedProjectSearch).
+  @GetMapping("/all-projects/ranked")
+  public ResponseEntity<List<ProjectDTO>> getRankedProjects(
+      @RequestParam String search,
+      @RequestParam(required = false) List<Integer> majors,
+      @RequestParam(required = false) List<Integer> researchPeriods,
+      @RequestParam(required = false) List<Integer> umbrellaTopics,
+      @RequestParam(defaultValue = "20") int limit,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    if (limit < 1 || limit > MAX_RANKED_RESULTS) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    FilteredFetcher filters =
+        hierarchyFilters(
+                FilteredType.FILTERED_TYPE_PROJECTS,
+                majors,
+                researchPeriods,
+                umbrellaTopics,
+                search)
             .build();
-    ModuleResponse moduleResponse = moduleInvoker.processConfig(moduleConfig);
-    return ResponseEntity.ok(
-        moduleResponse.getFetcherResponse().getProjectHierarchy().getDisciplinesList().stream()
-            .map(ProjectHierarchyConverter::protoDisciplineWithMajorsToDto)
-            .toList());
+    List<ProjectDTO> projects =
+        rankedProjectSearch.search(filters, limit).stream()
+            .map(ProtoConverter::toProjectProto)
+            .map(ProjectHierarchyConverter::protoProjectToProjectDto)
+            .toList();
+    return ResponseEntity.ok().eTag(eTag).body(projects);
+  }
+
+  // Counts-only mode of /all-projects: how many projects match the filters,
+  // overall and per major, research period and umbrella topic, without
+  // building the hierarchy (see FacetIndex).
+  @GetMapping("/all-projects/facets")
+  public ResponseEntity<FacetCountsDTO> getProjectFacets(
+      @RequestParam(required = false) List<Integer> majors,
+      @RequestParam(required = false) List<Integer> researchPeriods,
+      @RequestParam(required = false) List<Integer> umbrellaTopics,
+      @RequestParam(required = false) String search,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_PROJECTS, majors, researchPeriods, umbrellaTopics, search);
+    filteredFetcherBuilder.setCountsOnly(true);
+    return ResponseEntity.ok().eTag(eTag).body(facetCountsResponse(filteredFetcherBuilder));
+  }
+
+  // Typeahead for the search box: names of projects, faculty, majors and
+  // umbrella topics with a word starting with what was typed so far.
+  @GetMapping("/suggest")
+  public ResponseEntity<List<SuggestionDTO>> getSuggestions(
+      @RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+    if (limit < 1 || limit > MAX_SUGGESTIONS) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+    List<SuggestionDTO> suggestions =
+        suggestionIndex.suggest(q, limit).stream()
+            .map(
+                suggestion ->
+                    new SuggestionDTO(
+                        suggestion.text(), suggestion.type().name().toLowerCase()))
+            .toList();
+    return ResponseEntity.ok(suggestions);
   }
 
   @PreAuthorize("@roleAuthorizationService.checkUserRoles(authentication, 'FACULTY')")
@@ -227,34 +463,98 @@ public class GatewayController {
       @RequestParam(required = false) List<Integer> majors,
       @RequestParam(required = false) List<Integer> researchPeriods,
       @RequestParam(required = false) List<Integer> umbrellaTopics,
-      @RequestParam(required = false) String search) {
+      @RequestParam(required = false) String search,
+      @RequestParam(required = false) Integer pageSize,
+      @RequestParam(required = false) String cursor) {
 
     FilteredFetcher.Builder filteredFetcherBuilder =
-        FilteredFetcher.newBuilder().setFilteredType(FilteredType.FILTERED_TYPE_STUDENTS);
-
-    if (majors != null) {
-      filteredFetcherBuilder.addAllMajorIds(majors);
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_STUDENTS, majors, researchPeriods, umbrellaTopics, search);
+    if (!setPagination(filteredFetcherBuilder, pageSize, cursor)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
     }
-    if (researchPeriods != null) {
-      filteredFetcherBuilder.addAllResearchPeriodIds(researchPeriods);
+    ModuleConfig moduleConfig = toFetcherConfig(filteredFetcherBuilder);
+    return hierarchyResponse(moduleConfig, ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT));
+  }
+
+  // Protobuf mode of /all-students, see getProjectsProtobuf.
+  @PreAuthorize("@roleAuthorizationService.checkUserRoles(authentication, 'FACULTY')")
+  @GetMapping(value = "/all-students", produces = PROTOBUF_MEDIA_TYPE)
+  public ResponseEntity<byte[]> getStudentsProtobuf(
+      @RequestParam(required = false) List<Integer> majors,
+      @RequestParam(required = false) List<Integer> researchPeriods,
+      @RequestParam(required = false) List<Integer> umbrellaTopics,
+      @RequestParam(required = false) String search,
+      @RequestParam(required = false) Integer pageSize,
+      @RequestParam(required = false) String cursor) {
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_STUDENTS, majors, researchPeriods, umbrellaTopics, search);
+    if (!setPagination(filteredFetcherBuilder, pageSize, cursor)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
     }
-    if (umbrellaTopics != null) {
-      filteredFetcherBuilder.addAllUmbrellaTopicIds(umbrellaTopics);
+    return protobufHierarchyResponse(
+        toFetcherConfig(filteredFetcherBuilder),
+        ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT),
+        FetcherResponse::getProjectHierarchy);
+  }
+
+  // Streaming mode of /all-students, see streamProjects.
+  @PreAuthorize("@roleAuthorizationService.checkUserRoles(authentication, 'FACULTY')")
+  @GetMapping(value = "/all-students", params = {"stream=true", "format!=compact"})
+  public ResponseEntity<StreamingResponseBody> streamStudents(
+      @RequestParam(required = false) List<Integer> majors,
+      @RequestParam(required = false) List<Integer> researchPeriods,
+      @RequestParam(required = false) List<Integer> umbrellaTopics,
+      @RequestParam(required = false) String search,
+      @RequestParam(required = false) Integer pageSize,
+      @RequestParam(required = false) String cursor) {
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_STUDENTS, majors, researchPeriods, umbrellaTopics, search);
+    if (!setPagination(filteredFetcherBuilder, pageSize, cursor)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
     }
-    if (search != null && !search.isEmpty()) {
-      filteredFetcherBuilder.setKeywords(search);
+    ModuleConfig moduleConfig = toFetcherConfig(filteredFetcherBuilder);
+    return streamingHierarchyResponse(
+        moduleConfig, ResponseEntity.ok(), HierarchyJsonWriter::writeDisciplines);
+  }
+
+  // Compact mode of /all-students, see getCompactProjects.
+  @PreAuthorize("@roleAuthorizationService.checkUserRoles(authentication, 'FACULTY')")
+  @GetMapping(value = "/all-students", params = "format=compact")
+  public ResponseEntity<StreamingResponseBody> getCompactStudents(
+      @RequestParam(required = false) List<Integer> majors,
+      @RequestParam(required = false) List<Integer> researchPeriods,
+      @RequestParam(required = false) List<Integer> umbrellaTopics,
+      @RequestParam(required = false) String search,
+      @RequestParam(required = false) Integer pageSize,
+      @RequestParam(required = false) String cursor) {
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_STUDENTS, majors, researchPeriods, umbrellaTopics, search);
+    if (!setPagination(filteredFetcherBuilder, pageSize, cursor)) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
     }
+    return streamingHierarchyResponse(
+        toFetcherConfig(filteredFetcherBuilder),
+        ResponseEntity.ok(),
+        CompactHierarchyJsonWriter::writeStudents);
+  }
 
-    ModuleConfig moduleConfig =
-        ModuleConfig.newBuilder()
-            .setFetcherRequest(
-                FetcherRequest.newBuilder().setFilteredFetcher(filteredFetcherBuilder))
-            .build();
-    ModuleResponse moduleResponse = moduleInvoker.processConfig(moduleConfig);
-    return ResponseEntity.ok(
-        moduleResponse.getFetcherResponse().getProjectHierarchy().getDisciplinesList().stream()
-            .map(ProjectHierarchyConverter::protoDisciplineWithMajorsToDto)
-            .toList());
+  // Counts-only mode of /all-students, see getProjectFacets. Students have no
+  // umbrella topics, so that list is always empty.
+  @PreAuthorize("@roleAuthorizationService.checkUserRoles(authentication, 'FACULTY')")
+  @GetMapping("/all-students/facets")
+  public ResponseEntity<FacetCountsDTO> getStudentFacets(
+      @RequestParam(required = false) List<Integer> majors,
+      @RequestParam(required = false) List<Integer> researchPeriods,
+      @RequestParam(required = false) String search) {
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        hierarchyFilters(
+            FilteredType.FILTERED_TYPE_STUDENTS, majors, researchPeriods, null, search);
+    filteredFetcherBuilder.setCountsOnly(true);
+    return ResponseEntity.ok(facetCountsResponse(filteredFetcherBuilder));
   }
 
   @PostMapping("/api/studentProfiles")
@@ -392,13 +692,18 @@ public class GatewayController {
   }
 
   @GetMapping("/majors")
-  public ResponseEntity<List<MajorDTO>> getMajors() {
+  public ResponseEntity<List<MajorDTO>> getMajors(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
     try {
       List<MajorDTO> majorDTOs =
           majorService.getAllMajors().stream()
               .map(major -> new MajorDTO(major.getId(), major.getName(), null))
               .toList();
-      return ResponseEntity.ok(majorDTOs);
+      return ResponseEntity.ok().eTag(eTag).body(majorDTOs);
 
     } catch (Exception e) {
       e.printStackTrace();
@@ -407,7 +712,12 @@ public class GatewayController {
   }
 
   @GetMapping("/research-periods")
-  public ResponseEntity<List<ResearchPeriodDTO>> getResearchPeriods() {
+  public ResponseEntity<List<ResearchPeriodDTO>> getResearchPeriods(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
     try {
       List<ResearchPeriodDTO> researchPeriodDTOS =
           researchPeriodService.getAllResearchPeriods().stream()
@@ -415,7 +725,7 @@ public class GatewayController {
                   researchPeriod ->
                       new ResearchPeriodDTO(researchPeriod.getId(), researchPeriod.getName()))
               .toList();
-      return ResponseEntity.ok(researchPeriodDTOS);
+      return ResponseEntity.ok().eTag(eTag).body(researchPeriodDTOS);
     } catch (Exception e) {
       e.printStackTrace();
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
@@ -499,13 +809,18 @@ public class GatewayController {
   }
 
   @GetMapping("/umbrella-topics")
-  public ResponseEntity<List<UmbrellaTopicDTO>> getUmbrellaTopics() {
+  public ResponseEntity<List<UmbrellaTopicDTO>> getUmbrellaTopics(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
     try {
       List<UmbrellaTopicDTO> umbrellaTopicDTOs =
           umbrellaTopicService.getAllUmbrellaTopics().stream()
               .map(ut -> new UmbrellaTopicDTO(ut.getId(), ut.getName()))
               .toList();
-      return ResponseEntity.ok(umbrellaTopicDTOs);
+      return ResponseEntity.ok().eTag(eTag).body(umbrellaTopicDTOs);
     } catch (Exception e) {
       e.printStackTrace();
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
@@ -513,7 +828,12 @@ public class GatewayController {
   }
 
   @GetMapping("/disciplines")
-  public ResponseEntity<List<DisciplineDTO>> getDisciplines() {
+  public ResponseEntity<List<DisciplineDTO>> getDisciplines(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
     try {
       // For each discipline, get the id, name, and majors. Convert the majors to majorDTOs,
       // then create a disciplineDTO with the id, name, and majorDTOs.
@@ -528,7 +848,7 @@ public class GatewayController {
                     return new DisciplineDTO(discipline.getId(), discipline.getName(), majorDTOS);
                   })
               .toList();
-      return ResponseEntity.ok(disciplineDTOS);
+      return ResponseEntity.ok().eTag(eTag).body(disciplineDTOS);
     } catch (Exception e) {
       e.printStackTrace();
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
@@ -782,9 +1102,36 @@ public class GatewayController {
     return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
   }
 
+  // Unfiltered requests are served from CompressedResponseCache, see
+  // getProjects.
   @GetMapping("/all-faculty")
-  public ResponseEntity<List<DepartmentDTO>> getAllFaculty(
-      @RequestParam(required = false) String search) {
+  public ResponseEntity<?> getAllFaculty(
+      @RequestParam(required = false) String search,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+          String acceptEncoding) {
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    if ((search == null || search.isEmpty())
+        && CompressedResponseCache.acceptsGzip(acceptEncoding)) {
+      FilteredFetcher.Builder unfiltered =
+          FilteredFetcher.newBuilder().setFilteredType(FilteredType.FILTERED_TYPE_FACULTY);
+      byte[] body =
+          compressedResponseCache.gzip(
+              "all-faculty",
+              eTag,
+              out ->
+                  HierarchyJsonWriter.writeDepartments(
+                      moduleInvoker
+                          .processConfig(toFetcherConfig(unfiltered))
+                          .getFetcherResponse()
+                          .getDepartmentHierarchy()
+                          .getDepartmentsList(),
+                      out));
+      return gzipResponse(eTag, body);
+    }
     FilteredFetcher.Builder filteredFetcherBuilder =
         FilteredFetcher.newBuilder().setFilteredType(FilteredType.FILTERED_TYPE_FACULTY);
 
@@ -801,10 +1148,59 @@ public class GatewayController {
     ModuleResponse response = moduleInvoker.processConfig(moduleConfig);
     FetcherResponse fetcherResponse = response.getFetcherResponse();
 
-    return ResponseEntity.ok(
-        fetcherResponse.getDepartmentHierarchy().getDepartmentsList().stream()
-            .map(ProjectHierarchyConverter::protoDepartmentWithFacultyToDto)
-            .toList());
+    return ResponseEntity.ok()
+        .eTag(eTag)
+        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+        .body(
+            fetcherResponse.getDepartmentHierarchy().getDepartmentsList().stream()
+                .map(ProjectHierarchyConverter::protoDepartmentWithFacultyToDto)
+                .toList());
+  }
+
+  // Protobuf mode of /all-faculty, see getProjectsProtobuf. The body is the
+  // fetched DepartmentHierarchy.
+  @GetMapping(value = "/all-faculty", produces = PROTOBUF_MEDIA_TYPE)
+  public ResponseEntity<byte[]> getAllFacultyProtobuf(
+      @RequestParam(required = false) String search,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = protobufETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        FilteredFetcher.newBuilder().setFilteredType(FilteredType.FILTERED_TYPE_FACULTY);
+    if (search != null && !search.isEmpty()) {
+      filteredFetcherBuilder.setKeywords(search);
+    }
+    return protobufHierarchyResponse(
+        toFetcherConfig(filteredFetcherBuilder),
+        ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT),
+        FetcherResponse::getDepartmentHierarchy);
+  }
+
+  // Streaming mode of /all-faculty, see streamProjects.
+  @GetMapping(value = "/all-faculty", params = "stream=true")
+  public ResponseEntity<StreamingResponseBody> streamAllFaculty(
+      @RequestParam(required = false) String search,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    String eTag = catalogETag();
+    if (ETagUtils.matches(ifNoneMatch, eTag)) {
+      return notModified(eTag);
+    }
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        FilteredFetcher.newBuilder().setFilteredType(FilteredType.FILTERED_TYPE_FACULTY);
+    if (search != null && !search.isEmpty()) {
+      filteredFetcherBuilder.setKeywords(search);
+    }
+
+    ModuleResponse response = moduleInvoker.processConfig(toFetcherConfig(filteredFetcherBuilder));
+    List<DepartmentWithFaculty> departments =
+        response.getFetcherResponse().getDepartmentHierarchy().getDepartmentsList();
+
+    return ResponseEntity.ok()
+        .eTag(eTag)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(out -> HierarchyJsonWriter.writeDepartments(departments, out));
   }
 
   @PreAuthorize("@roleAuthorizationService.checkUserRoles(authentication, 'FACULTY')")
@@ -1620,6 +2016,31 @@ public class GatewayController {
   }
 
 
+  @PreAuthorize("@roleAuthorizationService.checkUserRoles(authentication, 'ADMIN')")
+  @GetMapping("/email-outbox-stats")
+  public ResponseEntity<EmailOutboxStatsDTO> getEmailOutboxStats() {
+    EmailOutboxService.Stats stats = emailOutboxService.getStats();
+    return ResponseEntity.ok(
+        new EmailOutboxStatsDTO(
+            stats.pending(),
+            stats.sending(),
+            stats.sent(),
+            stats.failed(),
+            stats.sentLastMinute(),
+            stats.sentLastHour(),
+            stats.oldestUnsentAgeSeconds()));
+  }
+
+  @PreAuthorize("@roleAuthorizationService.checkUserRoles(authentication, 'ADMIN')")
+  @GetMapping("/fetcher-cache-stats")
+  public ResponseEntity<FetcherCacheStatsDTO> getFetcherCacheStats() {
+    return ResponseEntity.ok(
+        new FetcherCacheStatsDTO(
+            fetcherResponseCache.getHitCount(),
+            fetcherResponseCache.getMissCount(),
+            fetcherResponseCache.getEvictionCount(),
+            fetcherResponseCache.size()));
+  }
 
   // Helper Methods
   private ResponseEntity<List<FaqDTO>> getFaqsByType(FaqType type) {
@@ -1632,4 +2053,167 @@ public class GatewayController {
 
     return ResponseEntity.ok(faqDTOs);
   }
+
+  private FilteredFetcher.Builder hierarchyFilters(
+      FilteredType filteredType,
+      List<Integer> majors,
+      List<Integer> researchPeriods,
+      List<Integer> umbrellaTopics,
+      String search) {
+    FilteredFetcher.Builder filteredFetcherBuilder =
+        FilteredFetcher.newBuilder().setFilteredType(filteredType);
+    if (majors != null) {
+      filteredFetcherBuilder.addAllMajorIds(majors);
+    }
+    if (researchPeriods != null) {
+      filteredFetcherBuilder.addAllResearchPeriodIds(researchPeriods);
+    }
+    if (umbrellaTopics != null) {
+      filteredFetcherBuilder.addAllUmbrellaTopicIds(umbrellaTopics);
+    }
+    if (search != null && !search.isEmpty()) {
+      filteredFetcherBuilder.setKeywords(search);
+    }
+    return filteredFetcherBuilder;
+  }
+
+  private ModuleConfig toFetcherConfig(FilteredFetcher.Builder filteredFetcherBuilder) {
+    return ModuleConfig.newBuilder()
+        .setFetcherRequest(FetcherRequest.newBuilder().setFilteredFetcher(filteredFetcherBuilder))
+        .build();
+  }
+
+  // Adds the page size and cursor to the fetcher request. Requests without a
+  // page size are not paginated, so the whole hierarchy is returned. Returns
+  // false if the pagination parameters are invalid.
+  private boolean setPagination(
+      FilteredFetcher.Builder filteredFetcherBuilder, Integer pageSize, String cursor) {
+    if (pageSize == null) {
+      return cursor == null;
+    }
+    if (pageSize <= 0) {
+      return false;
+    }
+    filteredFetcherBuilder.setPageSize(pageSize);
+    if (cursor != null) {
+      filteredFetcherBuilder.setPageCursor(cursor);
+    }
+    return true;
+  }
+
+  // Runs a hierarchy fetcher request and converts the result, exposing the
+  // next page cursor (if any) in the NEXT_CURSOR_HEADER header.
+  private ResponseEntity<List<DisciplineDTO>> hierarchyResponse(
+      ModuleConfig moduleConfig, ResponseEntity.BodyBuilder response) {
+    ModuleResponse moduleResponse;
+    try {
+      moduleResponse = moduleInvoker.processConfig(moduleConfig);
+    } catch (InvalidPageCursorException e) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+    FetcherResponse fetcherResponse = moduleResponse.getFetcherResponse();
+    if (!fetcherResponse.getNextPageCursor().isEmpty()) {
+      response.header(NEXT_CURSOR_HEADER, fetcherResponse.getNextPageCursor());
+    }
+    return response.body(
+        fetcherResponse.getProjectHierarchy().getDisciplinesList().stream()
+            .map(ProjectHierarchyConverter::protoDisciplineWithMajorsToDto)
+            .toList());
+  }
+
+  // Same as hierarchyResponse, but the body writes the JSON straight from the
+  // protos with the given writer when the response is sent (see
+  // HierarchyJsonWriter and CompactHierarchyJsonWriter).
+  private ResponseEntity<StreamingResponseBody> streamingHierarchyResponse(
+      ModuleConfig moduleConfig, ResponseEntity.BodyBuilder response, HierarchyWriter writer) {
+    ModuleResponse moduleResponse;
+    try {
+      moduleResponse = moduleInvoker.processConfig(moduleConfig);
+    } catch (InvalidPageCursorException e) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+    FetcherResponse fetcherResponse = moduleResponse.getFetcherResponse();
+    if (!fetcherResponse.getNextPageCursor().isEmpty()) {
+      response.header(NEXT_CURSOR_HEADER, fetcherResponse.getNextPageCursor());
+    }
+    List<DisciplineWithMajors> disciplines =
+        fetcherResponse.getProjectHierarchy().getDisciplinesList();
+    return response
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(out -> writer.write(disciplines, out));
+  }
+
+  // Same as hierarchyResponse, but the body is the serialized hierarchy proto
+  // the given function picks from the fetcher's response.
+  private ResponseEntity<byte[]> protobufHierarchyResponse(
+      ModuleConfig moduleConfig,
+      ResponseEntity.BodyBuilder response,
+      Function<FetcherResponse, MessageLite> hierarchyOf) {
+    ModuleResponse moduleResponse;
+    try {
+      moduleResponse = moduleInvoker.processConfig(moduleConfig);
+    } catch (InvalidPageCursorException e) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+    }
+    FetcherResponse fetcherResponse = moduleResponse.getFetcherResponse();
+    if (!fetcherResponse.getNextPageCursor().isEmpty()) {
+      response.header(NEXT_CURSOR_HEADER, fetcherResponse.getNextPageCursor());
+    }
+    return response
+        .contentType(MediaType.parseMediaType(PROTOBUF_MEDIA_TYPE))
+        .body(hierarchyOf.apply(fetcherResponse).toByteArray());
+  }
+
+  private ResponseEntity<byte[]> gzipResponse(String eTag, byte[] body) {
+    return ResponseEntity.ok()
+        .eTag(eTag)
+        .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+        .body(body);
+  }
+
+  private FacetCountsDTO facetCountsResponse(FilteredFetcher.Builder filteredFetcherBuilder) {
+    FacetCounts counts =
+        moduleInvoker
+            .processConfig(toFetcherConfig(filteredFetcherBuilder))
+            .getFetcherResponse()
+            .getFacetCounts();
+    return new FacetCountsDTO(
+        counts.getTotal(),
+        toFacetCountDtos(counts.getMajorsList()),
+        toFacetCountDtos(counts.getResearchPeriodsList()),
+        toFacetCountDtos(counts.getUmbrellaTopicsList()));
+  }
+
+  private static List<FacetCountDTO> toFacetCountDtos(List<FacetCount> counts) {
+    return counts.stream()
+        .map(count -> new FacetCountDTO(count.getId(), count.getCount()))
+        .toList();
+  }
+
+  // The catalog endpoints all share one ETag derived from the catalog version,
+  // which changes on every write. It is computed before reading any data, so
+  // a write that happens while the response is being built can only make the
+  // ETag older than the body, never newer.
+  private String catalogETag() {
+    return ETagUtils.toETag(catalogVersionService.getFingerprint());
+  }
+
+  // The protobuf representation of a catalog endpoint needs an ETag of its
+  // own, so a cached JSON body never answers a protobuf request or the other
+  // way around.
+  private String protobufETag() {
+    return ETagUtils.toETag(catalogVersionService.getFingerprint() + "-protobuf");
+  }
+
+  // Same for the gzip encoded body, which isn't byte for byte the identity one
+  // a strong ETag promises.
+  private String gzipETag() {
+    return ETagUtils.toETag(catalogVersionService.getFingerprint() + "-gzip");
+  }
+
+  private <T> ResponseEntity<T> notModified(String eTag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+  }
 }
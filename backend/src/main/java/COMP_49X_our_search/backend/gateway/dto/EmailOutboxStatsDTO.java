@@ -0,0 +1,86 @@
+package COMP_49X_our_search.backend.gateway.dto;
+
+public class EmailOutboxStatsDTO {
+  private long pending;
+  private long sending;
+  private long sent;
+  private long failed;
+  private long sentLastMinute;
+  private long sentLastHour;
+  private long oldestUnsentAgeSeconds;
+
+  public EmailOutboxStatsDTO() {}
+
+  public EmailOutboxStatsDTO(
+      long pending,
+      long sending,
+      long sent,
+      long failed,
+      long sentLastMinute,
+      long sentLastHour,
+      long oldestUnsentAgeSeconds) {
+    this.pending = pending;
+    this.sending = sending;
+    this.sent = sent;
+    this.failed = failed;
+    this.sentLastMinute = sentLastMinute;
+    this.sentLastHour = sentLastHour;
+    this.oldestUnsentAgeSeconds = oldestUnsentAgeSeconds;
+  }
+
+  public long getPending() {
+    return pending;
+  }
+
+  public void setPending(long pending) {
+    this.pending = pending;
+  }
+
+  public long getSending() {
+    return sending;
+  }
+
+  public void setSending(long sending) {
+    this.sending = sending;
+  }
+
+  public long getSent() {
+    return sent;
+  }
+
+  public void setSent(long sent) {
+    this.sent = sent;
+  }
+
+  public long getFailed() {
+    return failed;
+  }
+
+  public void setFailed(long failed) {
+    this.failed = failed;
+  }
+
+  public long getSentLastMinute() {
+    return sentLastMinute;
+  }
+
+  public void setSentLastMinute(long sentLastMinute) {
+    this.sentLastMinute = sentLastMinute;
+  }
+
+  public long getSentLastHour() {
+    return sentLastHour;
+  }
+
+  public void setSentLastHour(long sentLastHour) {
+    this.sentLastHour = sentLastHour;
+  }
+
+  public long getOldestUnsentAgeSeconds() {
+    return oldestUnsentAgeSeconds;
+  }
+
+  public void setOldestUnsentAgeSeconds(long oldestUnsentAgeSeconds) {
+    this.oldestUnsentAgeSeconds = oldestUnsentAgeSeconds;
+  }
+}
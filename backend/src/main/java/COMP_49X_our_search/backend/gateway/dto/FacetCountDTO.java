@@ -0,0 +1,31 @@
+package COMP_49X_our_search.backend.gateway.dto;
+
+public class FacetCountDTO {
+
+  // Id of the major, research period or umbrella topic.
+  private int id;
+  private int count;
+
+  public FacetCountDTO() {}
+
+  public FacetCountDTO(int id, int count) {
+    this.id = id;
+    this.count = count;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public void setId(int id) {
+    this.id = id;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public void setCount(int count) {
+    this.count = count;
+  }
+}
@@ -0,0 +1,56 @@
+package COMP_49X_our_search.backend.gateway.dto;
+
+import java.util.List;
+
+public class FacetCountsDTO {
+
+  private int total;
+  private List<FacetCountDTO> majors;
+  private List<FacetCountDTO> researchPeriods;
+  private List<FacetCountDTO> umbrellaTopics;
+
+  public FacetCountsDTO() {}
+
+  public FacetCountsDTO(
+      int total,
+      List<FacetCountDTO> majors,
+      List<FacetCountDTO> researchPeriods,
+      List<FacetCountDTO> umbrellaTopics) {
+    this.total = total;
+    this.majors = majors;
+    this.researchPeriods = researchPeriods;
+    this.umbrellaTopics = umbrellaTopics;
+  }
+
+  public int getTotal() {
+    return total;
+  }
+
+  public void setTotal(int total) {
+    this.total = total;
+  }
+
+  public List<FacetCountDTO> getMajors() {
+    return majors;
+  }
+
+  public void setMajors(List<FacetCountDTO> majors) {
+    this.majors = majors;
+  }
+
+  public List<FacetCountDTO> getResearchPeriods() {
+    return researchPeriods;
+  }
+
+  public void setResearchPeriods(List<FacetCountDTO> researchPeriods) {
+    this.researchPeriods = researchPeriods;
+  }
+
+  public List<FacetCountDTO> getUmbrellaTopics() {
+    return umbrellaTopics;
+  }
+
+  public void setUmbrellaTopics(List<FacetCountDTO> umbrellaTopics) {
+    this.umbrellaTopics = umbrellaTopics;
+  }
+}
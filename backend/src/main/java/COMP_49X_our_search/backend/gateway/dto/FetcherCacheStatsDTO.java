@@ -0,0 +1,49 @@
+package COMP_49X_our_search.backend.gateway.dto;
+
+public class FetcherCacheStatsDTO {
+  private long hits;
+  private long misses;
+  private long evictions;
+  private int entries;
+
+  public FetcherCacheStatsDTO() {}
+
+  public FetcherCacheStatsDTO(long hits, long misses, long evictions, int entries) {
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.entries = entries;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public void setHits(long hits) {
+    this.hits = hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  public void setMisses(long misses) {
+    this.misses = misses;
+  }
+
+  public long getEvictions() {
+    return evictions;
+  }
+
+  public void setEvictions(long evictions) {
+    this.evictions = evictions;
+  }
+
+  public int getEntries() {
+    return entries;
+  }
+
+  public void setEntries(int entries) {
+    this.entries = entries;
+  }
+}
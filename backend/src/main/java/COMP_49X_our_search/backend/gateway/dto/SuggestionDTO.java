@@ -0,0 +1,31 @@
+package COMP_49X_our_search.backend.gateway.dto;
+
+public class SuggestionDTO {
+
+  private String text;
+  // What the text names: "project", "faculty", "major" or "umbrella_topic".
+  private String type;
+
+  public SuggestionDTO() {}
+
+  public SuggestionDTO(String text, String type) {
+    this.text = text;
+    this.type = type;
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  public void setText(String text) {
+    this.text = text;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+}
@@ -0,0 +1,242 @@
+/**
+ * Utility class for writing a project or student hierarchy as compact,
+ * dictionary-encoded JSON, the format of the hierarchy endpoints with
+ * format=compact.
+ *
+ * In the regular format (see HierarchyJsonWriter) a project listed under
+ * three majors is written three times, each time with its faculty member and
+ * the names of its majors, umbrella topics and research periods. Here every
+ * post is written once, in a top-level list, and the majors only list the ids
+ * of their posts. Faculty members are written once as well and referenced by
+ * id, and names are written once in a table per kind and referenced by their
+ * index in it:
+ *
+ * <pre>
+ * {
+ *   "disciplines": [{"id": 1, "name": "Engineering",
+ *                    "majors": [{"id": 2, "name": "Computer Science", "posts": [7]}]}],
+ *   "projects": [{"id": 7, "name": "...", "description": "...",
+ *                 "desiredQualifications": "...", "umbrellaTopics": [0],
+ *                 "researchPeriods": [0, 1], "isActive": true, "majors": [0],
+ *                 "faculty": 3}],
+ *   "faculty": [{"id": 3, "firstName": "...", "lastName": "...", "email": "...",
+ *                "department": [0]}],
+ *   "majors": ["Computer Science"],
+ *   "umbrellaTopics": ["AI"],
+ *   "researchPeriods": ["Fall 2025", "Spring 2026"],
+ *   "departments": ["Engineering"]
+ * }
+ * </pre>
+ *
+ * A student hierarchy has a "students" list instead of "projects" and
+ * "faculty", with the fields of StudentDTO and indexes into the "majors" and
+ * "researchPeriods" tables.
+ */
+package COMP_49X_our_search.backend.gateway.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import proto.data.Entities.FacultyProto;
+import proto.data.Entities.ProjectProto;
+import proto.data.Entities.StudentProto;
+import proto.fetcher.DataTypes.DisciplineWithMajors;
+import proto.fetcher.DataTypes.MajorWithEntityCollection;
+
+public final class CompactHierarchyJsonWriter {
+
+  private static final JsonFactory JSON_FACTORY =
+      JsonFactory.builder().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).build();
+
+  // Names of one kind, each with the index it was first added at.
+  private static final class NameTable {
+    private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+    private int indexOf(String name) {
+      return indexes.computeIfAbsent(name, n -> indexes.size());
+    }
+  }
+
+  private CompactHierarchyJsonWriter() {}
+
+  /** Writes a project hierarchy in the compact format. */
+  public static void writeProjects(List<DisciplineWithMajors> disciplines, OutputStream out)
+      throws IOException {
+    // Every project and faculty member once, in the order first listed.
+    Map<Integer, ProjectProto> projects = new LinkedHashMap<>();
+    Map<Integer, FacultyProto> faculty = new LinkedHashMap<>();
+    for (DisciplineWithMajors discipline : disciplines) {
+      for (MajorWithEntityCollection major : discipline.getMajorsList()) {
+        for (ProjectProto project : major.getProjectCollection().getProjectsList()) {
+          projects.putIfAbsent(project.getProjectId(), project);
+          if (project.hasFaculty()) {
+            faculty.putIfAbsent(project.getFaculty().getFacultyId(), project.getFaculty());
+          }
+        }
+      }
+    }
+
+    NameTable majors = new NameTable();
+    NameTable umbrellaTopics = new NameTable();
+    NameTable researchPeriods = new NameTable();
+    NameTable departments = new NameTable();
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+      generator.writeStartObject();
+      writeHierarchy(generator, disciplines);
+      generator.writeArrayFieldStart("projects");
+      for (ProjectProto project : projects.values()) {
+        writeProject(generator, project, majors, umbrellaTopics, researchPeriods);
+      }
+      generator.writeEndArray();
+      generator.writeArrayFieldStart("faculty");
+      for (FacultyProto member : faculty.values()) {
+        writeFaculty(generator, member, departments);
+      }
+      generator.writeEndArray();
+      writeTable(generator, "majors", majors);
+      writeTable(generator, "umbrellaTopics", umbrellaTopics);
+      writeTable(generator, "researchPeriods", researchPeriods);
+      writeTable(generator, "departments", departments);
+      generator.writeEndObject();
+    }
+  }
+
+  /** Writes a student hierarchy in the compact format. */
+  public static void writeStudents(List<DisciplineWithMajors> disciplines, OutputStream out)
+      throws IOException {
+    Map<Integer, StudentProto> students = new LinkedHashMap<>();
+    for (DisciplineWithMajors discipline : disciplines) {
+      for (MajorWithEntityCollection major : discipline.getMajorsList()) {
+        for (StudentProto student : major.getStudentCollection().getStudentsList()) {
+          students.putIfAbsent(student.getStudentId(), student);
+        }
+      }
+    }
+
+    NameTable majors = new NameTable();
+    NameTable researchPeriods = new NameTable();
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+      generator.writeStartObject();
+      writeHierarchy(generator, disciplines);
+      generator.writeArrayFieldStart("students");
+      for (StudentProto student : students.values()) {
+        writeStudent(generator, student, majors, researchPeriods);
+      }
+      generator.writeEndArray();
+      writeTable(generator, "majors", majors);
+      writeTable(generator, "researchPeriods", researchPeriods);
+      generator.writeEndObject();
+    }
+  }
+
+  // The disciplines and majors, with the ids of the posts of each major.
+  private static void writeHierarchy(
+      JsonGenerator generator, List<DisciplineWithMajors> disciplines) throws IOException {
+    generator.writeArrayFieldStart("disciplines");
+    for (DisciplineWithMajors discipline : disciplines) {
+      generator.writeStartObject();
+      generator.writeNumberField("id", discipline.getDiscipline().getDisciplineId());
+      generator.writeStringField("name", discipline.getDiscipline().getDisciplineName());
+      generator.writeArrayFieldStart("majors");
+      for (MajorWithEntityCollection major : discipline.getMajorsList()) {
+        generator.writeStartObject();
+        generator.writeNumberField("id", major.getMajor().getMajorId());
+        generator.writeStringField("name", major.getMajor().getMajorName());
+        generator.writeArrayFieldStart("posts");
+        for (ProjectProto project : major.getProjectCollection().getProjectsList()) {
+          generator.writeNumber(project.getProjectId());
+        }
+        for (StudentProto student : major.getStudentCollection().getStudentsList()) {
+          generator.writeNumber(student.getStudentId());
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+  }
+
+  private static void writeProject(
+      JsonGenerator generator,
+      ProjectProto project,
+      NameTable majors,
+      NameTable umbrellaTopics,
+      NameTable researchPeriods)
+      throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("id", project.getProjectId());
+    generator.writeStringField("name", project.getProjectName());
+    generator.writeStringField("description", project.getDescription());
+    generator.writeStringField("desiredQualifications", project.getDesiredQualifications());
+    writeIndexes(generator, "umbrellaTopics", project.getUmbrellaTopicsList(), umbrellaTopics);
+    writeIndexes(generator, "researchPeriods", project.getResearchPeriodsList(), researchPeriods);
+    generator.writeBooleanField("isActive", project.getIsActive());
+    writeIndexes(generator, "majors", project.getMajorsList(), majors);
+    if (project.hasFaculty()) {
+      generator.writeNumberField("faculty", project.getFaculty().getFacultyId());
+    } else {
+      generator.writeNullField("faculty");
+    }
+    generator.writeEndObject();
+  }
+
+  private static void writeFaculty(
+      JsonGenerator generator, FacultyProto faculty, NameTable departments) throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("id", faculty.getFacultyId());
+    generator.writeStringField("firstName", faculty.getFirstName());
+    generator.writeStringField("lastName", faculty.getLastName());
+    generator.writeStringField("email", faculty.getEmail());
+    writeIndexes(generator, "department", faculty.getDepartmentsList(), departments);
+    generator.writeEndObject();
+  }
+
+  private static void writeStudent(
+      JsonGenerator generator, StudentProto student, NameTable majors, NameTable researchPeriods)
+      throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("id", student.getStudentId());
+    generator.writeStringField("firstName", student.getFirstName());
+    generator.writeStringField("lastName", student.getLastName());
+    generator.writeStringField("email", student.getEmail());
+    generator.writeStringField("classStatus", student.getClassStatus());
+    generator.writeNumberField("graduationYear", student.getGraduationYear());
+    writeIndexes(generator, "majors", student.getMajorsList(), majors);
+    writeIndexes(
+        generator, "researchFieldInterests", student.getResearchFieldInterestsList(), majors);
+    writeIndexes(
+        generator,
+        "researchPeriodsInterest",
+        student.getResearchPeriodsInterestsList(),
+        researchPeriods);
+    generator.writeStringField("interestReason", student.getInterestReason());
+    generator.writeBooleanField("hasPriorExperience", student.getHasPriorExperience());
+    generator.writeBooleanField("isActive", student.getIsActive());
+    generator.writeEndObject();
+  }
+
+  private static void writeIndexes(
+      JsonGenerator generator, String fieldName, List<String> names, NameTable table)
+      throws IOException {
+    generator.writeArrayFieldStart(fieldName);
+    for (String name : names) {
+      generator.writeNumber(table.indexOf(name));
+    }
+    generator.writeEndArray();
+  }
+
+  private static void writeTable(JsonGenerator generator, String fieldName, NameTable table)
+      throws IOException {
+    generator.writeArrayFieldStart(fieldName);
+    for (String name : table.indexes.keySet()) {
+      generator.writeString(name);
+    }
+    generator.writeEndArray();
+  }
+}
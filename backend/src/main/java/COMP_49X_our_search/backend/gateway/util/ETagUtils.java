@@ -0,0 +1,39 @@
+/**
+ * Utility class for HTTP entity tags, used by the gateway to answer
+ * conditional GET requests with 304 Not Modified.
+ */
+package COMP_49X_our_search.backend.gateway.util;
+
+public final class ETagUtils {
+
+  private ETagUtils() {}
+
+  /** Builds a strong entity tag (a quoted string) from the given fingerprint. */
+  public static String toETag(String fingerprint) {
+    return "\"" + fingerprint + "\"";
+  }
+
+  /**
+   * Returns true if the value of an If-None-Match header matches the given
+   * entity tag, i.e. the client already has the current representation.
+   */
+  public static boolean matches(String ifNoneMatch, String eTag) {
+    if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String trimmed = candidate.trim();
+      if (trimmed.equals("*")) {
+        return true;
+      }
+      // If-None-Match uses weak comparison, so a weak tag also matches.
+      if (trimmed.startsWith("W/")) {
+        trimmed = trimmed.substring(2);
+      }
+      if (trimmed.equals(eTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
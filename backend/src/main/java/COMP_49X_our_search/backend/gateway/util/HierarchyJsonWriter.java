@@ -0,0 +1,165 @@
+/**
+ * Utility class for writing Protobuf hierarchy data straight to JSON, in the
+ * same format the frontend gets from serializing the DTOs built by
+ * ProjectHierarchyConverter.
+ *
+ * The JSON is written incrementally while walking the protos, so no DTO tree
+ * (nor a fully serialized copy of it) is ever built. This is what the
+ * streaming mode of the hierarchy endpoints uses, keeping the memory a request
+ * needs on top of the fetcher response independent of the size of the
+ * hierarchy.
+ *
+ * Any change to the JSON format of DisciplineDTO, DepartmentDTO, MajorDTO,
+ * ProjectDTO, StudentDTO or FacultyDTO has to be mirrored here.
+ */
+package COMP_49X_our_search.backend.gateway.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import proto.data.Entities.FacultyProto;
+import proto.data.Entities.ProjectProto;
+import proto.data.Entities.StudentProto;
+import proto.fetcher.DataTypes.DepartmentWithFaculty;
+import proto.fetcher.DataTypes.DisciplineWithMajors;
+import proto.fetcher.DataTypes.FacultyWithProjects;
+import proto.fetcher.DataTypes.MajorWithEntityCollection;
+
+public final class HierarchyJsonWriter {
+
+  private static final JsonFactory JSON_FACTORY =
+      JsonFactory.builder().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET).build();
+
+  private HierarchyJsonWriter() {}
+
+  /** Writes the disciplines as a JSON array of DisciplineDTO. */
+  public static void writeDisciplines(List<DisciplineWithMajors> disciplines, OutputStream out)
+      throws IOException {
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+      generator.writeStartArray();
+      for (DisciplineWithMajors discipline : disciplines) {
+        generator.writeStartObject();
+        generator.writeNumberField("id", discipline.getDiscipline().getDisciplineId());
+        generator.writeStringField("name", discipline.getDiscipline().getDisciplineName());
+        generator.writeArrayFieldStart("majors");
+        for (MajorWithEntityCollection major : discipline.getMajorsList()) {
+          writeMajor(generator, major);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+    }
+  }
+
+  /** Writes the departments as a JSON array of DepartmentDTO. */
+  public static void writeDepartments(List<DepartmentWithFaculty> departments, OutputStream out)
+      throws IOException {
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+      generator.writeStartArray();
+      for (DepartmentWithFaculty department : departments) {
+        generator.writeStartObject();
+        generator.writeNumberField("id", department.getDepartment().getDepartmentId());
+        generator.writeStringField("name", department.getDepartment().getDepartmentName());
+        generator.writeArrayFieldStart("majors");
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("faculty");
+        for (FacultyWithProjects facultyWithProjects : department.getFacultyWithProjectsList()) {
+          writeFacultyFields(generator, facultyWithProjects.getFaculty());
+          generator.writeArrayFieldStart("projects");
+          for (ProjectProto project : facultyWithProjects.getProjectsList()) {
+            writeProject(generator, project, false);
+          }
+          generator.writeEndArray();
+          generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+    }
+  }
+
+  private static void writeMajor(JsonGenerator generator, MajorWithEntityCollection major)
+      throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("id", major.getMajor().getMajorId());
+    generator.writeStringField("name", major.getMajor().getMajorName());
+    generator.writeArrayFieldStart("posts");
+    if (major.hasProjectCollection()) {
+      for (ProjectProto project : major.getProjectCollection().getProjectsList()) {
+        writeProject(generator, project, true);
+      }
+    } else {
+      for (StudentProto student : major.getStudentCollection().getStudentsList()) {
+        writeStudent(generator, student);
+      }
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+  }
+
+  // Projects listed under a faculty member don't repeat the faculty member.
+  private static void writeProject(
+      JsonGenerator generator, ProjectProto project, boolean includeFaculty) throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("id", project.getProjectId());
+    generator.writeStringField("name", project.getProjectName());
+    generator.writeStringField("description", project.getDescription());
+    generator.writeStringField("desiredQualifications", project.getDesiredQualifications());
+    writeStrings(generator, "umbrellaTopics", project.getUmbrellaTopicsList());
+    writeStrings(generator, "researchPeriods", project.getResearchPeriodsList());
+    generator.writeBooleanField("isActive", project.getIsActive());
+    writeStrings(generator, "majors", project.getMajorsList());
+    generator.writeFieldName("faculty");
+    if (includeFaculty) {
+      writeFacultyFields(generator, project.getFaculty());
+      generator.writeNullField("projects");
+      generator.writeEndObject();
+    } else {
+      generator.writeNull();
+    }
+    generator.writeEndObject();
+  }
+
+  // Starts a FacultyDTO object and writes every field but the projects, so the
+  // caller can write them and end the object.
+  private static void writeFacultyFields(JsonGenerator generator, FacultyProto faculty)
+      throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("id", faculty.getFacultyId());
+    generator.writeStringField("firstName", faculty.getFirstName());
+    generator.writeStringField("lastName", faculty.getLastName());
+    generator.writeStringField("email", faculty.getEmail());
+    writeStrings(generator, "department", faculty.getDepartmentsList());
+  }
+
+  private static void writeStudent(JsonGenerator generator, StudentProto student)
+      throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("id", student.getStudentId());
+    generator.writeStringField("firstName", student.getFirstName());
+    generator.writeStringField("lastName", student.getLastName());
+    generator.writeStringField("email", student.getEmail());
+    generator.writeStringField("classStatus", student.getClassStatus());
+    generator.writeNumberField("graduationYear", student.getGraduationYear());
+    writeStrings(generator, "majors", student.getMajorsList());
+    writeStrings(generator, "researchFieldInterests", student.getResearchFieldInterestsList());
+    writeStrings(generator, "researchPeriodsInterest", student.getResearchPeriodsInterestsList());
+    generator.writeStringField("interestReason", student.getInterestReason());
+    generator.writeBooleanField("hasPriorExperience", student.getHasPriorExperience());
+    generator.writeBooleanField("isActive", student.getIsActive());
+    generator.writeEndObject();
+  }
+
+  private static void writeStrings(JsonGenerator generator, String fieldName, List<String> values)
+      throws IOException {
+    generator.writeArrayFieldStart(fieldName);
+    for (String value : values) {
+      generator.writeString(value);
+    }
+    generator.writeEndArray();
+  }
+}
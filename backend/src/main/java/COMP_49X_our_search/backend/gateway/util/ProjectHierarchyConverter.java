@@ -139,7 +139,7 @@ public final class ProjectHierarchyConverter {
     return dto;
   }
 
-  private static ProjectDTO protoProjectToProjectDto(ProjectProto proto) {
+  public static ProjectDTO protoProjectToProjectDto(ProjectProto proto) {
     ProjectDTO dto = new ProjectDTO();
     dto.setId(proto.getProjectId());
     dto.setName(proto.getProjectName());
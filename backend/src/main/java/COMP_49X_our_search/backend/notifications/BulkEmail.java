@@ -0,0 +1,72 @@
+package COMP_49X_our_search.backend.notifications;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email with the same subject and body template for many recipients, sent
+ * through EmailDispatcher.dispatchBulk with one personalization per recipient.
+ *
+ * Each recipient has its own substitutions, which SendGrid replaces in the
+ * body (e.g. "{new_postings}" -> that recipient's postings).
+ */
+public record BulkEmail(
+    String subject, String body, String contentType, List<Recipient> recipients) {
+
+  /**
+   * @param idempotencyKey the outbox key of this email, if it comes from the
+   *     outbox. It is sent to SendGrid as a custom arg for tracing only, and
+   *     does not prevent duplicates: delivery is at-least-once, so a retried
+   *     request or resent outbox email may reach the recipient twice. The key
+   *     only lets those duplicates be matched up in SendGrid's event data.
+   */
+  public record Recipient(
+      String email, Map<String, String> substitutions, String idempotencyKey) {
+
+    public Recipient {
+      substitutions = Map.copyOf(substitutions);
+    }
+
+    public Recipient(String email, Map<String, String> substitutions) {
+      this(email, substitutions, null);
+    }
+
+    /** Size in bytes SendGrid counts against its per-personalization limit. */
+    int substitutionsSize() {
+      return substitutions.entrySet().stream()
+          .mapToInt(entry -> utf8Length(entry.getKey()) + utf8Length(entry.getValue()))
+          .sum();
+    }
+  }
+
+  public BulkEmail {
+    recipients = List.copyOf(recipients);
+  }
+
+  /** The same plain text email for every one of the given addresses. */
+  public static BulkEmail plain(String subject, String body, List<String> emails) {
+    return new BulkEmail(
+        subject,
+        body,
+        "text/plain",
+        emails.stream().map(email -> new Recipient(email, Map.of())).toList());
+  }
+
+  public static BulkEmail html(String subject, String body, List<Recipient> recipients) {
+    return new BulkEmail(subject, body, "text/html", recipients);
+  }
+
+  /** Applies the recipient's substitutions locally, as SendGrid would. */
+  public OutgoingEmail render(Recipient recipient) {
+    String rendered = body;
+    for (Map.Entry<String, String> substitution : recipient.substitutions().entrySet()) {
+      rendered = rendered.replace(substitution.getKey(), substitution.getValue());
+    }
+    return new OutgoingEmail(recipient.email(), subject, rendered, contentType);
+  }
+
+  private static int utf8Length(String value) {
+    return value.getBytes(StandardCharsets.UTF_8).length;
+  }
+}
@@ -0,0 +1,29 @@
+package COMP_49X_our_search.backend.notifications;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Summary of one EmailDispatcher run. Counts are in recipients, except for
+ * retries, which are in requests.
+ *
+ * @param retries attempts made on top of the first one for each request
+ * @param failures one "recipient: reason" (or "batch: reason") entry per
+ *     request that failed
+ */
+public record DispatchReport(
+    String runName,
+    int total,
+    int sent,
+    int failed,
+    int skipped,
+    int retries,
+    Duration duration,
+    List<String> failures) {
+
+  public String summary() {
+    return String.format(
+        "[%s] %d emails: %d sent, %d failed, %d skipped, %d retries in %d ms",
+        runName, total, sent, failed, skipped, retries, duration.toMillis());
+  }
+}
@@ -0,0 +1,28 @@
+package COMP_49X_our_search.backend.notifications;
+
+import java.io.IOException;
+
+/**
+ * Thrown by SendGridService when an email could not be delivered, after
+ * retrying if the failure was retryable.
+ */
+public class EmailDeliveryException extends IOException {
+
+  // HTTP status of the last attempt, or 0 if it failed before getting one.
+  private final int statusCode;
+  private final int attempts;
+
+  public EmailDeliveryException(String message, int statusCode, int attempts, Throwable cause) {
+    super(message, cause);
+    this.statusCode = statusCode;
+    this.attempts = attempts;
+  }
+
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+}
@@ -0,0 +1,159 @@
+/**
+ * Sends bulk emails through SendGridService concurrently.
+ *
+ * Each batch of recipients (or recipient too large to batch) is sent on its
+ * own virtual thread, with at most email.dispatch.concurrency requests in
+ * flight at once. The request rate and retries are handled by SendGridService,
+ * so they apply to every request no matter how many runs are going on. A run
+ * returns once every recipient was either sent or failed, with a
+ * DispatchReport summarizing it.
+ */
+package COMP_49X_our_search.backend.notifications;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class EmailDispatcher {
+
+  private static final DeliveryListener NO_LISTENER =
+      new DeliveryListener() {
+        @Override
+        public void delivered(List<BulkEmail.Recipient> recipients) {}
+
+        @Override
+        public void failed(List<BulkEmail.Recipient> recipients, Exception error) {}
+      };
+
+  private final SendGridService sendGridService;
+  private final int concurrency;
+
+  @Autowired
+  public EmailDispatcher(
+      SendGridService sendGridService,
+      @Value("${email.dispatch.concurrency:8}") int concurrency) {
+    this.sendGridService = sendGridService;
+    this.concurrency = Math.max(1, concurrency);
+  }
+
+  /**
+   * Sends a bulk email in batches of up to SendGridService.MAX_PERSONALIZATIONS
+   * recipients per request. The report counts recipients, so a failed batch
+   * counts every recipient in it as failed.
+   */
+  public DispatchReport dispatchBulk(String runName, BulkEmail email) {
+    return dispatchBulk(runName, email, NO_LISTENER);
+  }
+
+  /**
+   * Same as dispatchBulk(runName, email), telling the listener which
+   * recipients were delivered and which failed as each request completes.
+   * The listener is called from the worker threads.
+   */
+  public DispatchReport dispatchBulk(
+      String runName, BulkEmail email, DeliveryListener listener) {
+    List<Job> jobs = new ArrayList<>();
+    List<BulkEmail> batches = SendGridService.batches(email);
+    for (int i = 0; i < batches.size(); i++) {
+      BulkEmail batch = batches.get(i);
+      jobs.add(
+          new Job(
+              "batch " + (i + 1) + " of " + batches.size(),
+              batch.recipients(),
+              () -> sendGridService.sendBatch(batch)));
+    }
+    for (BulkEmail.Recipient recipient : SendGridService.unbatchableRecipients(email)) {
+      OutgoingEmail rendered = email.render(recipient);
+      jobs.add(
+          new Job(recipient.email(), List.of(recipient), () -> sendGridService.send(rendered)));
+    }
+    return run(runName, email.recipients().size(), jobs, listener);
+  }
+
+  private DispatchReport run(
+      String runName, int total, List<Job> jobs, DeliveryListener listener) {
+    long start = System.nanoTime();
+    if (!sendGridService.isConfigured()) {
+      DispatchReport report =
+          new DispatchReport(runName, total, 0, 0, total, 0, Duration.ZERO, List.of());
+      System.out.println("SendGrid is not configured. " + report.summary());
+      return report;
+    }
+
+    AtomicInteger sent = new AtomicInteger();
+    AtomicInteger failed = new AtomicInteger();
+    AtomicInteger retries = new AtomicInteger();
+    List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    Semaphore inFlight = new Semaphore(concurrency);
+
+    // Closing the executor waits for every submitted job.
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (Job job : jobs) {
+        inFlight.acquireUninterruptibly();
+        executor.execute(
+            () -> {
+              try {
+                int attempts = job.send().send();
+                sent.addAndGet(job.recipients().size());
+                retries.addAndGet(attempts - 1);
+                listener.delivered(job.recipients());
+              } catch (IOException | RuntimeException e) {
+                failed.addAndGet(job.recipients().size());
+                if (e instanceof EmailDeliveryException deliveryException) {
+                  retries.addAndGet(deliveryException.getAttempts() - 1);
+                }
+                failures.add(job.label() + ": " + e.getMessage());
+                listener.failed(job.recipients(), e);
+              } finally {
+                inFlight.release();
+              }
+            });
+      }
+    }
+
+    DispatchReport report =
+        new DispatchReport(
+            runName,
+            total,
+            sent.get(),
+            failed.get(),
+            0,
+            retries.get(),
+            Duration.ofNanos(System.nanoTime() - start),
+            List.copyOf(failures));
+    System.out.println(report.summary());
+    report.failures().forEach(failure -> System.err.println("[" + runName + "] " + failure));
+    return report;
+  }
+
+  /** Told about the outcome of every request of a dispatchBulk run. */
+  public interface DeliveryListener {
+
+    void delivered(List<BulkEmail.Recipient> recipients);
+
+    /**
+     * @param error an EmailDeliveryException if SendGrid answered or was
+     *     retried, otherwise whatever went wrong
+     */
+    void failed(List<BulkEmail.Recipient> recipients, Exception error);
+  }
+
+  @FunctionalInterface
+  private interface Send {
+    /** Sends one request and returns the number of attempts it took. */
+    int send() throws IOException;
+  }
+
+  /** One request to SendGrid, reaching the given recipients. */
+  private record Job(String label, List<BulkEmail.Recipient> recipients, Send send) {}
+}
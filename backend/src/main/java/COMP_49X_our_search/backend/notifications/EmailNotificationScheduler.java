@@ -13,9 +13,10 @@ import COMP_49X_our_search.backend.database.entities.YearlyNotificationSchedule;
 import COMP_49X_our_search.backend.database.services.EmailNotificationService;
 import COMP_49X_our_search.backend.database.services.WeeklyNotificationScheduleService;
 import COMP_49X_our_search.backend.database.services.YearlyNotificationScheduleService;
-import java.io.IOException;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -30,7 +31,7 @@ public class EmailNotificationScheduler implements CommandLineRunner {
   private final YearlyNotificationScheduleService yearlyService;
   private final WeeklyNotificationScheduleService weeklyService;
   private final EmailNotificationService emailNotificationService;
-  private final SendGridService sendGridService;
+  private final EmailOutbox emailOutbox;
   private final StudentService studentService;
   private final FacultyService facultyService;
   private final MatchBuilder matchBuilder;
@@ -41,14 +42,14 @@ public class EmailNotificationScheduler implements CommandLineRunner {
       YearlyNotificationScheduleService yearlyService,
       WeeklyNotificationScheduleService weeklyService,
       EmailNotificationService emailNotificationService,
-      SendGridService sendGridService,
+      EmailOutbox emailOutbox,
       StudentService studentService,
       FacultyService facultyService,
       MatchBuilder matchBuilder) {
     this.yearlyService = yearlyService;
     this.weeklyService = weeklyService;
     this.emailNotificationService = emailNotificationService;
-    this.sendGridService = sendGridService;
+    this.emailOutbox = emailOutbox;
     this.studentService = studentService;
     this.facultyService = facultyService;
     this.matchBuilder = matchBuilder;
@@ -59,6 +60,11 @@ public class EmailNotificationScheduler implements CommandLineRunner {
     sendNotifications();
   }
 
+  /**
+   * Queues the notifications that are due in the outbox, which sends them in
+   * the background. Each run is queued at most once per period (year or week),
+   * so calling this again, e.g. on restart, doesn't send anything twice.
+   */
   @Scheduled(cron = "0 0 8 * * ?") // Every day at 8:00AM
   public void sendNotifications() {
     LocalDateTime now = LocalDateTime.now();
@@ -72,33 +78,29 @@ public class EmailNotificationScheduler implements CommandLineRunner {
       EmailNotification yearlyFacultyTemplate =
           emailNotificationService.getEmailNotificationByType(EmailNotificationType.FACULTY);
 
+      String yearlyPeriod = String.valueOf(now.getYear());
       List<String> studentEmails =
           studentService.getAllStudents().stream().map(Student::getEmail).toList();
       List<String> facultyEmails =
           facultyService.getAllFaculty().stream().map(Faculty::getEmail).toList();
 
-      for (String email : studentEmails) {
-        try {
-          sendGridService.sendEmail(
-              email,
-              yearlyStudentTemplate.getSubject(),
-              yearlyStudentTemplate.getBody(),
-              "text/plain");
-        } catch (IOException e) {
-          System.err.println("Failed to send yearly email to " + email + ": " + e.getMessage());
-        }
+      if (!studentEmails.isEmpty()) {
+        emailOutbox.enqueue(
+            "yearly-students",
+            yearlyPeriod,
+            BulkEmail.plain(
+                yearlyStudentTemplate.getSubject(),
+                yearlyStudentTemplate.getBody(),
+                studentEmails));
       }
-
-      for (String email : facultyEmails) {
-        try {
-          sendGridService.sendEmail(
-              email,
-              yearlyFacultyTemplate.getSubject(),
-              yearlyFacultyTemplate.getBody(),
-              "text/plain");
-        } catch (IOException e) {
-          System.err.println("Failed to send yearly email to " + email + ": " + e.getMessage());
-        }
+      if (!facultyEmails.isEmpty()) {
+        emailOutbox.enqueue(
+            "yearly-faculty",
+            yearlyPeriod,
+            BulkEmail.plain(
+                yearlyFacultyTemplate.getSubject(),
+                yearlyFacultyTemplate.getBody(),
+                facultyEmails));
       }
     }
 
@@ -113,11 +115,14 @@ public class EmailNotificationScheduler implements CommandLineRunner {
           emailNotificationService.getEmailNotificationByType(
               EmailNotificationType.WEEKLY_POSTINGS_FACULTY);
 
-      Map<String, List<Project>> studentMatches = matchBuilder.buildStudentMatches();
-      Map<String, List<Student>> facultyMatches = matchBuilder.buildFacultyMatches();
+      String weeklyPeriod =
+          now.get(IsoFields.WEEK_BASED_YEAR) + "-W" + now.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+      MatchBuilder.Matches matches = matchBuilder.buildMatches();
+      Map<String, List<Project>> studentMatches = matches.studentMatches();
+      Map<String, List<Student>> facultyMatches = matches.facultyMatches();
 
+      List<BulkEmail.Recipient> studentRecipients = new ArrayList<>();
       for (Map.Entry<String, List<Project>> entry : studentMatches.entrySet()) {
-        String studentEmail = entry.getKey();
         List<Project> projects = entry.getValue();
 
         List<String> interests =
@@ -127,40 +132,43 @@ public class EmailNotificationScheduler implements CommandLineRunner {
                 .distinct()
                 .toList();
 
-        String personalizedBody =
-            studentWeeklyTemplate
-                .getBody()
-                .replace("{interests}", formatInterests(interests))
-                .replace("{number_of_postings}", String.valueOf(projects.size()))
-                .replace("{new_postings}", formatNewPostings(projects))
-                .replace("{click_here}", CLICK_HERE_ANCHOR)
-                .replace("\n", "<br>");
-        try {
-          sendGridService.sendEmailHtml(
-              studentEmail, studentWeeklyTemplate.getSubject(), personalizedBody);
-        } catch (IOException e) {
-          System.err.println(
-              "Failed to send weekly email to " + studentEmail + ": " + e.getMessage());
-        }
+        studentRecipients.add(
+            new BulkEmail.Recipient(
+                entry.getKey(),
+                Map.of(
+                    "{interests}", toHtml(formatInterests(interests)),
+                    "{number_of_postings}", String.valueOf(projects.size()),
+                    "{new_postings}", toHtml(formatNewPostings(projects)))));
+      }
+      if (!studentRecipients.isEmpty()) {
+        emailOutbox.enqueue(
+            "weekly-students",
+            weeklyPeriod,
+            BulkEmail.html(
+                studentWeeklyTemplate.getSubject(),
+                weeklyTemplateBody(studentWeeklyTemplate),
+                studentRecipients));
       }
 
+      List<BulkEmail.Recipient> facultyRecipients = new ArrayList<>();
       for (Map.Entry<String, List<Student>> entry : facultyMatches.entrySet()) {
-        String facultyEmail = entry.getKey();
         List<Student> students = entry.getValue();
 
-        String htmlBody =
-            facultyWeeklyTemplate
-                .getBody()
-                .replace("{number_of_students}", String.valueOf(students.size()))
-                .replace("{new_students}", formatNewStudents(students))
-                .replace("{click_here}", CLICK_HERE_ANCHOR)
-                .replace("\n", "<br>");
-        try {
-          sendGridService.sendEmailHtml(facultyEmail, facultyWeeklyTemplate.getSubject(), htmlBody);
-        } catch (IOException e) {
-          System.err.println(
-              "Failed to send weekly email to " + facultyEmail + ": " + e.getMessage());
-        }
+        facultyRecipients.add(
+            new BulkEmail.Recipient(
+                entry.getKey(),
+                Map.of(
+                    "{number_of_students}", String.valueOf(students.size()),
+                    "{new_students}", toHtml(formatNewStudents(students)))));
+      }
+      if (!facultyRecipients.isEmpty()) {
+        emailOutbox.enqueue(
+            "weekly-faculty",
+            weeklyPeriod,
+            BulkEmail.html(
+                facultyWeeklyTemplate.getSubject(),
+                weeklyTemplateBody(facultyWeeklyTemplate),
+                facultyRecipients));
       }
     }
   }
@@ -176,6 +184,18 @@ public class EmailNotificationScheduler implements CommandLineRunner {
     // return now.getDayOfWeek() == weeklyDay;
   }
 
+  /**
+   * The body shared by every recipient of a weekly email. The per-recipient
+   * placeholders are left for SendGrid to substitute.
+   */
+  private String weeklyTemplateBody(EmailNotification template) {
+    return toHtml(template.getBody().replace("{click_here}", CLICK_HERE_ANCHOR));
+  }
+
+  private String toHtml(String text) {
+    return text.replace("\n", "<br>");
+  }
+
   /** Format interests as "Interest 1, Interest 2, ..., and Interest N" */
   private String formatInterests(List<String> interests) {
     if (interests.isEmpty()) return "";
@@ -0,0 +1,239 @@
+/**
+ * Queues notification emails in the outbox table and sends them from there.
+ *
+ * The notification runs only enqueue their emails, keyed by run, period (e.g.
+ * the week of a weekly run) and recipient, so running them again in the same
+ * period doesn't queue anything new. A background drainer claims the queued
+ * emails and sends the ones sharing a template together through
+ * EmailDispatcher.dispatchBulk, recording the outcome of each request as it
+ * completes. Because the queue is in the database, emails that weren't sent
+ * when the server stopped are picked up again once it's back.
+ *
+ * Failed emails are retried with exponential backoff until they reach
+ * email.outbox.max-attempts, except when SendGrid rejected them, which won't
+ * get better by retrying. While SendGrid isn't configured nothing is drained.
+ */
+package COMP_49X_our_search.backend.notifications;
+
+import COMP_49X_our_search.backend.database.entities.EmailOutboxMessage;
+import COMP_49X_our_search.backend.database.services.EmailOutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+@Service
+public class EmailOutbox {
+
+  private static final Duration MAX_RETRY_BACKOFF = Duration.ofHours(6);
+  private static final int MAX_ERROR_LENGTH = 2000;
+  private static final TypeReference<Map<String, String>> SUBSTITUTIONS_TYPE =
+      new TypeReference<>() {};
+
+  private final EmailOutboxService emailOutboxService;
+  private final EmailDispatcher emailDispatcher;
+  private final SendGridService sendGridService;
+  private final int claimBatchSize;
+  private final Duration lease;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final int retentionDays;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  // Keeps the scheduled drain and drains started by hand from overlapping.
+  private final ReentrantLock draining = new ReentrantLock();
+
+  @Autowired
+  public EmailOutbox(
+      EmailOutboxService emailOutboxService,
+      EmailDispatcher emailDispatcher,
+      SendGridService sendGridService,
+      @Value("${email.outbox.claim-batch-size:2000}") int claimBatchSize,
+      @Value("${email.outbox.lease-seconds:600}") long leaseSeconds,
+      @Value("${email.outbox.max-attempts:5}") int maxAttempts,
+      @Value("${email.outbox.retry-backoff-seconds:60}") long retryBackoffSeconds,
+      @Value("${email.outbox.retention-days:90}") int retentionDays) {
+    this.emailOutboxService = emailOutboxService;
+    this.emailDispatcher = emailDispatcher;
+    this.sendGridService = sendGridService;
+    this.claimBatchSize = Math.max(1, claimBatchSize);
+    this.lease = Duration.ofSeconds(leaseSeconds);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.retryBackoff = Duration.ofSeconds(retryBackoffSeconds);
+    this.retentionDays = retentionDays;
+  }
+
+  /**
+   * Queues the email for each of its recipients, unless the run already
+   * queued it for that recipient in the same period. Returns the number of
+   * emails queued.
+   */
+  public int enqueue(String runName, String period, BulkEmail email) {
+    List<EmailOutboxMessage> messages = new ArrayList<>();
+    for (BulkEmail.Recipient recipient : email.recipients()) {
+      messages.add(
+          new EmailOutboxMessage(
+              runName + ":" + period + ":" + recipient.email(),
+              runName,
+              recipient.email(),
+              email.subject(),
+              email.body(),
+              email.contentType(),
+              toJson(recipient.substitutions())));
+    }
+    int queued = emailOutboxService.enqueue(messages);
+    System.out.println(
+        "[" + runName + "] Queued " + queued + " of " + messages.size() + " emails for " + period);
+    return queued;
+  }
+
+  /** Sends queued emails until there are no more due. */
+  @Scheduled(fixedDelayString = "${email.outbox.drain-interval-ms:10000}")
+  public void drain() {
+    if (!sendGridService.isConfigured() || !draining.tryLock()) {
+      return;
+    }
+    try {
+      List<EmailOutboxMessage> claimed = emailOutboxService.claim(claimBatchSize, lease);
+      while (!claimed.isEmpty()) {
+        send(claimed);
+        claimed = emailOutboxService.claim(claimBatchSize, lease);
+      }
+    } finally {
+      draining.unlock();
+    }
+  }
+
+  @Scheduled(cron = "0 30 0 * * ?") // Every day at 12:30AM
+  public void purgeSent() {
+    int purged = emailOutboxService.purgeSentBefore(LocalDateTime.now().minusDays(retentionDays));
+    if (purged > 0) {
+      System.out.println("Purged " + purged + " sent emails from the outbox");
+    }
+  }
+
+  private void send(List<EmailOutboxMessage> claimed) {
+    // Emails of the same run with the same template go out together.
+    Map<List<String>, List<EmailOutboxMessage>> byTemplate =
+        claimed.stream()
+            .collect(
+                Collectors.groupingBy(
+                    message ->
+                        List.of(
+                            message.getRunName(),
+                            message.getSubject(),
+                            message.getBody(),
+                            message.getContentType()),
+                    LinkedHashMap::new,
+                    Collectors.toList()));
+
+    for (List<EmailOutboxMessage> messages : byTemplate.values()) {
+      // Keyed by identity, since two recipients can be equal records.
+      Map<BulkEmail.Recipient, EmailOutboxMessage> messageOf = new IdentityHashMap<>();
+      List<BulkEmail.Recipient> recipients = new ArrayList<>();
+      for (EmailOutboxMessage message : messages) {
+        BulkEmail.Recipient recipient =
+            new BulkEmail.Recipient(
+                message.getRecipient(),
+                fromJson(message.getSubstitutions()),
+                message.getIdempotencyKey());
+        messageOf.put(recipient, message);
+        recipients.add(recipient);
+      }
+      EmailOutboxMessage first = messages.get(0);
+      emailDispatcher.dispatchBulk(
+          first.getRunName(),
+          new BulkEmail(first.getSubject(), first.getBody(), first.getContentType(), recipients),
+          new OutboxListener(messageOf));
+    }
+  }
+
+  /** Records the outcome of each request in the outbox. */
+  private class OutboxListener implements EmailDispatcher.DeliveryListener {
+
+    private final Map<BulkEmail.Recipient, EmailOutboxMessage> messageOf;
+
+    OutboxListener(Map<BulkEmail.Recipient, EmailOutboxMessage> messageOf) {
+      this.messageOf = messageOf;
+    }
+
+    @Override
+    public void delivered(List<BulkEmail.Recipient> recipients) {
+      emailOutboxService.markSent(
+          recipients.stream().map(recipient -> messageOf.get(recipient).getId()).toList());
+    }
+
+    @Override
+    public void failed(List<BulkEmail.Recipient> recipients, Exception error) {
+      String message = truncate(String.valueOf(error.getMessage()));
+      List<Long> givenUp = new ArrayList<>();
+      // Ids to retry, by the attempts they made so far, which sets the backoff.
+      Map<Integer, List<Long>> toRetry = new TreeMap<>();
+      for (BulkEmail.Recipient recipient : recipients) {
+        EmailOutboxMessage outboxMessage = messageOf.get(recipient);
+        if (isRejection(error) || outboxMessage.getAttempts() >= maxAttempts) {
+          givenUp.add(outboxMessage.getId());
+        } else {
+          toRetry
+              .computeIfAbsent(outboxMessage.getAttempts(), attempts -> new ArrayList<>())
+              .add(outboxMessage.getId());
+        }
+      }
+      if (!givenUp.isEmpty()) {
+        emailOutboxService.markFailed(givenUp, message);
+      }
+      LocalDateTime now = LocalDateTime.now();
+      toRetry.forEach(
+          (attempts, ids) ->
+              emailOutboxService.retryLater(ids, now.plus(backoff(attempts)), message));
+    }
+  }
+
+  // 4xx responses other than 429 mean SendGrid won't take the email as is.
+  private static boolean isRejection(Exception error) {
+    return error instanceof EmailDeliveryException deliveryException
+        && deliveryException.getStatusCode() >= 400
+        && deliveryException.getStatusCode() < 500
+        && deliveryException.getStatusCode() != 429;
+  }
+
+  private Duration backoff(int attempts) {
+    Duration backoff = retryBackoff;
+    for (int i = 1; i < attempts && backoff.compareTo(MAX_RETRY_BACKOFF) < 0; i++) {
+      backoff = backoff.multipliedBy(2);
+    }
+    return backoff.compareTo(MAX_RETRY_BACKOFF) > 0 ? MAX_RETRY_BACKOFF : backoff;
+  }
+
+  private static String truncate(String error) {
+    return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+  }
+
+  private String toJson(Map<String, String> substitutions) {
+    try {
+      return objectMapper.writeValueAsString(substitutions);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize email substitutions", e);
+    }
+  }
+
+  private Map<String, String> fromJson(String substitutions) {
+    try {
+      return objectMapper.readValue(substitutions, SUBSTITUTIONS_TYPE);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to parse email substitutions", e);
+    }
+  }
+}
@@ -3,14 +3,20 @@ package COMP_49X_our_search.backend.notifications;
 import COMP_49X_our_search.backend.database.entities.Faculty;
 import COMP_49X_our_search.backend.database.entities.Major;
 import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ProjectStudentMatches;
 import COMP_49X_our_search.backend.database.entities.Student;
+import COMP_49X_our_search.backend.database.entities.StudentFacultyMatches;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.database.services.ProjectStudentMatchesService;
+import COMP_49X_our_search.backend.database.services.StudentFacultyMatchesService;
 import COMP_49X_our_search.backend.database.services.StudentService;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,66 +27,120 @@ public class MatchBuilder {
   private ProjectService projectService;
   private StudentService studentService;
   private FacultyService facultyService;
+  private ProjectStudentMatchesService projectStudentMatchesService;
+  private StudentFacultyMatchesService studentFacultyMatchesService;
 
   @Autowired
   public MatchBuilder(
-      ProjectService projectService, StudentService studentService, FacultyService facultyService) {
+      ProjectService projectService,
+      StudentService studentService,
+      FacultyService facultyService,
+      ProjectStudentMatchesService projectStudentMatchesService,
+      StudentFacultyMatchesService studentFacultyMatchesService) {
     this.projectService = projectService;
     this.studentService = studentService;
     this.facultyService = facultyService;
+    this.projectStudentMatchesService = projectStudentMatchesService;
+    this.studentFacultyMatchesService = studentFacultyMatchesService;
   }
 
-  @Transactional
-  public Map<String, List<Project>> buildStudentMatches() {
-    List<Project> newProjects = projectService.getNewProjects();
-    return studentService.getAllStudents().stream()
-        .map(
-            student ->
-                Map.entry(
-                    student.getEmail(),
-                    newProjects.stream().filter(project -> matches(student, project)).toList()))
-        .filter(entry -> !entry.getValue().isEmpty())
-        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-  }
+  /**
+   * Matches of a weekly digest, keyed by the email of the person receiving
+   * them. Only people with at least one match are included.
+   */
+  public record Matches(
+      Map<String, List<Project>> studentMatches, Map<String, List<Student>> facultyMatches) {}
 
+  /**
+   * Computes the Student-Project matches (every student with the projects
+   * created in the last week) and the Faculty-Student matches (every faculty
+   * member with the students that joined in the last week), and stores them in
+   * the project_student_matches and student_faculty_mathces tables.
+   *
+   * The matching logic is as follows:
+   * - A student matches a project if at least one of the project's majors is
+   *   among the student's research field interests.
+   * - A faculty member matches a student if the faculty member has at least
+   *   one project that matches the student.
+   *
+   * Instead of comparing every pair, new projects and faculty members are
+   * indexed by major id once (as bitsets over their position in the lists),
+   * so each student is matched by OR-ing the bitsets of their interests.
+   * Matches keep the order of the new projects and new students lists.
+   */
   @Transactional
-  public Map<String, List<Student>> buildFacultyMatches() {
+  public Matches buildMatches() {
+    List<Project> newProjects = projectService.getNewProjects();
     List<Student> newStudents = studentService.getNewStudents();
-    return facultyService.getAllFaculty().stream()
-        .map(
-            faculty ->
-                Map.entry(
-                    faculty.getEmail(),
-                    newStudents.stream().filter(student -> matches(faculty, student)).toList()))
-        .filter(entry -> !entry.getValue().isEmpty())
-        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-  }
+    List<Faculty> faculty = facultyService.getAllFaculty();
 
-  private boolean matches(Student student, Project project) {
-    // The logic for Student-Project matching is as follows:
-    // - A match exists if at least one of the project's listed majors
-    //   is also listed among the student's research field interests.
-    // - Matching is case-insensitive and based on the name of each major.
-    List<String> studentInterests =
-        student.getResearchFieldInterests().stream().map(Major::getName).toList();
-    List<String> projectMajors = project.getMajors().stream().map(Major::getName).toList();
+    Map<Integer, BitSet> newProjectsByMajor = new HashMap<>();
+    for (int i = 0; i < newProjects.size(); i++) {
+      for (Major major : newProjects.get(i).getMajors()) {
+        newProjectsByMajor.computeIfAbsent(major.getId(), id -> new BitSet()).set(i);
+      }
+    }
 
-    if (studentInterests.isEmpty() || projectMajors.isEmpty()) return false;
+    Map<Integer, Integer> facultyIndexById = new HashMap<>();
+    for (int i = 0; i < faculty.size(); i++) {
+      facultyIndexById.put(faculty.get(i).getId(), i);
+    }
+    Map<Integer, BitSet> facultyByMajor = new HashMap<>();
+    for (Project project : projectService.getAllProjectsWithAssociations()) {
+      Integer facultyIndex =
+          project.getFaculty() == null ? null : facultyIndexById.get(project.getFaculty().getId());
+      if (facultyIndex == null) continue;
+      for (Major major : project.getMajors()) {
+        facultyByMajor.computeIfAbsent(major.getId(), id -> new BitSet()).set(facultyIndex);
+      }
+    }
 
-    return projectMajors.stream()
-        .anyMatch(
-            major ->
-                studentInterests.stream().anyMatch(interest -> interest.equalsIgnoreCase(major)));
-  }
+    Map<String, List<Project>> studentMatches = new HashMap<>();
+    List<ProjectStudentMatches> projectStudentMatches = new ArrayList<>();
+    if (!newProjects.isEmpty()) {
+      for (Student student : studentService.getAllStudents()) {
+        BitSet matched = union(student.getResearchFieldInterests(), newProjectsByMajor);
+        if (matched.isEmpty()) continue;
+        List<Project> projects = matched.stream().mapToObj(newProjects::get).toList();
+        studentMatches.put(student.getEmail(), projects);
+        for (Project project : projects) {
+          projectStudentMatches.add(new ProjectStudentMatches(project.getId(), student.getId()));
+        }
+      }
+    }
 
-  private boolean matches(Faculty faculty, Student student) {
-    List<Project> projects = projectService.getProjectsByFacultyId(faculty.getId());
-    if (projects == null || projects.isEmpty()) return false;
+    List<List<Student>> studentsByFaculty = new ArrayList<>(faculty.size());
+    for (int i = 0; i < faculty.size(); i++) {
+      studentsByFaculty.add(new ArrayList<>());
+    }
+    List<StudentFacultyMatches> studentFacultyMatches = new ArrayList<>();
+    for (Student student : newStudents) {
+      BitSet matched = union(student.getResearchFieldInterests(), facultyByMajor);
+      for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+        studentsByFaculty.get(i).add(student);
+        studentFacultyMatches.add(new StudentFacultyMatches(student.getId(), faculty.get(i).getId()));
+      }
+    }
+    Map<String, List<Student>> facultyMatches = new HashMap<>();
+    for (int i = 0; i < faculty.size(); i++) {
+      if (!studentsByFaculty.get(i).isEmpty()) {
+        facultyMatches.put(faculty.get(i).getEmail(), studentsByFaculty.get(i));
+      }
+    }
+
+    projectStudentMatchesService.createMatches(projectStudentMatches);
+    studentFacultyMatchesService.createMatches(studentFacultyMatches);
+    return new Matches(studentMatches, facultyMatches);
+  }
 
-    // The logic for Faculty-Student matches is as follows:
-    // - A faculty member matches a student if the faculty has at least one
-    //   project that matches the student, using the same Student-Project
-    //   matching logic defined in the matches(Student, Project) method.
-    return projects.stream().anyMatch(project -> matches(student, project));
+  private BitSet union(Collection<Major> majors, Map<Integer, BitSet> bitsByMajor) {
+    BitSet union = new BitSet();
+    for (Major major : majors) {
+      BitSet bits = bitsByMajor.get(major.getId());
+      if (bits != null) {
+        union.or(bits);
+      }
+    }
+    return union;
   }
 }
@@ -0,0 +1,13 @@
+package COMP_49X_our_search.backend.notifications;
+
+/** A single rendered email, ready to be sent through SendGridService. */
+public record OutgoingEmail(String to, String subject, String body, String contentType) {
+
+  public static OutgoingEmail plain(String to, String subject, String body) {
+    return new OutgoingEmail(to, subject, body, "text/plain");
+  }
+
+  public static OutgoingEmail html(String to, String subject, String body) {
+    return new OutgoingEmail(to, subject, body, "text/html");
+  }
+}
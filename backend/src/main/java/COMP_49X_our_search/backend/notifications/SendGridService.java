@@ -1,24 +1,65 @@
 package COMP_49X_our_search.backend.notifications;
 
-import com.sendgrid.Method;
-import com.sendgrid.Request;
-import com.sendgrid.Response;
-import com.sendgrid.SendGrid;
 import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
+import com.sendgrid.helpers.mail.objects.Personalization;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class SendGridService {
 
-  @Value("${SENDGRID_API_KEY:}")
-  private String sendGridApiKey;
+  // SendGrid limits for a single mail/send request.
+  public static final int MAX_PERSONALIZATIONS = 1000;
+  public static final int MAX_SUBSTITUTIONS_BYTES = 10000;
 
-  @Value("${SENDGRID_FROM_EMAIL:}")
-  private String fromEmail;
+  // Custom arg carrying the outbox key of a recipient, for tracing only.
+  // SendGrid does not deduplicate on it: delivery is at-least-once, so a
+  // retried request or a resent outbox email may reach a recipient twice, and
+  // this arg only lets the duplicates be matched up in SendGrid's event data.
+  public static final String IDEMPOTENCY_KEY_ARG = "outbox_key";
+
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final Duration MAX_BACKOFF = Duration.ofSeconds(60);
+
+  private final String sendGridApiKey;
+  private final String fromEmail;
+  private final URI mailSendUri;
+  private final int maxAttempts;
+  private final Duration initialBackoff;
+  private final TokenBucketRateLimiter rateLimiter;
+  // Shared by every request, so connections are reused instead of opening a
+  // new client (and connection) per email.
+  private final HttpClient httpClient =
+      HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+
+  @Autowired
+  public SendGridService(
+      @Value("${SENDGRID_API_KEY:}") String sendGridApiKey,
+      @Value("${SENDGRID_FROM_EMAIL:}") String fromEmail,
+      @Value("${sendgrid.base-url:https://api.sendgrid.com/v3}") String baseUrl,
+      @Value("${email.dispatch.rate-per-second:10}") double ratePerSecond,
+      @Value("${email.dispatch.max-attempts:4}") int maxAttempts,
+      @Value("${email.dispatch.initial-backoff-ms:500}") long initialBackoffMillis) {
+    this.sendGridApiKey = sendGridApiKey;
+    this.fromEmail = fromEmail;
+    this.mailSendUri = URI.create(baseUrl.replaceAll("/+$", "") + "/mail/send");
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+    this.rateLimiter = new TokenBucketRateLimiter(ratePerSecond, Math.max(1, ratePerSecond));
+  }
 
   public void sendEmail(String toEmail, String subject,
       String body, String contentType) throws IOException {
@@ -53,9 +94,9 @@ public class SendGridService {
     Mail mail = new Mail();
     mail.setFrom(new Email(fromEmail));
     mail.setSubject(subject);
-    mail.addPersonalization(new com.sendgrid.helpers.mail.objects.Personalization() {{
-      addTo(new Email(toEmail));
-    }});
+    Personalization personalization = new Personalization();
+    personalization.addTo(new Email(toEmail));
+    mail.addPersonalization(personalization);
 
     mail.addContent(new Content("text/plain", plainBody));
     mail.addContent(new Content("text/html",  htmlBody));
@@ -63,6 +104,83 @@ public class SendGridService {
     dispatch(mail);
   }
 
+  /**
+   * Sends a batch built by batches() as a single request, with one
+   * personalization per recipient. Each personalization only has its own
+   * recipient in "to", so recipients never see each other's address.
+   *
+   * @return the number of attempts it took
+   * @throws EmailDeliveryException if the batch could not be delivered
+   */
+  public int sendBatch(BulkEmail batch) throws IOException {
+    if (batch.recipients().size() > MAX_PERSONALIZATIONS) {
+      throw new IllegalArgumentException(
+          "Expected at most "
+              + MAX_PERSONALIZATIONS
+              + " recipients per batch, but got "
+              + batch.recipients().size());
+    }
+
+    Mail mail = new Mail();
+    mail.setFrom(new Email(fromEmail));
+    mail.setSubject(batch.subject());
+    mail.addContent(new Content(batch.contentType(), batch.body()));
+    for (BulkEmail.Recipient recipient : batch.recipients()) {
+      Personalization personalization = new Personalization();
+      personalization.addTo(new Email(recipient.email()));
+      recipient.substitutions().forEach(personalization::addSubstitution);
+      if (recipient.idempotencyKey() != null) {
+        personalization.addCustomArg(IDEMPOTENCY_KEY_ARG, recipient.idempotencyKey());
+      }
+      mail.addPersonalization(personalization);
+    }
+    return dispatch(mail);
+  }
+
+  /**
+   * Splits the recipients that can be sent in bulk into batches of at most
+   * MAX_PERSONALIZATIONS, in order.
+   */
+  public static List<BulkEmail> batches(BulkEmail email) {
+    List<BulkEmail.Recipient> batchable =
+        email.recipients().stream().filter(SendGridService::isBatchable).toList();
+    List<BulkEmail> batches = new ArrayList<>();
+    for (int start = 0; start < batchable.size(); start += MAX_PERSONALIZATIONS) {
+      batches.add(
+          new BulkEmail(
+              email.subject(),
+              email.body(),
+              email.contentType(),
+              batchable.subList(start, Math.min(batchable.size(), start + MAX_PERSONALIZATIONS))));
+    }
+    return batches;
+  }
+
+  /** Recipients whose substitutions are too large to go in a batch. */
+  public static List<BulkEmail.Recipient> unbatchableRecipients(BulkEmail email) {
+    return email.recipients().stream().filter(recipient -> !isBatchable(recipient)).toList();
+  }
+
+  private static boolean isBatchable(BulkEmail.Recipient recipient) {
+    return recipient.substitutionsSize() <= MAX_SUBSTITUTIONS_BYTES;
+  }
+
+  /**
+   * Sends the given email, retrying on failures that are worth retrying.
+   * Used by EmailDispatcher, which checks isConfigured() before sending.
+   *
+   * @return the number of attempts it took
+   * @throws EmailDeliveryException if the email could not be delivered
+   */
+  public int send(OutgoingEmail email) throws IOException {
+    return dispatch(
+        buildSinglePartMail(email.to(), email.subject(), email.body(), email.contentType()));
+  }
+
+  public boolean isConfigured() {
+    return !isNotConfigured();
+  }
+
   private boolean isNotConfigured() {
     return sendGridApiKey == null || sendGridApiKey.isBlank()
         || fromEmail      == null || fromEmail.isBlank();
@@ -76,14 +194,79 @@ public class SendGridService {
     return new Mail(from, subject, to, content);
   }
 
-  private void dispatch(Mail mail) throws IOException {
-    SendGrid sg = new SendGrid(sendGridApiKey);
-    Request  rq = new Request();
-    rq.setMethod(Method.POST);
-    rq.setEndpoint("mail/send");
-    rq.setBody(mail.build());
+  /**
+   * Posts the mail to SendGrid. Every attempt waits for the rate limiter
+   * first. 429 and 5xx responses, and requests that fail without a response,
+   * are retried up to max-attempts times with exponential backoff (or the
+   * Retry-After header if SendGrid sends a longer one). Any other error
+   * response fails right away.
+   */
+  private int dispatch(Mail mail) throws IOException {
+    HttpRequest request =
+        HttpRequest.newBuilder(mailSendUri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Authorization", "Bearer " + sendGridApiKey)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(mail.build()))
+            .build();
+
+    Duration backoff = initialBackoff;
+    for (int attempt = 1; ; attempt++) {
+      Duration retryAfter = Duration.ZERO;
+      try {
+        rateLimiter.acquire();
+        HttpResponse<String> response =
+            httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        int status = response.statusCode();
+        if (status < 300) {
+          return attempt;
+        }
+        boolean retryable = status == 429 || status >= 500;
+        if (!retryable || attempt >= maxAttempts) {
+          throw new EmailDeliveryException(
+              "SendGrid returned status " + status + ": " + response.body(), status, attempt, null);
+        }
+        retryAfter = parseRetryAfter(response);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while sending email");
+      } catch (EmailDeliveryException e) {
+        throw e;
+      } catch (IOException e) {
+        if (attempt >= maxAttempts) {
+          throw new EmailDeliveryException(
+              "Failed to reach SendGrid: " + e.getMessage(), 0, attempt, e);
+        }
+      }
+      sleep(retryAfter.compareTo(backoff) > 0 ? retryAfter : backoff);
+      backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0
+          ? MAX_BACKOFF
+          : backoff.multipliedBy(2);
+    }
+  }
 
-    Response resp = sg.api(rq);
-    System.out.println("Email sent! Status: " + resp.getStatusCode());
+  private Duration parseRetryAfter(HttpResponse<String> response) {
+    return response
+        .headers()
+        .firstValue("Retry-After")
+        .map(
+            value -> {
+              try {
+                Duration retryAfter = Duration.ofSeconds(Long.parseLong(value.trim()));
+                return retryAfter.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : retryAfter;
+              } catch (NumberFormatException e) {
+                return Duration.ZERO;
+              }
+            })
+        .orElse(Duration.ZERO);
+  }
+
+  private void sleep(Duration duration) throws InterruptedIOException {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting to retry email");
+    }
   }
 }
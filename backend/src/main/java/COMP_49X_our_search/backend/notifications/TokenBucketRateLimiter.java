@@ -0,0 +1,56 @@
+/**
+ * Token bucket rate limiter. The bucket holds up to `capacity` tokens and is
+ * refilled at `permitsPerSecond`; every acquire() takes a token, waiting for
+ * one to be refilled if the bucket is empty. This allows short bursts of up to
+ * `capacity` calls while keeping the average rate at `permitsPerSecond`.
+ *
+ * It is thread safe, and threads waiting for a token don't hold the lock.
+ */
+package COMP_49X_our_search.backend.notifications;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucketRateLimiter {
+
+  private final double permitsPerSecond;
+  private final double capacity;
+  private double tokens;
+  private long lastRefillNanos;
+
+  public TokenBucketRateLimiter(double permitsPerSecond, double capacity) {
+    if (permitsPerSecond <= 0 || capacity < 1) {
+      throw new IllegalArgumentException(
+          "Expected permitsPerSecond > 0 and capacity >= 1, but got "
+              + permitsPerSecond
+              + " and "
+              + capacity);
+    }
+    this.permitsPerSecond = permitsPerSecond;
+    this.capacity = capacity;
+    this.tokens = capacity;
+    this.lastRefillNanos = System.nanoTime();
+  }
+
+  public void acquire() throws InterruptedException {
+    while (true) {
+      long waitNanos;
+      synchronized (this) {
+        refill();
+        if (tokens >= 1) {
+          tokens -= 1;
+          return;
+        }
+        waitNanos = (long) Math.ceil((1 - tokens) / permitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+      }
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  // Must be called while holding the lock.
+  private void refill() {
+    long now = System.nanoTime();
+    double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+    tokens = Math.min(capacity, tokens + elapsedSeconds * permitsPerSecond);
+    lastRefillNanos = now;
+  }
+}
@@ -16,6 +16,7 @@ import COMP_49X_our_search.backend.database.enums.UserRole;
 import COMP_49X_our_search.backend.database.services.DepartmentService;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,13 +32,18 @@ public class FacultyProfileCreator implements ProfileCreator {
   private final DepartmentService departmentService;
 
   private final UserService userService;
+  private final SuggestionIndex suggestionIndex;
 
   @Autowired
   public FacultyProfileCreator(
-      FacultyService facultyService, DepartmentService departmentService, UserService userService) {
+      FacultyService facultyService,
+      DepartmentService departmentService,
+      UserService userService,
+      SuggestionIndex suggestionIndex) {
     this.facultyService = facultyService;
     this.departmentService = departmentService;
     this.userService = userService;
+    this.suggestionIndex = suggestionIndex;
   }
 
   @Override
@@ -70,6 +76,7 @@ public class FacultyProfileCreator implements ProfileCreator {
       dbFaculty.setDepartments(departmentEntities);
 
       Faculty createdFaculty = facultyService.saveFaculty(dbFaculty);
+      suggestionIndex.putFaculty(createdFaculty);
 
       User createdUser = userService.createUser(facultyProfile.getEmail(), UserRole.FACULTY);
 
@@ -12,6 +12,9 @@ import COMP_49X_our_search.backend.database.entities.Faculty;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -24,12 +27,24 @@ public class FacultyProfileDeleter implements ProfileDeleter {
   private final FacultyService facultyService;
   private final UserService userService;
   private final ProjectService projectService;
+  private final ProjectSearchIndex projectSearchIndex;
+  private final SuggestionIndex suggestionIndex;
+  private final FacetIndex facetIndex;
 
   @Autowired
-  public FacultyProfileDeleter(FacultyService facultyService, UserService userService, ProjectService projectService) {
+  public FacultyProfileDeleter(
+      FacultyService facultyService,
+      UserService userService,
+      ProjectService projectService,
+      ProjectSearchIndex projectSearchIndex,
+      SuggestionIndex suggestionIndex,
+      FacetIndex facetIndex) {
     this.facultyService = facultyService;
     this.userService = userService;
     this.projectService = projectService;
+    this.projectSearchIndex = projectSearchIndex;
+    this.suggestionIndex = suggestionIndex;
+    this.facetIndex = facetIndex;
   }
 
   @Override
@@ -53,6 +68,9 @@ public class FacultyProfileDeleter implements ProfileDeleter {
       facultyService.deleteFacultyByEmail(email);
       userService.deleteUserByEmail(email);
       projectService.deleteByFacultyId(dbFaculty.getId());
+      projectSearchIndex.removeFaculty(dbFaculty.getId());
+      facetIndex.removeProjectsOfFaculty(dbFaculty.getId());
+      suggestionIndex.removeFaculty(dbFaculty.getId());
 
       return DeleteProfileResponse.newBuilder().setSuccess(true).setProfileId(profileId).build();
     } catch (Exception e) {
@@ -14,6 +14,8 @@ import COMP_49X_our_search.backend.database.enums.UserRole;
 import COMP_49X_our_search.backend.database.services.DepartmentService;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,13 +30,21 @@ public class FacultyProfileEditor implements ProfileEditor {
   private final FacultyService facultyService;
   private final DepartmentService departmentService;
   private final UserService userService;
+  private final ProjectSearchIndex projectSearchIndex;
+  private final SuggestionIndex suggestionIndex;
 
   @Autowired
   public FacultyProfileEditor(
-      FacultyService facultyService, DepartmentService departmentService, UserService userService) {
+      FacultyService facultyService,
+      DepartmentService departmentService,
+      UserService userService,
+      ProjectSearchIndex projectSearchIndex,
+      SuggestionIndex suggestionIndex) {
     this.facultyService = facultyService;
     this.departmentService = departmentService;
     this.userService = userService;
+    this.projectSearchIndex = projectSearchIndex;
+    this.suggestionIndex = suggestionIndex;
   }
 
   @Override
@@ -70,6 +80,9 @@ public class FacultyProfileEditor implements ProfileEditor {
       existingFaculty.setDepartments(updatedDepartments);
 
       Faculty updatedFaculty = facultyService.saveFaculty(existingFaculty);
+      // The faculty name is searchable through their projects.
+      projectSearchIndex.updateFaculty(updatedFaculty);
+      suggestionIndex.putFaculty(updatedFaculty);
 
       return EditProfileResponse.newBuilder()
           .setSuccess(true)
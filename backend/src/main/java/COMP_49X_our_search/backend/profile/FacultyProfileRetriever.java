@@ -11,15 +11,14 @@ import COMP_49X_our_search.backend.database.enums.UserRole;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
 import COMP_49X_our_search.backend.database.services.UserService;
-import COMP_49X_our_search.backend.fetcher.ProjectFetcher;
-import java.util.Arrays;
+import COMP_49X_our_search.backend.fetcher.FilterPlan;
+import COMP_49X_our_search.backend.fetcher.FilterSpecifications;
+import COMP_49X_our_search.backend.search.FullTextSearch;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import proto.data.Entities.ProjectProto;
-import proto.fetcher.FetcherModule.FilteredFetcher;
 import proto.profile.ProfileModule.FacultyProfile;
 import proto.profile.ProfileModule.RetrieveProfileRequest;
 import proto.profile.ProfileModule.RetrieveProfileResponse;
@@ -30,13 +29,18 @@ public class FacultyProfileRetriever implements ProfileRetriever {
   private final FacultyService facultyService;
   private final UserService userService;
   private final ProjectService projectService;
+  private final FullTextSearch fullTextSearch;
 
   @Autowired
   public FacultyProfileRetriever(
-      FacultyService facultyService, UserService userService, ProjectService projectService) {
+      FacultyService facultyService,
+      UserService userService,
+      ProjectService projectService,
+      FullTextSearch fullTextSearch) {
     this.facultyService = facultyService;
     this.userService = userService;
     this.projectService = projectService;
+    this.fullTextSearch = fullTextSearch;
   }
 
   @Override
@@ -52,41 +56,20 @@ public class FacultyProfileRetriever implements ProfileRetriever {
           .build();
     }
 
-    // TODO(acescudero): This is duplicate logic, refactor this eventually.
-    List<Project> facultyProjects = projectService.getProjectsByFacultyId(dbFaculty.getId());
-
+    // The filters are checked by the database, see FilterSpecifications.
+    Specification<Project> filter = FilterSpecifications.projectsOfFaculty(dbFaculty.getId());
     if (request.hasFilters()) {
-      FilteredFetcher filters = request.getFilters();
-
-      if (!filters.getMajorIdsList().isEmpty()) {
-        facultyProjects = facultyProjects.stream()
-            .filter(project -> project.getMajors().stream()
-                .anyMatch(major -> filters.getMajorIdsList().contains(major.getId())))
-            .toList();
-      }
-
-      if (!filters.getResearchPeriodIdsList().isEmpty()) {
-        facultyProjects = facultyProjects.stream()
-            .filter(project -> project.getResearchPeriods().stream()
-                .anyMatch(period -> filters.getResearchPeriodIdsList().contains(period.getId())))
-            .toList();
-      }
-
-      if (!filters.getUmbrellaTopicIdsList().isEmpty()) {
-        facultyProjects = facultyProjects.stream()
-            .filter(project -> project.getUmbrellaTopics().stream()
-                .anyMatch(topic -> filters.getUmbrellaTopicIdsList().contains(topic.getId())))
-            .toList();
-      }
-
-      if (!filters.getKeywords().isEmpty()) {
-        facultyProjects = facultyProjects.stream()
-            .filter(project -> containsKeyword(project.getDescription(), filters.getKeywords())
-                || containsKeyword(project.getDesiredQualifications(), filters.getKeywords())
-                || containsKeyword(project.getName(), filters.getKeywords()))
-            .toList();
-      }
+      FilterPlan plan = FilterPlan.compile(request.getFilters());
+      filter =
+          filter
+              .and(FilterSpecifications.projectsMatching(plan))
+              .and(
+                  fullTextSearch.isEnabled() && !plan.getSearchKeywords().isEmpty()
+                      ? FilterSpecifications.projectIdIn(
+                          fullTextSearch.matchProjects(plan.getSearchKeywords()))
+                      : FilterSpecifications.projectTextContains(plan));
     }
+    List<Project> facultyProjects = projectService.getProjectsWithAssociations(filter);
 
     return RetrieveProfileResponse.newBuilder()
         .setSuccess(true)
@@ -101,19 +84,6 @@ public class FacultyProfileRetriever implements ProfileRetriever {
         .build();
   }
 
-  private boolean containsKeyword(String text, String keywords) {
-    if (text == null || keywords == null || keywords.trim().isEmpty()) {
-      return false;
-    }
-
-    String lowercaseText = text.toLowerCase();
-    Set<String> keywordSet = Arrays.stream(keywords.toLowerCase().split("[ ,]"))
-        .filter(k -> !k.trim().isEmpty())
-        .collect(Collectors.toSet());
-
-    return keywordSet.isEmpty() || keywordSet.stream().anyMatch(lowercaseText::contains);
-  }
-
   private ProjectProto buildProjectProto(Project dbProject) {
     // Construct a ProjectProto message without the faculty field populated
     return ProjectProto.newBuilder()
@@ -19,6 +19,7 @@ import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
 import COMP_49X_our_search.backend.database.services.StudentService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
 import java.time.Year;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -35,17 +36,20 @@ public class StudentProfileCreator implements ProfileCreator {
   private final MajorService majorService;
   private final ResearchPeriodService researchPeriodService;
   private final UserService userService;
+  private final FacetIndex facetIndex;
 
   @Autowired
   public StudentProfileCreator(
       StudentService studentService,
       MajorService majorService,
       ResearchPeriodService researchPeriodService,
-      UserService userService) {
+      UserService userService,
+      FacetIndex facetIndex) {
     this.studentService = studentService;
     this.majorService = majorService;
     this.researchPeriodService = researchPeriodService;
     this.userService = userService;
+    this.facetIndex = facetIndex;
   }
 
   @Override
@@ -105,6 +109,7 @@ public class StudentProfileCreator implements ProfileCreator {
           toUndergradYear(studentProfile.getClassStatus()));
 
       Student createdStudent = studentService.saveStudent(dbStudent);
+      facetIndex.putStudent(createdStudent);
 
       User createdUser = userService.createUser(studentProfile.getEmail(), UserRole.STUDENT);
 
@@ -11,6 +11,7 @@ package COMP_49X_our_search.backend.profile;
 import COMP_49X_our_search.backend.database.entities.Student;
 import COMP_49X_our_search.backend.database.services.StudentService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -22,11 +23,14 @@ public class StudentProfileDeleter implements ProfileDeleter {
 
   private final StudentService studentService;
   private final UserService userService;
+  private final FacetIndex facetIndex;
 
   @Autowired
-  public StudentProfileDeleter(StudentService studentService, UserService userService) {
+  public StudentProfileDeleter(
+      StudentService studentService, UserService userService, FacetIndex facetIndex) {
     this.studentService = studentService;
     this.userService = userService;
+    this.facetIndex = facetIndex;
   }
 
   @Override
@@ -49,6 +53,7 @@ public class StudentProfileDeleter implements ProfileDeleter {
 
       studentService.deleteStudentByEmail(email);
       userService.deleteUserByEmail(email);
+      facetIndex.removeStudent(profileId);
 
       return DeleteProfileResponse.newBuilder().setSuccess(true).setProfileId(profileId).build();
     } catch (Exception e) {
@@ -18,6 +18,7 @@ import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
 import COMP_49X_our_search.backend.database.services.StudentService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,17 +34,20 @@ public class StudentProfileEditor implements ProfileEditor {
   private final MajorService majorService;
   private final ResearchPeriodService researchPeriodService;
   private final UserService userService;
+  private final FacetIndex facetIndex;
 
   @Autowired
   public StudentProfileEditor(
       StudentService studentService,
       MajorService majorService,
       ResearchPeriodService researchPeriodService,
-      UserService userService) {
+      UserService userService,
+      FacetIndex facetIndex) {
     this.studentService = studentService;
     this.majorService = majorService;
     this.researchPeriodService = researchPeriodService;
     this.userService = userService;
+    this.facetIndex = facetIndex;
   }
 
   @Override
@@ -106,6 +110,7 @@ public class StudentProfileEditor implements ProfileEditor {
       existingStudent.setResearchPeriods(updatedResearchPeriods);
 
       Student updatedStudent = studentService.saveStudent(existingStudent);
+      facetIndex.putStudent(updatedStudent);
 
       return EditProfileResponse.newBuilder()
           .setSuccess(true)
@@ -16,6 +16,9 @@ import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
 import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
 import COMP_49X_our_search.backend.database.services.UmbrellaTopicService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -33,6 +36,9 @@ public class ProjectCreator {
   private final MajorService majorService;
   private final UmbrellaTopicService umbrellaTopicService;
   private final ResearchPeriodService researchPeriodService;
+  private final ProjectSearchIndex projectSearchIndex;
+  private final SuggestionIndex suggestionIndex;
+  private final FacetIndex facetIndex;
 
   @Autowired
   public ProjectCreator(
@@ -40,13 +46,19 @@ public class ProjectCreator {
       FacultyService facultyService,
       MajorService majorService,
       UmbrellaTopicService umbrellaTopicService,
-      ResearchPeriodService researchPeriodService
+      ResearchPeriodService researchPeriodService,
+      ProjectSearchIndex projectSearchIndex,
+      SuggestionIndex suggestionIndex,
+      FacetIndex facetIndex
   ) {
     this.projectService = projectService;
     this.facultyService = facultyService;
     this.majorService = majorService;
     this.umbrellaTopicService = umbrellaTopicService;
     this.researchPeriodService = researchPeriodService;
+    this.projectSearchIndex = projectSearchIndex;
+    this.suggestionIndex = suggestionIndex;
+    this.facetIndex = facetIndex;
   }
 
   public CreateProjectResponse createProject(CreateProjectRequest request) {
@@ -110,6 +122,9 @@ public class ProjectCreator {
       dbProject.setCreatedAt(LocalDateTime.now());
 
       Project createdProject = projectService.saveProject(dbProject);
+      projectSearchIndex.indexProject(createdProject);
+      facetIndex.putProject(createdProject);
+      suggestionIndex.putProject(createdProject);
 
       return CreateProjectResponse.newBuilder()
           .setSuccess(true)
@@ -2,6 +2,9 @@ package COMP_49X_our_search.backend.project;
 
 import COMP_49X_our_search.backend.database.entities.Project;
 import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import proto.project.ProjectModule.DeleteProjectRequest;
@@ -11,10 +14,20 @@ import proto.project.ProjectModule.DeleteProjectResponse;
 public class ProjectDeleter {
 
   private final ProjectService projectService;
+  private final ProjectSearchIndex projectSearchIndex;
+  private final SuggestionIndex suggestionIndex;
+  private final FacetIndex facetIndex;
 
   @Autowired
-  public ProjectDeleter(ProjectService projectService) {
+  public ProjectDeleter(
+      ProjectService projectService,
+      ProjectSearchIndex projectSearchIndex,
+      SuggestionIndex suggestionIndex,
+      FacetIndex facetIndex) {
     this.projectService = projectService;
+    this.projectSearchIndex = projectSearchIndex;
+    this.suggestionIndex = suggestionIndex;
+    this.facetIndex = facetIndex;
   }
 
   public DeleteProjectResponse deleteProject(DeleteProjectRequest request) {
@@ -23,6 +36,9 @@ public class ProjectDeleter {
     // project service which throws an exception if the project is not found.
     try {
       projectService.deleteById(request.getProjectId());
+      projectSearchIndex.removeProject(request.getProjectId());
+      facetIndex.removeProject(request.getProjectId());
+      suggestionIndex.removeProject(request.getProjectId());
 
       return DeleteProjectResponse.newBuilder().setSuccess(true).build();
     } catch (Exception e) {
@@ -8,6 +8,9 @@ import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
 import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
 import COMP_49X_our_search.backend.database.services.UmbrellaTopicService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import COMP_49X_our_search.backend.util.ProtoConverter;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -25,17 +28,26 @@ public class ProjectEditor {
   private final MajorService majorService;
   private final UmbrellaTopicService umbrellaTopicService;
   private final ResearchPeriodService researchPeriodService;
+  private final ProjectSearchIndex projectSearchIndex;
+  private final SuggestionIndex suggestionIndex;
+  private final FacetIndex facetIndex;
 
   @Autowired
   public ProjectEditor(
       ProjectService projectService,
       MajorService majorService,
       UmbrellaTopicService umbrellaTopicService,
-      ResearchPeriodService researchPeriodService) {
+      ResearchPeriodService researchPeriodService,
+      ProjectSearchIndex projectSearchIndex,
+      SuggestionIndex suggestionIndex,
+      FacetIndex facetIndex) {
     this.projectService = projectService;
     this.majorService = majorService;
     this.umbrellaTopicService = umbrellaTopicService;
     this.researchPeriodService = researchPeriodService;
+    this.projectSearchIndex = projectSearchIndex;
+    this.suggestionIndex = suggestionIndex;
+    this.facetIndex = facetIndex;
   }
 
   public EditProjectResponse editProject(EditProjectRequest request) {
@@ -86,6 +98,9 @@ public class ProjectEditor {
       dbProject.setResearchPeriods(researchPeriodEntities);
 
       Project editedProject = projectService.saveProject(dbProject);
+      projectSearchIndex.indexProject(editedProject);
+      facetIndex.putProject(editedProject);
+      suggestionIndex.putProject(editedProject);
 
       return EditProjectResponse.newBuilder()
           .setSuccess(true)
@@ -0,0 +1,170 @@
+/**
+ * Keyword search backed by MySQL FULLTEXT indexes, used instead of
+ * ProjectSearchIndex and LIKE matching when search.backend is "fulltext".
+ *
+ * When the bean is created, after the schema (see @DependsOn), it detects the
+ * database and creates the FULLTEXT indexes it needs if they aren't there yet:
+ * one over the name, description and desired qualifications of projects and
+ * one over the interest reason of students. Searches made while the
+ * application is still starting therefore already use them. Keywords are
+ * matched with MATCH ... AGAINST in boolean mode, each keyword as a word
+ * prefix, so "robot" finds "robotics" but, unlike the other backends, not
+ * "microrobots". MySQL also leaves out stopwords and words shorter than
+ * innodb_ft_min_token_size.
+ *
+ * Databases without FULLTEXT support (H2, which the tests run on) fall back to
+ * the same queries with a LIKE per keyword, so the rest of the search path
+ * still runs offline.
+ */
+package COMP_49X_our_search.backend.search;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+// The indexes go on the tables of the schema, created with the entity manager.
+@DependsOn("entityManagerFactory")
+public class FullTextSearch {
+
+  public static final String BACKEND_FULLTEXT = "fulltext";
+
+  private static final String PROJECTS_INDEX = "ft_projects_text";
+  private static final String STUDENTS_INDEX = "ft_students_interest_reason";
+  private static final List<String> PROJECT_COLUMNS =
+      List.of("name", "description", "desired_qualifications");
+  private static final List<String> STUDENT_COLUMNS = List.of("interest_reason");
+  // Characters with a meaning in boolean mode queries.
+  private static final String BOOLEAN_OPERATORS = "[+\\-<>()~*\"@]";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean enabled;
+  // Set when the bean is created, see initialize.
+  private boolean mysql;
+
+  @Autowired
+  public FullTextSearch(
+      JdbcTemplate jdbcTemplate, @Value("${search.backend:index}") String backend) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.enabled = BACKEND_FULLTEXT.equalsIgnoreCase(backend.trim());
+  }
+
+  @PostConstruct
+  public void initialize() {
+    if (!enabled) {
+      return;
+    }
+    String database =
+        jdbcTemplate.execute(
+            (ConnectionCallback<String>)
+                connection -> connection.getMetaData().getDatabaseProductName());
+    mysql = "MySQL".equalsIgnoreCase(database);
+    if (!mysql) {
+      System.out.println(
+          "FULLTEXT search is not supported on " + database + ", falling back to LIKE");
+      return;
+    }
+    createIndexIfMissing("projects", PROJECTS_INDEX, PROJECT_COLUMNS);
+    createIndexIfMissing("students", STUDENTS_INDEX, STUDENT_COLUMNS);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Returns the ids of the projects whose name, description or desired
+   * qualifications match any of the keywords.
+   */
+  public Set<Integer> matchProjects(Collection<String> keywords) {
+    return match("projects", PROJECT_COLUMNS, keywords);
+  }
+
+  /** Returns the ids of the students whose interest reason matches any of the keywords. */
+  public Set<Integer> matchStudentInterests(Collection<String> keywords) {
+    return match("students", STUDENT_COLUMNS, keywords);
+  }
+
+  private Set<Integer> match(String table, List<String> columns, Collection<String> keywords) {
+    if (keywords.isEmpty()) {
+      return Set.of();
+    }
+    if (mysql) {
+      String query = toBooleanQuery(keywords);
+      if (query.isEmpty()) {
+        return Set.of();
+      }
+      return new HashSet<>(
+          jdbcTemplate.queryForList(
+              "SELECT id FROM "
+                  + table
+                  + " WHERE MATCH("
+                  + String.join(", ", columns)
+                  + ") AGAINST (? IN BOOLEAN MODE)",
+              Integer.class,
+              query));
+    }
+
+    List<String> conditions = new ArrayList<>();
+    List<Object> parameters = new ArrayList<>();
+    for (String keyword : keywords) {
+      for (String column : columns) {
+        conditions.add("LOWER(" + column + ") LIKE ? ESCAPE '!'");
+        parameters.add("%" + escapeLike(keyword.toLowerCase()) + "%");
+      }
+    }
+    return new HashSet<>(
+        jdbcTemplate.queryForList(
+            "SELECT id FROM " + table + " WHERE " + String.join(" OR ", conditions),
+            Integer.class,
+            parameters.toArray()));
+  }
+
+  // Each keyword becomes an optional word prefix, so a row matches if it has
+  // a word starting with any of them.
+  static String toBooleanQuery(Collection<String> keywords) {
+    return keywords.stream()
+        .flatMap(keyword -> Arrays.stream(keyword.replaceAll(BOOLEAN_OPERATORS, " ").split("\\s+")))
+        .filter(word -> !word.isEmpty())
+        .distinct()
+        .map(word -> word + "*")
+        .collect(Collectors.joining(" "));
+  }
+
+  private void createIndexIfMissing(String table, String index, List<String> columns) {
+    Integer existing =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM information_schema.statistics"
+                + " WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?",
+            Integer.class,
+            table,
+            index);
+    if (existing != null && existing > 0) {
+      return;
+    }
+    System.out.println("Creating FULLTEXT index " + index + " on " + table);
+    jdbcTemplate.execute(
+        "CREATE FULLTEXT INDEX "
+            + index
+            + " ON "
+            + table
+            + " ("
+            + String.join(", ", columns)
+            + ")");
+  }
+
+  private static String escapeLike(String keyword) {
+    return keyword.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+  }
+}
@@ -0,0 +1,439 @@
+/**
+ * In-memory inverted index over the searchable text of every project (name,
+ * description, desired qualifications and the faculty member's name).
+ *
+ * Keyword search used to lowercase and scan the full text of every project on
+ * every request. This index tokenizes each project once, when it is created or
+ * edited, and keeps a posting list of project ids per token. A keyword search
+ * then looks up the tokens containing the keyword through their trigrams (see
+ * TrigramIndex), without going over the whole vocabulary, and unions their
+ * posting lists.
+ *
+ * Matching semantics are the same as the previous substring scan: a project
+ * matches if any keyword appears anywhere inside any of its searchable fields.
+ * Keywords are split on spaces and commas, so a keyword can never span two
+ * tokens and it is enough to look for it inside each token.
+ *
+ * The index also keeps how often each token appears in each field of a
+ * project and how long each field is, the term statistics score uses to rank
+ * the matches with BM25F: a match in a short field counts for more than one in
+ * a long field, a token that is rare across projects for more than a common
+ * one, and fields are weighted (a match in the name counts most). Scoring
+ * only visits the postings of the matched tokens, not every project.
+ *
+ * A keyword no token contains may be misspelled, so it matches the tokens
+ * within a couple of typos of it instead (see TrigramIndex). Keywords that
+ * match as they are never match fuzzily, so fuzzy matching only adds results
+ * for keywords that used to find nothing.
+ *
+ * The index is built lazily from the database on first use and is then kept up
+ * to date by ProjectCreator, ProjectEditor, ProjectDeleter and the faculty
+ * profile editor/deleter. Updates made inside a transaction are applied once
+ * it commits, so a rolled back write never shows up in the index.
+ */
+package COMP_49X_our_search.backend.search;
+
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.util.AfterCommit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProjectSearchIndex {
+
+  private static final String TOKEN_DELIMITERS = "[\\s,]+";
+
+  // Weights of the searchable fields, in the order name, description, desired
+  // qualifications and faculty name, which is also the order of the per-field
+  // arrays below.
+  private static final double[] FIELD_WEIGHTS = {3.0, 1.0, 1.0, 2.0};
+  private static final int FACULTY = 3;
+  // Standard BM25 parameters: term frequency saturation and length normalization.
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private final ProjectService projectService;
+
+  // token -> ids of the projects containing that token in any searchable field
+  private final Map<String, Set<Integer>> postings = new HashMap<>();
+  // project id -> the indexed tokens and term statistics of that project
+  private final Map<Integer, IndexedProject> projects = new HashMap<>();
+  // faculty id -> ids of the projects owned by that faculty member
+  private final Map<Integer, Set<Integer>> projectsByFaculty = new HashMap<>();
+  // Sum of the lengths (in tokens) of each field over all indexed projects
+  private final long[] totalFieldLengths = new long[FIELD_WEIGHTS.length];
+  // The tokens of postings, by trigram, for substring and fuzzy matching
+  private final TrigramIndex vocabularyTrigrams = new TrigramIndex();
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile boolean initialized = false;
+
+  @Autowired
+  public ProjectSearchIndex(ProjectService projectService) {
+    this.projectService = projectService;
+  }
+
+  /**
+   * Returns the ids of all projects whose name, description, desired
+   * qualifications or faculty name contain at least one of the given keywords.
+   */
+  public Set<Integer> search(String keywords) {
+    return search(tokenizeKeywords(keywords));
+  }
+
+  /** Same as search(String), for keywords already split by tokenizeKeywords. */
+  public Set<Integer> search(Set<String> keywordSet) {
+    if (keywordSet.isEmpty()) {
+      return Collections.emptySet();
+    }
+    ensureInitialized();
+
+    lock.readLock().lock();
+    try {
+      Set<Integer> matches = new HashSet<>();
+      for (String token : matchingTokens(keywordSet)) {
+        matches.addAll(postings.get(token));
+      }
+      return matches;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the ids of the projects whose faculty member's name contains at
+   * least one of the given keywords. Unlike search, misspelled keywords
+   * aren't matched, same as the LIKE filter on faculty names.
+   */
+  public Set<Integer> searchFacultyNames(Set<String> keywordSet) {
+    if (keywordSet.isEmpty()) {
+      return Collections.emptySet();
+    }
+    ensureInitialized();
+
+    lock.readLock().lock();
+    try {
+      Set<Integer> matches = new HashSet<>();
+      for (String keyword : keywordSet) {
+        for (String token : vocabularyTrigrams.containing(keyword)) {
+          for (Integer projectId : postings.get(token)) {
+            if (projects.get(projectId).termFrequencies().get(token)[FACULTY] > 0) {
+              matches.add(projectId);
+            }
+          }
+        }
+      }
+      return matches;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Scores every project matching the given keywords (see search) by
+   * relevance, returning the score of each matching project id. A keyword
+   * counts as occurring wherever a token contains it.
+   */
+  public Map<Integer, Double> score(Set<String> keywordSet) {
+    if (keywordSet.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    ensureInitialized();
+
+    lock.readLock().lock();
+    try {
+      int projectCount = projects.size();
+      double[] averageFieldLengths = new double[FIELD_WEIGHTS.length];
+      for (int field = 0; field < averageFieldLengths.length; field++) {
+        averageFieldLengths[field] = (double) totalFieldLengths[field] / projectCount;
+      }
+
+      Map<Integer, Double> scores = new HashMap<>();
+      for (String token : matchingTokens(keywordSet)) {
+        Set<Integer> projectIds = postings.get(token);
+        double idf =
+            Math.log(1 + (projectCount - projectIds.size() + 0.5) / (projectIds.size() + 0.5));
+        for (Integer projectId : projectIds) {
+          IndexedProject indexed = projects.get(projectId);
+          double frequency =
+              weightedFrequency(
+                  indexed.termFrequencies().get(token),
+                  indexed.fieldLengths(),
+                  averageFieldLengths);
+          scores.merge(projectId, idf * frequency * (K1 + 1) / (frequency + K1), Double::sum);
+        }
+      }
+      return scores;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Adds a project to the index, replacing any previously indexed version. */
+  public void indexProject(Project project) {
+    if (project == null || project.getId() == null) {
+      return;
+    }
+    write(
+        () -> {
+          removeInternal(project.getId());
+          addInternal(project);
+        });
+  }
+
+  public void removeProject(int projectId) {
+    write(() -> removeInternal(projectId));
+  }
+
+  /**
+   * Re-tokenizes the faculty name of every indexed project owned by the given
+   * faculty member. Needed since the faculty name is part of the searchable
+   * text but is edited through the profile module, not through a project.
+   */
+  public void updateFaculty(Faculty faculty) {
+    if (faculty == null || faculty.getId() == null) {
+      return;
+    }
+    write(
+        () -> {
+          Set<Integer> projectIds =
+              new HashSet<>(
+                  projectsByFaculty.getOrDefault(faculty.getId(), Collections.emptySet()));
+          List<String> facultyTokens = tokenize(facultyName(faculty));
+          for (Integer projectId : projectIds) {
+            List<List<String>> fields = new ArrayList<>(projects.get(projectId).fields());
+            fields.set(FACULTY, facultyTokens);
+            removeInternal(projectId);
+            addInternal(projectId, faculty.getId(), fields);
+          }
+        });
+  }
+
+  public void removeFaculty(int facultyId) {
+    write(
+        () -> {
+          Set<Integer> projectIds =
+              new HashSet<>(projectsByFaculty.getOrDefault(facultyId, Collections.emptySet()));
+          projectIds.forEach(this::removeInternal);
+        });
+  }
+
+  /**
+   * Drops the current contents and rebuilds the index from the database. The
+   * projects are read while holding the write lock, so an update made while
+   * they are read is applied after the rebuild instead of being overwritten
+   * by the older snapshot.
+   */
+  public void rebuild() {
+    lock.writeLock().lock();
+    try {
+      List<Project> allProjects = projectService.getAllResearchOpportunities();
+      postings.clear();
+      vocabularyTrigrams.clear();
+      projects.clear();
+      projectsByFaculty.clear();
+      Arrays.fill(totalFieldLengths, 0);
+      allProjects.forEach(this::addInternal);
+      initialized = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return projects.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Splits a keyword string into its lowercase, non-empty keywords, using the
+   * same delimiters as the fetchers.
+   */
+  public static Set<String> tokenizeKeywords(String keywords) {
+    if (keywords == null || keywords.trim().isEmpty()) {
+      return Collections.emptySet();
+    }
+    return Arrays.stream(keywords.toLowerCase().split("[ ,]"))
+        .map(String::trim)
+        .filter(k -> !k.isEmpty())
+        .collect(Collectors.toSet());
+  }
+
+  // Applies an update under the write lock once the current transaction, if
+  // any, commits (see AfterCommit), so a rolled back write never shows up.
+  private void write(Runnable update) {
+    AfterCommit.run(
+        () -> {
+          lock.writeLock().lock();
+          try {
+            update.run();
+          } finally {
+            lock.writeLock().unlock();
+          }
+        });
+  }
+
+  private void ensureInitialized() {
+    if (initialized) {
+      return;
+    }
+    synchronized (this) {
+      if (!initialized) {
+        rebuild();
+      }
+    }
+  }
+
+  private void addInternal(Project project) {
+    Integer facultyId = project.getFaculty() != null ? project.getFaculty().getId() : null;
+    List<List<String>> fields = new ArrayList<>(FIELD_WEIGHTS.length);
+    fields.add(tokenize(project.getName()));
+    fields.add(tokenize(project.getDescription()));
+    fields.add(tokenize(project.getDesiredQualifications()));
+    fields.add(
+        project.getFaculty() != null ? tokenize(facultyName(project.getFaculty())) : List.of());
+    addInternal(project.getId(), facultyId, fields);
+  }
+
+  private void addInternal(Integer projectId, Integer facultyId, List<List<String>> fields) {
+    IndexedProject indexed = IndexedProject.of(facultyId, fields);
+    projects.put(projectId, indexed);
+    for (String token : indexed.termFrequencies().keySet()) {
+      postings
+          .computeIfAbsent(
+              token,
+              t -> {
+                vocabularyTrigrams.add(t);
+                return new HashSet<>();
+              })
+          .add(projectId);
+    }
+    for (int field = 0; field < totalFieldLengths.length; field++) {
+      totalFieldLengths[field] += indexed.fieldLengths()[field];
+    }
+    if (facultyId != null) {
+      projectsByFaculty.computeIfAbsent(facultyId, id -> new HashSet<>()).add(projectId);
+    }
+  }
+
+  private void removeInternal(Integer projectId) {
+    IndexedProject indexed = projects.remove(projectId);
+    if (indexed == null) {
+      return;
+    }
+    for (int field = 0; field < totalFieldLengths.length; field++) {
+      totalFieldLengths[field] -= indexed.fieldLengths()[field];
+    }
+    for (String token : indexed.termFrequencies().keySet()) {
+      Set<Integer> ids = postings.get(token);
+      if (ids != null) {
+        ids.remove(projectId);
+        if (ids.isEmpty()) {
+          postings.remove(token);
+          vocabularyTrigrams.remove(token);
+        }
+      }
+    }
+    if (indexed.facultyId() != null) {
+      Set<Integer> ids = projectsByFaculty.get(indexed.facultyId());
+      if (ids != null) {
+        ids.remove(projectId);
+        if (ids.isEmpty()) {
+          projectsByFaculty.remove(indexed.facultyId());
+        }
+      }
+    }
+  }
+
+  // The tokens containing one of the keywords, plus the fuzzy matches of the
+  // keywords no token contains.
+  private Set<String> matchingTokens(Set<String> keywordSet) {
+    Set<String> tokens = new LinkedHashSet<>();
+    Set<String> unmatched = new HashSet<>();
+    for (String keyword : keywordSet) {
+      Set<String> containing = vocabularyTrigrams.containing(keyword);
+      if (containing.isEmpty()) {
+        unmatched.add(keyword);
+      }
+      tokens.addAll(containing);
+    }
+    tokens.addAll(fuzzyMatches(unmatched));
+    return tokens;
+  }
+
+  private Set<String> fuzzyMatches(Set<String> keywords) {
+    Set<String> matches = new LinkedHashSet<>();
+    for (String keyword : keywords) {
+      matches.addAll(vocabularyTrigrams.fuzzyMatches(keyword));
+    }
+    return matches;
+  }
+
+  private static String facultyName(Faculty faculty) {
+    return faculty.getFirstName() + " " + faculty.getLastName();
+  }
+
+  private static List<String> tokenize(String text) {
+    if (text == null || text.isEmpty()) {
+      return List.of();
+    }
+    return Arrays.stream(text.toLowerCase().split(TOKEN_DELIMITERS))
+        .filter(token -> !token.isEmpty())
+        .toList();
+  }
+
+  // Sum over the fields of the weighted frequency of a token, each normalized
+  // by how long the field is compared to the average.
+  private static double weightedFrequency(
+      int[] frequencies, int[] fieldLengths, double[] averageFieldLengths) {
+    double weighted = 0;
+    for (int field = 0; field < frequencies.length; field++) {
+      if (frequencies[field] > 0) {
+        double lengthRatio = fieldLengths[field] / averageFieldLengths[field];
+        weighted += FIELD_WEIGHTS[field] * frequencies[field] / (1 - B + B * lengthRatio);
+      }
+    }
+    return weighted;
+  }
+
+  /**
+   * @param fields the tokens of each field, in field order
+   * @param termFrequencies token -> how often it appears in each field
+   * @param fieldLengths the number of tokens in each field
+   */
+  private record IndexedProject(
+      Integer facultyId,
+      List<List<String>> fields,
+      Map<String, int[]> termFrequencies,
+      int[] fieldLengths) {
+
+    static IndexedProject of(Integer facultyId, List<List<String>> fields) {
+      Map<String, int[]> termFrequencies = new HashMap<>();
+      int[] fieldLengths = new int[fields.size()];
+      for (int field = 0; field < fields.size(); field++) {
+        for (String token : fields.get(field)) {
+          termFrequencies.computeIfAbsent(token, t -> new int[fields.size()])[field]++;
+        }
+        fieldLengths[field] = fields.get(field).size();
+      }
+      return new IndexedProject(facultyId, List.copyOf(fields), termFrequencies, fieldLengths);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/**
+ * Keyword search over projects that returns the best matches first, for the
+ * flat /all-projects/ranked endpoint.
+ *
+ * Matches are scored by ProjectSearchIndex and only the top ones are kept,
+ * with a bounded heap, so the full list of matches is never sorted. Only the
+ * projects that make it into the results are loaded with their associations.
+ * Major, research period and umbrella topic filters are checked by the
+ * database first, which only returns the ids of the projects matching them.
+ */
+package COMP_49X_our_search.backend.search;
+
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.fetcher.FilterPlan;
+import COMP_49X_our_search.backend.fetcher.FilterSpecifications;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+
+@Service
+public class RankedProjectSearch {
+
+  // Higher scores rank first, ties go to the older (lower id) project.
+  private static final Comparator<Map.Entry<Integer, Double>> BEST_FIRST =
+      Map.Entry.<Integer, Double>comparingByValue()
+          .reversed()
+          .thenComparing(Map.Entry.<Integer, Double>comparingByKey());
+
+  private final ProjectSearchIndex projectSearchIndex;
+  private final ProjectService projectService;
+
+  @Autowired
+  public RankedProjectSearch(
+      ProjectSearchIndex projectSearchIndex, ProjectService projectService) {
+    this.projectSearchIndex = projectSearchIndex;
+    this.projectService = projectService;
+  }
+
+  /**
+   * Returns up to limit projects matching the keywords and filters, the most
+   * relevant first. Without keywords nothing matches.
+   */
+  public List<Project> search(FilteredFetcher filters, int limit) {
+    FilterPlan plan = FilterPlan.compile(filters);
+    Map<Integer, Double> scores = projectSearchIndex.score(plan.getSearchKeywords());
+    if (scores.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+
+    Predicate<Integer> matchesFilters = id -> true;
+    if (!plan.getMajorIds().isEmpty()
+        || !plan.getResearchPeriodIds().isEmpty()
+        || !plan.getUmbrellaTopicIds().isEmpty()) {
+      matchesFilters =
+          projectService.getProjectIds(FilterSpecifications.projectsMatching(plan))::contains;
+    }
+    List<Integer> top = topK(scores, limit, matchesFilters);
+    if (top.isEmpty()) {
+      return List.of();
+    }
+    Map<Integer, Project> projects =
+        projectService
+            .getProjectsWithAssociations(FilterSpecifications.projectIdIn(new HashSet<>(top)))
+            .stream()
+            .collect(Collectors.toMap(Project::getId, Function.identity()));
+    // A project deleted since it was scored is left out.
+    return top.stream().map(projects::get).filter(Objects::nonNull).toList();
+  }
+
+  /**
+   * Returns the ids of the k best scored projects accepted by the filter,
+   * best first, keeping at most k of them in a heap at any time.
+   */
+  static List<Integer> topK(Map<Integer, Double> scores, int k, Predicate<Integer> filter) {
+    // Worst of the kept projects on top, so it's the one replaced.
+    PriorityQueue<Map.Entry<Integer, Double>> heap = new PriorityQueue<>(BEST_FIRST.reversed());
+    for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+      if (!filter.test(entry.getKey())) {
+        continue;
+      }
+      if (heap.size() < k) {
+        heap.add(entry);
+      } else if (BEST_FIRST.compare(entry, heap.peek()) < 0) {
+        heap.poll();
+        heap.add(entry);
+      }
+    }
+    List<Integer> top = new ArrayList<>(heap.size());
+    while (!heap.isEmpty()) {
+      top.add(heap.poll().getKey());
+    }
+    Collections.reverse(top);
+    return top;
+  }
+}
@@ -0,0 +1,368 @@
+/**
+ * In-memory index of the names a user might be typing in the search box
+ * (project names, faculty names, majors and umbrella topics), for the
+ * /suggest typeahead endpoint.
+ *
+ * Each name is stored in a sorted map once for every word in it, keyed by the
+ * lowercase name starting at that word, so "Machine Learning" can be found by
+ * typing "mach" or "learn". Looking up a prefix is then a binary search for
+ * the first key starting with it followed by a scan of the next keys, which
+ * stops as soon as enough suggestions were found, instead of going over every
+ * name on each keystroke.
+ *
+ * The words of faculty names are also indexed by trigram (see TrigramIndex),
+ * so FacultyFetcher can correct a misspelled name against the names of every
+ * faculty member, not only of those with projects.
+ *
+ * The index is built lazily from the database on first use and is then kept up
+ * to date by the same write paths as ProjectSearchIndex, plus MajorService and
+ * UmbrellaTopicService. It loads majors and umbrella topics from their
+ * repositories rather than from those two services, since they depend on it.
+ * Updates made inside a transaction are applied once it commits.
+ */
+package COMP_49X_our_search.backend.search;
+
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.repositories.MajorRepository;
+import COMP_49X_our_search.backend.database.repositories.UmbrellaTopicRepository;
+import COMP_49X_our_search.backend.database.services.FacultyService;
+import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.util.AfterCommit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SuggestionIndex {
+
+  public enum SuggestionType {
+    PROJECT,
+    FACULTY,
+    MAJOR,
+    UMBRELLA_TOPIC
+  }
+
+  public record Suggestion(String text, SuggestionType type) {}
+
+  // A named row of the database the suggestions come from.
+  private record Source(SuggestionType type, int id) {}
+
+  private static final Comparator<Source> SOURCE_ORDER =
+      Comparator.comparing(Source::type).thenComparingInt(Source::id);
+
+  private final ProjectService projectService;
+  private final FacultyService facultyService;
+  private final MajorRepository majorRepository;
+  private final UmbrellaTopicRepository umbrellaTopicRepository;
+
+  // lowercase name from one of its words on -> the sources with that name
+  private final NavigableMap<String, Set<Source>> keys = new TreeMap<>();
+  // source -> its name, as displayed
+  private final Map<Source, String> names = new HashMap<>();
+  // project id -> id of the faculty member owning the project
+  private final Map<Integer, Integer> projectFaculty = new HashMap<>();
+  // word of a faculty name -> how many faculty names have that word
+  private final Map<String, Integer> facultyWords = new HashMap<>();
+  // The words of facultyWords, by trigram, for substring and fuzzy matching
+  private final TrigramIndex facultyWordTrigrams = new TrigramIndex();
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private volatile boolean initialized = false;
+
+  @Autowired
+  public SuggestionIndex(
+      ProjectService projectService,
+      FacultyService facultyService,
+      MajorRepository majorRepository,
+      UmbrellaTopicRepository umbrellaTopicRepository) {
+    this.projectService = projectService;
+    this.facultyService = facultyService;
+    this.majorRepository = majorRepository;
+    this.umbrellaTopicRepository = umbrellaTopicRepository;
+  }
+
+  /**
+   * Returns up to limit distinct names with a word starting with the given
+   * prefix, ordered by the name from the matching word on.
+   */
+  public List<Suggestion> suggest(String prefix, int limit) {
+    String normalized = normalize(prefix);
+    if (normalized.isEmpty() || limit <= 0) {
+      return List.of();
+    }
+    ensureInitialized();
+
+    lock.readLock().lock();
+    try {
+      Set<Suggestion> suggestions = new LinkedHashSet<>();
+      for (Map.Entry<String, Set<Source>> entry : keys.tailMap(normalized, true).entrySet()) {
+        if (!entry.getKey().startsWith(normalized)) {
+          break;
+        }
+        for (Source source : entry.getValue()) {
+          suggestions.add(new Suggestion(names.get(source), source.type()));
+          if (suggestions.size() == limit) {
+            return new ArrayList<>(suggestions);
+          }
+        }
+      }
+      return new ArrayList<>(suggestions);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the words of faculty names the keywords that no such word
+   * contains were probably misspellings of, for matching them against the
+   * faculty names.
+   */
+  public Set<String> correctFacultyNames(Set<String> keywordSet) {
+    if (keywordSet.isEmpty()) {
+      return Set.of();
+    }
+    ensureInitialized();
+
+    lock.readLock().lock();
+    try {
+      Set<String> corrections = new LinkedHashSet<>();
+      for (String keyword : keywordSet) {
+        if (facultyWordTrigrams.containing(keyword).isEmpty()) {
+          corrections.addAll(facultyWordTrigrams.fuzzyMatches(keyword));
+        }
+      }
+      return corrections;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Adds a project's name, replacing the previous one if it was renamed. */
+  public void putProject(Project project) {
+    if (project == null || project.getId() == null) {
+      return;
+    }
+    write(() -> putInternal(project));
+  }
+
+  public void removeProject(int projectId) {
+    write(
+        () -> {
+          removeInternal(new Source(SuggestionType.PROJECT, projectId));
+          projectFaculty.remove(projectId);
+        });
+  }
+
+  public void putFaculty(Faculty faculty) {
+    if (faculty == null || faculty.getId() == null) {
+      return;
+    }
+    write(() -> putInternal(faculty));
+  }
+
+  /** Removes a faculty member's name along with their projects. */
+  public void removeFaculty(int facultyId) {
+    write(
+        () -> {
+          removeInternal(new Source(SuggestionType.FACULTY, facultyId));
+          projectFaculty
+              .entrySet()
+              .removeIf(
+                  entry -> {
+                    if (entry.getValue() != facultyId) {
+                      return false;
+                    }
+                    removeInternal(new Source(SuggestionType.PROJECT, entry.getKey()));
+                    return true;
+                  });
+        });
+  }
+
+  public void putMajor(Major major) {
+    if (major == null || major.getId() == null) {
+      return;
+    }
+    write(() -> putInternal(new Source(SuggestionType.MAJOR, major.getId()), major.getName()));
+  }
+
+  public void removeMajor(int majorId) {
+    write(() -> removeInternal(new Source(SuggestionType.MAJOR, majorId)));
+  }
+
+  public void putUmbrellaTopic(UmbrellaTopic umbrellaTopic) {
+    if (umbrellaTopic == null || umbrellaTopic.getId() == null) {
+      return;
+    }
+    write(
+        () -> {
+          putInternal(
+              new Source(SuggestionType.UMBRELLA_TOPIC, umbrellaTopic.getId()),
+              umbrellaTopic.getName());
+        });
+  }
+
+  public void removeUmbrellaTopic(int umbrellaTopicId) {
+    write(() -> removeInternal(new Source(SuggestionType.UMBRELLA_TOPIC, umbrellaTopicId)));
+  }
+
+  /**
+   * Drops the current contents and rebuilds the index from the database,
+   * reading it under the write lock like ProjectSearchIndex.rebuild().
+   */
+  public void rebuild() {
+    lock.writeLock().lock();
+    try {
+      List<Project> projects = projectService.getAllResearchOpportunities();
+      List<Faculty> faculty = facultyService.getAllFaculty();
+      List<Major> majors = majorRepository.findAll();
+      List<UmbrellaTopic> umbrellaTopics = umbrellaTopicRepository.findAll();
+      keys.clear();
+      names.clear();
+      projectFaculty.clear();
+      facultyWords.clear();
+      facultyWordTrigrams.clear();
+      projects.forEach(this::putInternal);
+      faculty.forEach(this::putInternal);
+      majors.forEach(
+          major -> putInternal(new Source(SuggestionType.MAJOR, major.getId()), major.getName()));
+      umbrellaTopics.forEach(
+          topic ->
+              putInternal(
+                  new Source(SuggestionType.UMBRELLA_TOPIC, topic.getId()), topic.getName()));
+      initialized = true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return names.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // Applies an update under the write lock once the current transaction, if
+  // any, commits (see AfterCommit), so a rolled back write never shows up.
+  private void write(Runnable update) {
+    AfterCommit.run(
+        () -> {
+          lock.writeLock().lock();
+          try {
+            update.run();
+          } finally {
+            lock.writeLock().unlock();
+          }
+        });
+  }
+
+  private void ensureInitialized() {
+    if (initialized) {
+      return;
+    }
+    synchronized (this) {
+      if (!initialized) {
+        rebuild();
+      }
+    }
+  }
+
+  private void putInternal(Project project) {
+    putInternal(new Source(SuggestionType.PROJECT, project.getId()), project.getName());
+    if (project.getFaculty() != null && project.getFaculty().getId() != null) {
+      projectFaculty.put(project.getId(), project.getFaculty().getId());
+    } else {
+      projectFaculty.remove(project.getId());
+    }
+  }
+
+  private void putInternal(Faculty faculty) {
+    putInternal(
+        new Source(SuggestionType.FACULTY, faculty.getId()),
+        faculty.getFirstName() + " " + faculty.getLastName());
+  }
+
+  private void putInternal(Source source, String name) {
+    removeInternal(source);
+    String normalized = normalize(name);
+    if (normalized.isEmpty()) {
+      return;
+    }
+    names.put(source, name.trim());
+    for (String key : wordSuffixes(normalized)) {
+      keys.computeIfAbsent(key, k -> new TreeSet<>(SOURCE_ORDER)).add(source);
+    }
+    if (source.type() == SuggestionType.FACULTY) {
+      for (String word : words(normalized)) {
+        if (facultyWords.merge(word, 1, Integer::sum) == 1) {
+          facultyWordTrigrams.add(word);
+        }
+      }
+    }
+  }
+
+  private void removeInternal(Source source) {
+    String name = names.remove(source);
+    if (name == null) {
+      return;
+    }
+    String normalized = normalize(name);
+    for (String key : wordSuffixes(normalized)) {
+      Set<Source> sources = keys.get(key);
+      if (sources != null) {
+        sources.remove(source);
+        if (sources.isEmpty()) {
+          keys.remove(key);
+        }
+      }
+    }
+    if (source.type() == SuggestionType.FACULTY) {
+      for (String word : words(normalized)) {
+        if (facultyWords.merge(word, -1, Integer::sum) == 0) {
+          facultyWords.remove(word);
+          facultyWordTrigrams.remove(word);
+        }
+      }
+    }
+  }
+
+  // The lowercase name with runs of whitespace collapsed, so that keys and
+  // prefixes compare the same way.
+  private static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    return text.trim().toLowerCase().replaceAll("\\s+", " ");
+  }
+
+  // "ada lovelace" -> "ada", "lovelace"
+  private static Set<String> words(String normalized) {
+    return new LinkedHashSet<>(Arrays.asList(normalized.split(" ")));
+  }
+
+  // "machine learning" -> "machine learning", "learning"
+  private static Set<String> wordSuffixes(String normalized) {
+    Set<String> suffixes = new LinkedHashSet<>();
+    suffixes.add(normalized);
+    for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+      suffixes.add(normalized.substring(i + 1));
+    }
+    return suffixes;
+  }
+}
@@ -0,0 +1,219 @@
+/**
+ * Index of a vocabulary by the character trigrams of each term, used to find
+ * the terms containing a keyword and the terms a misspelled keyword was
+ * probably meant to be.
+ *
+ * Each term is padded with two boundary characters on both sides and split
+ * into its overlapping trigrams ("ada" -> "$$a", "$ad", "ada", "da$", "a$$").
+ * A term within a few edits of the keyword still shares most of the keyword's
+ * trigrams, as an edit only changes the trigrams around it, so the candidates
+ * are the terms sharing enough trigrams with the keyword and of a close enough
+ * length. Only those are then checked with an edit distance that gives up as
+ * soon as it goes over the limit, instead of computing the distance to every
+ * term. The exception are keywords made of so few distinct trigrams (like
+ * "aaaa") that a match may share none, which are checked against every term
+ * of a close enough length.
+ *
+ * A term containing a keyword also contains each trigram of the keyword, so
+ * the terms containing a keyword are looked for among the terms with its
+ * rarest trigram only, instead of among every term.
+ *
+ * Not thread safe, the owner of the index is expected to lock around it.
+ */
+package COMP_49X_our_search.backend.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TrigramIndex {
+
+  private static final String BOUNDARY = "$$";
+  // A transposition (the most common typo) changes up to 4 trigrams, the
+  // other edits up to 3.
+  private static final int TRIGRAMS_PER_EDIT = 4;
+
+  // trigram -> the terms containing it
+  private final Map<String, Set<String>> terms = new HashMap<>();
+  // length -> the terms of that length
+  private final Map<Integer, Set<String>> termsByLength = new HashMap<>();
+  private int size = 0;
+
+  public void add(String term) {
+    if (!termsByLength.computeIfAbsent(term.length(), l -> new HashSet<>()).add(term)) {
+      return;
+    }
+    for (String trigram : trigrams(term)) {
+      terms.computeIfAbsent(trigram, t -> new HashSet<>()).add(term);
+    }
+    size++;
+  }
+
+  public void remove(String term) {
+    Set<String> sameLength = termsByLength.get(term.length());
+    if (sameLength == null || !sameLength.remove(term)) {
+      return;
+    }
+    if (sameLength.isEmpty()) {
+      termsByLength.remove(term.length());
+    }
+    for (String trigram : trigrams(term)) {
+      Set<String> withTrigram = terms.get(trigram);
+      withTrigram.remove(term);
+      if (withTrigram.isEmpty()) {
+        terms.remove(trigram);
+      }
+    }
+    size--;
+  }
+
+  public void clear() {
+    terms.clear();
+    termsByLength.clear();
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the terms containing the keyword. Keywords shorter than a trigram
+   * are checked against every term at least as long as they are, the other
+   * ones against the terms with their rarest trigram.
+   */
+  public Set<String> containing(String keyword) {
+    Collection<String> candidates = null;
+    if (keyword.length() < 3) {
+      List<String> longEnough = new ArrayList<>();
+      termsByLength.forEach(
+          (length, sameLength) -> {
+            if (length >= keyword.length()) {
+              longEnough.addAll(sameLength);
+            }
+          });
+      candidates = longEnough;
+    } else {
+      for (int i = 0; i + 3 <= keyword.length(); i++) {
+        Set<String> withTrigram = terms.get(keyword.substring(i, i + 3));
+        if (withTrigram == null) {
+          return Set.of();
+        }
+        if (candidates == null || withTrigram.size() < candidates.size()) {
+          candidates = withTrigram;
+        }
+      }
+    }
+
+    Set<String> matches = new LinkedHashSet<>();
+    for (String candidate : candidates) {
+      if (candidate.contains(keyword)) {
+        matches.add(candidate);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Returns the terms within maxEdits(keyword) edits of the keyword, where an
+   * edit inserts, deletes or replaces a character or swaps two adjacent ones.
+   * Keywords too short to tell a typo from another word match nothing.
+   */
+  public Set<String> fuzzyMatches(String keyword) {
+    int maxEdits = maxEdits(keyword.length());
+    if (maxEdits == 0) {
+      return Set.of();
+    }
+    Set<String> keywordTrigrams = trigrams(keyword);
+    int minShared = keywordTrigrams.size() - TRIGRAMS_PER_EDIT * maxEdits;
+    Set<String> candidates = new HashSet<>();
+    if (minShared > 0) {
+      Map<String, Integer> sharedTrigrams = new HashMap<>();
+      for (String trigram : keywordTrigrams) {
+        for (String term : terms.getOrDefault(trigram, Set.of())) {
+          if (Math.abs(term.length() - keyword.length()) <= maxEdits
+              && sharedTrigrams.merge(term, 1, Integer::sum) == minShared) {
+            candidates.add(term);
+          }
+        }
+      }
+    } else {
+      for (int length = keyword.length() - maxEdits;
+          length <= keyword.length() + maxEdits;
+          length++) {
+        candidates.addAll(termsByLength.getOrDefault(length, Set.of()));
+      }
+    }
+
+    Set<String> matches = new LinkedHashSet<>();
+    for (String candidate : candidates) {
+      if (editDistance(keyword, candidate, maxEdits) <= maxEdits) {
+        matches.add(candidate);
+      }
+    }
+    return matches;
+  }
+
+  /** How many typos a keyword of the given length may have. */
+  static int maxEdits(int length) {
+    if (length < 4) {
+      return 0;
+    }
+    return length < 8 ? 1 : 2;
+  }
+
+  /**
+   * Optimal string alignment distance between a and b, or limit + 1 as soon
+   * as it is known to be over the limit.
+   */
+  static int editDistance(String a, String b, int limit) {
+    if (Math.abs(a.length() - b.length()) > limit) {
+      return limit + 1;
+    }
+    int[] beforePrevious = new int[b.length() + 1];
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      int rowMin = current[0];
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        int distance =
+            Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+        if (i > 1
+            && j > 1
+            && a.charAt(i - 1) == b.charAt(j - 2)
+            && a.charAt(i - 2) == b.charAt(j - 1)) {
+          distance = Math.min(distance, beforePrevious[j - 2] + 1);
+        }
+        current[j] = distance;
+        rowMin = Math.min(rowMin, distance);
+      }
+      if (rowMin > limit) {
+        return limit + 1;
+      }
+      int[] recycled = beforePrevious;
+      beforePrevious = previous;
+      previous = current;
+      current = recycled;
+    }
+    return Math.min(previous[b.length()], limit + 1);
+  }
+
+  private static Set<String> trigrams(String term) {
+    String padded = BOUNDARY + term + BOUNDARY;
+    Set<String> trigrams = new HashSet<>();
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      trigrams.add(padded.substring(i, i + 3));
+    }
+    return trigrams;
+  }
+}
@@ -12,6 +12,8 @@
 
 package COMP_49X_our_search.backend.security;
 
+import COMP_49X_our_search.backend.gateway.GatewayController;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -89,6 +91,8 @@ public class SecurityConfig {
         config.setAllowedOrigins(List.of(FRONTEND_URL));
         config.setAllowedHeaders(List.of("*"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        // Lets the frontend read the caching and pagination response headers.
+        config.setExposedHeaders(List.of("ETag", GatewayController.NEXT_CURSOR_HEADER));
         config.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
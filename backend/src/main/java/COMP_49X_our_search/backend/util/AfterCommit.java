@@ -0,0 +1,37 @@
+/**
+ * Utility class for applying changes to in-memory state derived from the
+ * database (the catalog version, the search indexes) only once the
+ * transaction that wrote the data has committed.
+ *
+ * Applied earlier, a concurrent reader could see the change before the data
+ * is visible, and a rolled back transaction would leave the change behind
+ * for data that was never written.
+ */
+package COMP_49X_our_search.backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class AfterCommit {
+
+  private AfterCommit() {}
+
+  /**
+   * Runs the given action after the current transaction commits, or right away
+   * outside of a transaction. The action never runs if the transaction rolls
+   * back.
+   */
+  public static void run(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/**
+ * Memoizing front of ProtoConverter for building one hierarchy.
+ *
+ * A project listed under several majors, a student in several majors and a
+ * faculty member with several projects would otherwise be converted (walking
+ * their associations again) each time they are listed. Within one context
+ * every entity is converted once, keyed by its id, and the same proto is
+ * returned from then on. Entities without an id are converted every time.
+ *
+ * A context is meant to live for a single request, so it never returns
+ * protos built before the data changed. It can be shared by the threads
+ * building the disciplines of one hierarchy (see HierarchyAssembler).
+ */
+package COMP_49X_our_search.backend.util;
+
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ProjectSearchRow;
+import COMP_49X_our_search.backend.database.entities.Student;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import proto.data.Entities.FacultyProto;
+import proto.data.Entities.ProjectProto;
+import proto.data.Entities.StudentProto;
+
+public class ConversionContext {
+
+  private final Map<Integer, ProjectProto> projects = new ConcurrentHashMap<>();
+  private final Map<Integer, FacultyProto> faculty = new ConcurrentHashMap<>();
+  private final Map<Integer, StudentProto> students = new ConcurrentHashMap<>();
+
+  private final AtomicInteger requested = new AtomicInteger();
+  private final AtomicInteger converted = new AtomicInteger();
+
+  public ProjectProto toProjectProto(Project project) {
+    return memoize(
+        projects,
+        project.getId(),
+        () -> ProtoConverter.toProjectProto(project, toFacultyProto(project.getFaculty())));
+  }
+
+  public ProjectProto toProjectProto(ProjectSearchRow row) {
+    return memoize(projects, row.getProjectId(), () -> ProtoConverter.toProjectProto(row));
+  }
+
+  public FacultyProto toFacultyProto(Faculty faculty) {
+    return memoize(this.faculty, faculty.getId(), () -> ProtoConverter.toFacultyProto(faculty));
+  }
+
+  public StudentProto toStudentProto(Student student) {
+    return memoize(students, student.getId(), () -> ProtoConverter.toStudentProto(student));
+  }
+
+  /** How many protos were actually built. */
+  public int getConversions() {
+    return converted.get();
+  }
+
+  /** How many conversions were answered with an already built proto. */
+  public int getSavedConversions() {
+    return requested.get() - converted.get();
+  }
+
+  private <T> T memoize(Map<Integer, T> protos, Integer id, Supplier<T> convert) {
+    requested.incrementAndGet();
+    if (id == null) {
+      converted.incrementAndGet();
+      return convert.get();
+    }
+    return protos.computeIfAbsent(
+        id,
+        key -> {
+          converted.incrementAndGet();
+          return convert.get();
+        });
+  }
+}
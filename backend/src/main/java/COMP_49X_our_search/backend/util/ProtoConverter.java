@@ -18,6 +18,7 @@ import COMP_49X_our_search.backend.database.entities.Discipline;
 import COMP_49X_our_search.backend.database.entities.Faculty;
 import COMP_49X_our_search.backend.database.entities.Major;
 import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ProjectSearchRow;
 import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
 import COMP_49X_our_search.backend.database.entities.Student;
 import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
@@ -50,6 +51,11 @@ public class ProtoConverter {
   }
 
   public static ProjectProto toProjectProto(Project project) {
+    return toProjectProto(project, toFacultyProto(project.getFaculty()));
+  }
+
+  /** Same as toProjectProto(Project), with the project's faculty already converted. */
+  public static ProjectProto toProjectProto(Project project, FacultyProto faculty) {
     return ProjectProto.newBuilder()
         .setProjectId(project.getId())
         .setProjectName(project.getName())
@@ -61,10 +67,34 @@ public class ProtoConverter {
             project.getUmbrellaTopics().stream().map(UmbrellaTopic::getName).toList())
         .addAllResearchPeriods(
             project.getResearchPeriods().stream().map(ResearchPeriod::getName).toList())
-        .setFaculty(toFacultyProto(project.getFaculty()))
+        .setFaculty(faculty)
         .build();
   }
 
+  /** Same as toProjectProto(Project), from a row of the project search projection. */
+  public static ProjectProto toProjectProto(ProjectSearchRow row) {
+    ProjectProto.Builder project =
+        ProjectProto.newBuilder()
+            .setProjectId(row.getProjectId())
+            .setProjectName(row.getProjectName())
+            .setDescription(row.getDescription())
+            .setDesiredQualifications(row.getDesiredQualifications())
+            .setIsActive(row.getIsActive())
+            .addAllMajors(ProjectSearchRow.decodeNames(row.getMajorNames()))
+            .addAllUmbrellaTopics(ProjectSearchRow.decodeNames(row.getUmbrellaTopicNames()))
+            .addAllResearchPeriods(ProjectSearchRow.decodeNames(row.getResearchPeriodNames()));
+    if (row.getFacultyId() != null) {
+      project.setFaculty(
+          FacultyProto.newBuilder()
+              .setFirstName(row.getFacultyFirstName())
+              .setLastName(row.getFacultyLastName())
+              .setEmail(row.getFacultyEmail())
+              .addAllDepartments(ProjectSearchRow.decodeNames(row.getFacultyDepartmentNames()))
+              .setFacultyId(row.getFacultyId()));
+    }
+    return project.build();
+  }
+
   public static StudentProto toStudentProto(Student student) {
     return StudentProto.newBuilder()
         .setStudentId(student.getId())
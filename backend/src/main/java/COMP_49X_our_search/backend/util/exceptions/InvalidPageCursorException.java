@@ -0,0 +1,8 @@
+package COMP_49X_our_search.backend.util.exceptions;
+
+public class InvalidPageCursorException extends IllegalArgumentException {
+
+  public InvalidPageCursorException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
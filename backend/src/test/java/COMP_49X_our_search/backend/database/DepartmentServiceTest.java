@@ -9,8 +9,10 @@ import static org.mockito.Mockito.when;
 import COMP_49X_our_search.backend.database.entities.Department;
 import COMP_49X_our_search.backend.database.entities.Faculty;
 import COMP_49X_our_search.backend.database.repositories.DepartmentRepository;
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
 import COMP_49X_our_search.backend.database.services.DepartmentService;
 import COMP_49X_our_search.backend.database.services.FacultyService;
+import COMP_49X_our_search.backend.database.services.ProjectSearchProjectionService;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -23,7 +25,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest(classes = {DepartmentService.class})
+@SpringBootTest(classes = {DepartmentService.class, CatalogVersionService.class})
 @ActiveProfiles("test")
 public class DepartmentServiceTest {
 
@@ -31,6 +33,7 @@ public class DepartmentServiceTest {
 
   @MockBean private DepartmentRepository departmentRepository;
   @MockBean private FacultyService facultyService;
+  @MockBean private ProjectSearchProjectionService projectSearchProjectionService;
 
   @Test
   void testGetAllDepartments_returnsCorrectSize() {
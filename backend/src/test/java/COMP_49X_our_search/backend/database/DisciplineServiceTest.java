@@ -17,6 +17,7 @@ import COMP_49X_our_search.backend.database.entities.Student;
 import COMP_49X_our_search.backend.database.repositories.DisciplineRepository;
 import COMP_49X_our_search.backend.database.repositories.MajorRepository;
 import COMP_49X_our_search.backend.database.repositories.StudentRepository;
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
 import COMP_49X_our_search.backend.database.services.DisciplineService;
 import COMP_49X_our_search.backend.util.Constants;
 import COMP_49X_our_search.backend.util.exceptions.ForbiddenDisciplineActionException;
@@ -31,7 +32,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest(classes = {DisciplineService.class})
+@SpringBootTest(classes = {DisciplineService.class, CatalogVersionService.class})
 @ActiveProfiles("test")
 public class DisciplineServiceTest {
 
@@ -0,0 +1,154 @@
+/**
+ * Integration test for the email outbox queue, using the H2 database of the
+ * test profile.
+ */
+package COMP_49X_our_search.backend.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import COMP_49X_our_search.backend.database.entities.EmailOutboxMessage;
+import COMP_49X_our_search.backend.database.enums.EmailOutboxStatus;
+import COMP_49X_our_search.backend.database.repositories.EmailOutboxRepository;
+import COMP_49X_our_search.backend.database.services.EmailOutboxService;
+import COMP_49X_our_search.backend.notifications.BulkEmail;
+import COMP_49X_our_search.backend.notifications.EmailOutbox;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = {"DOMAIN=http://localhost"})
+public class EmailOutboxServiceIntegrationTest {
+
+  private static final Duration LEASE = Duration.ofMinutes(10);
+
+  @Autowired private EmailOutboxService emailOutboxService;
+  @Autowired private EmailOutboxRepository emailOutboxRepository;
+  @Autowired private EmailOutbox emailOutbox;
+
+  @Test
+  public void testEnqueue_skipsKeysAlreadyQueued() {
+    emailOutboxService.enqueue(messages("weekly:2026-W42", 3));
+
+    int queued = emailOutboxService.enqueue(messages("weekly:2026-W42", 5));
+
+    assertEquals(2, queued);
+    assertEquals(5, emailOutboxRepository.count());
+    assertEquals(5, emailOutboxService.getStats().pending());
+  }
+
+  @Test
+  public void testClaim_claimsDueMessagesOnce() {
+    emailOutboxService.enqueue(messages("yearly:2026", 5));
+
+    List<EmailOutboxMessage> first = emailOutboxService.claim(3, LEASE);
+    List<EmailOutboxMessage> second = emailOutboxService.claim(3, LEASE);
+    List<EmailOutboxMessage> third = emailOutboxService.claim(3, LEASE);
+
+    assertEquals(3, first.size());
+    assertEquals(2, second.size());
+    assertTrue(third.isEmpty());
+    assertEquals(EmailOutboxStatus.SENDING, first.get(0).getStatus());
+    assertEquals(1, first.get(0).getAttempts());
+    assertEquals(5, emailOutboxService.getStats().sending());
+  }
+
+  @Test
+  public void testClaim_expiredLease_claimsMessageAgain() {
+    emailOutboxService.enqueue(messages("yearly:2026", 1));
+    emailOutboxService.claim(10, LEASE);
+
+    // A negative lease makes every claim look expired, as after a crash.
+    List<EmailOutboxMessage> reclaimed = emailOutboxService.claim(10, Duration.ofMinutes(-1));
+
+    assertEquals(1, reclaimed.size());
+    assertEquals(2, reclaimed.get(0).getAttempts());
+  }
+
+  @Test
+  public void testMarkSentAndRetryLater_updateStatusAndStats() {
+    emailOutboxService.enqueue(messages("yearly:2026", 4));
+    List<Long> ids = claimIds();
+
+    emailOutboxService.markSent(ids.subList(0, 2));
+    emailOutboxService.retryLater(
+        List.of(ids.get(2)), LocalDateTime.now().plusMinutes(5), "SendGrid returned status 503");
+    emailOutboxService.markFailed(List.of(ids.get(3)), "SendGrid returned status 400");
+
+    EmailOutboxService.Stats stats = emailOutboxService.getStats();
+    assertEquals(2, stats.sent());
+    assertEquals(2, stats.sentLastMinute());
+    assertEquals(1, stats.pending());
+    assertEquals(1, stats.failed());
+    assertEquals(0, stats.sending());
+    // The retried message isn't due yet.
+    assertTrue(emailOutboxService.claim(10, LEASE).isEmpty());
+    EmailOutboxMessage retried = emailOutboxRepository.findById(ids.get(2)).orElseThrow();
+    assertEquals("SendGrid returned status 503", retried.getLastError());
+    assertNotNull(emailOutboxRepository.findById(ids.get(0)).orElseThrow().getSentAt());
+  }
+
+  @Test
+  public void testPurgeSentBefore_clearsOnlyOldSentMessages() {
+    emailOutboxService.enqueue(messages("yearly:2026", 2));
+    List<Long> ids = claimIds();
+    emailOutboxService.markSent(ids.subList(0, 1));
+
+    int purged = emailOutboxService.purgeSentBefore(LocalDateTime.now().plusMinutes(1));
+
+    assertEquals(1, purged);
+    assertEquals(2, emailOutboxRepository.count());
+    EmailOutboxMessage tombstone = emailOutboxRepository.findById(ids.get(0)).orElseThrow();
+    assertEquals(EmailOutboxStatus.SENT, tombstone.getStatus());
+    assertEquals("", tombstone.getBody());
+    assertEquals("{}", tombstone.getSubstitutions());
+    assertNotNull(tombstone.getPurgedAt());
+    assertEquals("Hello {name}", emailOutboxRepository.findById(ids.get(1)).orElseThrow().getBody());
+    // Already purged messages aren't counted again.
+    assertEquals(0, emailOutboxService.purgeSentBefore(LocalDateTime.now().plusMinutes(1)));
+  }
+
+  @Test
+  public void testEnqueue_afterPurgeInSamePeriod_queuesNothing() {
+    BulkEmail yearly = BulkEmail.plain("Subject", "Body", List.of("a@test.com", "b@test.com"));
+    emailOutbox.enqueue("yearly", "2026", yearly);
+    emailOutboxService.markSent(claimIds());
+    emailOutboxService.purgeSentBefore(LocalDateTime.now().plusMinutes(1));
+
+    int queued = emailOutbox.enqueue("yearly", "2026", yearly);
+
+    assertEquals(0, queued);
+    assertEquals(0, emailOutboxService.getStats().pending());
+  }
+
+  private List<Long> claimIds() {
+    return emailOutboxService.claim(10, LEASE).stream().map(EmailOutboxMessage::getId).toList();
+  }
+
+  private List<EmailOutboxMessage> messages(String keyPrefix, int count) {
+    List<EmailOutboxMessage> messages = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      messages.add(
+          new EmailOutboxMessage(
+              keyPrefix + ":user" + i + "@test.com",
+              "test",
+              "user" + i + "@test.com",
+              "Subject",
+              "Hello {name}",
+              "text/html",
+              "{\"{name}\":\"User " + i + "\"}"));
+    }
+    return messages;
+  }
+}
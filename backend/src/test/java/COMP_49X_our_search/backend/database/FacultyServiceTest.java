@@ -13,7 +13,9 @@ import static org.mockito.Mockito.when;
 
 import COMP_49X_our_search.backend.database.entities.Faculty;
 import COMP_49X_our_search.backend.database.repositories.FacultyRepository;
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
 import COMP_49X_our_search.backend.database.services.FacultyService;
+import COMP_49X_our_search.backend.database.services.ProjectSearchProjectionService;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,14 +23,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest(classes = {FacultyService.class})
+@SpringBootTest(classes = {FacultyService.class, CatalogVersionService.class})
 @ActiveProfiles("test")
 public class FacultyServiceTest {
 
   @Autowired private FacultyService facultyService;
   @MockBean private FacultyRepository facultyRepository;
+  @MockBean private ProjectSearchProjectionService projectSearchProjectionService;
   private Faculty faculty;
 
   @BeforeEach
@@ -152,4 +157,19 @@ public class FacultyServiceTest {
 
     verify(facultyRepository, times(1)).findAllByDepartments_Id(departmentId);
   }
+
+  @Test
+  void testGetFacultyWithDepartments() {
+    Faculty faculty = new Faculty();
+    faculty.setFirstName("John");
+    faculty.setLastName("Doe");
+    faculty.setEmail("jdoe@test.com");
+    when(facultyRepository.findAll(any(Specification.class), any(Sort.class)))
+        .thenReturn(List.of(faculty));
+
+    List<Faculty> result = facultyService.getFacultyWithDepartments(Specification.where(null));
+
+    assertEquals(List.of(faculty), result);
+    verify(facultyRepository, times(1)).fetchDepartments(List.of(faculty));
+  }
 }
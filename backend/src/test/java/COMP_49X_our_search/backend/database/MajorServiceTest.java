@@ -17,8 +17,11 @@ import COMP_49X_our_search.backend.database.entities.Major;
 import COMP_49X_our_search.backend.database.entities.Project;
 import COMP_49X_our_search.backend.database.entities.Student;
 import COMP_49X_our_search.backend.database.repositories.MajorRepository;
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
 import COMP_49X_our_search.backend.database.services.DisciplineService;
 import COMP_49X_our_search.backend.database.services.MajorService;
+import COMP_49X_our_search.backend.database.services.ProjectSearchProjectionService;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import COMP_49X_our_search.backend.util.Constants;
 import COMP_49X_our_search.backend.util.exceptions.ForbiddenMajorActionException;
 import java.util.HashSet;
@@ -34,14 +37,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest(classes = {MajorService.class})
+@SpringBootTest(classes = {MajorService.class, CatalogVersionService.class})
 @ActiveProfiles("test")
 public class MajorServiceTest {
 
   @Autowired private MajorService majorService;
+  @Autowired private CatalogVersionService catalogVersionService;
 
   @MockBean private MajorRepository majorRepository;
   @MockBean private DisciplineService disciplineService;
+  @MockBean private SuggestionIndex suggestionIndex;
+  @MockBean private ProjectSearchProjectionService projectSearchProjectionService;
 
   private Discipline engineeringDiscipline;
 
@@ -148,6 +154,7 @@ public class MajorServiceTest {
 
     assertDoesNotThrow(() -> majorService.deleteMajorById(1));
     verify(majorRepository, times(1)).delete(major);
+    verify(suggestionIndex, times(1)).removeMajor(1);
   }
 
   @Test
@@ -272,6 +279,31 @@ public class MajorServiceTest {
     assertFalse(saved.getDisciplines().contains(other));
   }
 
+  @Test
+  void testGetUndeclaredMajor_createsIfMissing_bumpsCatalogVersion() {
+    when(majorRepository.findMajorByName(Constants.MAJOR_UNDECLARED)).thenReturn(Optional.empty());
+    when(disciplineService.getOtherDiscipline()).thenReturn(new Discipline("Other"));
+    when(majorRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+    long version = catalogVersionService.getVersion();
+
+    Major undeclared = majorService.getUndeclaredMajor();
+
+    assertEquals(Constants.MAJOR_UNDECLARED, undeclared.getName());
+    assertEquals(version + 1, catalogVersionService.getVersion());
+  }
+
+  @Test
+  void testGetUndeclaredMajor_existing_keepsCatalogVersion() {
+    when(majorRepository.findMajorByName(Constants.MAJOR_UNDECLARED))
+        .thenReturn(Optional.of(new Major(Constants.MAJOR_UNDECLARED)));
+    long version = catalogVersionService.getVersion();
+
+    majorService.getUndeclaredMajor();
+
+    assertEquals(version, catalogVersionService.getVersion());
+    verify(majorRepository, never()).save(any());
+  }
+
   @Test
   void testEditMajor_namedUndeclared_throwsForbidden() {
     Major undeclared = new Major();
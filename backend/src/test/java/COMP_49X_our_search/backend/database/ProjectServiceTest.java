@@ -17,6 +17,8 @@ import COMP_49X_our_search.backend.database.entities.Project;
 import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
 import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
 import COMP_49X_our_search.backend.database.repositories.ProjectRepository;
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
+import COMP_49X_our_search.backend.database.services.ProjectSearchProjectionService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,13 +30,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest(classes = {ProjectService.class})
+@SpringBootTest(classes = {ProjectService.class, CatalogVersionService.class})
 @ActiveProfiles("test")
 public class ProjectServiceTest {
 
   @Autowired private ProjectService projectService;
+  @Autowired private CatalogVersionService catalogVersionService;
 
   @MockBean private ProjectRepository projectRepository;
+  @MockBean private ProjectSearchProjectionService projectSearchProjectionService;
 
   @Test
   void testGetAllProjects() {
@@ -113,11 +117,15 @@ public class ProjectServiceTest {
             Set.of(new UmbrellaTopic("Artificial Intelligence", null)),
             LocalDateTime.now());
 
+    sampleProject.setId(1);
     when(projectRepository.save(any(Project.class))).thenReturn(sampleProject);
+    long versionBefore = catalogVersionService.getVersion();
 
     Project savedProject = projectService.saveProject(sampleProject);
 
     verify(projectRepository, times(1)).save(sampleProject);
+    verify(projectSearchProjectionService, times(1)).refreshProject(savedProject.getId());
+    assertEquals(versionBefore + 1, catalogVersionService.getVersion());
 
     assertEquals(sampleProject.getName(), savedProject.getName());
     assertEquals(sampleProject.getDescription(), savedProject.getDescription());
@@ -129,10 +137,13 @@ public class ProjectServiceTest {
     int projectId = 1;
 
     when(projectRepository.existsById(projectId)).thenReturn(true);
+    long versionBefore = catalogVersionService.getVersion();
 
     projectService.deleteById(projectId);
 
     verify(projectRepository, times(1)).deleteById(projectId);
+    verify(projectSearchProjectionService, times(1)).removeProject(projectId);
+    assertEquals(versionBefore + 1, catalogVersionService.getVersion());
   }
 
   @Test
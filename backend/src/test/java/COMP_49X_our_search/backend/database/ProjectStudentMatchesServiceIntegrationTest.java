@@ -0,0 +1,59 @@
+/**
+ * Integration test for the batched inserts of ProjectStudentMatchesService,
+ * using the H2 database of the test profile.
+ */
+package COMP_49X_our_search.backend.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import COMP_49X_our_search.backend.database.entities.ProjectStudentMatches;
+import COMP_49X_our_search.backend.database.repositories.ProjectStudentMatchesRepository;
+import COMP_49X_our_search.backend.database.services.ProjectStudentMatchesService;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = {"DOMAIN=http://localhost"})
+public class ProjectStudentMatchesServiceIntegrationTest {
+
+  @Autowired private ProjectStudentMatchesService projectStudentMatchesService;
+  @Autowired private ProjectStudentMatchesRepository projectStudentMatchesRepository;
+
+  @Test
+  public void testCreateMatches_insertsAllMatchesInBatches() {
+    List<ProjectStudentMatches> matches = new ArrayList<>();
+    for (int studentId = 1; studentId <= 1200; studentId++) {
+      matches.add(new ProjectStudentMatches(studentId % 3 + 1, studentId));
+    }
+
+    int inserted = projectStudentMatchesService.createMatches(matches);
+
+    assertEquals(1200, inserted);
+    assertEquals(400, projectStudentMatchesService.getMatchesForProject(1).size());
+    assertNotNull(projectStudentMatchesService.getMatchesForStudent(7).get(0).getCreatedAt());
+  }
+
+  @Test
+  public void testCreateMatches_skipsStoredAndDuplicateMatches() {
+    projectStudentMatchesService.createMatches(List.of(new ProjectStudentMatches(1, 1)));
+
+    int inserted =
+        projectStudentMatchesService.createMatches(
+            List.of(
+                new ProjectStudentMatches(1, 1),
+                new ProjectStudentMatches(1, 2),
+                new ProjectStudentMatches(1, 2)));
+
+    assertEquals(1, inserted);
+    assertEquals(2, projectStudentMatchesRepository.findByProjectId(1).size());
+  }
+}
@@ -26,9 +26,11 @@ import org.springframework.test.context.ActiveProfiles;
 
 import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
 import COMP_49X_our_search.backend.database.repositories.ResearchPeriodRepository;
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
+import COMP_49X_our_search.backend.database.services.ProjectSearchProjectionService;
 import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
 
-@SpringBootTest(classes = {ResearchPeriodService.class})
+@SpringBootTest(classes = {ResearchPeriodService.class, CatalogVersionService.class})
 @ActiveProfiles("test")
 public class ResearchPeriodServiceTest {
 
@@ -38,6 +40,9 @@ public class ResearchPeriodServiceTest {
   @MockBean
   private ResearchPeriodRepository researchPeriodRepository;
 
+  @MockBean
+  private ProjectSearchProjectionService projectSearchProjectionService;
+
   @Test
   void testGetResearchPeriodByName_Found() {
     String periodName = "Fall";
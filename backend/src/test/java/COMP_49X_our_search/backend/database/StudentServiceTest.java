@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -14,9 +15,11 @@ import COMP_49X_our_search.backend.database.entities.Major;
 import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
 import COMP_49X_our_search.backend.database.entities.Student;
 import COMP_49X_our_search.backend.database.repositories.StudentRepository;
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
 import COMP_49X_our_search.backend.database.services.StudentService;
 import COMP_49X_our_search.backend.database.services.UserService;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,9 +27,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest(classes = {StudentService.class})
+@SpringBootTest(classes = {StudentService.class, CatalogVersionService.class})
 @ActiveProfiles("test")
 public class StudentServiceTest {
 
@@ -87,6 +92,37 @@ public class StudentServiceTest {
     verify(studentRepository, times(1)).findAllByResearchFieldInterests_Id(researchFieldId);
   }
 
+  @Test
+  void testGetActiveStudentsByMajorId_groupsByMajorsAndResearchFieldInterests() {
+    Major computerScience = new Major("Computer Science", null, null, null);
+    computerScience.setId(1);
+    Major mathematics = new Major("Mathematics", null, null, null);
+    mathematics.setId(2);
+    student.setMajors(Set.of(computerScience));
+    student.setResearchFieldInterests(Set.of(computerScience, mathematics));
+    when(studentRepository.findAll(any(Specification.class), any(Sort.class)))
+        .thenReturn(List.of(student));
+
+    Map<Integer, Set<Student>> studentsByMajor =
+        studentService.getActiveStudentsByMajorId(Specification.where(null));
+
+    assertEquals(Map.of(1, Set.of(student), 2, Set.of(student)), studentsByMajor);
+    verify(studentRepository, times(1)).fetchMajors(List.of(student));
+    verify(studentRepository, times(1)).fetchResearchFieldInterests(List.of(student));
+    verify(studentRepository, times(1)).fetchResearchPeriods(List.of(student));
+  }
+
+  @Test
+  void testGetActiveStudentsByMajorId_noActiveStudents_skipsFetches() {
+    when(studentRepository.findAll(any(Specification.class), any(Sort.class)))
+        .thenReturn(List.of());
+
+    assertTrue(studentService.getActiveStudentsByMajorId(Specification.where(null)).isEmpty());
+    verify(studentRepository, never()).fetchMajors(any());
+    verify(studentRepository, never()).fetchResearchFieldInterests(any());
+    verify(studentRepository, never()).fetchResearchPeriods(any());
+  }
+
   @Test
   void testSaveStudent() {
     when(studentRepository.save(any(Student.class))).thenReturn(student);
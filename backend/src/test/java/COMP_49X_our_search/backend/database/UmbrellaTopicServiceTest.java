@@ -6,7 +6,10 @@ import static org.mockito.Mockito.*;
 import COMP_49X_our_search.backend.database.entities.Project;
 import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
 import COMP_49X_our_search.backend.database.repositories.UmbrellaTopicRepository;
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
+import COMP_49X_our_search.backend.database.services.ProjectSearchProjectionService;
 import COMP_49X_our_search.backend.database.services.UmbrellaTopicService;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
@@ -19,13 +22,15 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
 
-@SpringBootTest(classes = {UmbrellaTopicService.class})
+@SpringBootTest(classes = {UmbrellaTopicService.class, CatalogVersionService.class})
 @ActiveProfiles("test")
 public class UmbrellaTopicServiceTest {
 
   @Autowired private UmbrellaTopicService service;
 
   @MockBean private UmbrellaTopicRepository umbrellaTopicRepository;
+  @MockBean private SuggestionIndex suggestionIndex;
+  @MockBean private ProjectSearchProjectionService projectSearchProjectionService;
 
   @Test
   void testGetAllUmbrellaTopics() {
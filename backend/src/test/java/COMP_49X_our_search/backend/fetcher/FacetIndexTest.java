@@ -0,0 +1,238 @@
+package COMP_49X_our_search.backend.fetcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
+import COMP_49X_our_search.backend.database.entities.Student;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.database.services.StudentService;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import proto.fetcher.FetcherModule.FacetCount;
+import proto.fetcher.FetcherModule.FacetCounts;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+
+public class FacetIndexTest {
+
+  private final Major biology = new Major(1, "Biology");
+  private final Major chemistry = new Major(2, "Chemistry");
+  private final ResearchPeriod fall = new ResearchPeriod(10, "Fall 2025");
+  private final ResearchPeriod spring = new ResearchPeriod(11, "Spring 2026");
+  private final UmbrellaTopic oceans = new UmbrellaTopic(100, "Oceans");
+
+  private ProjectService projectService;
+  private StudentService studentService;
+  private FacetIndex facetIndex;
+
+  @BeforeEach
+  void setUp() {
+    projectService = mock(ProjectService.class);
+    studentService = mock(StudentService.class);
+    facetIndex = new FacetIndex(projectService, studentService);
+
+    when(projectService.getAllProjectsWithAssociations())
+        .thenReturn(
+            List.of(
+                project(1, Set.of(biology), Set.of(fall), Set.of(oceans)),
+                project(2, Set.of(biology, chemistry), Set.of(spring), Set.of()),
+                project(3, Set.of(chemistry), Set.of(fall), Set.of(oceans)),
+                // Not listed in the hierarchy, so never counted.
+                project(4, Set.of(), Set.of(fall), Set.of(oceans))));
+    when(studentService.getActiveStudentsWithAssociations(any())).thenReturn(List.of());
+  }
+
+  @Test
+  public void testCountProjects_withoutFilters_countsEveryListedProject() {
+    FacetCounts counts = facetIndex.countProjects(plan(FilteredFetcher.newBuilder()), null);
+
+    assertEquals(3, counts.getTotal());
+    assertEquals(Map.of(1, 2, 2, 2), toMap(counts.getMajorsList()));
+    assertEquals(Map.of(10, 2, 11, 1), toMap(counts.getResearchPeriodsList()));
+    assertEquals(Map.of(100, 2), toMap(counts.getUmbrellaTopicsList()));
+  }
+
+  @Test
+  public void testCountProjects_leavesOutFiltersOfTheCountedDimension() {
+    FacetCounts counts =
+        facetIndex.countProjects(plan(FilteredFetcher.newBuilder().addMajorIds(1)), null);
+
+    assertEquals(2, counts.getTotal());
+    // Selecting chemistry as well would add project 3.
+    assertEquals(Map.of(1, 2, 2, 2), toMap(counts.getMajorsList()));
+    assertEquals(Map.of(10, 1, 11, 1), toMap(counts.getResearchPeriodsList()));
+    assertEquals(Map.of(100, 1), toMap(counts.getUmbrellaTopicsList()));
+  }
+
+  @Test
+  public void testCountProjects_combinesDimensionsAndKeywordMatches() {
+    FacetCounts counts =
+        facetIndex.countProjects(
+            plan(FilteredFetcher.newBuilder().addResearchPeriodIds(10).addUmbrellaTopicIds(100)),
+            Set.of(1, 2));
+
+    assertEquals(1, counts.getTotal());
+    assertEquals(Map.of(1, 1), toMap(counts.getMajorsList()));
+    // Project 2 matches the keywords but not the umbrella topic.
+    assertEquals(Map.of(10, 1), toMap(counts.getResearchPeriodsList()));
+    assertEquals(Map.of(100, 1), toMap(counts.getUmbrellaTopicsList()));
+  }
+
+  @Test
+  public void testCountProjects_unknownFilterValue_matchesNothing() {
+    FacetCounts counts =
+        facetIndex.countProjects(plan(FilteredFetcher.newBuilder().addMajorIds(99)), null);
+
+    assertEquals(0, counts.getTotal());
+    assertEquals(Map.of(1, 2, 2, 2), toMap(counts.getMajorsList()));
+    assertEquals(Map.of(), toMap(counts.getResearchPeriodsList()));
+  }
+
+  @Test
+  public void testCountStudents_countsResearchFieldInterestsAsMajors() {
+    Student sam = student(1, Set.of(biology), Set.of(), Set.of(fall));
+    Student robin = student(2, Set.of(chemistry), Set.of(biology), Set.of(spring));
+    when(studentService.getActiveStudentsWithAssociations(any())).thenReturn(List.of(sam, robin));
+
+    FacetCounts counts =
+        facetIndex.countStudents(plan(FilteredFetcher.newBuilder().addMajorIds(1)));
+
+    assertEquals(2, counts.getTotal());
+    assertEquals(Map.of(1, 2, 2, 1), toMap(counts.getMajorsList()));
+    assertEquals(Map.of(10, 1, 11, 1), toMap(counts.getResearchPeriodsList()));
+    assertEquals(List.of(), counts.getUmbrellaTopicsList());
+  }
+
+  @Test
+  public void testCountStudents_matchesKeywordsAgainstInterestReasonsAndNames() {
+    Student sam = student(1, Set.of(biology), Set.of(), Set.of(fall));
+    sam.setInterestReason("Coral reefs, marine life");
+    Student robin = student(2, Set.of(chemistry), Set.of(), Set.of(spring));
+    robin.setFirstName("Robin");
+    robin.setLastName("Marino");
+    Student alex = student(3, Set.of(chemistry), Set.of(), Set.of(spring));
+    alex.setInterestReason("Polymers");
+    when(studentService.getActiveStudentsWithAssociations(any()))
+        .thenReturn(List.of(sam, robin, alex));
+
+    FacetCounts counts =
+        facetIndex.countStudents(plan(FilteredFetcher.newBuilder().setKeywords("MARIN")));
+
+    assertEquals(2, counts.getTotal());
+    assertEquals(Map.of(1, 1, 2, 1), toMap(counts.getMajorsList()));
+    FacetCounts blank =
+        facetIndex.countStudents(plan(FilteredFetcher.newBuilder().setKeywords(" ")));
+    assertEquals(0, blank.getTotal());
+    // Only separators: every student with a reason or a name.
+    FacetCounts separators =
+        facetIndex.countStudents(plan(FilteredFetcher.newBuilder().setKeywords(",")));
+    assertEquals(3, separators.getTotal());
+  }
+
+  @Test
+  public void testCountStudents_withInterestMatches_stillMatchesNames() {
+    Student sam = student(1, Set.of(biology), Set.of(), Set.of(fall));
+    Student robin = student(2, Set.of(chemistry), Set.of(), Set.of(spring));
+    robin.setFirstName("Robin");
+    robin.setLastName("Marino");
+    when(studentService.getActiveStudentsWithAssociations(any())).thenReturn(List.of(sam, robin));
+
+    FacetCounts counts =
+        facetIndex.countStudents(
+            plan(FilteredFetcher.newBuilder().setKeywords("marino")), Set.of(1));
+
+    assertEquals(2, counts.getTotal());
+  }
+
+  @Test
+  public void testCounts_builtOnceThenUpdatedIncrementally() {
+    FilterPlan plan = plan(FilteredFetcher.newBuilder());
+    facetIndex.countProjects(plan, null);
+
+    facetIndex.putProject(project(5, Set.of(chemistry), Set.of(spring), Set.of()));
+    // Project 1 loses its umbrella topic.
+    facetIndex.putProject(project(1, Set.of(biology), Set.of(fall), Set.of()));
+    facetIndex.removeProject(2);
+    FacetCounts counts = facetIndex.countProjects(plan, null);
+
+    assertEquals(3, counts.getTotal());
+    assertEquals(Map.of(1, 1, 2, 2), toMap(counts.getMajorsList()));
+    assertEquals(Map.of(10, 2, 11, 1), toMap(counts.getResearchPeriodsList()));
+    assertEquals(Map.of(100, 1), toMap(counts.getUmbrellaTopicsList()));
+    verify(projectService, times(1)).getAllProjectsWithAssociations();
+    verify(studentService, times(1)).getActiveStudentsWithAssociations(any());
+  }
+
+  @Test
+  public void testRemoveProjectsOfFaculty_removesOnlyTheirProjects() {
+    Faculty owner = new Faculty();
+    owner.setId(7);
+    Project owned = project(5, Set.of(chemistry), Set.of(spring), Set.of());
+    owned.setFaculty(owner);
+    facetIndex.putProject(owned);
+
+    facetIndex.removeProjectsOfFaculty(7);
+
+    assertEquals(3, facetIndex.countProjects(plan(FilteredFetcher.newBuilder()), null).getTotal());
+  }
+
+  @Test
+  public void testPutStudent_inactiveStudentIsRemoved() {
+    Student sam = student(1, Set.of(biology), Set.of(), Set.of(fall));
+    when(studentService.getActiveStudentsWithAssociations(any())).thenReturn(List.of(sam));
+    FilterPlan plan = plan(FilteredFetcher.newBuilder());
+    assertEquals(1, facetIndex.countStudents(plan).getTotal());
+
+    sam.setIsActive(false);
+    facetIndex.putStudent(sam);
+
+    assertEquals(0, facetIndex.countStudents(plan).getTotal());
+  }
+
+  private static FilterPlan plan(FilteredFetcher.Builder filters) {
+    return FilterPlan.compile(filters.build());
+  }
+
+  private static Map<Integer, Integer> toMap(List<FacetCount> counts) {
+    return counts.stream().collect(Collectors.toMap(FacetCount::getId, FacetCount::getCount));
+  }
+
+  private static Project project(
+      int id,
+      Set<Major> majors,
+      Set<ResearchPeriod> researchPeriods,
+      Set<UmbrellaTopic> umbrellaTopics) {
+    Project project = new Project();
+    project.setId(id);
+    project.setMajors(majors);
+    project.setResearchPeriods(researchPeriods);
+    project.setUmbrellaTopics(umbrellaTopics);
+    return project;
+  }
+
+  private static Student student(
+      int id,
+      Set<Major> majors,
+      Set<Major> researchFieldInterests,
+      Set<ResearchPeriod> researchPeriods) {
+    Student student = new Student();
+    student.setId(id);
+    student.setMajors(majors);
+    student.setResearchFieldInterests(researchFieldInterests);
+    student.setResearchPeriods(researchPeriods);
+    student.setIsActive(true);
+    return student;
+  }
+}
@@ -1,23 +1,33 @@
 package COMP_49X_our_search.backend.fetcher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import COMP_49X_our_search.backend.database.entities.Department;
 import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
 import COMP_49X_our_search.backend.database.services.DepartmentService;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import proto.data.Entities.DepartmentProto;
 import proto.data.Entities.FacultyProto;
+import proto.data.Entities.ProjectProto;
 import proto.fetcher.DataTypes.DepartmentHierarchy;
 import proto.fetcher.DataTypes.DepartmentWithFaculty;
 import proto.fetcher.DataTypes.FacultyWithProjects;
@@ -31,13 +41,21 @@ public class FacultyFetcherTest {
   private DepartmentService departmentService;
   private FacultyService facultyService;
   private ProjectService projectService;
+  private SuggestionIndex suggestionIndex;
 
   @BeforeEach
   void setUp() {
     departmentService = mock(DepartmentService.class);
     facultyService = mock(FacultyService.class);
     projectService = mock(ProjectService.class);
-    facultyFetcher = new FacultyFetcher(departmentService, facultyService, projectService);
+    suggestionIndex = mock(SuggestionIndex.class);
+    facultyFetcher =
+        new FacultyFetcher(
+            departmentService,
+            facultyService,
+            projectService,
+            suggestionIndex,
+            new ConversionStats());
   }
 
   @Test
@@ -64,13 +82,9 @@ public class FacultyFetcherTest {
     sciencesFaculty.setEmail("jdoe@test.com");
     sciencesFaculty.setDepartments(Set.of(lifeAndPhysicalSciences));
 
-    when(facultyService.getFacultyByDepartmentId(engineering.getId()))
-        .thenReturn(List.of(engineeringFaculty));
-    when(facultyService.getFacultyByDepartmentId(lifeAndPhysicalSciences.getId()))
-        .thenReturn(List.of(sciencesFaculty));
-
-    when(projectService.getProjectsByFacultyId(engineeringFaculty.getId())).thenReturn(List.of());
-    when(projectService.getProjectsByFacultyId(sciencesFaculty.getId())).thenReturn(List.of());
+    when(facultyService.getFacultyWithDepartments(any()))
+        .thenReturn(List.of(engineeringFaculty, sciencesFaculty));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of());
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -156,13 +170,9 @@ public class FacultyFetcherTest {
     multiDepartmentFaculty.setEmail("flast@test.com");
     multiDepartmentFaculty.setDepartments(Set.of(engineering, lifeAndPhysicalSciences));
 
-    when(facultyService.getFacultyByDepartmentId(engineering.getId()))
-        .thenReturn(List.of(multiDepartmentFaculty));
-    when(facultyService.getFacultyByDepartmentId(lifeAndPhysicalSciences.getId()))
+    when(facultyService.getFacultyWithDepartments(any()))
         .thenReturn(List.of(multiDepartmentFaculty));
-
-    when(projectService.getProjectsByFacultyId(multiDepartmentFaculty.getId()))
-        .thenReturn(List.of());
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of());
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -219,6 +229,76 @@ public class FacultyFetcherTest {
     assertEquals(expectedResponse, actualResponse);
   }
 
+  @Test
+  public void testFetch_groupsProjectsByFacultyAndConvertsEachFacultyOnce() {
+    Department engineering = new Department("Engineering");
+    engineering.setId(1);
+    Department lifeAndPhysicalSciences = new Department("Life and Physical Sciences");
+    lifeAndPhysicalSciences.setId(2);
+    when(departmentService.getAllDepartments())
+        .thenReturn(List.of(engineering, lifeAndPhysicalSciences));
+
+    Faculty multiDepartmentFaculty = new Faculty();
+    multiDepartmentFaculty.setId(1);
+    multiDepartmentFaculty.setFirstName("First");
+    multiDepartmentFaculty.setLastName("Last");
+    multiDepartmentFaculty.setEmail("flast@test.com");
+    multiDepartmentFaculty.setDepartments(Set.of(engineering, lifeAndPhysicalSciences));
+
+    Faculty otherFaculty = new Faculty();
+    otherFaculty.setId(2);
+    otherFaculty.setFirstName("Jane");
+    otherFaculty.setLastName("Doe");
+    otherFaculty.setEmail("jdoe@test.com");
+    otherFaculty.setDepartments(Set.of(engineering));
+
+    when(facultyService.getFacultyWithDepartments(any()))
+        .thenReturn(List.of(multiDepartmentFaculty, otherFaculty));
+    when(projectService.getProjectsWithAssociations(any()))
+        .thenReturn(
+            List.of(
+                project(1, "First project", multiDepartmentFaculty),
+                project(2, "Second project", otherFaculty),
+                project(3, "Third project", multiDepartmentFaculty)));
+
+    FetcherRequest request =
+        FetcherRequest.newBuilder()
+            .setFilteredFetcher(
+                FilteredFetcher.newBuilder().setFilteredType(FilteredType.FILTERED_TYPE_FACULTY))
+            .build();
+
+    DepartmentHierarchy hierarchy = facultyFetcher.fetch(request).getDepartmentHierarchy();
+
+    FacultyWithProjects inEngineering = hierarchy.getDepartments(0).getFacultyWithProjects(0);
+    FacultyWithProjects inSciences = hierarchy.getDepartments(1).getFacultyWithProjects(0);
+    assertEquals(2, hierarchy.getDepartments(0).getFacultyWithProjectsCount());
+    assertEquals(1, hierarchy.getDepartments(1).getFacultyWithProjectsCount());
+    assertEquals(
+        List.of("First project", "Third project"),
+        inEngineering.getProjectsList().stream().map(ProjectProto::getProjectName).toList());
+    assertEquals(
+        "Second project",
+        hierarchy.getDepartments(0).getFacultyWithProjects(1).getProjects(0).getProjectName());
+    assertSame(inEngineering, inSciences);
+    verify(projectService, never()).getAllProjectsWithAssociations();
+  }
+
+  @Test
+  public void testFetch_noMatchingFaculty_loadsNoProjects() {
+    when(departmentService.getAllDepartments()).thenReturn(List.of());
+    when(facultyService.getFacultyWithDepartments(any())).thenReturn(List.of());
+
+    facultyFetcher.fetch(
+        FetcherRequest.newBuilder()
+            .setFilteredFetcher(
+                FilteredFetcher.newBuilder()
+                    .setFilteredType(FilteredType.FILTERED_TYPE_FACULTY)
+                    .setKeywords("nobody"))
+            .build());
+
+    verifyNoInteractions(projectService);
+  }
+
   @Test
   public void testFetch_missingFetcherType_throwsException() {
     FetcherRequest invalidRequest = FetcherRequest.getDefaultInstance();
@@ -247,15 +327,19 @@ public class FacultyFetcherTest {
     johnSmith.setFirstName("John");
     johnSmith.setLastName("Smith");
     johnSmith.setEmail("jsmith@test.com");
+    johnSmith.setDepartments(Set.of(dept));
 
     Faculty janeDoe = new Faculty();
     janeDoe.setId(1);
     janeDoe.setFirstName("Jane");
     janeDoe.setLastName("Doe");
     johnSmith.setEmail("jdoe@test.com");
+    janeDoe.setDepartments(Set.of(dept));
 
-    when(facultyService.getFacultyByDepartmentId(1)).thenReturn(List.of(johnSmith, janeDoe));
-    when(projectService.getProjectsByFacultyId(anyInt())).thenReturn(List.of());
+    // The keyword filter itself is checked by the database, see
+    // FilterSpecificationsIntegrationTest.
+    when(facultyService.getFacultyWithDepartments(any())).thenReturn(List.of(johnSmith));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of());
 
     FetcherRequest request = FetcherRequest.newBuilder()
         .setFilteredFetcher(
@@ -283,15 +367,17 @@ public class FacultyFetcherTest {
     faculty1.setFirstName("John");
     faculty1.setLastName("Smith");
     faculty1.setEmail("jsmith@test.com");
+    faculty1.setDepartments(Set.of(dept));
 
     Faculty faculty2 = new Faculty();
     faculty2.setId(1);
     faculty2.setFirstName("Jane");
     faculty2.setLastName("Doe");
     faculty2.setEmail("jdoe@test.com");
+    faculty2.setDepartments(Set.of(dept));
 
-    when(facultyService.getFacultyByDepartmentId(1)).thenReturn(List.of(faculty1, faculty2));
-    when(projectService.getProjectsByFacultyId(anyInt())).thenReturn(List.of());
+    when(facultyService.getFacultyWithDepartments(any())).thenReturn(List.of(faculty1, faculty2));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of());
 
     FetcherRequest request = FetcherRequest.newBuilder()
         .setFilteredFetcher(
@@ -306,4 +392,18 @@ public class FacultyFetcherTest {
     DepartmentWithFaculty deptWithFaculty = response.getDepartmentHierarchy().getDepartments(0);
     assertEquals(2, deptWithFaculty.getFacultyWithProjectsCount());
   }
+
+  private Project project(int id, String name, Faculty faculty) {
+    Project project = new Project();
+    project.setId(id);
+    project.setName(name);
+    project.setDescription("Test description");
+    project.setDesiredQualifications("Test qualifications");
+    project.setIsActive(true);
+    project.setMajors(Set.of(new Major("Chemistry", null, null, null)));
+    project.setResearchPeriods(Set.of(new ResearchPeriod("Fall 2025", null, null)));
+    project.setUmbrellaTopics(Set.of(new UmbrellaTopic("Artificial Intelligence", null)));
+    project.setFaculty(faculty);
+    return project;
+  }
 }
@@ -3,8 +3,11 @@ package COMP_49X_our_search.backend.fetcher;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import proto.core.Core.ModuleConfig;
@@ -32,6 +35,7 @@ public class FetcherModuleControllerTest {
   private ProjectFetcher projectFetcher;
   private StudentFetcher studentFetcher;
   private FacultyFetcher facultyFetcher;
+  private CatalogVersionService catalogVersionService;
 
   @BeforeEach
   void setUp() {
@@ -39,7 +43,14 @@ public class FetcherModuleControllerTest {
     projectFetcher = mock(ProjectFetcher.class);
     studentFetcher = mock(StudentFetcher.class);
     facultyFetcher = mock(FacultyFetcher.class);
-    fetcherModuleController = new FetcherModuleController(disciplineFetcher, projectFetcher, studentFetcher, facultyFetcher);
+    catalogVersionService = new CatalogVersionService();
+    fetcherModuleController =
+        new FetcherModuleController(
+            disciplineFetcher,
+            projectFetcher,
+            studentFetcher,
+            facultyFetcher,
+            new FetcherResponseCache(catalogVersionService, 16, 300));
   }
 
   @Test
@@ -113,6 +124,34 @@ public class FetcherModuleControllerTest {
     assertEquals(mockResponse, response.getFetcherResponse());
   }
 
+  @Test
+  public void testProcessConfig_repeatedRequest_isServedFromCache() {
+    FetcherRequest request =
+        FetcherRequest.newBuilder()
+            .setDirectFetcher(
+                DirectFetcher.newBuilder().setDirectType(DirectType.DIRECT_TYPE_DISCIPLINES))
+            .build();
+    FetcherResponse fetcherResponse =
+        FetcherResponse.newBuilder()
+            .setDisciplineCollection(
+                DisciplineCollection.newBuilder()
+                    .addDisciplines(DisciplineProto.newBuilder().setDisciplineName("Engineering")))
+            .build();
+    when(disciplineFetcher.fetch(request)).thenReturn(fetcherResponse);
+    ModuleConfig moduleConfig = ModuleConfig.newBuilder().setFetcherRequest(request).build();
+
+    fetcherModuleController.processConfig(moduleConfig);
+    ModuleResponse response = fetcherModuleController.processConfig(moduleConfig);
+
+    assertEquals(fetcherResponse, response.getFetcherResponse());
+    verify(disciplineFetcher, times(1)).fetch(request);
+
+    // A write to the catalog invalidates the cached response.
+    catalogVersionService.bump();
+    fetcherModuleController.processConfig(moduleConfig);
+    verify(disciplineFetcher, times(2)).fetch(request);
+  }
+
   @Test
   public void testProcessConfig_missingFetcherRequest_throwsException() {
     ModuleConfig invalidConfig = ModuleConfig.getDefaultInstance();
@@ -0,0 +1,197 @@
+package COMP_49X_our_search.backend.fetcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import COMP_49X_our_search.backend.database.services.CatalogVersionService;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import proto.data.Entities.DisciplineProto;
+import proto.fetcher.DataTypes.DisciplineCollection;
+import proto.fetcher.FetcherModule.FetcherRequest;
+import proto.fetcher.FetcherModule.FetcherResponse;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+import proto.fetcher.FetcherModule.FilteredType;
+
+public class FetcherResponseCacheTest {
+
+  private CatalogVersionService catalogVersionService;
+  private MutableClock clock;
+  private FetcherResponseCache cache;
+  private AtomicInteger fetchCount;
+
+  @BeforeEach
+  void setUp() {
+    catalogVersionService = new CatalogVersionService();
+    clock = new MutableClock();
+    cache = new FetcherResponseCache(catalogVersionService, 2, Duration.ofMinutes(5), clock);
+    fetchCount = new AtomicInteger();
+  }
+
+  private FetcherRequest projectsRequest(String keywords, Integer... majorIds) {
+    return FetcherRequest.newBuilder()
+        .setFilteredFetcher(
+            FilteredFetcher.newBuilder()
+                .setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS)
+                .addAllMajorIds(List.of(majorIds))
+                .setKeywords(keywords))
+        .build();
+  }
+
+  private Supplier<FetcherResponse> fetcher(String name) {
+    return () -> {
+      fetchCount.incrementAndGet();
+      return FetcherResponse.newBuilder()
+          .setDisciplineCollection(
+              DisciplineCollection.newBuilder()
+                  .addDisciplines(DisciplineProto.newBuilder().setDisciplineName(name)))
+          .build();
+    };
+  }
+
+  @Test
+  public void testGet_sameRequest_hitsCache() {
+    FetcherResponse first = cache.get(projectsRequest("ai", 1), fetcher("first"));
+    FetcherResponse second = cache.get(projectsRequest("ai", 1), fetcher("second"));
+
+    assertSame(first, second);
+    assertEquals(1, fetchCount.get());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testGet_equivalentRequests_shareEntry() {
+    cache.get(projectsRequest("Quantum, AI", 2, 1, 2), fetcher("first"));
+    cache.get(projectsRequest("ai quantum ai", 1, 2), fetcher("second"));
+
+    assertEquals(1, fetchCount.get());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testGet_differentFilters_missCache() {
+    cache.get(projectsRequest("ai", 1), fetcher("first"));
+    cache.get(projectsRequest("ai", 2), fetcher("second"));
+
+    assertEquals(2, fetchCount.get());
+    assertEquals(0, cache.getHitCount());
+  }
+
+  @Test
+  public void testGet_afterCatalogWrite_evictsStaleEntries() {
+    cache.get(projectsRequest("ai"), fetcher("before"));
+    catalogVersionService.bump();
+    FetcherResponse response = cache.get(projectsRequest("ai"), fetcher("after"));
+
+    assertEquals("after", response.getDisciplineCollection().getDisciplines(0).getDisciplineName());
+    assertEquals(2, fetchCount.get());
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testGet_writeDuringFetch_responseIsNotCached() {
+    Supplier<FetcherResponse> fetchAndWrite =
+        () -> {
+          FetcherResponse response = fetcher("racing").get();
+          catalogVersionService.bump();
+          return response;
+        };
+
+    cache.get(projectsRequest("ai"), fetchAndWrite);
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testGet_expiredEntry_isRefetched() {
+    cache.get(projectsRequest("ai"), fetcher("first"));
+    clock.advance(Duration.ofMinutes(6));
+    FetcherResponse response = cache.get(projectsRequest("ai"), fetcher("second"));
+
+    assertEquals("second", response.getDisciplineCollection().getDisciplines(0).getDisciplineName());
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testGet_full_evictsLeastRecentlyUsed() {
+    cache.get(projectsRequest("a"), fetcher("a"));
+    cache.get(projectsRequest("b"), fetcher("b"));
+    // Touch "a" so "b" becomes the least recently used entry.
+    cache.get(projectsRequest("a"), fetcher("a"));
+    cache.get(projectsRequest("c"), fetcher("c"));
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    cache.get(projectsRequest("a"), fetcher("a"));
+    assertEquals(3, fetchCount.get());
+  }
+
+  @Test
+  public void testGet_disabled_alwaysFetches() {
+    FetcherResponseCache disabled =
+        new FetcherResponseCache(catalogVersionService, 0, Duration.ofMinutes(5), clock);
+
+    disabled.get(projectsRequest("ai"), fetcher("first"));
+    disabled.get(projectsRequest("ai"), fetcher("second"));
+
+    assertEquals(2, fetchCount.get());
+    assertEquals(0, disabled.size());
+  }
+
+  @Test
+  public void testGet_blankOrSeparatorKeywords_doNotShareUnfilteredEntry() {
+    FetcherResponse unfiltered = cache.get(projectsRequest(""), fetcher("unfiltered"));
+    FetcherResponse blank = cache.get(projectsRequest("  "), fetcher("blank"));
+    FetcherResponse separators = cache.get(projectsRequest(",,"), fetcher("separators"));
+
+    assertEquals(3, fetchCount.get());
+    assertNotEquals(unfiltered, blank);
+    assertNotEquals(unfiltered, separators);
+    assertNotEquals(blank, separators);
+  }
+
+  @Test
+  public void testNormalize_sortsIdsAndKeywords() {
+    FetcherRequest normalized =
+        FetcherResponseCache.normalize(projectsRequest(" Robotics,AI robotics ", 3, 1, 3));
+
+    assertEquals(List.of(1, 3), normalized.getFilteredFetcher().getMajorIdsList());
+    assertEquals("ai robotics", normalized.getFilteredFetcher().getKeywords());
+    assertNotEquals(
+        FetcherResponseCache.normalize(projectsRequest("ai", 1)),
+        FetcherResponseCache.normalize(projectsRequest("ai", 2)));
+  }
+
+  private static class MutableClock extends Clock {
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package COMP_49X_our_search.backend.fetcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+
+public class FilterPlanTest {
+
+  @Test
+  public void testCompile_deduplicatesAndSortsIds() {
+    FilterPlan plan =
+        FilterPlan.compile(
+            FilteredFetcher.newBuilder()
+                .addAllMajorIds(List.of(3, 1, 3, 2, 1))
+                .addAllResearchPeriodIds(List.of(5, 5))
+                .build());
+
+    assertEquals(List.of(1, 2, 3), plan.getMajorIds());
+    assertEquals(List.of(5), plan.getResearchPeriodIds());
+    assertTrue(plan.getUmbrellaTopicIds().isEmpty());
+  }
+
+  @Test
+  public void testCompile_splitsKeywordsOnce() {
+    FilterPlan plan = compileKeywords("Robotics,ai  robotics");
+
+    assertEquals(FilterPlan.KeywordMatch.CONTAINS, plan.getKeywordMatch());
+    assertEquals(List.of("ai", "robotics"), plan.getKeywords());
+    assertEquals(Set.of("ai", "robotics"), plan.getSearchKeywords());
+  }
+
+  @Test
+  public void testCompile_keepsTheOldMeaningOfEmptyAndBlankKeywords() {
+    assertEquals(FilterPlan.KeywordMatch.ANY, compileKeywords("").getKeywordMatch());
+    assertEquals(FilterPlan.KeywordMatch.NONE, compileKeywords("  ").getKeywordMatch());
+    assertEquals(FilterPlan.KeywordMatch.NOT_NULL, compileKeywords(", ,").getKeywordMatch());
+    assertTrue(compileKeywords(", ,").getSearchKeywords().isEmpty());
+  }
+
+  private static FilterPlan compileKeywords(String keywords) {
+    return FilterPlan.compile(FilteredFetcher.newBuilder().setKeywords(keywords).build());
+  }
+}
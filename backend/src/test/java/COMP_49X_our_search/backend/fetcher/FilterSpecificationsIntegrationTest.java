@@ -0,0 +1,498 @@
+/**
+ * Differential test for FilterSpecifications, using the H2 database of the
+ * test profile.
+ *
+ * Fills the database with random projects, students and faculty, then runs
+ * random filters through the fetchers and FacultyProfileRetriever, which
+ * filter in the database, and through the filters they used to apply in Java
+ * (reimplemented below), and checks both give the same results.
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import COMP_49X_our_search.backend.database.entities.Department;
+import COMP_49X_our_search.backend.database.entities.Discipline;
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
+import COMP_49X_our_search.backend.database.entities.Student;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.entities.User;
+import COMP_49X_our_search.backend.database.enums.UserRole;
+import COMP_49X_our_search.backend.database.repositories.DepartmentRepository;
+import COMP_49X_our_search.backend.database.repositories.DisciplineRepository;
+import COMP_49X_our_search.backend.database.repositories.FacultyRepository;
+import COMP_49X_our_search.backend.database.repositories.MajorRepository;
+import COMP_49X_our_search.backend.database.repositories.ProjectRepository;
+import COMP_49X_our_search.backend.database.repositories.ResearchPeriodRepository;
+import COMP_49X_our_search.backend.database.repositories.StudentRepository;
+import COMP_49X_our_search.backend.database.repositories.UmbrellaTopicRepository;
+import COMP_49X_our_search.backend.database.repositories.UserRepository;
+import COMP_49X_our_search.backend.profile.FacultyProfileRetriever;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import proto.data.Entities.ProjectProto;
+import proto.data.Entities.StudentProto;
+import proto.fetcher.DataTypes.DepartmentWithFaculty;
+import proto.fetcher.DataTypes.DisciplineWithMajors;
+import proto.fetcher.DataTypes.MajorWithEntityCollection;
+import proto.fetcher.FetcherModule.FetcherRequest;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+import proto.fetcher.FetcherModule.FilteredType;
+import proto.profile.ProfileModule.RetrieveProfileRequest;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = {"DOMAIN=http://localhost"})
+public class FilterSpecificationsIntegrationTest {
+
+  private static final long SEED = 49;
+  private static final int FILTER_RUNS = 150;
+  private static final String[] WORDS = {
+    "Quantum", "robotics", "Data", "science", "social", "MEDIA", "bio_stats", "100%", "ethics",
+    "Learning", "marine", "Art"
+  };
+  private static final String[] FIRST_NAMES = {"John", "Jane", "Ana", "Li", "Omar", "Zoe"};
+  private static final String[] LAST_NAMES = {"Smith", "Doe", "Garcia", "Chen", "Khan", "Ng"};
+
+  @Autowired private ProjectFetcher projectFetcher;
+  @Autowired private StudentFetcher studentFetcher;
+  @Autowired private FacultyFetcher facultyFetcher;
+  @Autowired private FacultyProfileRetriever facultyProfileRetriever;
+  @Autowired private ProjectSearchIndex projectSearchIndex;
+  @Autowired private SuggestionIndex suggestionIndex;
+  @Autowired private DisciplineRepository disciplineRepository;
+  @Autowired private MajorRepository majorRepository;
+  @Autowired private ResearchPeriodRepository researchPeriodRepository;
+  @Autowired private UmbrellaTopicRepository umbrellaTopicRepository;
+  @Autowired private DepartmentRepository departmentRepository;
+  @Autowired private FacultyRepository facultyRepository;
+  @Autowired private ProjectRepository projectRepository;
+  @Autowired private StudentRepository studentRepository;
+  @Autowired private UserRepository userRepository;
+
+  private final Random random = new Random(SEED);
+  private final List<Major> majors = new ArrayList<>();
+  private final List<ResearchPeriod> researchPeriods = new ArrayList<>();
+  private final List<UmbrellaTopic> umbrellaTopics = new ArrayList<>();
+  private final List<Department> departments = new ArrayList<>();
+  private final List<Faculty> faculty = new ArrayList<>();
+  private final List<Project> projects = new ArrayList<>();
+  private final List<Student> students = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    List<Discipline> disciplines = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      disciplines.add(disciplineRepository.save(new Discipline("Test discipline " + i)));
+    }
+    for (int i = 0; i < 6; i++) {
+      Major major = new Major("Test major " + i);
+      major.setDisciplines(new HashSet<>(randomSubset(disciplines, 1, 2)));
+      majors.add(majorRepository.save(major));
+    }
+    for (int i = 0; i < 4; i++) {
+      ResearchPeriod period = new ResearchPeriod();
+      period.setName("Period " + i);
+      researchPeriods.add(researchPeriodRepository.save(period));
+      UmbrellaTopic topic = new UmbrellaTopic();
+      topic.setName("Topic " + i);
+      umbrellaTopics.add(umbrellaTopicRepository.save(topic));
+    }
+    for (int i = 0; i < 3; i++) {
+      departments.add(departmentRepository.save(new Department("Test department " + i)));
+    }
+    for (int i = 0; i < 6; i++) {
+      Faculty member = new Faculty();
+      member.setFirstName(pick(FIRST_NAMES));
+      member.setLastName(pick(LAST_NAMES));
+      member.setEmail("faculty" + i + "@test.com");
+      member.setDepartments(new HashSet<>(randomSubset(departments, 1, 2)));
+      faculty.add(facultyRepository.save(member));
+      userRepository.save(new User(member.getEmail(), UserRole.FACULTY));
+    }
+    for (int i = 0; i < 40; i++) {
+      Project project = new Project();
+      project.setName(randomText(1, 3));
+      project.setDescription(randomText(3, 6));
+      project.setDesiredQualifications(randomText(1, 4));
+      project.setIsActive(true);
+      project.setFaculty(pick(faculty));
+      project.setMajors(new HashSet<>(randomSubset(majors, 1, 3)));
+      project.setResearchPeriods(new HashSet<>(randomSubset(researchPeriods, 0, 2)));
+      project.setUmbrellaTopics(new HashSet<>(randomSubset(umbrellaTopics, 0, 2)));
+      project.setCreatedAt(LocalDateTime.now());
+      projects.add(projectRepository.save(project));
+    }
+    for (int i = 0; i < 40; i++) {
+      Student student = new Student();
+      student.setFirstName(pick(FIRST_NAMES));
+      student.setLastName(pick(LAST_NAMES));
+      student.setEmail("student" + i + "@test.com");
+      student.setUndergradYear(1 + random.nextInt(4));
+      student.setGraduationYear(2026 + random.nextInt(4));
+      student.setInterestReason(randomText(2, 6));
+      student.setHasPriorExperience(random.nextBoolean());
+      student.setIsActive(random.nextInt(5) > 0);
+      student.setMajors(new HashSet<>(randomSubset(majors, 1, 2)));
+      student.setResearchFieldInterests(new HashSet<>(randomSubset(majors, 0, 2)));
+      student.setResearchPeriods(new HashSet<>(randomSubset(researchPeriods, 0, 2)));
+      students.add(studentRepository.save(student));
+    }
+    projectSearchIndex.rebuild();
+    suggestionIndex.rebuild();
+  }
+
+  @Test
+  public void testProjectFetcher_matchesJavaFiltersOnRandomData() {
+    int matches = 0;
+    for (int run = 0; run < FILTER_RUNS; run++) {
+      FilteredFetcher filters = randomFilters(FilteredType.FILTERED_TYPE_PROJECTS);
+
+      Map<Integer, Set<Integer>> actual =
+          idsByMajor(
+              projectFetcher.fetch(request(filters)).getProjectHierarchy().getDisciplinesList(),
+              major ->
+                  major.getProjectCollection().getProjectsList().stream()
+                      .map(ProjectProto::getProjectId));
+
+      for (Major major : majors) {
+        Set<Integer> expected = expectedProjects(major, filters);
+        assertEquals(expected, actual.get(major.getId()), "Filters: " + filters);
+        matches += expected.size();
+      }
+    }
+    assertTrue(matches > 0);
+  }
+
+  @Test
+  public void testStudentFetcher_matchesJavaFiltersOnRandomData() {
+    int matches = 0;
+    for (int run = 0; run < FILTER_RUNS; run++) {
+      FilteredFetcher filters = randomFilters(FilteredType.FILTERED_TYPE_STUDENTS);
+
+      Map<Integer, Set<Integer>> actual =
+          idsByMajor(
+              studentFetcher.fetch(request(filters)).getProjectHierarchy().getDisciplinesList(),
+              major ->
+                  major.getStudentCollection().getStudentsList().stream()
+                      .map(StudentProto::getStudentId));
+
+      for (Major major : majors) {
+        Set<Integer> expected = expectedStudents(major, filters);
+        assertEquals(expected, actual.get(major.getId()), "Filters: " + filters);
+        matches += expected.size();
+      }
+    }
+    assertTrue(matches > 0);
+  }
+
+  @Test
+  public void testFacultyFetcher_matchesJavaFiltersOnRandomData() {
+    int matches = 0;
+    for (int run = 0; run < FILTER_RUNS; run++) {
+      FilteredFetcher filters = randomFilters(FilteredType.FILTERED_TYPE_FACULTY);
+
+      Map<Integer, Set<Integer>> actual = new HashMap<>();
+      for (DepartmentWithFaculty department :
+          facultyFetcher.fetch(request(filters)).getDepartmentHierarchy().getDepartmentsList()) {
+        actual.put(
+            department.getDepartment().getDepartmentId(),
+            department.getFacultyWithProjectsList().stream()
+                .map(facultyWithProjects -> facultyWithProjects.getFaculty().getFacultyId())
+                .collect(Collectors.toSet()));
+      }
+
+      for (Department department : departments) {
+        Set<Integer> expected = expectedFaculty(department, filters);
+        assertEquals(expected, actual.get(department.getId()), "Filters: " + filters);
+        matches += expected.size();
+      }
+    }
+    assertTrue(matches > 0);
+  }
+
+  @Test
+  public void testFacultyProfileRetriever_matchesJavaFiltersOnRandomData() {
+    int matches = 0;
+    for (int run = 0; run < FILTER_RUNS; run++) {
+      Faculty member = pick(faculty);
+      RetrieveProfileRequest.Builder request =
+          RetrieveProfileRequest.newBuilder().setUserEmail(member.getEmail());
+      FilteredFetcher filters = null;
+      if (random.nextInt(4) > 0) {
+        filters = randomFilters(FilteredType.FILTERED_TYPE_PROJECTS);
+        request.setFilters(filters);
+      }
+
+      Set<Integer> actual =
+          facultyProfileRetriever
+              .retrieveProfile(request.build())
+              .getRetrievedFaculty()
+              .getProjectsList()
+              .stream()
+              .map(ProjectProto::getProjectId)
+              .collect(Collectors.toSet());
+
+      Set<Integer> expected = expectedProfileProjects(member, filters);
+      assertEquals(expected, actual, "Filters: " + filters);
+      matches += expected.size();
+    }
+    assertTrue(matches > 0);
+  }
+
+  @Test
+  public void testInactiveStudents_neverReturned() {
+    FilteredFetcher filters =
+        FilteredFetcher.newBuilder().setFilteredType(FilteredType.FILTERED_TYPE_STUDENTS).build();
+    Set<Integer> inactive =
+        students.stream()
+            .filter(student -> !student.getIsActive())
+            .map(Student::getId)
+            .collect(Collectors.toSet());
+
+    Map<Integer, Set<Integer>> returned =
+        idsByMajor(
+            studentFetcher.fetch(request(filters)).getProjectHierarchy().getDisciplinesList(),
+            major ->
+                major.getStudentCollection().getStudentsList().stream()
+                    .map(StudentProto::getStudentId));
+
+    assertFalse(inactive.isEmpty());
+    returned.values().forEach(ids -> assertTrue(ids.stream().noneMatch(inactive::contains)));
+  }
+
+  // The filters ProjectFetcher used to apply in Java.
+  private Set<Integer> expectedProjects(Major major, FilteredFetcher filters) {
+    Set<Integer> keywordMatches =
+        ProjectSearchIndex.tokenizeKeywords(filters.getKeywords()).isEmpty()
+            ? null
+            : projectSearchIndex.search(filters.getKeywords());
+    return projects.stream()
+        .filter(project -> ids(project.getMajors()).contains(major.getId()))
+        .filter(
+            project ->
+                filters.getMajorIdsList().isEmpty()
+                    || filters.getMajorIdsList().contains(major.getId())
+                    || anyIn(ids(project.getMajors()), filters.getMajorIdsList()))
+        .filter(
+            project ->
+                filters.getResearchPeriodIdsList().isEmpty()
+                    || anyIn(ids(project.getResearchPeriods()), filters.getResearchPeriodIdsList()))
+        .filter(
+            project ->
+                filters.getUmbrellaTopicIdsList().isEmpty()
+                    || anyIn(ids(project.getUmbrellaTopics()), filters.getUmbrellaTopicIdsList()))
+        .filter(project -> keywordMatches == null || keywordMatches.contains(project.getId()))
+        .map(Project::getId)
+        .collect(Collectors.toSet());
+  }
+
+  // The filters StudentFetcher used to apply in Java.
+  private Set<Integer> expectedStudents(Major major, FilteredFetcher filters) {
+    return students.stream()
+        .filter(
+            student ->
+                ids(student.getMajors()).contains(major.getId())
+                    || ids(student.getResearchFieldInterests()).contains(major.getId()))
+        .filter(Student::getIsActive)
+        .filter(
+            student ->
+                filters.getMajorIdsList().isEmpty()
+                    || filters.getMajorIdsList().contains(major.getId())
+                    || anyIn(ids(student.getMajors()), filters.getMajorIdsList())
+                    || anyIn(ids(student.getResearchFieldInterests()), filters.getMajorIdsList()))
+        .filter(
+            student ->
+                filters.getResearchPeriodIdsList().isEmpty()
+                    || anyIn(ids(student.getResearchPeriods()), filters.getResearchPeriodIdsList()))
+        .filter(
+            student ->
+                filters.getKeywords().isEmpty()
+                    || containsKeyword(student.getInterestReason(), filters.getKeywords())
+                    || containsKeyword(
+                        student.getFirstName() + " " + student.getLastName(),
+                        filters.getKeywords()))
+        .map(Student::getId)
+        .collect(Collectors.toSet());
+  }
+
+  // The filter FacultyFetcher used to apply in Java, plus the names matching
+  // a correction of a misspelled keyword.
+  private Set<Integer> expectedFaculty(Department department, FilteredFetcher filters) {
+    Set<String> corrections =
+        suggestionIndex.correctFacultyNames(
+            ProjectSearchIndex.tokenizeKeywords(filters.getKeywords()));
+    return faculty.stream()
+        .filter(member -> ids(member.getDepartments()).contains(department.getId()))
+        .filter(
+            member -> {
+              String name = member.getFirstName() + " " + member.getLastName();
+              return filters.getKeywords().isEmpty()
+                  || containsKeyword(name, filters.getKeywords())
+                  || corrections.stream().anyMatch(name.toLowerCase()::contains);
+            })
+        .map(Faculty::getId)
+        .collect(Collectors.toSet());
+  }
+
+  // The filters FacultyProfileRetriever used to apply in Java.
+  private Set<Integer> expectedProfileProjects(Faculty member, FilteredFetcher filters) {
+    return projects.stream()
+        .filter(project -> project.getFaculty() == member)
+        .filter(
+            project ->
+                filters == null
+                    || filters.getMajorIdsList().isEmpty()
+                    || anyIn(ids(project.getMajors()), filters.getMajorIdsList()))
+        .filter(
+            project ->
+                filters == null
+                    || filters.getResearchPeriodIdsList().isEmpty()
+                    || anyIn(ids(project.getResearchPeriods()), filters.getResearchPeriodIdsList()))
+        .filter(
+            project ->
+                filters == null
+                    || filters.getUmbrellaTopicIdsList().isEmpty()
+                    || anyIn(ids(project.getUmbrellaTopics()), filters.getUmbrellaTopicIdsList()))
+        .filter(
+            project ->
+                filters == null
+                    || filters.getKeywords().isEmpty()
+                    || containsKeyword(project.getDescription(), filters.getKeywords())
+                    || containsKeyword(project.getDesiredQualifications(), filters.getKeywords())
+                    || containsKeyword(project.getName(), filters.getKeywords()))
+        .map(Project::getId)
+        .collect(Collectors.toSet());
+  }
+
+  private boolean containsKeyword(String text, String keywords) {
+    if (text == null || keywords == null || keywords.trim().isEmpty()) {
+      return false;
+    }
+
+    String lowercaseText = text.toLowerCase();
+    Set<String> keywordSet =
+        Arrays.stream(keywords.toLowerCase().split("[ ,]"))
+            .filter(k -> !k.trim().isEmpty())
+            .collect(Collectors.toSet());
+
+    return keywordSet.isEmpty() || keywordSet.stream().anyMatch(lowercaseText::contains);
+  }
+
+  private FilteredFetcher randomFilters(FilteredType type) {
+    FilteredFetcher.Builder filters = FilteredFetcher.newBuilder().setFilteredType(type);
+    randomSubset(majors, 0, 2).forEach(major -> filters.addMajorIds(major.getId()));
+    if (random.nextInt(10) == 0) {
+      filters.addMajorIds(Integer.MAX_VALUE);
+    }
+    randomSubset(researchPeriods, 0, 1)
+        .forEach(period -> filters.addResearchPeriodIds(period.getId()));
+    randomSubset(umbrellaTopics, 0, 1)
+        .forEach(topic -> filters.addUmbrellaTopicIds(topic.getId()));
+    return filters.setKeywords(randomKeywords()).build();
+  }
+
+  // Mostly parts of the words and names in the data, plus the odd cases of
+  // keywords that are blank or only separators.
+  private String randomKeywords() {
+    switch (random.nextInt(8)) {
+      case 0, 1:
+        return "";
+      case 2:
+        return " ";
+      case 3:
+        return ",";
+      default:
+        List<String> keywords = new ArrayList<>();
+        for (int i = random.nextInt(2); i >= 0; i--) {
+          String[] pool =
+              random.nextBoolean() ? WORDS : random.nextBoolean() ? FIRST_NAMES : LAST_NAMES;
+          String word = pick(pool);
+          int start = random.nextInt(word.length());
+          int end = Math.min(word.length(), start + 2 + random.nextInt(4));
+          keywords.add(random.nextBoolean() ? word.substring(start, end) : word.toUpperCase());
+        }
+        return String.join(random.nextBoolean() ? " " : ",", keywords);
+    }
+  }
+
+  private String randomText(int minWords, int maxWords) {
+    int count = minWords + random.nextInt(maxWords - minWords + 1);
+    return Stream.generate(() -> pick(WORDS)).limit(count).collect(Collectors.joining(" "));
+  }
+
+  private <T> List<T> randomSubset(List<T> items, int min, int max) {
+    List<T> shuffled = new ArrayList<>(items);
+    Collections.shuffle(shuffled, random);
+    return shuffled.subList(0, min + random.nextInt(max - min + 1));
+  }
+
+  private <T> T pick(List<T> items) {
+    return items.get(random.nextInt(items.size()));
+  }
+
+  private String pick(String[] items) {
+    return items[random.nextInt(items.length)];
+  }
+
+  private static FetcherRequest request(FilteredFetcher filters) {
+    return FetcherRequest.newBuilder().setFilteredFetcher(filters).build();
+  }
+
+  private static Map<Integer, Set<Integer>> idsByMajor(
+      List<DisciplineWithMajors> disciplines,
+      Function<MajorWithEntityCollection, Stream<Integer>> idsOf) {
+    Map<Integer, Set<Integer>> idsByMajor = new HashMap<>();
+    for (DisciplineWithMajors discipline : disciplines) {
+      for (MajorWithEntityCollection major : discipline.getMajorsList()) {
+        idsByMajor.put(
+            major.getMajor().getMajorId(), idsOf.apply(major).collect(Collectors.toSet()));
+      }
+    }
+    return idsByMajor;
+  }
+
+  private static Set<Integer> ids(Set<?> entities) {
+    return entities.stream()
+        .map(
+            entity ->
+                switch (entity) {
+                  case Major major -> major.getId();
+                  case ResearchPeriod period -> period.getId();
+                  case UmbrellaTopic topic -> topic.getId();
+                  case Department department -> department.getId();
+                  default -> throw new IllegalArgumentException("Unexpected entity " + entity);
+                })
+        .collect(Collectors.toSet());
+  }
+
+  private static boolean anyIn(Set<Integer> ids, List<Integer> filterIds) {
+    return filterIds.stream().anyMatch(ids::contains);
+  }
+}
@@ -0,0 +1,117 @@
+package COMP_49X_our_search.backend.fetcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class HierarchyAssemblerTest {
+
+  private HierarchyAssembler hierarchyAssembler;
+
+  @AfterEach
+  void tearDown() {
+    hierarchyAssembler.shutdown();
+  }
+
+  @Test
+  public void testAssemble_sequential_runsOnCallingThread() {
+    hierarchyAssembler = new HierarchyAssembler(1);
+    Thread caller = Thread.currentThread();
+
+    List<Boolean> onCaller =
+        hierarchyAssembler.assemble(List.of(1, 2, 3), i -> Thread.currentThread() == caller);
+
+    assertEquals(List.of(true, true, true), onCaller);
+  }
+
+  @Test
+  public void testAssemble_parallel_keepsDisciplineOrder() {
+    hierarchyAssembler = new HierarchyAssembler(4);
+    List<Integer> disciplines = IntStream.range(0, 50).boxed().toList();
+    Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    List<String> built =
+        hierarchyAssembler.assemble(
+            disciplines,
+            i -> {
+              threads.add(Thread.currentThread().getName());
+              // Later disciplines finish first.
+              sleep(50 - i);
+              return "discipline " + i;
+            });
+
+    assertEquals(disciplines.stream().map(i -> "discipline " + i).toList(), built);
+    assertTrue(threads.stream().allMatch(name -> name.startsWith("hierarchy-assembly-")));
+    assertTrue(threads.size() <= 4);
+  }
+
+  @Test
+  public void testAssemble_parallel_rethrowsFailure() {
+    hierarchyAssembler = new HierarchyAssembler(4);
+
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                hierarchyAssembler.assemble(
+                    List.of(1, 2, 3),
+                    i -> {
+                      if (i == 2) {
+                        throw new IllegalArgumentException("Bad discipline");
+                      }
+                      return i;
+                    }));
+    assertEquals("Bad discipline", exception.getMessage());
+  }
+
+  /**
+   * Benchmark of fetcher.assembly.parallelism over 16 disciplines, each
+   * waiting 10 ms the way a discipline waits on its database queries. Checks
+   * each parallelism gets at least half of the ideal speedup over building
+   * the disciplines one after another.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {2, 4, 8})
+  @Tag("benchmark")
+  public void benchmarkAssemble_parallelism(int parallelism) {
+    List<Integer> disciplines = IntStream.range(0, 16).boxed().toList();
+    HierarchyAssembler sequential = new HierarchyAssembler(1);
+    hierarchyAssembler = new HierarchyAssembler(parallelism);
+    // Starts the pool threads.
+    hierarchyAssembler.assemble(disciplines, i -> i);
+
+    long start = System.nanoTime();
+    List<Integer> expected = sequential.assemble(disciplines, HierarchyAssemblerTest::build);
+    long sequentialMillis = (System.nanoTime() - start) / 1_000_000;
+
+    start = System.nanoTime();
+    List<Integer> actual = hierarchyAssembler.assemble(disciplines, HierarchyAssemblerTest::build);
+    long parallelMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertEquals(expected, actual);
+    assertTrue(parallelMillis * parallelism < sequentialMillis * 2);
+  }
+
+  private static int build(int discipline) {
+    sleep(10);
+    return discipline;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
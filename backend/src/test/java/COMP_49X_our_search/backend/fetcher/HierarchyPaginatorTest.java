@@ -0,0 +1,216 @@
+package COMP_49X_our_search.backend.fetcher;
+
+import static COMP_49X_our_search.backend.util.ProtoConverter.toMajorProto;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import COMP_49X_our_search.backend.database.entities.Discipline;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.repositories.MajorAndId;
+import COMP_49X_our_search.backend.util.exceptions.InvalidPageCursorException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import proto.data.Entities.ProjectProto;
+import proto.fetcher.DataTypes.MajorWithEntityCollection;
+import proto.fetcher.DataTypes.ProjectCollection;
+import proto.fetcher.FetcherModule.FetcherResponse;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+
+public class HierarchyPaginatorTest {
+
+  private Discipline engineering;
+  private Discipline science;
+  private Major computerScience;
+  private Major mathematics;
+  private Major biology;
+  private FakePageSource source;
+
+  @BeforeEach
+  void setUp() {
+    science = new Discipline(1, "Science");
+    engineering = new Discipline(2, "Engineering");
+    computerScience = major(1, "Computer Science");
+    mathematics = major(2, "Mathematics");
+    biology = major(3, "Biology");
+    source = new FakePageSource();
+  }
+
+  @Test
+  public void testBuildPage_walksHierarchyByIds() {
+    // Science sorts after Engineering by name, but comes first by id.
+    source.ids.put(computerScience.getId(), List.of(1, 3));
+    source.ids.put(mathematics.getId(), List.of(2));
+    source.ids.put(biology.getId(), List.of(4));
+
+    FetcherResponse firstPage = buildPage(2, "");
+
+    assertEquals(List.of("Science", "Engineering"), disciplineNames(firstPage));
+    assertEquals(List.of(4, 1), projectIds(firstPage));
+    // One query per discipline, not per major.
+    assertEquals(List.of(3, 2), source.limits);
+    assertEquals(
+        new HierarchyPaginator.Position(2, 1, 1),
+        HierarchyPaginator.decodeCursor(firstPage.getNextPageCursor()));
+
+    FetcherResponse secondPage = buildPage(2, firstPage.getNextPageCursor());
+
+    assertEquals(List.of(3, 2), projectIds(secondPage));
+    assertTrue(secondPage.getNextPageCursor().isEmpty());
+  }
+
+  @Test
+  public void testBuildPage_asksOnlyForIdsStillMissing() {
+    source.ids.put(computerScience.getId(), List.of(1, 3));
+    source.ids.put(mathematics.getId(), List.of(2, 5, 6));
+
+    FetcherResponse page =
+        HierarchyPaginator.buildPage(
+            filters(3, ""),
+            List.of(engineering),
+            discipline -> List.of(mathematics, computerScience),
+            source,
+            HierarchyPaginatorTest::majorWithIds);
+
+    assertEquals(List.of(1, 3, 2), projectIds(page));
+    // A single query for both majors, for 3 + 1 ids.
+    assertEquals(List.of(4), source.limits);
+    assertEquals(List.of(Set.of(1, 2, 3)), source.loads);
+    assertEquals(
+        new HierarchyPaginator.Position(2, 2, 2),
+        HierarchyPaginator.decodeCursor(page.getNextPageCursor()));
+  }
+
+  @Test
+  public void testBuildPage_omitsMajorsWithoutEntities() {
+    source.ids.put(mathematics.getId(), List.of(1));
+
+    FetcherResponse page = buildPage(10, "");
+
+    assertEquals(1, page.getProjectHierarchy().getDisciplinesCount());
+    assertEquals(1, page.getProjectHierarchy().getDisciplines(0).getMajorsCount());
+    assertEquals(
+        "Mathematics",
+        page.getProjectHierarchy().getDisciplines(0).getMajors(0).getMajor().getMajorName());
+    assertTrue(page.getNextPageCursor().isEmpty());
+  }
+
+  @Test
+  public void testBuildPage_entityDeletedAfterReadingIds_isSkipped() {
+    source.ids.put(computerScience.getId(), List.of(1, 2));
+    source.deleted.add(2);
+
+    assertEquals(List.of(1), projectIds(buildPage(10, "")));
+  }
+
+  @Test
+  public void testBuildPage_disciplineRenamedBetweenPages_continuesFromCursor() {
+    source.ids.put(computerScience.getId(), List.of(1));
+    source.ids.put(biology.getId(), List.of(2));
+    String cursor = buildPage(1, "").getNextPageCursor();
+
+    science.setName("Zoology");
+
+    assertEquals(List.of(1), projectIds(buildPage(1, cursor)));
+  }
+
+  @Test
+  public void testBuildPage_invalidCursor_throwsException() {
+    String twoIds =
+        Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString("1:2".getBytes(StandardCharsets.UTF_8));
+
+    assertThrows(InvalidPageCursorException.class, () -> buildPage(10, "not a cursor"));
+    assertThrows(InvalidPageCursorException.class, () -> buildPage(10, twoIds));
+  }
+
+  private FetcherResponse buildPage(int pageSize, String cursor) {
+    Map<Integer, List<Major>> majorsByDiscipline =
+        Map.of(
+            engineering.getId(), List.of(mathematics, computerScience),
+            science.getId(), List.of(biology));
+    return HierarchyPaginator.buildPage(
+        filters(pageSize, cursor),
+        List.of(engineering, science),
+        discipline -> majorsByDiscipline.get(discipline.getId()),
+        source,
+        HierarchyPaginatorTest::majorWithIds);
+  }
+
+  private static FilteredFetcher filters(int pageSize, String cursor) {
+    return FilteredFetcher.newBuilder().setPageSize(pageSize).setPageCursor(cursor).build();
+  }
+
+  private static Major major(int id, String name) {
+    Major major = new Major();
+    major.setId(id);
+    major.setName(name);
+    return major;
+  }
+
+  private static MajorWithEntityCollection majorWithIds(Major major, List<Integer> ids) {
+    return MajorWithEntityCollection.newBuilder()
+        .setMajor(toMajorProto(major))
+        .setProjectCollection(
+            ProjectCollection.newBuilder()
+                .addAllProjects(
+                    ids.stream()
+                        .map(id -> ProjectProto.newBuilder().setProjectId(id).build())
+                        .toList()))
+        .build();
+  }
+
+  private static List<String> disciplineNames(FetcherResponse response) {
+    return response.getProjectHierarchy().getDisciplinesList().stream()
+        .map(discipline -> discipline.getDiscipline().getDisciplineName())
+        .toList();
+  }
+
+  private static List<Integer> projectIds(FetcherResponse response) {
+    return response.getProjectHierarchy().getDisciplinesList().stream()
+        .flatMap(discipline -> discipline.getMajorsList().stream())
+        .flatMap(major -> major.getProjectCollection().getProjectsList().stream())
+        .map(ProjectProto::getProjectId)
+        .toList();
+  }
+
+  // Serves the ids of each major from memory, the entities being the ids
+  // themselves.
+  private static class FakePageSource implements HierarchyPaginator.PageSource<Integer> {
+
+    private final Map<Integer, List<Integer>> ids = new HashMap<>();
+    private final List<Integer> deleted = new ArrayList<>();
+    private final List<Integer> limits = new ArrayList<>();
+    private final List<Set<Integer>> loads = new ArrayList<>();
+
+    @Override
+    public List<MajorAndId> idsAfter(List<Integer> majorIds, MajorAndId after, int limit) {
+      limits.add(limit);
+      return majorIds.stream()
+          .flatMap(
+              majorId ->
+                  ids.getOrDefault(majorId, List.of()).stream()
+                      .map(id -> new MajorAndId(majorId, id)))
+          .filter(id -> after == null || MajorAndId.ORDER.compare(id, after) > 0)
+          .sorted(MajorAndId.ORDER)
+          .limit(limit)
+          .toList();
+    }
+
+    @Override
+    public Map<Integer, Integer> load(Set<Integer> ids) {
+      loads.add(Set.copyOf(ids));
+      Map<Integer, Integer> entities = new HashMap<>();
+      ids.stream().filter(id -> !deleted.contains(id)).forEach(id -> entities.put(id, id));
+      return entities;
+    }
+  }
+}
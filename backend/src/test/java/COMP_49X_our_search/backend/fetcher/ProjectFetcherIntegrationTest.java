@@ -0,0 +1,224 @@
+/**
+ * Integration test for ProjectFetcher using a real H2 database.
+ *
+ * Counts the JDBC statements Hibernate prepares while building the project
+ * hierarchy, to make sure the number of queries stays fixed no matter how
+ * many disciplines, majors and projects there are (no N+1 lazy loading).
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import COMP_49X_our_search.backend.database.entities.Department;
+import COMP_49X_our_search.backend.database.entities.Discipline;
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.repositories.DepartmentRepository;
+import COMP_49X_our_search.backend.database.repositories.DisciplineRepository;
+import COMP_49X_our_search.backend.database.repositories.FacultyRepository;
+import COMP_49X_our_search.backend.database.repositories.MajorRepository;
+import COMP_49X_our_search.backend.database.repositories.ProjectRepository;
+import COMP_49X_our_search.backend.database.repositories.ResearchPeriodRepository;
+import COMP_49X_our_search.backend.database.repositories.UmbrellaTopicRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import proto.fetcher.DataTypes.ProjectHierarchy;
+import proto.fetcher.FetcherModule.FetcherRequest;
+import proto.fetcher.FetcherModule.FetcherResponse;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+import proto.fetcher.FetcherModule.FilteredType;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = {
+    "DOMAIN=http://localhost",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class ProjectFetcherIntegrationTest {
+
+  // 1 query for disciplines, 1 for majors and 4 for projects and their
+  // associations.
+  private static final long EXPECTED_STATEMENTS = 6;
+
+  private static final int DISCIPLINES = 4;
+  private static final int MAJORS_PER_DISCIPLINE = 5;
+  private static final int PROJECTS_PER_MAJOR = 3;
+
+  @Autowired private ProjectFetcher projectFetcher;
+  @Autowired private DisciplineRepository disciplineRepository;
+  @Autowired private MajorRepository majorRepository;
+  @Autowired private ProjectRepository projectRepository;
+  @Autowired private FacultyRepository facultyRepository;
+  @Autowired private DepartmentRepository departmentRepository;
+  @Autowired private ResearchPeriodRepository researchPeriodRepository;
+  @Autowired private UmbrellaTopicRepository umbrellaTopicRepository;
+  @Autowired private EntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    Department department = departmentRepository.save(new Department("Test Department"));
+    ResearchPeriod period = new ResearchPeriod();
+    period.setName("Fall 2025");
+    period = researchPeriodRepository.save(period);
+    UmbrellaTopic topic = new UmbrellaTopic();
+    topic.setName("Test Topic");
+    topic = umbrellaTopicRepository.save(topic);
+
+    int projectCount = 0;
+    for (int d = 0; d < DISCIPLINES; d++) {
+      Discipline discipline = disciplineRepository.save(new Discipline("Test Discipline " + d));
+      for (int m = 0; m < MAJORS_PER_DISCIPLINE; m++) {
+        Major major = new Major("Test Major " + d + "-" + m);
+        major.setDisciplines(Set.of(discipline));
+        major = majorRepository.save(major);
+        for (int p = 0; p < PROJECTS_PER_MAJOR; p++) {
+          // One faculty member per project so lazily loading faculty or
+          // departments would show up as extra statements.
+          Faculty faculty =
+              facultyRepository.save(
+                  new Faculty(
+                      "First" + projectCount,
+                      "Last" + projectCount,
+                      "faculty" + projectCount + "@test.com",
+                      Set.of(department)));
+          projectRepository.save(
+              new Project(
+                  "Test Project " + projectCount,
+                  faculty,
+                  "Description",
+                  "Qualifications",
+                  true,
+                  Set.of(discipline),
+                  Set.of(major),
+                  Set.of(period),
+                  Set.of(topic),
+                  LocalDateTime.now()));
+          projectCount++;
+        }
+      }
+    }
+
+    // Start from an empty persistence context so every association has to be
+    // loaded from the database.
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  public void testFetch_usesFixedNumberOfStatements() {
+    ProjectHierarchy hierarchy = fetchHierarchy();
+
+    assertEquals(EXPECTED_STATEMENTS, statistics.getPrepareStatementCount());
+
+    int projectsFound =
+        hierarchy.getDisciplinesList().stream()
+            .flatMap(discipline -> discipline.getMajorsList().stream())
+            .mapToInt(major -> major.getProjectCollection().getProjectsCount())
+            .sum();
+    assertEquals(DISCIPLINES * MAJORS_PER_DISCIPLINE * PROJECTS_PER_MAJOR, projectsFound);
+  }
+
+  @Test
+  public void testFetch_loadsProjectAssociations() {
+    ProjectHierarchy hierarchy = fetchHierarchy();
+
+    var project =
+        hierarchy.getDisciplinesList().stream()
+            .filter(discipline -> discipline.getDiscipline().getDisciplineName()
+                .equals("Test Discipline 0"))
+            .findFirst()
+            .orElseThrow()
+            .getMajors(0)
+            .getProjectCollection()
+            .getProjects(0);
+
+    assertEquals("Test Major 0-0", project.getMajors(0));
+    assertEquals("Fall 2025", project.getResearchPeriods(0));
+    assertEquals("Test Topic", project.getUmbrellaTopics(0));
+    assertTrue(project.getFaculty().getDepartmentsList().contains("Test Department"));
+  }
+
+  @Test
+  public void testFetch_blankKeywords_matchNoProjects() {
+    assertEquals(0, countProjects(fetchHierarchy("  ")));
+  }
+
+  @Test
+  public void testFetch_separatorOnlyKeywords_matchEveryProject() {
+    assertEquals(
+        DISCIPLINES * MAJORS_PER_DISCIPLINE * PROJECTS_PER_MAJOR,
+        countProjects(fetchHierarchy(",,")));
+  }
+
+  @Test
+  public void testFetch_paginated_walksEveryProjectOnce() {
+    List<Integer> projectIds = new ArrayList<>();
+    String cursor = "";
+    do {
+      FetcherResponse page =
+          projectFetcher.fetch(
+              FetcherRequest.newBuilder()
+                  .setFilteredFetcher(
+                      FilteredFetcher.newBuilder()
+                          .setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS)
+                          .setPageSize(7)
+                          .setPageCursor(cursor))
+                  .build());
+      assertTrue(countProjects(page.getProjectHierarchy()) <= 7);
+      page.getProjectHierarchy().getDisciplinesList().stream()
+          .flatMap(discipline -> discipline.getMajorsList().stream())
+          .flatMap(major -> major.getProjectCollection().getProjectsList().stream())
+          .forEach(project -> projectIds.add(project.getProjectId()));
+      cursor = page.getNextPageCursor();
+    } while (!cursor.isEmpty());
+
+    assertEquals(DISCIPLINES * MAJORS_PER_DISCIPLINE * PROJECTS_PER_MAJOR, projectIds.size());
+    assertEquals(projectIds.size(), Set.copyOf(projectIds).size());
+  }
+
+  private ProjectHierarchy fetchHierarchy() {
+    return fetchHierarchy("");
+  }
+
+  private ProjectHierarchy fetchHierarchy(String keywords) {
+    FetcherRequest request =
+        FetcherRequest.newBuilder()
+            .setFilteredFetcher(
+                FilteredFetcher.newBuilder()
+                    .setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS)
+                    .setKeywords(keywords))
+            .build();
+    return projectFetcher.fetch(request).getProjectHierarchy();
+  }
+
+  private static int countProjects(ProjectHierarchy hierarchy) {
+    return hierarchy.getDisciplinesList().stream()
+        .flatMap(discipline -> discipline.getMajorsList().stream())
+        .mapToInt(major -> major.getProjectCollection().getProjectsCount())
+        .sum();
+  }
+}
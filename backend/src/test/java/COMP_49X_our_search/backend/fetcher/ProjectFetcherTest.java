@@ -1,27 +1,43 @@
 package COMP_49X_our_search.backend.fetcher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import COMP_49X_our_search.backend.database.entities.Discipline;
 import COMP_49X_our_search.backend.database.entities.Faculty;
 import COMP_49X_our_search.backend.database.entities.Major;
 import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ProjectSearchRow;
 import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
 import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.repositories.MajorAndId;
 import COMP_49X_our_search.backend.database.services.DisciplineService;
 import COMP_49X_our_search.backend.database.services.MajorService;
+import COMP_49X_our_search.backend.database.services.ProjectSearchProjectionService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.search.FullTextSearch;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.util.exceptions.InvalidPageCursorException;
 import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import proto.data.Entities.ProjectProto;
+import proto.fetcher.DataTypes.DisciplineWithMajors;
 import proto.fetcher.DataTypes.ProjectCollection;
+import proto.fetcher.FetcherModule.FacetCounts;
 import proto.fetcher.FetcherModule.FetcherRequest;
 import proto.fetcher.FetcherModule.FetcherResponse;
 import proto.fetcher.FetcherModule.FilteredFetcher;
@@ -32,13 +48,31 @@ public class ProjectFetcherTest {
   private DisciplineService disciplineService;
   private MajorService majorService;
   private ProjectService projectService;
+  private ProjectSearchIndex projectSearchIndex;
+  private FacetIndex facetIndex;
+  private ProjectSearchProjectionService projectSearchProjectionService;
+  private ConversionStats conversionStats;
 
   @BeforeEach
   void setUp() {
     disciplineService = mock(DisciplineService.class);
     majorService = mock(MajorService.class);
     projectService = mock(ProjectService.class);
-    projectFetcher = new ProjectFetcher(disciplineService, majorService, projectService);
+    projectSearchIndex = new ProjectSearchIndex(projectService);
+    facetIndex = mock(FacetIndex.class);
+    projectSearchProjectionService = mock(ProjectSearchProjectionService.class);
+    conversionStats = new ConversionStats();
+    projectFetcher =
+        new ProjectFetcher(
+            disciplineService,
+            majorService,
+            projectService,
+            projectSearchIndex,
+            new HierarchyAssembler(1),
+            mock(FullTextSearch.class),
+            facetIndex,
+            projectSearchProjectionService,
+            conversionStats);
   }
 
   @Test
@@ -51,8 +85,9 @@ public class ProjectFetcherTest {
     Major computerScience = new Major();
     computerScience.setName("Computer Science");
     computerScience.setId(0);
+    computerScience.setDisciplines(Set.of(engineering));
     List<Major> majors = List.of(computerScience);
-    when(majorService.getMajorsByDisciplineId(0)).thenReturn(majors);
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(majors);
 
     UmbrellaTopic ai = new UmbrellaTopic();
     ai.setName("AI");
@@ -77,7 +112,7 @@ public class ProjectFetcherTest {
     project.setResearchPeriods(Set.of(fall25));
     project.setFaculty(faculty);
     List<Project> projects = List.of(project);
-    when(projectService.getProjectsByMajorId(0)).thenReturn(projects);
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(projects);
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -101,13 +136,15 @@ public class ProjectFetcherTest {
     Major computerScience = new Major();
     computerScience.setName("Computer Science");
     computerScience.setId(1);
+    computerScience.setDisciplines(Set.of(engineering));
 
     Major mathematics = new Major();
     mathematics.setName("Mathematics");
     mathematics.setId(2);
+    mathematics.setDisciplines(Set.of(engineering));
 
     List<Major> engineeringMajors = List.of(computerScience, mathematics);
-    when(majorService.getMajorsByDisciplineId(1)).thenReturn(engineeringMajors);
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(engineeringMajors);
 
     // Set up faculty
     Faculty mathFaculty = new Faculty();
@@ -136,8 +173,7 @@ public class ProjectFetcherTest {
     mlProject.setFaculty(mathFaculty);
 
     // Mock service responses
-    when(projectService.getProjectsByMajorId(1)).thenReturn(List.of(mlProject));
-    when(projectService.getProjectsByMajorId(2)).thenReturn(List.of(mlProject));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of(mlProject));
 
     // Execute test
     FetcherRequest request =
@@ -179,6 +215,11 @@ public class ProjectFetcherTest {
 
     var mathProject = mathMajor.getProjectCollection().getProjects(0);
     assertProject(mathProject, mlProject);
+
+    // The project is converted once and listed under both majors.
+    assertSame(csProject, mathProject);
+    assertEquals(1, conversionStats.getRequests());
+    assertEquals(1, conversionStats.getSavedConversions());
   }
 
   @Test
@@ -197,9 +238,8 @@ public class ProjectFetcherTest {
     communication.setId(3);
     communication.setDisciplines(Set.of(humanities, socialSciences));
 
-    // Mock major service to return the same major for both disciplines
-    when(majorService.getMajorsByDisciplineId(2)).thenReturn(List.of(communication));
-    when(majorService.getMajorsByDisciplineId(3)).thenReturn(List.of(communication));
+    // The same major belongs to both disciplines
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(communication));
 
     // Set up faculty
     Faculty commFaculty = new Faculty();
@@ -228,7 +268,7 @@ public class ProjectFetcherTest {
     socialMediaProject.setFaculty(commFaculty);
 
     // Mock project service
-    when(projectService.getProjectsByMajorId(3)).thenReturn(List.of(socialMediaProject));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of(socialMediaProject));
 
     // Execute test
     FetcherRequest request =
@@ -330,7 +370,8 @@ public class ProjectFetcherTest {
     Major cs = new Major();
     cs.setId(101);
     cs.setName("CS");
-    when(majorService.getMajorsByDisciplineId(0)).thenReturn(List.of(cs));
+    cs.setDisciplines(Set.of(engineering));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(cs));
 
     Faculty f = new Faculty();
     f.setId(1);
@@ -347,7 +388,7 @@ public class ProjectFetcherTest {
     csProject.setMajors(Set.of(cs));
     csProject.setFaculty(f);
 
-    when(projectService.getProjectsByMajorId(101)).thenReturn(List.of(csProject));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of(csProject));
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -380,6 +421,7 @@ public class ProjectFetcherTest {
     Major m = new Major();
     m.setId(1);
     m.setName("EE");
+    m.setDisciplines(Set.of(d));
 
     Faculty f = new Faculty();
     f.setId(1);
@@ -398,8 +440,8 @@ public class ProjectFetcherTest {
     p.setFaculty(f);
 
     when(disciplineService.getAllDisciplines()).thenReturn(List.of(d));
-    when(majorService.getMajorsByDisciplineId(0)).thenReturn(List.of(m));
-    when(projectService.getProjectsByMajorId(1)).thenReturn(List.of(p));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(m));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of(p));
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -432,6 +474,7 @@ public class ProjectFetcherTest {
     Major m = new Major();
     m.setId(1);
     m.setName("ME");
+    m.setDisciplines(Set.of(d));
 
     Faculty f = new Faculty();
     f.setId(1);
@@ -450,8 +493,8 @@ public class ProjectFetcherTest {
     p.setFaculty(f);
 
     when(disciplineService.getAllDisciplines()).thenReturn(List.of(d));
-    when(majorService.getMajorsByDisciplineId(0)).thenReturn(List.of(m));
-    when(projectService.getProjectsByMajorId(1)).thenReturn(List.of(p));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(m));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of(p));
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -480,6 +523,7 @@ public class ProjectFetcherTest {
     Major m = new Major();
     m.setId(1);
     m.setName("CS");
+    m.setDisciplines(Set.of(d));
 
     Faculty f = new Faculty();
     f.setId(1);
@@ -497,8 +541,9 @@ public class ProjectFetcherTest {
     p.setFaculty(f);
 
     when(disciplineService.getAllDisciplines()).thenReturn(List.of(d));
-    when(majorService.getMajorsByDisciplineId(0)).thenReturn(List.of(m));
-    when(projectService.getProjectsByMajorId(1)).thenReturn(List.of(p));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(m));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of(p));
+    when(projectService.getAllResearchOpportunities()).thenReturn(List.of(p));
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -519,4 +564,187 @@ public class ProjectFetcherTest {
     assertEquals(1, projectList.size());
     assertEquals("Quantum AI", projectList.get(0).getProjectName());
   }
+
+  @Test
+  public void testFetch_paginated_loadsOnlyProjectsInPage() {
+    Discipline engineering = new Discipline("Engineering");
+    engineering.setId(1);
+    when(disciplineService.getAllDisciplines()).thenReturn(List.of(engineering));
+    Major computerScience = pagedMajor(1, "Computer Science", engineering);
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(computerScience));
+    // One more id than fits in the page, so there is a next page.
+    when(projectService.getProjectIdsByMajor(any(), eq(List.of(1)), isNull(), eq(3)))
+        .thenReturn(List.of(new MajorAndId(1, 1), new MajorAndId(1, 2), new MajorAndId(1, 3)));
+    when(projectService.getProjectsWithAssociations(any()))
+        .thenReturn(List.of(pagedProject(2, computerScience), pagedProject(1, computerScience)));
+
+    FetcherResponse response = projectFetcher.fetch(pagedRequest(2, ""));
+
+    assertEquals(
+        List.of(1, 2),
+        response.getProjectHierarchy().getDisciplines(0).getMajors(0).getProjectCollection()
+            .getProjectsList().stream()
+            .map(ProjectProto::getProjectId)
+            .toList());
+    assertEquals(
+        new HierarchyPaginator.Position(1, 1, 2),
+        HierarchyPaginator.decodeCursor(response.getNextPageCursor()));
+    verify(projectService, never()).getAllProjectsWithAssociations();
+  }
+
+  @Test
+  public void testFetch_paginated_invalidCursor_throwsException() {
+    when(disciplineService.getAllDisciplines()).thenReturn(List.of());
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of());
+
+    assertThrows(
+        InvalidPageCursorException.class,
+        () -> projectFetcher.fetch(pagedRequest(10, "not a cursor")));
+  }
+
+  @Test
+  public void testFetch_countsOnly_skipsHierarchy() {
+    FacetCounts counts = FacetCounts.newBuilder().setTotal(3).build();
+    when(facetIndex.countProjects(any(), isNull())).thenReturn(counts);
+
+    FetcherResponse response =
+        projectFetcher.fetch(
+            FetcherRequest.newBuilder()
+                .setFilteredFetcher(
+                    FilteredFetcher.newBuilder()
+                        .setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS)
+                        .setCountsOnly(true))
+                .build());
+
+    assertEquals(counts, response.getFacetCounts());
+    assertFalse(response.hasProjectHierarchy());
+    verifyNoInteractions(disciplineService, majorService, projectService);
+  }
+
+  @Test
+  public void testFetch_includeFacetCounts_passesKeywordMatches() {
+    Discipline engineering = new Discipline("Engineering");
+    engineering.setId(0);
+    Major computerScience = pagedMajor(1, "Computer Science", engineering);
+    Project robots = pagedProject(1, computerScience);
+    robots.setName("Robots");
+    when(projectService.getAllResearchOpportunities()).thenReturn(List.of(robots));
+    when(disciplineService.getAllDisciplines()).thenReturn(List.of(engineering));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(computerScience));
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of(robots));
+    FacetCounts counts = FacetCounts.newBuilder().setTotal(1).build();
+    when(facetIndex.countProjects(any(), eq(Set.of(1)))).thenReturn(counts);
+
+    FetcherResponse response =
+        projectFetcher.fetch(
+            FetcherRequest.newBuilder()
+                .setFilteredFetcher(
+                    FilteredFetcher.newBuilder()
+                        .setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS)
+                        .setKeywords("robots")
+                        .setIncludeFacetCounts(true))
+                .build());
+
+    assertEquals(counts, response.getFacetCounts());
+    assertTrue(response.hasProjectHierarchy());
+    // The keywords are resolved through ProjectSearchIndex, not a query.
+    verify(projectService, never()).getProjectIds(any());
+  }
+
+  @Test
+  public void testFetch_withoutFacetCounts_doesNotCount() {
+    when(disciplineService.getAllDisciplines()).thenReturn(List.of());
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of());
+    when(projectService.getProjectsWithAssociations(any())).thenReturn(List.of());
+
+    FetcherResponse response = projectFetcher.fetch(pagedRequest(10, ""));
+
+    assertFalse(response.hasFacetCounts());
+    verifyNoInteractions(facetIndex);
+  }
+
+  @Test
+  public void testFetch_projectionEnabled_buildsHierarchyFromRows() {
+    Discipline engineering = new Discipline("Engineering");
+    engineering.setId(1);
+    Major computerScience = pagedMajor(1, "Computer Science", engineering);
+    Major mathematics = pagedMajor(2, "Mathematics", engineering);
+    when(disciplineService.getAllDisciplines()).thenReturn(List.of(engineering));
+    when(majorService.getAllMajorsWithDisciplines())
+        .thenReturn(List.of(computerScience, mathematics));
+
+    ProjectSearchRow row = new ProjectSearchRow();
+    row.setMajorId(2);
+    row.setProjectId(7);
+    row.setProjectName("Graph Theory");
+    row.setDescription("Description");
+    row.setDesiredQualifications("Qualifications");
+    row.setIsActive(true);
+    row.setMajorNames(ProjectSearchRow.encodeNames(List.of("Computer Science", "Mathematics")));
+    row.setResearchPeriodNames(ProjectSearchRow.encodeNames(List.of("Fall 2025")));
+    row.setUmbrellaTopicNames("");
+    row.setFacultyId(3);
+    row.setFacultyFirstName("First");
+    row.setFacultyLastName("Last");
+    row.setFacultyEmail("faculty3@test.com");
+    row.setFacultyDepartmentNames(ProjectSearchRow.encodeNames(List.of("Mathematics")));
+    when(projectSearchProjectionService.isEnabled()).thenReturn(true);
+    when(projectSearchProjectionService.getRows(any())).thenReturn(List.of(row));
+
+    FetcherResponse response =
+        projectFetcher.fetch(
+            FetcherRequest.newBuilder()
+                .setFilteredFetcher(
+                    FilteredFetcher.newBuilder()
+                        .setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS))
+                .build());
+
+    DisciplineWithMajors discipline = response.getProjectHierarchy().getDisciplines(0);
+    assertEquals(0, discipline.getMajors(0).getProjectCollection().getProjectsCount());
+    ProjectProto project = discipline.getMajors(1).getProjectCollection().getProjects(0);
+    assertEquals(7, project.getProjectId());
+    assertEquals("Graph Theory", project.getProjectName());
+    assertEquals(List.of("Computer Science", "Mathematics"), project.getMajorsList());
+    assertEquals(List.of("Fall 2025"), project.getResearchPeriodsList());
+    assertEquals(List.of(), project.getUmbrellaTopicsList());
+    assertEquals("faculty3@test.com", project.getFaculty().getEmail());
+    assertEquals(List.of("Mathematics"), project.getFaculty().getDepartmentsList());
+    verify(projectService, never()).getProjectsWithAssociations(any());
+  }
+
+  private FetcherRequest pagedRequest(int pageSize, String cursor) {
+    return FetcherRequest.newBuilder()
+        .setFilteredFetcher(
+            FilteredFetcher.newBuilder()
+                .setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS)
+                .setPageSize(pageSize)
+                .setPageCursor(cursor))
+        .build();
+  }
+
+  private Major pagedMajor(int id, String name, Discipline discipline) {
+    Major major = new Major();
+    major.setId(id);
+    major.setName(name);
+    major.setDisciplines(Set.of(discipline));
+    return major;
+  }
+
+  private Project pagedProject(int id, Major major) {
+    Faculty faculty = new Faculty();
+    faculty.setId(id);
+    faculty.setFirstName("First");
+    faculty.setLastName("Last");
+    faculty.setEmail("faculty" + id + "@test.com");
+
+    Project project = new Project();
+    project.setId(id);
+    project.setName("Project " + id);
+    project.setDescription("Description");
+    project.setDesiredQualifications("Qualifications");
+    project.setIsActive(true);
+    project.setMajors(Set.of(major));
+    project.setFaculty(faculty);
+    return project;
+  }
 }
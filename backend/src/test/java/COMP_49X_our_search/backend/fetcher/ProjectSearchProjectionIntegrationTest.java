@@ -0,0 +1,234 @@
+/**
+ * Integration test for ProjectFetcher reading from the project search
+ * projection, using a real H2 database.
+ *
+ * Checks that the projects built from the projection rows are the same as the
+ * ones built from the entities, that the filters apply to the rows, that the
+ * rows follow renames made through the services, and that the hierarchy is
+ * read with a fixed number of statements.
+ */
+package COMP_49X_our_search.backend.fetcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import COMP_49X_our_search.backend.database.entities.Department;
+import COMP_49X_our_search.backend.database.entities.Discipline;
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.repositories.DepartmentRepository;
+import COMP_49X_our_search.backend.database.repositories.DisciplineRepository;
+import COMP_49X_our_search.backend.database.repositories.FacultyRepository;
+import COMP_49X_our_search.backend.database.repositories.MajorRepository;
+import COMP_49X_our_search.backend.database.repositories.ProjectRepository;
+import COMP_49X_our_search.backend.database.repositories.ResearchPeriodRepository;
+import COMP_49X_our_search.backend.database.repositories.UmbrellaTopicRepository;
+import COMP_49X_our_search.backend.database.services.ProjectSearchProjectionService;
+import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
+import COMP_49X_our_search.backend.util.ProtoConverter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import proto.data.Entities.ProjectProto;
+import proto.fetcher.FetcherModule.FetcherRequest;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+import proto.fetcher.FetcherModule.FilteredType;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = {
+    "DOMAIN=http://localhost",
+    "fetcher.project-projection.enabled=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class ProjectSearchProjectionIntegrationTest {
+
+  // 1 query for disciplines, 1 for majors and 1 for the projection rows.
+  private static final long EXPECTED_STATEMENTS = 3;
+
+  @Autowired private ProjectFetcher projectFetcher;
+  @Autowired private ProjectSearchProjectionService projectSearchProjectionService;
+  @Autowired private ResearchPeriodService researchPeriodService;
+  @Autowired private DisciplineRepository disciplineRepository;
+  @Autowired private MajorRepository majorRepository;
+  @Autowired private ProjectRepository projectRepository;
+  @Autowired private FacultyRepository facultyRepository;
+  @Autowired private DepartmentRepository departmentRepository;
+  @Autowired private ResearchPeriodRepository researchPeriodRepository;
+  @Autowired private UmbrellaTopicRepository umbrellaTopicRepository;
+  @Autowired private EntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private ResearchPeriod fall;
+  private ResearchPeriod spring;
+  private UmbrellaTopic topic;
+  private Major engineering;
+  private Project robots;
+  private Project proofs;
+
+  @BeforeEach
+  void setUp() {
+    Department department = departmentRepository.save(new Department("Test Department"));
+    fall = researchPeriodRepository.save(researchPeriod("Test Fall"));
+    spring = researchPeriodRepository.save(researchPeriod("Test Spring"));
+    topic = new UmbrellaTopic();
+    topic.setName("Test Topic");
+    topic = umbrellaTopicRepository.save(topic);
+
+    Discipline discipline = disciplineRepository.save(new Discipline("Test Discipline"));
+    engineering = major("Test Engineering", discipline);
+    Major mathematics = major("Test Mathematics", discipline);
+    Faculty faculty =
+        facultyRepository.save(
+            new Faculty("Ada", "Lovelace", "ada@test.com", Set.of(department)));
+
+    robots =
+        projectRepository.save(
+            new Project(
+                "Test Robots",
+                faculty,
+                "Description",
+                "Qualifications",
+                true,
+                Set.of(discipline),
+                Set.of(engineering, mathematics),
+                Set.of(fall),
+                Set.of(topic),
+                LocalDateTime.now()));
+    proofs =
+        projectRepository.save(
+            new Project(
+                "Test Proofs",
+                faculty,
+                "Description",
+                "Qualifications",
+                false,
+                Set.of(discipline),
+                Set.of(mathematics),
+                Set.of(spring),
+                Set.of(),
+                LocalDateTime.now()));
+
+    // The projects were saved with the repository, which the projection
+    // doesn't follow.
+    projectSearchProjectionService.rebuild();
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  public void testFetch_rowsMatchEntities() {
+    Map<Integer, ProjectProto> fromRows = fetchProjects(FilteredFetcher.newBuilder());
+
+    for (Project project : projectRepository.findAllById(List.of(robots.getId(), proofs.getId()))) {
+      assertEquals(
+          normalize(ProtoConverter.toProjectProto(project)),
+          normalize(fromRows.get(project.getId())));
+    }
+  }
+
+  @Test
+  public void testFetch_filtersRows() {
+    Map<Integer, ProjectProto> projects =
+        fetchProjects(FilteredFetcher.newBuilder().addResearchPeriodIds(spring.getId()));
+
+    assertEquals(Set.of(proofs.getId()), projects.keySet());
+  }
+
+  @Test
+  public void testFetch_filtersRowsOnEachDimension() {
+    assertEquals(
+        Set.of(robots.getId()),
+        fetchProjects(FilteredFetcher.newBuilder().addMajorIds(engineering.getId())).keySet());
+    assertEquals(
+        Set.of(robots.getId()),
+        fetchProjects(FilteredFetcher.newBuilder().addUmbrellaTopicIds(topic.getId())).keySet());
+    assertEquals(
+        Set.of(robots.getId(), proofs.getId()),
+        fetchProjects(
+                FilteredFetcher.newBuilder()
+                    .addResearchPeriodIds(fall.getId())
+                    .addResearchPeriodIds(spring.getId()))
+            .keySet());
+  }
+
+  @Test
+  public void testFetch_followsRenamesMadeThroughServices() {
+    ResearchPeriod renamed = researchPeriodRepository.findById(fall.getId()).orElseThrow();
+    renamed.setName("Test Fall Renamed");
+    researchPeriodService.saveResearchPeriod(renamed);
+    entityManager.flush();
+    entityManager.clear();
+
+    ProjectProto project = fetchProjects(FilteredFetcher.newBuilder()).get(robots.getId());
+
+    assertEquals(List.of("Test Fall Renamed"), project.getResearchPeriodsList());
+  }
+
+  @Test
+  public void testFetch_usesFixedNumberOfStatements() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    fetchProjects(FilteredFetcher.newBuilder());
+
+    assertEquals(EXPECTED_STATEMENTS, statistics.getPrepareStatementCount());
+  }
+
+  // The test projects found in the hierarchy, by id. A project listed under
+  // several majors is the same under each of them.
+  private Map<Integer, ProjectProto> fetchProjects(FilteredFetcher.Builder filters) {
+    FetcherRequest request =
+        FetcherRequest.newBuilder()
+            .setFilteredFetcher(filters.setFilteredType(FilteredType.FILTERED_TYPE_PROJECTS))
+            .build();
+    return projectFetcher.fetch(request).getProjectHierarchy().getDisciplinesList().stream()
+        .flatMap(discipline -> discipline.getMajorsList().stream())
+        .flatMap(major -> major.getProjectCollection().getProjectsList().stream())
+        .filter(project -> project.getProjectName().startsWith("Test "))
+        .collect(
+            Collectors.toMap(ProjectProto::getProjectId, project -> project, (a, b) -> a));
+  }
+
+  // Entities keep their associations in sets, so only compare the lists
+  // after sorting them.
+  private static ProjectProto normalize(ProjectProto project) {
+    ProjectProto.Builder builder = project.toBuilder();
+    builder.clearMajors().addAllMajors(project.getMajorsList().stream().sorted().toList());
+    builder
+        .clearResearchPeriods()
+        .addAllResearchPeriods(project.getResearchPeriodsList().stream().sorted().toList());
+    builder
+        .clearUmbrellaTopics()
+        .addAllUmbrellaTopics(project.getUmbrellaTopicsList().stream().sorted().toList());
+    return builder.build();
+  }
+
+  private Major major(String name, Discipline discipline) {
+    Major major = new Major(name);
+    major.setDisciplines(Set.of(discipline));
+    return majorRepository.save(major);
+  }
+
+  private static ResearchPeriod researchPeriod(String name) {
+    ResearchPeriod period = new ResearchPeriod();
+    period.setName(name);
+    return period;
+  }
+}
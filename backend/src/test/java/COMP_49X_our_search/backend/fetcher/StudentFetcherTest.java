@@ -2,20 +2,31 @@ package COMP_49X_our_search.backend.fetcher;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import COMP_49X_our_search.backend.database.entities.Discipline;
 import COMP_49X_our_search.backend.database.entities.Major;
 import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
 import COMP_49X_our_search.backend.database.entities.Student;
+import COMP_49X_our_search.backend.database.repositories.MajorAndId;
 import COMP_49X_our_search.backend.database.services.DisciplineService;
 import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.StudentService;
+import COMP_49X_our_search.backend.search.FullTextSearch;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +38,7 @@ import proto.fetcher.DataTypes.MajorWithEntityCollection;
 import proto.fetcher.DataTypes.ProjectHierarchy;
 import proto.fetcher.DataTypes.StudentCollection;
 import proto.fetcher.FetcherModule.DirectFetcher;
+import proto.fetcher.FetcherModule.FacetCounts;
 import proto.fetcher.FetcherModule.FetcherRequest;
 import proto.fetcher.FetcherModule.FetcherResponse;
 import proto.fetcher.FetcherModule.FilteredFetcher;
@@ -37,13 +49,23 @@ public class StudentFetcherTest {
   private DisciplineService disciplineService;
   private MajorService majorService;
   private StudentService studentService;
+  private FacetIndex facetIndex;
 
   @BeforeEach
   void setUp() {
     disciplineService = mock(DisciplineService.class);
     majorService = mock(MajorService.class);
     studentService = mock(StudentService.class);
-    studentFetcher = new StudentFetcher(disciplineService, majorService, studentService);
+    facetIndex = mock(FacetIndex.class);
+    studentFetcher =
+        new StudentFetcher(
+            disciplineService,
+            majorService,
+            studentService,
+            new HierarchyAssembler(1),
+            mock(FullTextSearch.class),
+            facetIndex,
+            new ConversionStats());
   }
 
   @Test
@@ -56,8 +78,9 @@ public class StudentFetcherTest {
     Major computerScience = new Major();
     computerScience.setName("Computer Science");
     computerScience.setId(0);
+    computerScience.setDisciplines(Set.of(engineering));
     List<Major> majors = List.of(computerScience);
-    when(majorService.getMajorsByDisciplineId(0)).thenReturn(majors);
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(majors);
 
     ResearchPeriod fall25 = new ResearchPeriod();
     fall25.setName("Fall 2025");
@@ -77,8 +100,7 @@ public class StudentFetcherTest {
     student.setMajors(Set.of(computerScience));
     student.setResearchFieldInterests(Set.of(computerScience));
 
-    List<Student> students = List.of(student);
-    when(studentService.getStudentsByMajorId(0)).thenReturn(students);
+    when(studentService.getActiveStudentsByMajorId(any())).thenReturn(Map.of(0, Set.of(student)));
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -106,8 +128,10 @@ public class StudentFetcherTest {
     mathematics.setName("Mathematics");
     mathematics.setId(2);
 
+    computerScience.setDisciplines(Set.of(engineering));
+    mathematics.setDisciplines(Set.of(engineering));
     List<Major> engineeringMajors = List.of(computerScience, mathematics);
-    when(majorService.getMajorsByDisciplineId(1)).thenReturn(engineeringMajors);
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(engineeringMajors);
 
     ResearchPeriod spring25 = new ResearchPeriod();
     spring25.setName("Spring 2025");
@@ -127,8 +151,8 @@ public class StudentFetcherTest {
     student.setMajors(Set.of(computerScience, mathematics));
     student.setResearchFieldInterests(Set.of(computerScience, mathematics));
 
-    when(studentService.getStudentsByMajorId(1)).thenReturn(List.of(student));
-    when(studentService.getStudentsByMajorId(2)).thenReturn(List.of(student));
+    when(studentService.getActiveStudentsByMajorId(any()))
+        .thenReturn(Map.of(1, Set.of(student), 2, Set.of(student)));
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -212,10 +236,9 @@ public class StudentFetcherTest {
     student.setMajors(Set.of(communication));
     student.setResearchFieldInterests(Set.of(communication));
 
-    when(majorService.getMajorsByDisciplineId(1)).thenReturn(List.of(communication));
-    when(majorService.getMajorsByDisciplineId(2)).thenReturn(List.of(communication));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(communication));
 
-    when(studentService.getStudentsByMajorId(1)).thenReturn(List.of(student));
+    when(studentService.getActiveStudentsByMajorId(any())).thenReturn(Map.of(1, Set.of(student)));
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -309,11 +332,11 @@ public class StudentFetcherTest {
     // Interested in physics but not majoring in physics
     student.setResearchFieldInterests(Set.of(physics));
 
-    when(majorService.getMajorsByDisciplineId(1)).thenReturn(List.of(computerScience));
-    when(majorService.getMajorsByDisciplineId(2)).thenReturn(List.of(physics));
+    when(majorService.getAllMajorsWithDisciplines())
+        .thenReturn(List.of(computerScience, physics));
 
-    when(studentService.getStudentsByMajorId(1)).thenReturn(List.of(student));
-    when(studentService.getStudentsByResearchFieldInterestId(2)).thenReturn((List.of(student)));
+    when(studentService.getActiveStudentsByMajorId(any()))
+        .thenReturn(Map.of(1, Set.of(student), 2, Set.of(student)));
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -367,6 +390,7 @@ public class StudentFetcherTest {
             .build();
 
     assertThat(expectedHierarchy).isEqualTo(response.getProjectHierarchy());
+    verify(majorService, never()).getMajorsByDisciplineId(anyInt());
   }
 
   @Test
@@ -381,8 +405,9 @@ public class StudentFetcherTest {
     computerScience.setName("Computer Science");
     computerScience.setId(1);
 
+    computerScience.setDisciplines(Set.of(engineering));
     List<Major> engineeringMajors = List.of(computerScience);
-    when(majorService.getMajorsByDisciplineId(1)).thenReturn(engineeringMajors);
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(engineeringMajors);
 
     ResearchPeriod spring25 = new ResearchPeriod();
     spring25.setName("Spring 2025");
@@ -402,8 +427,8 @@ public class StudentFetcherTest {
     student.setMajors(Set.of(computerScience));
     student.setResearchFieldInterests(Set.of(computerScience));
 
-    when(studentService.getStudentsByMajorId(1)).thenReturn(List.of(student));
-    when(studentService.getStudentsByMajorId(2)).thenReturn(List.of(student));
+    // Inactive students are left out by the query itself.
+    when(studentService.getActiveStudentsByMajorId(any())).thenReturn(Map.of());
 
     FetcherRequest request =
         FetcherRequest.newBuilder()
@@ -510,7 +535,8 @@ public class StudentFetcherTest {
     Major csMajor = new Major();
     csMajor.setId(101);
     csMajor.setName("Computer Science");
-    when(majorService.getMajorsByDisciplineId(1)).thenReturn(List.of(csMajor));
+    csMajor.setDisciplines(Set.of(engineering));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(csMajor));
 
     Student student = new Student();
     student.setId(1);
@@ -525,7 +551,7 @@ public class StudentFetcherTest {
     student.setInterestReason("Test reason");
     student.setResearchFieldInterests(Set.of(csMajor));
 
-    when(studentService.getStudentsByMajorId(101)).thenReturn(List.of(student));
+    when(studentService.getActiveStudentsByMajorId(any())).thenReturn(Map.of(101, Set.of(student)));
 
     FetcherRequest request = FetcherRequest.newBuilder()
         .setFilteredFetcher(FilteredFetcher.newBuilder()
@@ -549,7 +575,8 @@ public class StudentFetcherTest {
     Major csMajor = new Major();
     csMajor.setId(101);
     csMajor.setName("CS");
-    when(majorService.getMajorsByDisciplineId(1)).thenReturn(List.of(csMajor));
+    csMajor.setDisciplines(Set.of(engineering));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(csMajor));
 
     ResearchPeriod fall = new ResearchPeriod();
     fall.setId(201);
@@ -568,7 +595,7 @@ public class StudentFetcherTest {
     student.setMajors(Set.of(csMajor));
     student.setResearchPeriods(Set.of(fall));
 
-    when(studentService.getStudentsByMajorId(101)).thenReturn(List.of(student));
+    when(studentService.getActiveStudentsByMajorId(any())).thenReturn(Map.of(101, Set.of(student)));
 
     FetcherRequest request = FetcherRequest.newBuilder()
         .setFilteredFetcher(FilteredFetcher.newBuilder()
@@ -592,7 +619,8 @@ public class StudentFetcherTest {
     Major communication = new Major();
     communication.setId(201);
     communication.setName("Communication");
-    when(majorService.getMajorsByDisciplineId(1)).thenReturn(List.of(communication));
+    communication.setDisciplines(Set.of(humanities));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(communication));
 
     Student student = new Student();
     student.setId(3);
@@ -606,7 +634,7 @@ public class StudentFetcherTest {
     student.setHasPriorExperience(true);
     student.setInterestReason("Interested in social media impact studies.");
 
-    when(studentService.getStudentsByMajorId(201)).thenReturn(List.of(student));
+    when(studentService.getActiveStudentsByMajorId(any())).thenReturn(Map.of(201, Set.of(student)));
 
     FetcherRequest request = FetcherRequest.newBuilder()
         .setFilteredFetcher(FilteredFetcher.newBuilder()
@@ -620,4 +648,80 @@ public class StudentFetcherTest {
     assertEquals(1, students.size());
     assertEquals("Charlie", students.get(0).getFirstName());
   }
+
+  @Test
+  public void testFetch_countsOnly_withoutKeywords_skipsDatabase() {
+    FacetCounts counts = FacetCounts.newBuilder().setTotal(2).build();
+    when(facetIndex.countStudents(any())).thenReturn(counts);
+
+    FetcherResponse response = studentFetcher.fetch(countsOnlyRequest(""));
+
+    assertEquals(counts, response.getFacetCounts());
+    assertFalse(response.hasProjectHierarchy());
+    verifyNoInteractions(disciplineService, majorService, studentService);
+  }
+
+  @Test
+  public void testFetch_countsOnly_withKeywords_matchesThemInTheIndex() {
+    FacetCounts counts = FacetCounts.newBuilder().setTotal(1).build();
+    when(facetIndex.countStudents(any())).thenReturn(counts);
+
+    FetcherResponse response = studentFetcher.fetch(countsOnlyRequest("social"));
+
+    assertEquals(counts, response.getFacetCounts());
+    verifyNoInteractions(studentService);
+  }
+
+  @Test
+  public void testFetch_paginated_loadsOnlyStudentsInPage() {
+    Discipline humanities = new Discipline("Humanities");
+    humanities.setId(1);
+    when(disciplineService.getAllDisciplines()).thenReturn(List.of(humanities));
+    Major communication = new Major();
+    communication.setId(201);
+    communication.setName("Communication");
+    communication.setDisciplines(Set.of(humanities));
+    when(majorService.getAllMajorsWithDisciplines()).thenReturn(List.of(communication));
+    Student student = new Student();
+    student.setId(3);
+    student.setFirstName("Charlie");
+    student.setLastName("Davis");
+    student.setEmail("charlie@uni.com");
+    student.setUndergradYear(4);
+    student.setGraduationYear(2025);
+    student.setIsActive(true);
+    student.setMajors(Set.of(communication));
+    student.setHasPriorExperience(true);
+    student.setInterestReason("Interested in social media impact studies.");
+    // One more id than fits in the page, so there is a next page.
+    when(studentService.getActiveStudentIdsByMajor(any(), eq(List.of(201)), isNull(), eq(2)))
+        .thenReturn(List.of(new MajorAndId(201, 3), new MajorAndId(201, 4)));
+    when(studentService.getActiveStudentsWithAssociations(any())).thenReturn(List.of(student));
+
+    FetcherResponse response =
+        studentFetcher.fetch(
+            FetcherRequest.newBuilder()
+                .setFilteredFetcher(
+                    FilteredFetcher.newBuilder()
+                        .setFilteredType(FilteredType.FILTERED_TYPE_STUDENTS)
+                        .setPageSize(1))
+                .build());
+
+    assertEquals(
+        "Charlie",
+        response.getProjectHierarchy().getDisciplines(0).getMajors(0).getStudentCollection()
+            .getStudents(0).getFirstName());
+    assertFalse(response.getNextPageCursor().isEmpty());
+    verify(studentService, never()).getActiveStudentsByMajorId(any());
+  }
+
+  private FetcherRequest countsOnlyRequest(String keywords) {
+    return FetcherRequest.newBuilder()
+        .setFilteredFetcher(
+            FilteredFetcher.newBuilder()
+                .setFilteredType(FilteredType.FILTERED_TYPE_STUDENTS)
+                .setKeywords(keywords)
+                .setCountsOnly(true))
+        .build();
+  }
 }
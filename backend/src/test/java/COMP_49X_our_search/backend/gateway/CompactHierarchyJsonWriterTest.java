@@ -0,0 +1,271 @@
+package COMP_49X_our_search.backend.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import COMP_49X_our_search.backend.gateway.util.CompactHierarchyJsonWriter;
+import COMP_49X_our_search.backend.gateway.util.HierarchyJsonWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import proto.data.Entities.DisciplineProto;
+import proto.data.Entities.FacultyProto;
+import proto.data.Entities.MajorProto;
+import proto.data.Entities.ProjectProto;
+import proto.data.Entities.StudentProto;
+import proto.fetcher.DataTypes.DisciplineWithMajors;
+import proto.fetcher.DataTypes.MajorWithEntityCollection;
+import proto.fetcher.DataTypes.ProjectCollection;
+import proto.fetcher.DataTypes.StudentCollection;
+
+public class CompactHierarchyJsonWriterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  public void testWriteProjects_decodesToRegularFormat() throws IOException {
+    List<DisciplineWithMajors> disciplines = projectHierarchy(3, 4, 30);
+
+    JsonNode compact = objectMapper.readTree(write(disciplines, true));
+
+    assertEquals(objectMapper.readTree(writeRegular(disciplines)), decodeProjects(compact));
+  }
+
+  @Test
+  public void testWriteProjects_writesEachProjectAndFacultyMemberOnce() throws IOException {
+    List<DisciplineWithMajors> disciplines = projectHierarchy(3, 4, 30);
+
+    JsonNode compact = objectMapper.readTree(write(disciplines, true));
+
+    assertEquals(30, compact.get("projects").size());
+    assertEquals(6, compact.get("faculty").size());
+    // Each project is listed under one to three majors.
+    assertEquals(60, sum(compact.get("disciplines"), major -> major.get("posts").size()));
+  }
+
+  @Test
+  public void testWriteStudents_decodesToRegularFormat() throws IOException {
+    StudentProto student =
+        StudentProto.newBuilder()
+            .setStudentId(1)
+            .setFirstName("First")
+            .setLastName("Last")
+            .setEmail("flast@test.com")
+            .setClassStatus("Senior")
+            .setGraduationYear(2025)
+            .addMajors("Computer Science")
+            .addResearchFieldInterests("Mathematics")
+            .addResearchPeriodsInterests("Fall 2025")
+            .setInterestReason("Test reason")
+            .setHasPriorExperience(true)
+            .setIsActive(true)
+            .build();
+    List<DisciplineWithMajors> disciplines =
+        List.of(
+            DisciplineWithMajors.newBuilder()
+                .setDiscipline(
+                    DisciplineProto.newBuilder().setDisciplineId(1).setDisciplineName("Engineering"))
+                .addMajors(studentMajor(1, "Computer Science", student))
+                .addMajors(studentMajor(2, "Mathematics", student))
+                .build());
+
+    JsonNode compact = objectMapper.readTree(write(disciplines, false));
+
+    assertEquals(1, compact.get("students").size());
+    assertEquals(objectMapper.readTree(writeRegular(disciplines)), decodeStudents(compact));
+  }
+
+  /**
+   * Payload size of the regular and compact formats, over a hierarchy the size
+   * of a busy semester: 8 disciplines with 6 majors each and 400 projects by 80
+   * faculty members, each project listed under 1 to 3 majors.
+   */
+  @Test
+  @Tag("benchmark")
+  public void benchmarkPayload_compactIsLessThanHalfTheSize() throws IOException {
+    List<DisciplineWithMajors> disciplines = projectHierarchy(8, 6, 400);
+
+    int regularBytes = writeRegular(disciplines).length();
+    int compactBytes = write(disciplines, true).length();
+
+    assertTrue(compactBytes * 2 < regularBytes);
+  }
+
+  // Expands the compact format back into the regular one.
+  private JsonNode decodeProjects(JsonNode compact) {
+    Map<Integer, JsonNode> projects = byId(compact.get("projects"));
+    Map<Integer, JsonNode> faculty = byId(compact.get("faculty"));
+    return decodeHierarchy(
+        compact,
+        id -> {
+          ObjectNode project = projects.get(id).deepCopy();
+          decodeNames(project, "umbrellaTopics", compact.get("umbrellaTopics"));
+          decodeNames(project, "researchPeriods", compact.get("researchPeriods"));
+          decodeNames(project, "majors", compact.get("majors"));
+          ObjectNode member = faculty.get(project.get("faculty").asInt()).deepCopy();
+          decodeNames(member, "department", compact.get("departments"));
+          member.putNull("projects");
+          project.set("faculty", member);
+          return project;
+        });
+  }
+
+  private JsonNode decodeStudents(JsonNode compact) {
+    Map<Integer, JsonNode> students = byId(compact.get("students"));
+    return decodeHierarchy(
+        compact,
+        id -> {
+          ObjectNode student = students.get(id).deepCopy();
+          decodeNames(student, "majors", compact.get("majors"));
+          decodeNames(student, "researchFieldInterests", compact.get("majors"));
+          decodeNames(student, "researchPeriodsInterest", compact.get("researchPeriods"));
+          return student;
+        });
+  }
+
+  private JsonNode decodeHierarchy(JsonNode compact, IntFunction<JsonNode> post) {
+    ArrayNode disciplines = compact.get("disciplines").deepCopy();
+    for (JsonNode discipline : disciplines) {
+      for (JsonNode major : discipline.get("majors")) {
+        ArrayNode posts = objectMapper.createArrayNode();
+        major.get("posts").forEach(id -> posts.add(post.apply(id.asInt())));
+        ((ObjectNode) major).set("posts", posts);
+      }
+    }
+    return disciplines;
+  }
+
+  private void decodeNames(ObjectNode entity, String field, JsonNode table) {
+    ArrayNode names = objectMapper.createArrayNode();
+    entity.get(field).forEach(index -> names.add(table.get(index.asInt())));
+    entity.set(field, names);
+  }
+
+  private static Map<Integer, JsonNode> byId(JsonNode entities) {
+    Map<Integer, JsonNode> byId = new HashMap<>();
+    entities.forEach(entity -> byId.put(entity.get("id").asInt(), entity));
+    return byId;
+  }
+
+  private static int sum(JsonNode disciplines, ToIntFunction<JsonNode> ofMajor) {
+    int sum = 0;
+    for (JsonNode discipline : disciplines) {
+      for (JsonNode major : discipline.get("majors")) {
+        sum += ofMajor.applyAsInt(major);
+      }
+    }
+    return sum;
+  }
+
+  private static String write(List<DisciplineWithMajors> disciplines, boolean projects)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    if (projects) {
+      CompactHierarchyJsonWriter.writeProjects(disciplines, out);
+    } else {
+      CompactHierarchyJsonWriter.writeStudents(disciplines, out);
+    }
+    return out.toString();
+  }
+
+  private static String writeRegular(List<DisciplineWithMajors> disciplines) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    HierarchyJsonWriter.writeDisciplines(disciplines, out);
+    return out.toString();
+  }
+
+  private static MajorWithEntityCollection studentMajor(
+      int id, String name, StudentProto student) {
+    return MajorWithEntityCollection.newBuilder()
+        .setMajor(MajorProto.newBuilder().setMajorId(id).setMajorName(name))
+        .setStudentCollection(StudentCollection.newBuilder().addStudents(student))
+        .build();
+  }
+
+  // Project p is listed under p % 3 + 1 consecutive majors, and every faculty
+  // member leads 5 projects.
+  private static List<DisciplineWithMajors> projectHierarchy(
+      int disciplineCount, int majorsPerDiscipline, int projectCount) {
+    int majorCount = disciplineCount * majorsPerDiscipline;
+    List<List<ProjectProto>> projectsByMajor = new ArrayList<>();
+    for (int m = 0; m < majorCount; m++) {
+      projectsByMajor.add(new ArrayList<>());
+    }
+    int facultyCount = Math.max(1, projectCount / 5);
+    for (int p = 0; p < projectCount; p++) {
+      List<Integer> majors = new ArrayList<>();
+      for (int i = 0; i <= p % 3; i++) {
+        majors.add((p + i) % majorCount);
+      }
+      ProjectProto project = project(p, majors, faculty(p % facultyCount));
+      majors.forEach(m -> projectsByMajor.get(m).add(project));
+    }
+
+    List<DisciplineWithMajors> disciplines = new ArrayList<>();
+    for (int d = 0; d < disciplineCount; d++) {
+      DisciplineWithMajors.Builder discipline =
+          DisciplineWithMajors.newBuilder()
+              .setDiscipline(
+                  DisciplineProto.newBuilder()
+                      .setDisciplineId(d)
+                      .setDisciplineName("Discipline " + d));
+      for (int m = d * majorsPerDiscipline; m < (d + 1) * majorsPerDiscipline; m++) {
+        discipline.addMajors(
+            MajorWithEntityCollection.newBuilder()
+                .setMajor(MajorProto.newBuilder().setMajorId(m).setMajorName(majorName(m)))
+                .setProjectCollection(
+                    ProjectCollection.newBuilder().addAllProjects(projectsByMajor.get(m))));
+      }
+      disciplines.add(discipline.build());
+    }
+    return disciplines;
+  }
+
+  private static ProjectProto project(int id, List<Integer> majors, FacultyProto faculty) {
+    ProjectProto.Builder project =
+        ProjectProto.newBuilder()
+            .setProjectId(id)
+            .setProjectName("Project " + id)
+            .setDescription(
+                "Students will help design, run and analyze experiments for research project "
+                    + id
+                    + ", meeting weekly with the lab to discuss results and next steps.")
+            .setDesiredQualifications("Python, statistics, curiosity")
+            .addUmbrellaTopics("Topic " + id % 12)
+            .addResearchPeriods("Fall 2025")
+            .addResearchPeriods("Spring 2026")
+            .setIsActive(id % 4 != 0)
+            .setFaculty(faculty);
+    majors.forEach(m -> project.addMajors(majorName(m)));
+    return project.build();
+  }
+
+  private static FacultyProto faculty(int id) {
+    FacultyProto.Builder faculty =
+        FacultyProto.newBuilder()
+            .setFacultyId(id)
+            .setFirstName("First " + id)
+            .setLastName("Last " + id)
+            .setEmail("faculty" + id + "@test.com")
+            .addDepartments("Department " + id % 10);
+    if (id % 3 == 0) {
+      faculty.addDepartments("Department " + (id + 1) % 10);
+    }
+    return faculty.build();
+  }
+
+  private static String majorName(int id) {
+    return "Major " + id;
+  }
+}
@@ -0,0 +1,103 @@
+package COMP_49X_our_search.backend.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public class CompressedResponseCacheTest {
+
+  @Test
+  public void testGzip_compressesWrittenBody() throws IOException {
+    CompressedResponseCache cache = new CompressedResponseCache();
+
+    byte[] gzip = cache.gzip("key", "v1", out -> out.write("[1,2,3]".getBytes()));
+
+    assertEquals("[1,2,3]", gunzip(gzip));
+  }
+
+  @Test
+  public void testGzip_writesOncePerVersion() throws IOException {
+    CompressedResponseCache cache = new CompressedResponseCache();
+    AtomicInteger writes = new AtomicInteger();
+    StreamingResponseBody writer =
+        out -> out.write(("write " + writes.incrementAndGet()).getBytes());
+
+    byte[] first = cache.gzip("key", "v1", writer);
+    assertSame(first, cache.gzip("key", "v1", writer));
+    assertEquals(1, writes.get());
+
+    assertEquals("write 2", gunzip(cache.gzip("key", "v2", writer)));
+    assertEquals("write 3", gunzip(cache.gzip("other", "v2", writer)));
+  }
+
+  @Test
+  public void testGzip_otherKeyNotBlockedByCompression() throws Exception {
+    CompressedResponseCache cache = new CompressedResponseCache();
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Thread slow =
+        new Thread(
+            () ->
+                cache.gzip(
+                    "slow",
+                    "v1",
+                    out -> {
+                      writing.countDown();
+                      try {
+                        release.await();
+                      } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                      }
+                      out.write("slow".getBytes());
+                    }));
+    slow.start();
+    try {
+      assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+      // Would wait for the slow key with a single lock for every key.
+      byte[] fast =
+          assertTimeoutPreemptively(
+              Duration.ofSeconds(5),
+              () -> cache.gzip("fast", "v1", out -> out.write("fast".getBytes())));
+      assertEquals("fast", gunzip(fast));
+    } finally {
+      release.countDown();
+      slow.join();
+    }
+  }
+
+  @Test
+  public void testAcceptsGzip_listedCodings() {
+    assertTrue(CompressedResponseCache.acceptsGzip("gzip"));
+    assertTrue(CompressedResponseCache.acceptsGzip("br, GZIP;q=0.8, deflate"));
+    assertTrue(CompressedResponseCache.acceptsGzip("*"));
+    assertFalse(CompressedResponseCache.acceptsGzip("br, deflate"));
+  }
+
+  @Test
+  public void testAcceptsGzip_zeroQualityOrMissingHeader() {
+    assertFalse(CompressedResponseCache.acceptsGzip("gzip;q=0"));
+    assertFalse(CompressedResponseCache.acceptsGzip("identity, *;q=0"));
+    assertFalse(CompressedResponseCache.acceptsGzip(null));
+    assertFalse(CompressedResponseCache.acceptsGzip(""));
+  }
+
+  private static String gunzip(byte[] gzip) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
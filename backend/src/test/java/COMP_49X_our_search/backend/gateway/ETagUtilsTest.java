@@ -0,0 +1,39 @@
+package COMP_49X_our_search.backend.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import COMP_49X_our_search.backend.gateway.util.ETagUtils;
+import org.junit.jupiter.api.Test;
+
+public class ETagUtilsTest {
+
+  @Test
+  public void testToETag_quotesFingerprint() {
+    assertEquals("\"abc-1\"", ETagUtils.toETag("abc-1"));
+  }
+
+  @Test
+  public void testMatches_exactTag() {
+    assertTrue(ETagUtils.matches("\"abc-1\"", "\"abc-1\""));
+    assertFalse(ETagUtils.matches("\"abc-2\"", "\"abc-1\""));
+  }
+
+  @Test
+  public void testMatches_listOfTags() {
+    assertTrue(ETagUtils.matches("\"abc-0\", \"abc-1\"", "\"abc-1\""));
+  }
+
+  @Test
+  public void testMatches_weakTagAndWildcard() {
+    assertTrue(ETagUtils.matches("W/\"abc-1\"", "\"abc-1\""));
+    assertTrue(ETagUtils.matches("*", "\"abc-1\""));
+  }
+
+  @Test
+  public void testMatches_missingHeader() {
+    assertFalse(ETagUtils.matches(null, "\"abc-1\""));
+    assertFalse(ETagUtils.matches("", "\"abc-1\""));
+  }
+}
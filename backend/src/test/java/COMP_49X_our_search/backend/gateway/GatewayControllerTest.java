@@ -3,13 +3,22 @@ package COMP_49X_our_search.backend.gateway;
 import COMP_49X_our_search.backend.authentication.OAuthChecker;
 import COMP_49X_our_search.backend.database.enums.FaqType;
 import COMP_49X_our_search.backend.database.enums.UserRole;
+import COMP_49X_our_search.backend.fetcher.FetcherResponseCache;
+import COMP_49X_our_search.backend.search.RankedProjectSearch;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex.Suggestion;
+import COMP_49X_our_search.backend.search.SuggestionIndex.SuggestionType;
 import COMP_49X_our_search.backend.security.RoleAuthorizationService;
+import java.io.ByteArrayInputStream;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.hamcrest.Matchers.hasItems;
 
 import COMP_49X_our_search.backend.database.entities.*;
@@ -41,12 +50,17 @@ import org.springframework.security.web.servletapi.SecurityContextHolderAwareReq
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.http.HttpHeaders;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -81,6 +95,7 @@ import COMP_49X_our_search.backend.gateway.dto.MajorDTO;
 import COMP_49X_our_search.backend.gateway.dto.ResearchPeriodDTO;
 import COMP_49X_our_search.backend.gateway.dto.UmbrellaTopicDTO;
 import COMP_49X_our_search.backend.security.LogoutService;
+import COMP_49X_our_search.backend.util.exceptions.InvalidPageCursorException;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import proto.core.Core.ModuleConfig;
@@ -99,6 +114,8 @@ import proto.fetcher.DataTypes.MajorWithEntityCollection;
 import proto.fetcher.DataTypes.ProjectCollection;
 import proto.fetcher.DataTypes.ProjectHierarchy;
 import proto.fetcher.DataTypes.StudentCollection;
+import proto.fetcher.FetcherModule.FacetCount;
+import proto.fetcher.FetcherModule.FacetCounts;
 import proto.fetcher.FetcherModule.FetcherResponse;
 import proto.fetcher.FetcherModule.FilteredFetcher;
 import proto.fetcher.FetcherModule.FilteredType;
@@ -124,6 +141,7 @@ public class GatewayControllerTest {
 
   private final ObjectMapper objectMapper = new ObjectMapper();
   @Autowired private MockMvc mockMvc;
+  @Autowired private CatalogVersionService catalogVersionService;
   @MockBean private ModuleInvoker moduleInvoker;
   private ModuleResponse mockModuleResponseWithProjects;
   private ModuleResponse mockModuleResponseWithStudents;
@@ -141,9 +159,13 @@ public class GatewayControllerTest {
   @MockBean private FacultyService facultyService;
   @MockBean private ProjectService projectService;
   @MockBean private EmailNotificationService emailNotificationService;
+  @MockBean private EmailOutboxService emailOutboxService;
   @MockBean private FaqService faqService;
   @MockBean private RoleAuthorizationService roleAuthorizationService;
   @MockBean private UserService userService;
+  @MockBean private RankedProjectSearch rankedProjectSearch;
+  @MockBean private SuggestionIndex suggestionIndex;
+  @MockBean private FetcherResponseCache fetcherResponseCache;
 
   @BeforeEach
   void setUp() {
@@ -264,6 +286,27 @@ public class GatewayControllerTest {
         .andExpect(jsonPath("$[0].majors[0].posts[0].faculty.email").value("faculty@test.com"));
   }
 
+  @Test
+  @WithMockUser
+  void getProjects_matchingIfNoneMatch_returnsNotModified() throws Exception {
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenReturn(mockModuleResponseWithProjects);
+
+    String eTag =
+        mockMvc
+            .perform(get("/all-projects"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/all-projects").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+
+    verify(moduleInvoker, times(1)).processConfig(any(ModuleConfig.class));
+  }
+
   @Test
   @WithMockUser
   void getStudents_returnsExpectedResult() throws Exception {
@@ -292,6 +335,353 @@ public class GatewayControllerTest {
         .andExpect(jsonPath("$[0].majors[0].posts[0].isActive").value(true));
   }
 
+  @Test
+  @WithMockUser
+  void getProjects_paginated_returnsNextCursorHeader() throws Exception {
+    ModuleResponse pagedResponse =
+        ModuleResponse.newBuilder()
+            .setFetcherResponse(
+                FetcherResponse.newBuilder()
+                    .setProjectHierarchy(projectHierarchyWithProjects)
+                    .setNextPageCursor("next"))
+            .build();
+    when(moduleInvoker.processConfig(
+            argThat(
+                config -> {
+                  FilteredFetcher filteredFetcher = config.getFetcherRequest().getFilteredFetcher();
+                  return filteredFetcher.getPageSize() == 25
+                      && filteredFetcher.getPageCursor().equals("current");
+                })))
+        .thenReturn(pagedResponse);
+
+    mockMvc
+        .perform(get("/all-projects").param("pageSize", "25").param("cursor", "current"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(GatewayController.NEXT_CURSOR_HEADER, "next"))
+        .andExpect(jsonPath("$[0].majors[0].posts[0].name").value("AI Project"));
+  }
+
+  @Test
+  @WithMockUser
+  void getProjects_streamed_returnsSameJsonAsDtoResponse() throws Exception {
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenReturn(mockModuleResponseWithProjects);
+
+    String expected =
+        mockMvc
+            .perform(get("/all-projects"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    MvcResult asyncResult =
+        mockMvc
+            .perform(get("/all-projects").param("stream", "true"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    String streamed =
+        mockMvc
+            .perform(asyncDispatch(asyncResult))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    assertEquals(objectMapper.readTree(expected), objectMapper.readTree(streamed));
+  }
+
+  @Test
+  @WithMockUser
+  void getProjects_acceptProtobuf_returnsHierarchyProto() throws Exception {
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenReturn(mockModuleResponseWithProjects);
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                get("/all-projects")
+                    .header(HttpHeaders.ACCEPT, GatewayController.PROTOBUF_MEDIA_TYPE))
+            .andExpect(status().isOk())
+            .andExpect(
+                header().string(HttpHeaders.CONTENT_TYPE, GatewayController.PROTOBUF_MEDIA_TYPE))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andReturn();
+    String jsonETag =
+        mockMvc.perform(get("/all-projects")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    assertEquals(
+        mockModuleResponseWithProjects.getFetcherResponse().getProjectHierarchy(),
+        ProjectHierarchy.parseFrom(result.getResponse().getContentAsByteArray()));
+    assertNotEquals(jsonETag, result.getResponse().getHeader(HttpHeaders.ETAG));
+  }
+
+  @Test
+  @WithMockUser
+  void getProjects_acceptsGzip_servesCachedCompressedJson() throws Exception {
+    // Start from a version no other test cached a body for.
+    catalogVersionService.bump();
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenReturn(mockModuleResponseWithProjects);
+
+    byte[] gzip = null;
+    for (int i = 0; i < 2; i++) {
+      gzip =
+          mockMvc
+              .perform(get("/all-projects").header(HttpHeaders.ACCEPT_ENCODING, "gzip, br"))
+              .andExpect(status().isOk())
+              .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+              .andExpect(header().exists(HttpHeaders.ETAG))
+              .andReturn()
+              .getResponse()
+              .getContentAsByteArray();
+    }
+    verify(moduleInvoker, times(1)).processConfig(any(ModuleConfig.class));
+
+    String expected =
+        mockMvc
+            .perform(get("/all-projects"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+      assertEquals(objectMapper.readTree(expected), objectMapper.readTree(in));
+    }
+  }
+
+  @Test
+  @WithMockUser
+  void getProjects_acceptsGzip_usesETagOfItsOwn() throws Exception {
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenReturn(mockModuleResponseWithProjects);
+
+    String gzipETag =
+        mockMvc
+            .perform(get("/all-projects").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    String jsonETag =
+        mockMvc.perform(get("/all-projects")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    assertNotEquals(jsonETag, gzipETag);
+    mockMvc
+        .perform(
+            get("/all-projects")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+        .andExpect(status().isNotModified());
+    // The identity body is a different representation than the cached gzip one.
+    mockMvc
+        .perform(get("/all-projects").header(HttpHeaders.IF_NONE_MATCH, gzipETag))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+  }
+
+  @Test
+  @WithMockUser
+  void getProjects_acceptProtobuf_invalidCursor_returnsBadRequest() throws Exception {
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenThrow(new InvalidPageCursorException("Invalid page cursor: bad", null));
+
+    mockMvc
+        .perform(
+            get("/all-projects")
+                .param("pageSize", "10")
+                .param("cursor", "bad")
+                .header(HttpHeaders.ACCEPT, GatewayController.PROTOBUF_MEDIA_TYPE))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  void getProjects_compactFormat_writesProjectsOnceWithReferences() throws Exception {
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenReturn(mockModuleResponseWithProjects);
+
+    MvcResult asyncResult =
+        mockMvc
+            .perform(get("/all-projects").param("format", "compact"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    mockMvc
+        .perform(asyncDispatch(asyncResult))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.disciplines[0].majors[0].posts[0]").value(1))
+        .andExpect(jsonPath("$.projects[0].id").value(1))
+        .andExpect(jsonPath("$.projects[0].name").value("AI Project"))
+        .andExpect(jsonPath("$.projects[0].majors[0]").value(0))
+        .andExpect(jsonPath("$.faculty.length()").value(1))
+        .andExpect(jsonPath("$.majors[0]").value("Computer Science"));
+  }
+
+  @Test
+  @WithMockUser
+  void getRankedProjects_returnsProjectsInRankOrder() throws Exception {
+    Faculty faculty = new Faculty("Ada", "Lovelace", "ada@test.com", Set.of());
+    Project robots = new Project();
+    robots.setId(7);
+    robots.setName("Robots");
+    robots.setDescription("Robot arms");
+    robots.setDesiredQualifications("C++");
+    robots.setIsActive(true);
+    robots.setFaculty(faculty);
+    Project drones = new Project();
+    drones.setId(3);
+    drones.setName("Drones");
+    drones.setDescription("Flying robots");
+    drones.setDesiredQualifications("Python");
+    drones.setIsActive(true);
+    drones.setFaculty(faculty);
+    when(rankedProjectSearch.search(any(FilteredFetcher.class), eq(5)))
+        .thenReturn(List.of(robots, drones));
+
+    mockMvc
+        .perform(get("/all-projects/ranked").param("search", "robot").param("limit", "5"))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG))
+        .andExpect(jsonPath("$[0].id").value(7))
+        .andExpect(jsonPath("$[0].faculty.lastName").value("Lovelace"))
+        .andExpect(jsonPath("$[1].id").value(3));
+
+    verify(rankedProjectSearch)
+        .search(argThat(filters -> filters.getKeywords().equals("robot")), eq(5));
+  }
+
+  @Test
+  @WithMockUser
+  void getSuggestions_returnsSuggestionsWithTheirType() throws Exception {
+    when(suggestionIndex.suggest("mach", 10))
+        .thenReturn(
+            List.of(
+                new Suggestion("Machine Learning", SuggestionType.PROJECT),
+                new Suggestion("Machine Vision", SuggestionType.UMBRELLA_TOPIC)));
+
+    mockMvc
+        .perform(get("/suggest").param("q", "mach"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].text").value("Machine Learning"))
+        .andExpect(jsonPath("$[0].type").value("project"))
+        .andExpect(jsonPath("$[1].text").value("Machine Vision"))
+        .andExpect(jsonPath("$[1].type").value("umbrella_topic"));
+  }
+
+  @Test
+  @WithMockUser
+  void getSuggestions_limitOutOfRange_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/suggest").param("q", "mach").param("limit", "0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  void getProjectFacets_returnsCountsOnly() throws Exception {
+    FacetCounts counts =
+        FacetCounts.newBuilder()
+            .setTotal(3)
+            .addMajors(FacetCount.newBuilder().setId(1).setCount(2))
+            .addResearchPeriods(FacetCount.newBuilder().setId(10).setCount(3))
+            .build();
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenReturn(
+            ModuleResponse.newBuilder()
+                .setFetcherResponse(FetcherResponse.newBuilder().setFacetCounts(counts))
+                .build());
+
+    mockMvc
+        .perform(get("/all-projects/facets").param("majors", "1").param("search", "robot"))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.ETAG))
+        .andExpect(jsonPath("$.total").value(3))
+        .andExpect(jsonPath("$.majors[0].id").value(1))
+        .andExpect(jsonPath("$.majors[0].count").value(2))
+        .andExpect(jsonPath("$.researchPeriods[0].id").value(10))
+        .andExpect(jsonPath("$.researchPeriods[0].count").value(3))
+        .andExpect(jsonPath("$.umbrellaTopics").isEmpty());
+
+    verify(moduleInvoker)
+        .processConfig(
+            argThat(
+                config -> {
+                  FilteredFetcher filters = config.getFetcherRequest().getFilteredFetcher();
+                  return filters.getCountsOnly()
+                      && filters.getFilteredType() == FilteredType.FILTERED_TYPE_PROJECTS
+                      && filters.getMajorIdsList().equals(List.of(1))
+                      && filters.getKeywords().equals("robot");
+                }));
+  }
+
+  @Test
+  @WithMockUser
+  void getStudentFacets_returnsCountsOnly() throws Exception {
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenReturn(
+            ModuleResponse.newBuilder()
+                .setFetcherResponse(
+                    FetcherResponse.newBuilder()
+                        .setFacetCounts(FacetCounts.newBuilder().setTotal(4)))
+                .build());
+
+    mockMvc
+        .perform(get("/all-students/facets"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(4));
+
+    verify(moduleInvoker)
+        .processConfig(
+            argThat(
+                config ->
+                    config.getFetcherRequest().getFilteredFetcher().getCountsOnly()
+                        && config.getFetcherRequest().getFilteredFetcher().getFilteredType()
+                            == FilteredType.FILTERED_TYPE_STUDENTS));
+  }
+
+  @Test
+  @WithMockUser
+  void getRankedProjects_limitOutOfRange_returnsBadRequest() throws Exception {
+    mockMvc
+        .perform(get("/all-projects/ranked").param("search", "robot").param("limit", "0"))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(
+            get("/all-projects/ranked")
+                .param("search", "robot")
+                .param("limit", String.valueOf(GatewayController.MAX_RANKED_RESULTS + 1)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @WithMockUser
+  void getStudents_lastPage_hasNoNextCursorHeader() throws Exception {
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenReturn(mockModuleResponseWithStudents);
+
+    mockMvc
+        .perform(get("/all-students").param("pageSize", "25"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(GatewayController.NEXT_CURSOR_HEADER));
+  }
+
+  @Test
+  @WithMockUser
+  void getStudents_invalidPagination_returnsBadRequest() throws Exception {
+    when(moduleInvoker.processConfig(any(ModuleConfig.class)))
+        .thenThrow(new InvalidPageCursorException("Invalid page cursor: bad", null));
+
+    mockMvc
+        .perform(get("/all-students").param("pageSize", "25").param("cursor", "bad"))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(get("/all-students").param("pageSize", "0"))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(get("/all-students").param("cursor", "bad"))
+        .andExpect(status().isBadRequest());
+  }
+
   @Test
   @WithMockUser
   void createStudent_returnsExpectedResult() throws Exception {
@@ -493,6 +883,49 @@ public class GatewayControllerTest {
         .andExpect(jsonPath("$[1].name").value(major2.getName()));
   }
 
+  @Test
+  @WithMockUser
+  void getMajors_matchingIfNoneMatch_returnsNotModified() throws Exception {
+    when(majorService.getAllMajors()).thenReturn(List.of(new Major(1, "Computer Science")));
+
+    String eTag =
+        mockMvc
+            .perform(get("/majors"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/majors").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+    // The second request must not touch the database.
+    verify(majorService, times(1)).getAllMajors();
+  }
+
+  @Test
+  @WithMockUser
+  void getMajors_afterCatalogWrite_returnsNewBody() throws Exception {
+    when(majorService.getAllMajors()).thenReturn(List.of(new Major(1, "Computer Science")));
+
+    String eTag =
+        mockMvc
+            .perform(get("/majors"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    catalogVersionService.bump();
+
+    mockMvc
+        .perform(get("/majors").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("Computer Science"));
+  }
+
   @Test
   @WithMockUser
   void editStudentProfile_returnsExpectedResult() throws Exception {
@@ -1880,6 +2313,41 @@ public class GatewayControllerTest {
     verify(emailNotificationService, times(1)).getAllEmailNotifications();
   }
 
+  @Test
+  @WithMockUser
+  public void testGetEmailOutboxStats_returnsStats() throws Exception {
+    when(emailOutboxService.getStats())
+        .thenReturn(new EmailOutboxService.Stats(120, 2000, 5400, 3, 600, 5400, 95));
+
+    mockMvc
+        .perform(get("/email-outbox-stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.pending").value(120))
+        .andExpect(jsonPath("$.sending").value(2000))
+        .andExpect(jsonPath("$.sent").value(5400))
+        .andExpect(jsonPath("$.failed").value(3))
+        .andExpect(jsonPath("$.sentLastMinute").value(600))
+        .andExpect(jsonPath("$.sentLastHour").value(5400))
+        .andExpect(jsonPath("$.oldestUnsentAgeSeconds").value(95));
+  }
+
+  @Test
+  @WithMockUser
+  public void testGetFetcherCacheStats_returnsCounters() throws Exception {
+    when(fetcherResponseCache.getHitCount()).thenReturn(90L);
+    when(fetcherResponseCache.getMissCount()).thenReturn(10L);
+    when(fetcherResponseCache.getEvictionCount()).thenReturn(4L);
+    when(fetcherResponseCache.size()).thenReturn(6);
+
+    mockMvc
+        .perform(get("/fetcher-cache-stats"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.hits").value(90))
+        .andExpect(jsonPath("$.misses").value(10))
+        .andExpect(jsonPath("$.evictions").value(4))
+        .andExpect(jsonPath("$.entries").value(6));
+  }
+
   @Test
   @WithMockUser
   void getStudentFaqs_returnsExpectedFaqs() throws Exception {
@@ -0,0 +1,221 @@
+package COMP_49X_our_search.backend.gateway;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import COMP_49X_our_search.backend.gateway.util.HierarchyJsonWriter;
+import COMP_49X_our_search.backend.gateway.util.ProjectHierarchyConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import proto.data.Entities.DepartmentProto;
+import proto.data.Entities.DisciplineProto;
+import proto.data.Entities.FacultyProto;
+import proto.data.Entities.MajorProto;
+import proto.data.Entities.ProjectProto;
+import proto.data.Entities.StudentProto;
+import proto.fetcher.DataTypes.DepartmentWithFaculty;
+import proto.fetcher.DataTypes.DisciplineWithMajors;
+import proto.fetcher.DataTypes.FacultyWithProjects;
+import proto.fetcher.DataTypes.MajorWithEntityCollection;
+import proto.fetcher.DataTypes.ProjectCollection;
+import proto.fetcher.DataTypes.StudentCollection;
+
+public class HierarchyJsonWriterTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  public void testWriteDisciplines_withProjects_matchesDtoSerialization() throws IOException {
+    List<DisciplineWithMajors> disciplines = projectHierarchy(3, 4, 5);
+
+    assertEquals(
+        objectMapper.readTree(serializeDtos(disciplines)),
+        objectMapper.readTree(stream(disciplines)));
+  }
+
+  @Test
+  public void testWriteDisciplines_withStudents_matchesDtoSerialization() throws IOException {
+    StudentProto student =
+        StudentProto.newBuilder()
+            .setStudentId(1)
+            .setFirstName("First")
+            .setLastName("Last")
+            .setEmail("flast@test.com")
+            .setClassStatus("Senior")
+            .setGraduationYear(2025)
+            .addMajors("Computer Science")
+            .addResearchFieldInterests("Computer Science")
+            .addResearchPeriodsInterests("Fall 2025")
+            .setInterestReason("Test reason")
+            .setHasPriorExperience(true)
+            .setIsActive(true)
+            .build();
+    List<DisciplineWithMajors> disciplines =
+        List.of(
+            DisciplineWithMajors.newBuilder()
+                .setDiscipline(
+                    DisciplineProto.newBuilder().setDisciplineId(1).setDisciplineName("Engineering"))
+                .addMajors(
+                    MajorWithEntityCollection.newBuilder()
+                        .setMajor(MajorProto.newBuilder().setMajorId(1).setMajorName("CS"))
+                        .setStudentCollection(StudentCollection.newBuilder().addStudents(student)))
+                .build(),
+            DisciplineWithMajors.newBuilder()
+                .setDiscipline(
+                    DisciplineProto.newBuilder().setDisciplineId(2).setDisciplineName("Empty"))
+                .build());
+
+    assertEquals(
+        objectMapper.readTree(serializeDtos(disciplines)),
+        objectMapper.readTree(stream(disciplines)));
+  }
+
+  @Test
+  public void testWriteDepartments_matchesDtoSerialization() throws IOException {
+    List<DepartmentWithFaculty> departments =
+        List.of(
+            DepartmentWithFaculty.newBuilder()
+                .setDepartment(
+                    DepartmentProto.newBuilder().setDepartmentId(1).setDepartmentName("Engineering"))
+                .addFacultyWithProjects(
+                    FacultyWithProjects.newBuilder()
+                        .setFaculty(faculty(1))
+                        .addProjects(project(1))
+                        .addProjects(project(2)))
+                .build());
+
+    String expected =
+        objectMapper.writeValueAsString(
+            departments.stream()
+                .map(ProjectHierarchyConverter::protoDepartmentWithFacultyToDto)
+                .toList());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    HierarchyJsonWriter.writeDepartments(departments, out);
+
+    assertEquals(objectMapper.readTree(expected), objectMapper.readTree(out.toString()));
+  }
+
+  /**
+   * Allocation benchmark comparing the DTO path (proto -> DTO tree -> Jackson)
+   * with the streaming path (proto -> JsonGenerator), measured with the
+   * per-thread allocation counter over a hierarchy of 20 disciplines with 10
+   * majors of 50 projects each.
+   */
+  @Test
+  @Tag("benchmark")
+  public void benchmarkAllocations_streamingAllocatesLessThanDtoPath() throws IOException {
+    com.sun.management.ThreadMXBean threadMXBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+    List<DisciplineWithMajors> disciplines = projectHierarchy(20, 10, 50);
+    OutputStream discard = OutputStream.nullOutputStream();
+    int warmupRounds = 5;
+    int rounds = 10;
+
+    for (int i = 0; i < warmupRounds; i++) {
+      writeDtos(disciplines, discard);
+      HierarchyJsonWriter.writeDisciplines(disciplines, discard);
+    }
+
+    long threadId = Thread.currentThread().threadId();
+    long start = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < rounds; i++) {
+      writeDtos(disciplines, discard);
+    }
+    long dtoBytes = (threadMXBean.getThreadAllocatedBytes(threadId) - start) / rounds;
+
+    start = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < rounds; i++) {
+      HierarchyJsonWriter.writeDisciplines(disciplines, discard);
+    }
+    long streamingBytes = (threadMXBean.getThreadAllocatedBytes(threadId) - start) / rounds;
+
+    assertTrue(streamingBytes * 2 < dtoBytes);
+  }
+
+  private String serializeDtos(List<DisciplineWithMajors> disciplines) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeDtos(disciplines, out);
+    return out.toString();
+  }
+
+  // What the non-streaming endpoints do.
+  private void writeDtos(List<DisciplineWithMajors> disciplines, OutputStream out)
+      throws IOException {
+    objectMapper.writeValue(
+        out,
+        disciplines.stream()
+            .map(ProjectHierarchyConverter::protoDisciplineWithMajorsToDto)
+            .toList());
+  }
+
+  private String stream(List<DisciplineWithMajors> disciplines) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    HierarchyJsonWriter.writeDisciplines(disciplines, out);
+    return out.toString();
+  }
+
+  private List<DisciplineWithMajors> projectHierarchy(
+      int disciplineCount, int majorsPerDiscipline, int projectsPerMajor) {
+    List<DisciplineWithMajors> disciplines = new ArrayList<>();
+    int projectId = 0;
+    for (int d = 0; d < disciplineCount; d++) {
+      DisciplineWithMajors.Builder discipline =
+          DisciplineWithMajors.newBuilder()
+              .setDiscipline(
+                  DisciplineProto.newBuilder()
+                      .setDisciplineId(d)
+                      .setDisciplineName("Discipline " + d));
+      for (int m = 0; m < majorsPerDiscipline; m++) {
+        ProjectCollection.Builder projects = ProjectCollection.newBuilder();
+        for (int p = 0; p < projectsPerMajor; p++) {
+          projects.addProjects(project(projectId++));
+        }
+        discipline.addMajors(
+            MajorWithEntityCollection.newBuilder()
+                .setMajor(
+                    MajorProto.newBuilder()
+                        .setMajorId(d * majorsPerDiscipline + m)
+                        .setMajorName("Major " + d + "-" + m))
+                .setProjectCollection(projects));
+      }
+      disciplines.add(discipline.build());
+    }
+    return disciplines;
+  }
+
+  private ProjectProto project(int id) {
+    return ProjectProto.newBuilder()
+        .setProjectId(id)
+        .setProjectName("Project " + id)
+        .setDescription("Research \"description\" of project " + id)
+        .setDesiredQualifications("Python, ML Basics")
+        .addUmbrellaTopics("AI")
+        .addResearchPeriods("Fall 2025")
+        .addResearchPeriods("Spring 2026")
+        .setIsActive(id % 2 == 0)
+        .addMajors("Computer Science")
+        .setFaculty(faculty(id))
+        .build();
+  }
+
+  private FacultyProto faculty(int id) {
+    return FacultyProto.newBuilder()
+        .setFacultyId(id)
+        .setFirstName("First")
+        .setLastName("Last " + id)
+        .setEmail("faculty" + id + "@test.com")
+        .addDepartments("Engineering")
+        .build();
+  }
+}
@@ -0,0 +1,243 @@
+package COMP_49X_our_search.backend.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests SendGridService and EmailDispatcher against a local stub of the
+ * SendGrid mail send endpoint. The stub answers each request with the next
+ * status queued for its recipient, or 202 once the queue is empty.
+ */
+public class EmailDispatcherTest {
+
+  private static final Pattern RECIPIENT =
+      Pattern.compile("\"to\"\\s*:\\s*\\[\\s*\\{[^}]*\"email\"\\s*:\\s*\"([^\"]+)\"");
+
+  private HttpServer server;
+  private final Map<String, ConcurrentLinkedQueue<Integer>> queuedStatuses =
+      new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+  private final ConcurrentLinkedQueue<String> requestBodies = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/v3/mail/send",
+        exchange -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          try {
+            String body =
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requestBodies.add(body);
+            String recipient = recipientOf(body);
+            requestCounts.computeIfAbsent(recipient, r -> new AtomicInteger()).incrementAndGet();
+            Integer queued =
+                queuedStatuses.getOrDefault(recipient, new ConcurrentLinkedQueue<>()).poll();
+            Thread.sleep(5);
+            exchange.sendResponseHeaders(queued == null ? 202 : queued, -1);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+          }
+        });
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  public void testSend_retriesOnTooManyRequestsAndServerErrors() throws IOException {
+    queue("retry@test.com", 429, 500, 503);
+
+    int attempts = sendGridService(1000, 4).send(OutgoingEmail.plain("retry@test.com", "S", "B"));
+
+    assertEquals(4, attempts);
+    assertEquals(4, requestCounts.get("retry@test.com").get());
+  }
+
+  @Test
+  public void testSend_givesUpAfterMaxAttempts() {
+    queue("down@test.com", 500, 500, 500, 500);
+
+    EmailDeliveryException exception =
+        assertThrows(
+            EmailDeliveryException.class,
+            () -> sendGridService(1000, 3).send(OutgoingEmail.plain("down@test.com", "S", "B")));
+
+    assertEquals(500, exception.getStatusCode());
+    assertEquals(3, exception.getAttempts());
+    assertEquals(3, requestCounts.get("down@test.com").get());
+  }
+
+  @Test
+  public void testSend_doesNotRetryClientErrors() {
+    queue("bad@test.com", 400);
+
+    EmailDeliveryException exception =
+        assertThrows(
+            EmailDeliveryException.class,
+            () ->
+                sendGridService(1000, 4).send(OutgoingEmail.html("bad@test.com", "S", "<b>B</b>")));
+
+    assertEquals(400, exception.getStatusCode());
+    assertEquals(1, exception.getAttempts());
+    assertEquals(1, requestCounts.get("bad@test.com").get());
+  }
+
+  @Test
+  public void testDispatchBulk_reportsSentFailedAndRetries() {
+    List<String> emails = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      emails.add("user" + i + "@test.com");
+    }
+    // Each batch is told apart by its first recipient.
+    queue("user0@test.com", 429);
+    queue("user1000@test.com", 500, 502);
+    queue("user2000@test.com", 400);
+    EmailDispatcher dispatcher = new EmailDispatcher(sendGridService(1000, 4), 2);
+
+    DispatchReport report =
+        dispatcher.dispatchBulk("test", BulkEmail.plain("Subject", "Body", emails));
+
+    assertEquals(3000, report.total());
+    assertEquals(2000, report.sent());
+    assertEquals(1000, report.failed());
+    assertEquals(0, report.skipped());
+    assertEquals(3, report.retries());
+    assertEquals(1, report.failures().size());
+    assertTrue(report.failures().get(0).startsWith("batch 3 of 3: "));
+    assertTrue(maxInFlight.get() <= 2);
+  }
+
+  @Test
+  public void testDispatchBulk_notConfigured_skipsEveryRecipient() {
+    SendGridService unconfigured = new SendGridService("", "", baseUrl(), 1000, 4, 1);
+    EmailDispatcher dispatcher = new EmailDispatcher(unconfigured, 4);
+
+    DispatchReport report =
+        dispatcher.dispatchBulk(
+            "test", BulkEmail.plain("S", "B", List.of("a@test.com", "b@test.com")));
+
+    assertEquals(2, report.skipped());
+    assertEquals(0, report.sent());
+    assertTrue(requestCounts.isEmpty());
+  }
+
+  @Test
+  public void testDispatchBulk_packsRecipientsIntoHiddenPersonalizations() throws IOException {
+    List<BulkEmail.Recipient> recipients = new ArrayList<>();
+    for (int i = 0; i < 2500; i++) {
+      recipients.add(new BulkEmail.Recipient("user" + i + "@test.com", Map.of("{n}", "" + i)));
+    }
+    EmailDispatcher dispatcher = new EmailDispatcher(sendGridService(1000, 4), 4);
+
+    DispatchReport report =
+        dispatcher.dispatchBulk("test", BulkEmail.html("Subject", "Number {n}", recipients));
+
+    assertEquals(2500, report.total());
+    assertEquals(2500, report.sent());
+    assertEquals(3, requestBodies.size());
+    ObjectMapper objectMapper = new ObjectMapper();
+    Set<String> seen = new HashSet<>();
+    for (String body : requestBodies) {
+      JsonNode personalizations = objectMapper.readTree(body).get("personalizations");
+      assertTrue(personalizations.size() <= SendGridService.MAX_PERSONALIZATIONS);
+      for (JsonNode personalization : personalizations) {
+        // Every personalization only addresses its own recipient.
+        assertEquals(1, personalization.get("to").size());
+        assertTrue(personalization.path("cc").isEmpty() && personalization.path("bcc").isEmpty());
+        String email = personalization.get("to").get(0).get("email").asText();
+        assertEquals(
+            email.substring("user".length(), email.indexOf('@')),
+            personalization.get("substitutions").get("{n}").asText());
+        seen.add(email);
+      }
+    }
+    assertEquals(2500, seen.size());
+  }
+
+  @Test
+  public void testDispatchBulk_oversizedSubstitutions_sentIndividually() {
+    String longValue = "x".repeat(SendGridService.MAX_SUBSTITUTIONS_BYTES + 1);
+    List<BulkEmail.Recipient> recipients =
+        List.of(
+            new BulkEmail.Recipient("a@test.com", Map.of("{v}", "short")),
+            new BulkEmail.Recipient("b@test.com", Map.of("{v}", longValue)));
+    EmailDispatcher dispatcher = new EmailDispatcher(sendGridService(1000, 4), 4);
+
+    DispatchReport report =
+        dispatcher.dispatchBulk("test", BulkEmail.html("Subject", "Value {v}", recipients));
+
+    assertEquals(2, report.sent());
+    assertEquals(2, requestBodies.size());
+    assertTrue(
+        requestBodies.stream()
+            .anyMatch(body -> body.contains("Value " + longValue) && !body.contains("{v}")));
+  }
+
+  @Test
+  public void testDispatchBulk_failedBatch_countsEveryRecipient() {
+    queue("user0@test.com", 400);
+    List<String> emails = new ArrayList<>();
+    for (int i = 0; i < 1200; i++) {
+      emails.add("user" + i + "@test.com");
+    }
+    EmailDispatcher dispatcher = new EmailDispatcher(sendGridService(1000, 4), 4);
+
+    DispatchReport report = dispatcher.dispatchBulk("test", BulkEmail.plain("S", "B", emails));
+
+    assertEquals(200, report.sent());
+    assertEquals(1000, report.failed());
+    assertEquals(1, report.failures().size());
+    assertTrue(report.failures().get(0).startsWith("batch 1 of 2: "));
+  }
+
+  private SendGridService sendGridService(double ratePerSecond, int maxAttempts) {
+    return new SendGridService(
+        "test-key", "noreply@test.com", baseUrl(), ratePerSecond, maxAttempts, 1);
+  }
+
+  private String baseUrl() {
+    return "http://localhost:" + server.getAddress().getPort() + "/v3";
+  }
+
+  private void queue(String recipient, Integer... statuses) {
+    queuedStatuses.put(recipient, new ConcurrentLinkedQueue<>(List.of(statuses)));
+  }
+
+  private static String recipientOf(String body) {
+    Matcher matcher = RECIPIENT.matcher(body);
+    return matcher.find() ? matcher.group(1) : "";
+  }
+}
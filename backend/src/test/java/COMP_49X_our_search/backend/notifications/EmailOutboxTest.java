@@ -0,0 +1,171 @@
+package COMP_49X_our_search.backend.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import COMP_49X_our_search.backend.database.entities.EmailOutboxMessage;
+import COMP_49X_our_search.backend.database.services.EmailOutboxService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class EmailOutboxTest {
+
+  private EmailOutboxService emailOutboxService;
+  private EmailDispatcher emailDispatcher;
+  private SendGridService sendGridService;
+  private EmailOutbox emailOutbox;
+  // What the mocked dispatcher does with each batch it gets.
+  private final List<BulkEmail> dispatched = new ArrayList<>();
+  private Exception failure;
+
+  @BeforeEach
+  void setUp() {
+    emailOutboxService = mock(EmailOutboxService.class);
+    emailDispatcher = mock(EmailDispatcher.class);
+    sendGridService = mock(SendGridService.class);
+    when(sendGridService.isConfigured()).thenReturn(true);
+    when(emailDispatcher.dispatchBulk(anyString(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              BulkEmail email = invocation.getArgument(1);
+              EmailDispatcher.DeliveryListener listener = invocation.getArgument(2);
+              dispatched.add(email);
+              if (failure == null) {
+                listener.delivered(email.recipients());
+              } else {
+                listener.failed(email.recipients(), failure);
+              }
+              return null;
+            });
+    emailOutbox =
+        new EmailOutbox(emailOutboxService, emailDispatcher, sendGridService, 100, 600, 3, 60, 90);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testEnqueue_keysMessagesByRunPeriodAndRecipient() {
+    when(emailOutboxService.enqueue(any())).thenReturn(2);
+
+    emailOutbox.enqueue(
+        "weekly-students",
+        "2026-W42",
+        BulkEmail.html(
+            "New postings",
+            "Hi {name}",
+            List.of(
+                new BulkEmail.Recipient("a@test.com", Map.of("{name}", "A")),
+                new BulkEmail.Recipient("b@test.com", Map.of("{name}", "B")))));
+
+    ArgumentCaptor<List<EmailOutboxMessage>> captor = ArgumentCaptor.forClass(List.class);
+    verify(emailOutboxService).enqueue(captor.capture());
+    EmailOutboxMessage first = captor.getValue().get(0);
+    assertEquals("weekly-students:2026-W42:a@test.com", first.getIdempotencyKey());
+    assertEquals("Hi {name}", first.getBody());
+    assertEquals("{\"{name}\":\"A\"}", first.getSubstitutions());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testDrain_sendsByTemplateAndMarksSent() {
+    when(emailOutboxService.claim(eq(100), any()))
+        .thenReturn(
+            List.of(
+                message(1, "yearly-students", "Body A", 1),
+                message(2, "yearly-faculty", "Body B", 1),
+                message(3, "yearly-students", "Body A", 1)))
+        .thenReturn(List.of());
+
+    emailOutbox.drain();
+
+    assertEquals(2, dispatched.size());
+    assertEquals(
+        List.of("user1@test.com", "user3@test.com"),
+        dispatched.get(0).recipients().stream().map(BulkEmail.Recipient::email).toList());
+    assertEquals(
+        "yearly-students:2026:user1@test.com",
+        dispatched.get(0).recipients().get(0).idempotencyKey());
+    ArgumentCaptor<List<Long>> sentIds = ArgumentCaptor.forClass(List.class);
+    verify(emailOutboxService, times(2)).markSent(sentIds.capture());
+    assertEquals(List.of(List.of(1L, 3L), List.of(2L)), sentIds.getAllValues());
+  }
+
+  @Test
+  public void testDrain_serverError_retriesLaterWithBackoff() {
+    failure = new EmailDeliveryException("SendGrid returned status 503", 503, 4, null);
+    when(emailOutboxService.claim(eq(100), any()))
+        .thenReturn(List.of(message(1, "yearly-students", "Body", 2)))
+        .thenReturn(List.of());
+
+    LocalDateTime before = LocalDateTime.now();
+    emailOutbox.drain();
+
+    ArgumentCaptor<LocalDateTime> availableAt = ArgumentCaptor.forClass(LocalDateTime.class);
+    verify(emailOutboxService)
+        .retryLater(eq(List.of(1L)), availableAt.capture(), eq("SendGrid returned status 503"));
+    // Second attempt, so twice the base backoff.
+    Duration backoff = Duration.between(before, availableAt.getValue());
+    assertEquals(120, backoff.toSeconds(), 1);
+    verify(emailOutboxService, never()).markFailed(any(), anyString());
+  }
+
+  @Test
+  public void testDrain_rejectedOrOutOfAttempts_marksFailed() {
+    failure = new EmailDeliveryException("SendGrid returned status 400", 400, 1, null);
+    when(emailOutboxService.claim(eq(100), any()))
+        .thenReturn(List.of(message(1, "yearly-students", "Body", 1)))
+        .thenReturn(List.of());
+
+    emailOutbox.drain();
+
+    verify(emailOutboxService).markFailed(List.of(1L), "SendGrid returned status 400");
+    verify(emailOutboxService, never()).retryLater(any(), any(), anyString());
+
+    failure = new EmailDeliveryException("SendGrid returned status 500", 500, 4, null);
+    when(emailOutboxService.claim(eq(100), any()))
+        .thenReturn(List.of(message(2, "yearly-students", "Body", 3)))
+        .thenReturn(List.of());
+
+    emailOutbox.drain();
+
+    verify(emailOutboxService).markFailed(List.of(2L), "SendGrid returned status 500");
+    verify(emailOutboxService, never()).retryLater(any(), any(), anyString());
+  }
+
+  @Test
+  public void testDrain_sendGridNotConfigured_claimsNothing() {
+    when(sendGridService.isConfigured()).thenReturn(false);
+
+    emailOutbox.drain();
+
+    verify(emailOutboxService, never()).claim(anyInt(), any());
+  }
+
+  private EmailOutboxMessage message(long id, String runName, String body, int attempts) {
+    EmailOutboxMessage message =
+        new EmailOutboxMessage(
+            runName + ":2026:user" + id + "@test.com",
+            runName,
+            "user" + id + "@test.com",
+            "Subject",
+            body,
+            "text/plain",
+            "{}");
+    message.setId(id);
+    message.setAttempts(attempts);
+    return message;
+  }
+}
@@ -0,0 +1,259 @@
+package COMP_49X_our_search.backend.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ProjectStudentMatches;
+import COMP_49X_our_search.backend.database.entities.Student;
+import COMP_49X_our_search.backend.database.entities.StudentFacultyMatches;
+import COMP_49X_our_search.backend.database.services.FacultyService;
+import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.database.services.ProjectStudentMatchesService;
+import COMP_49X_our_search.backend.database.services.StudentFacultyMatchesService;
+import COMP_49X_our_search.backend.database.services.StudentService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+public class MatchBuilderTest {
+
+  private ProjectService projectService;
+  private StudentService studentService;
+  private FacultyService facultyService;
+  private ProjectStudentMatchesService projectStudentMatchesService;
+  private StudentFacultyMatchesService studentFacultyMatchesService;
+  private MatchBuilder matchBuilder;
+
+  @BeforeEach
+  void setUp() {
+    projectService = mock(ProjectService.class);
+    studentService = mock(StudentService.class);
+    facultyService = mock(FacultyService.class);
+    projectStudentMatchesService = mock(ProjectStudentMatchesService.class);
+    studentFacultyMatchesService = mock(StudentFacultyMatchesService.class);
+    matchBuilder =
+        new MatchBuilder(
+            projectService,
+            studentService,
+            facultyService,
+            projectStudentMatchesService,
+            studentFacultyMatchesService);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testBuildMatches_matchesByMajorAndStoresMatches() {
+    Major computerScience = major(1, "Computer Science");
+    Major biology = major(2, "Biology");
+    Major chemistry = major(3, "Chemistry");
+
+    Faculty csFaculty = faculty(1);
+    Faculty bioFaculty = faculty(2);
+    Project oldCsProject = project(1, csFaculty, computerScience);
+    Project newBioProject = project(2, bioFaculty, biology);
+    Project newCsProject = project(3, csFaculty, computerScience, chemistry);
+
+    Student csStudent = student(1, computerScience);
+    Student bioStudent = student(2, biology, computerScience);
+    Student unmatchedStudent = student(3);
+
+    when(projectService.getNewProjects()).thenReturn(List.of(newBioProject, newCsProject));
+    when(projectService.getAllProjectsWithAssociations())
+        .thenReturn(List.of(oldCsProject, newBioProject, newCsProject));
+    when(studentService.getAllStudents())
+        .thenReturn(List.of(csStudent, bioStudent, unmatchedStudent));
+    when(studentService.getNewStudents()).thenReturn(List.of(bioStudent, unmatchedStudent));
+    when(facultyService.getAllFaculty()).thenReturn(List.of(csFaculty, bioFaculty));
+
+    MatchBuilder.Matches matches = matchBuilder.buildMatches();
+
+    assertEquals(List.of(newCsProject), matches.studentMatches().get("student1@test.com"));
+    assertEquals(
+        List.of(newBioProject, newCsProject), matches.studentMatches().get("student2@test.com"));
+    assertEquals(2, matches.studentMatches().size());
+    assertEquals(List.of(bioStudent), matches.facultyMatches().get("faculty1@test.com"));
+    assertEquals(List.of(bioStudent), matches.facultyMatches().get("faculty2@test.com"));
+
+    ArgumentCaptor<List<ProjectStudentMatches>> projectStudentCaptor =
+        ArgumentCaptor.forClass(List.class);
+    verify(projectStudentMatchesService).createMatches(projectStudentCaptor.capture());
+    assertEquals(3, projectStudentCaptor.getValue().size());
+    ArgumentCaptor<List<StudentFacultyMatches>> studentFacultyCaptor =
+        ArgumentCaptor.forClass(List.class);
+    verify(studentFacultyMatchesService).createMatches(studentFacultyCaptor.capture());
+    assertEquals(
+        Set.of(1, 2),
+        studentFacultyCaptor.getValue().stream()
+            .map(StudentFacultyMatches::getFacultyId)
+            .collect(Collectors.toSet()));
+  }
+
+  @Test
+  public void testBuildMatches_noNewProjectsOrStudents_returnsNoMatches() {
+    when(projectService.getNewProjects()).thenReturn(List.of());
+    when(projectService.getAllProjectsWithAssociations()).thenReturn(List.of());
+    when(studentService.getAllStudents()).thenReturn(List.of(student(1, major(1, "Math"))));
+    when(studentService.getNewStudents()).thenReturn(List.of());
+    when(facultyService.getAllFaculty()).thenReturn(List.of(faculty(1)));
+
+    MatchBuilder.Matches matches = matchBuilder.buildMatches();
+
+    assertTrue(matches.studentMatches().isEmpty());
+    assertTrue(matches.facultyMatches().isEmpty());
+    verify(projectStudentMatchesService).createMatches(anyList());
+  }
+
+  /**
+   * Benchmark with 5,000 students (1,000 of them new) and 500 faculty members
+   * with 4 projects each (200 of them new). Compares the indexed matching with
+   * the previous pairwise matching, and checks both produce the same matches.
+   */
+  @Test
+  @Tag("benchmark")
+  public void benchmarkBuildMatches_5000Students500Faculty() {
+    Random random = new Random(49);
+    List<Major> majors = new ArrayList<>();
+    for (int i = 1; i <= 60; i++) {
+      majors.add(major(i, "Major " + i));
+    }
+    List<Faculty> faculty = new ArrayList<>();
+    List<Project> projects = new ArrayList<>();
+    List<Project> newProjects = new ArrayList<>();
+    for (int f = 1; f <= 500; f++) {
+      Faculty member = faculty(f);
+      faculty.add(member);
+      for (int p = 0; p < 4; p++) {
+        Project project =
+            project(
+                projects.size() + 1,
+                member,
+                majors.get(random.nextInt(majors.size())),
+                majors.get(random.nextInt(majors.size())));
+        projects.add(project);
+        if (projects.size() % 10 == 0) {
+          newProjects.add(project);
+        }
+      }
+    }
+    List<Student> students = new ArrayList<>();
+    for (int s = 1; s <= 5000; s++) {
+      Major[] interests = new Major[1 + random.nextInt(3)];
+      for (int i = 0; i < interests.length; i++) {
+        interests[i] = majors.get(random.nextInt(majors.size()));
+      }
+      students.add(student(s, interests));
+    }
+    List<Student> newStudents = students.subList(0, 1000);
+
+    when(projectService.getNewProjects()).thenReturn(newProjects);
+    when(projectService.getAllProjectsWithAssociations()).thenReturn(projects);
+    when(studentService.getAllStudents()).thenReturn(students);
+    when(studentService.getNewStudents()).thenReturn(newStudents);
+    when(facultyService.getAllFaculty()).thenReturn(faculty);
+    Map<Integer, List<Project>> projectsByFaculty =
+        projects.stream().collect(Collectors.groupingBy(project -> project.getFaculty().getId()));
+
+    long start = System.nanoTime();
+    Map<String, List<Project>> expectedStudentMatches =
+        pairwiseStudentMatches(students, newProjects);
+    Map<String, List<Student>> expectedFacultyMatches =
+        pairwiseFacultyMatches(faculty, newStudents, projectsByFaculty);
+    long pairwiseMillis = (System.nanoTime() - start) / 1_000_000;
+
+    start = System.nanoTime();
+    MatchBuilder.Matches matches = matchBuilder.buildMatches();
+    long indexedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertEquals(expectedStudentMatches, matches.studentMatches());
+    assertEquals(expectedFacultyMatches, matches.facultyMatches());
+    assertTrue(indexedMillis < pairwiseMillis);
+  }
+
+  // The previous implementation, which compares every pair by major name.
+  private Map<String, List<Project>> pairwiseStudentMatches(
+      List<Student> students, List<Project> newProjects) {
+    Map<String, List<Project>> matches = new HashMap<>();
+    for (Student student : students) {
+      List<Project> matched =
+          newProjects.stream().filter(project -> pairwiseMatches(student, project)).toList();
+      if (!matched.isEmpty()) {
+        matches.put(student.getEmail(), matched);
+      }
+    }
+    return matches;
+  }
+
+  private Map<String, List<Student>> pairwiseFacultyMatches(
+      List<Faculty> faculty,
+      List<Student> newStudents,
+      Map<Integer, List<Project>> projectsByFaculty) {
+    Map<String, List<Student>> matches = new HashMap<>();
+    for (Faculty member : faculty) {
+      List<Project> projects = projectsByFaculty.getOrDefault(member.getId(), List.of());
+      List<Student> matched =
+          newStudents.stream()
+              .filter(
+                  student -> projects.stream().anyMatch(project -> pairwiseMatches(student, project)))
+              .toList();
+      if (!matched.isEmpty()) {
+        matches.put(member.getEmail(), matched);
+      }
+    }
+    return matches;
+  }
+
+  private boolean pairwiseMatches(Student student, Project project) {
+    List<String> studentInterests =
+        student.getResearchFieldInterests().stream().map(Major::getName).toList();
+    List<String> projectMajors = project.getMajors().stream().map(Major::getName).toList();
+    return projectMajors.stream()
+        .anyMatch(
+            major ->
+                studentInterests.stream().anyMatch(interest -> interest.equalsIgnoreCase(major)));
+  }
+
+  private Major major(int id, String name) {
+    Major major = new Major();
+    major.setId(id);
+    major.setName(name);
+    return major;
+  }
+
+  private Faculty faculty(int id) {
+    Faculty faculty = new Faculty();
+    faculty.setId(id);
+    faculty.setEmail("faculty" + id + "@test.com");
+    return faculty;
+  }
+
+  private Project project(int id, Faculty faculty, Major... majors) {
+    Project project = new Project();
+    project.setId(id);
+    project.setFaculty(faculty);
+    project.setMajors(Set.copyOf(List.of(majors)));
+    return project;
+  }
+
+  private Student student(int id, Major... interests) {
+    Student student = new Student();
+    student.setId(id);
+    student.setEmail("student" + id + "@test.com");
+    student.setResearchFieldInterests(Set.copyOf(List.of(interests)));
+    return student;
+  }
+}
@@ -0,0 +1,41 @@
+package COMP_49X_our_search.backend.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketRateLimiterTest {
+
+  @Test
+  public void testAcquire_burstUpToCapacityDoesNotWait() throws InterruptedException {
+    TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(1, 5);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      rateLimiter.acquire();
+    }
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+  }
+
+  @Test
+  public void testAcquire_waitsForRefillOnceEmpty() throws InterruptedException {
+    TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(20, 1);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      rateLimiter.acquire();
+    }
+
+    // The first token is already there, the other 4 take 50 ms each.
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 190);
+  }
+
+  @Test
+  public void testConstructor_invalidArguments_throwsException() {
+    assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new TokenBucketRateLimiter(1, 0.5));
+  }
+}
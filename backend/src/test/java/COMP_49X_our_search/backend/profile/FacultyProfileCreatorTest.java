@@ -13,6 +13,7 @@ import COMP_49X_our_search.backend.database.enums.UserRole;
 import COMP_49X_our_search.backend.database.services.DepartmentService;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,6 +27,7 @@ public class FacultyProfileCreatorTest {
   private FacultyService facultyService;
   private DepartmentService departmentService;
   private UserService userService;
+  private SuggestionIndex suggestionIndex;
   private FacultyProfileCreator facultyProfileCreator;
 
   @BeforeEach
@@ -33,7 +35,9 @@ public class FacultyProfileCreatorTest {
     facultyService = mock(FacultyService.class);
     departmentService = mock(DepartmentService.class);
     userService = mock(UserService.class);
-    facultyProfileCreator = new FacultyProfileCreator(facultyService, departmentService, userService);
+    suggestionIndex = mock(SuggestionIndex.class);
+    facultyProfileCreator =
+        new FacultyProfileCreator(facultyService, departmentService, userService, suggestionIndex);
   }
 
   @Test
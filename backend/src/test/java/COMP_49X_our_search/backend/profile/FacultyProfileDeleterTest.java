@@ -14,6 +14,9 @@ import COMP_49X_our_search.backend.database.entities.Faculty;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import proto.profile.ProfileModule.DeleteProfileRequest;
@@ -25,13 +28,26 @@ public class FacultyProfileDeleterTest {
   private FacultyService facultyService;
   private UserService userService;
   private ProjectService projectService;
+  private ProjectSearchIndex projectSearchIndex;
+  private SuggestionIndex suggestionIndex;
+  private FacetIndex facetIndex;
 
   @BeforeEach
   void setUp() {
     facultyService = mock(FacultyService.class);
     userService = mock(UserService.class);
     projectService = mock(ProjectService.class);
-    facultyProfileDeleter = new FacultyProfileDeleter(facultyService, userService, projectService);
+    projectSearchIndex = mock(ProjectSearchIndex.class);
+    suggestionIndex = mock(SuggestionIndex.class);
+    facetIndex = mock(FacetIndex.class);
+    facultyProfileDeleter =
+        new FacultyProfileDeleter(
+            facultyService,
+            userService,
+            projectService,
+            projectSearchIndex,
+            suggestionIndex,
+            facetIndex);
   }
 
   @Test
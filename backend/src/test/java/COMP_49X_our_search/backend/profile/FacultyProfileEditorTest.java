@@ -12,6 +12,8 @@ import COMP_49X_our_search.backend.database.enums.UserRole;
 import COMP_49X_our_search.backend.database.services.DepartmentService;
 import COMP_49X_our_search.backend.database.services.FacultyService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +26,8 @@ public class FacultyProfileEditorTest {
   private FacultyService facultyService;
   private DepartmentService departmentService;
   private UserService userService;
+  private ProjectSearchIndex projectSearchIndex;
+  private SuggestionIndex suggestionIndex;
   private FacultyProfileEditor facultyProfileEditor;
 
   @BeforeEach
@@ -31,7 +35,11 @@ public class FacultyProfileEditorTest {
     facultyService = mock(FacultyService.class);
     departmentService = mock(DepartmentService.class);
     userService = mock(UserService.class);
-    facultyProfileEditor = new FacultyProfileEditor(facultyService, departmentService, userService);
+    projectSearchIndex = mock(ProjectSearchIndex.class);
+    suggestionIndex = mock(SuggestionIndex.class);
+    facultyProfileEditor =
+        new FacultyProfileEditor(
+            facultyService, departmentService, userService, projectSearchIndex, suggestionIndex);
   }
 
   @Test
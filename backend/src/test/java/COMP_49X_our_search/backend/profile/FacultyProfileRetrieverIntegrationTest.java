@@ -0,0 +1,183 @@
+/**
+ * Integration test for FacultyProfileRetriever using a real H2 database.
+ *
+ * The filters are applied by the Specification the retriever builds, so they
+ * are checked against real projects: each test has a project of the faculty
+ * member that fails the filter and a project of another faculty member that
+ * passes it, and neither may be returned.
+ */
+package COMP_49X_our_search.backend.profile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import COMP_49X_our_search.backend.database.entities.Department;
+import COMP_49X_our_search.backend.database.entities.Discipline;
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.ResearchPeriod;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.entities.User;
+import COMP_49X_our_search.backend.database.enums.UserRole;
+import COMP_49X_our_search.backend.database.repositories.DepartmentRepository;
+import COMP_49X_our_search.backend.database.repositories.DisciplineRepository;
+import COMP_49X_our_search.backend.database.repositories.FacultyRepository;
+import COMP_49X_our_search.backend.database.repositories.MajorRepository;
+import COMP_49X_our_search.backend.database.repositories.ProjectRepository;
+import COMP_49X_our_search.backend.database.repositories.ResearchPeriodRepository;
+import COMP_49X_our_search.backend.database.repositories.UmbrellaTopicRepository;
+import COMP_49X_our_search.backend.database.repositories.UserRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import proto.data.Entities.ProjectProto;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+import proto.profile.ProfileModule.RetrieveProfileRequest;
+import proto.profile.ProfileModule.RetrieveProfileResponse;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = {"DOMAIN=http://localhost"})
+public class FacultyProfileRetrieverIntegrationTest {
+
+  private static final String FACULTY_EMAIL = "john@university.com";
+
+  @Autowired private FacultyProfileRetriever facultyProfileRetriever;
+  @Autowired private DisciplineRepository disciplineRepository;
+  @Autowired private MajorRepository majorRepository;
+  @Autowired private ResearchPeriodRepository researchPeriodRepository;
+  @Autowired private UmbrellaTopicRepository umbrellaTopicRepository;
+  @Autowired private DepartmentRepository departmentRepository;
+  @Autowired private FacultyRepository facultyRepository;
+  @Autowired private ProjectRepository projectRepository;
+  @Autowired private UserRepository userRepository;
+
+  private Major csMajor;
+  private ResearchPeriod spring;
+  private UmbrellaTopic aiTopic;
+
+  @BeforeEach
+  void setUp() {
+    Discipline discipline = disciplineRepository.save(new Discipline("Test Discipline"));
+    csMajor = saveMajor("Computer Science", discipline);
+    Major bioMajor = saveMajor("Biology", discipline);
+    ResearchPeriod fall = saveResearchPeriod("Fall 2025");
+    spring = saveResearchPeriod("Spring 2025");
+    aiTopic = saveUmbrellaTopic("AI");
+    UmbrellaTopic lifeTopic = saveUmbrellaTopic("Life Sciences");
+    Department department = departmentRepository.save(new Department("Test Department"));
+
+    Faculty john = saveFaculty("John", "Doe", FACULTY_EMAIL, department);
+    Faculty jane = saveFaculty("Jane", "Smith", "jane@university.com", department);
+
+    saveProject(
+        "AI Research", john, "Quantum computing for robots", discipline, csMajor, fall, aiTopic);
+    saveProject("Bio Research", john, "Cell growth", discipline, bioMajor, spring, lifeTopic);
+    saveProject(
+        "Jane's Research", jane, "Quantum computing", discipline, csMajor, spring, aiTopic);
+  }
+
+  @Test
+  public void testRetrieveProfile_noFilters_returnsOnlyOwnProjects() {
+    assertThat(retrieveProjectNames(null)).containsExactlyInAnyOrder("AI Research", "Bio Research");
+  }
+
+  @Test
+  public void testRetrieveProfile_filtersByMajorId() {
+    FilteredFetcher filters = FilteredFetcher.newBuilder().addMajorIds(csMajor.getId()).build();
+
+    assertThat(retrieveProjectNames(filters)).containsExactly("AI Research");
+  }
+
+  @Test
+  public void testRetrieveProfile_filtersByResearchPeriodId() {
+    FilteredFetcher filters =
+        FilteredFetcher.newBuilder().addResearchPeriodIds(spring.getId()).build();
+
+    assertThat(retrieveProjectNames(filters)).containsExactly("Bio Research");
+  }
+
+  @Test
+  public void testRetrieveProfile_filtersByUmbrellaTopicId() {
+    FilteredFetcher filters =
+        FilteredFetcher.newBuilder().addUmbrellaTopicIds(aiTopic.getId()).build();
+
+    assertThat(retrieveProjectNames(filters)).containsExactly("AI Research");
+  }
+
+  @Test
+  public void testRetrieveProfile_filtersByKeywords() {
+    FilteredFetcher filters = FilteredFetcher.newBuilder().setKeywords("quantum computing").build();
+
+    assertThat(retrieveProjectNames(filters)).containsExactly("AI Research");
+  }
+
+  private List<String> retrieveProjectNames(FilteredFetcher filters) {
+    RetrieveProfileRequest.Builder request =
+        RetrieveProfileRequest.newBuilder().setUserEmail(FACULTY_EMAIL);
+    if (filters != null) {
+      request.setFilters(filters);
+    }
+    RetrieveProfileResponse response = facultyProfileRetriever.retrieveProfile(request.build());
+
+    assertTrue(response.getSuccess());
+    return response.getRetrievedFaculty().getProjectsList().stream()
+        .map(ProjectProto::getProjectName)
+        .toList();
+  }
+
+  private Major saveMajor(String name, Discipline discipline) {
+    Major major = new Major(name);
+    major.setDisciplines(Set.of(discipline));
+    return majorRepository.save(major);
+  }
+
+  private ResearchPeriod saveResearchPeriod(String name) {
+    ResearchPeriod period = new ResearchPeriod();
+    period.setName(name);
+    return researchPeriodRepository.save(period);
+  }
+
+  private UmbrellaTopic saveUmbrellaTopic(String name) {
+    UmbrellaTopic topic = new UmbrellaTopic();
+    topic.setName(name);
+    return umbrellaTopicRepository.save(topic);
+  }
+
+  private Faculty saveFaculty(
+      String firstName, String lastName, String email, Department department) {
+    userRepository.save(new User(email, UserRole.FACULTY));
+    return facultyRepository.save(new Faculty(firstName, lastName, email, Set.of(department)));
+  }
+
+  private void saveProject(
+      String name,
+      Faculty faculty,
+      String description,
+      Discipline discipline,
+      Major major,
+      ResearchPeriod period,
+      UmbrellaTopic topic) {
+    projectRepository.save(
+        new Project(
+            name,
+            faculty,
+            description,
+            "Qualifications",
+            true,
+            Set.of(discipline),
+            Set.of(major),
+            Set.of(period),
+            Set.of(topic),
+            LocalDateTime.now()));
+  }
+}
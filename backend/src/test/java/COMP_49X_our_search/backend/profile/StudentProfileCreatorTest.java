@@ -14,6 +14,7 @@ import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
 import COMP_49X_our_search.backend.database.services.StudentService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +31,7 @@ public class StudentProfileCreatorTest {
 
   private ResearchPeriodService researchPeriodService;
   private UserService userService;
+  private FacetIndex facetIndex;
   private StudentProfileCreator studentProfileCreator;
 
   @BeforeEach
@@ -38,8 +40,10 @@ public class StudentProfileCreatorTest {
     majorService = mock(MajorService.class);
     researchPeriodService = mock(ResearchPeriodService.class);
     userService = mock(UserService.class);
+    facetIndex = mock(FacetIndex.class);
     studentProfileCreator =
-        new StudentProfileCreator(studentService, majorService, researchPeriodService, userService);
+        new StudentProfileCreator(
+            studentService, majorService, researchPeriodService, userService, facetIndex);
   }
 
   @Test
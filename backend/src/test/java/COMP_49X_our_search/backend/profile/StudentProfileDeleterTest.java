@@ -12,6 +12,7 @@ import static org.mockito.Mockito.when;
 import COMP_49X_our_search.backend.database.entities.Student;
 import COMP_49X_our_search.backend.database.services.StudentService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import proto.profile.ProfileModule.DeleteProfileRequest;
@@ -22,12 +23,14 @@ public class StudentProfileDeleterTest {
   private StudentProfileDeleter studentProfileDeleter;
   private StudentService studentService;
   private UserService userService;
+  private FacetIndex facetIndex;
 
   @BeforeEach
   void setUp() {
     studentService = mock(StudentService.class);
     userService = mock(UserService.class);
-    studentProfileDeleter = new StudentProfileDeleter(studentService, userService);
+    facetIndex = mock(FacetIndex.class);
+    studentProfileDeleter = new StudentProfileDeleter(studentService, userService, facetIndex);
   }
 
   @Test
@@ -16,6 +16,7 @@ import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
 import COMP_49X_our_search.backend.database.services.StudentService;
 import COMP_49X_our_search.backend.database.services.UserService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
 import java.util.Optional;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +30,7 @@ public class StudentProfileEditorTest {
   private MajorService majorService;
   private ResearchPeriodService researchPeriodService;
   private UserService userService;
+  private FacetIndex facetIndex;
   private StudentProfileEditor studentProfileEditor;
 
   @BeforeEach
@@ -37,8 +39,10 @@ public class StudentProfileEditorTest {
     majorService = mock(MajorService.class);
     researchPeriodService = mock(ResearchPeriodService.class);
     userService = mock(UserService.class);
+    facetIndex = mock(FacetIndex.class);
     studentProfileEditor =
-        new StudentProfileEditor(studentService, majorService, researchPeriodService, userService);
+        new StudentProfileEditor(
+            studentService, majorService, researchPeriodService, userService, facetIndex);
   }
 
   @Test
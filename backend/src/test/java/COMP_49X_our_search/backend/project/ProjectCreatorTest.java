@@ -17,6 +17,9 @@ import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
 import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
 import COMP_49X_our_search.backend.database.services.UmbrellaTopicService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -34,6 +37,9 @@ public class ProjectCreatorTest {
   private MajorService majorService;
   private UmbrellaTopicService umbrellaTopicService;
   private ResearchPeriodService researchPeriodService;
+  private ProjectSearchIndex projectSearchIndex;
+  private SuggestionIndex suggestionIndex;
+  private FacetIndex facetIndex;
   private ProjectCreator projectCreator;
 
   @BeforeEach
@@ -43,13 +49,19 @@ public class ProjectCreatorTest {
     majorService = mock(MajorService.class);
     umbrellaTopicService = mock(UmbrellaTopicService.class);
     researchPeriodService = mock(ResearchPeriodService.class);
+    projectSearchIndex = mock(ProjectSearchIndex.class);
+    suggestionIndex = mock(SuggestionIndex.class);
+    facetIndex = mock(FacetIndex.class);
     projectCreator =
         new ProjectCreator(
             projectService,
             facultyService,
             majorService,
             umbrellaTopicService,
-            researchPeriodService);
+            researchPeriodService,
+            projectSearchIndex,
+            suggestionIndex,
+            facetIndex);
   }
 
   @Test
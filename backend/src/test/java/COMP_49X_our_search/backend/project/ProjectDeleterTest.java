@@ -10,6 +10,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import proto.project.ProjectModule.DeleteProjectRequest;
@@ -18,12 +21,19 @@ import proto.project.ProjectModule.DeleteProjectResponse;
 public class ProjectDeleterTest {
 
   private ProjectService projectService;
+  private ProjectSearchIndex projectSearchIndex;
+  private SuggestionIndex suggestionIndex;
+  private FacetIndex facetIndex;
   private ProjectDeleter projectDeleter;
 
   @BeforeEach
   void setUp() {
     projectService = mock(ProjectService.class);
-    projectDeleter = new ProjectDeleter(projectService);
+    projectSearchIndex = mock(ProjectSearchIndex.class);
+    suggestionIndex = mock(SuggestionIndex.class);
+    facetIndex = mock(FacetIndex.class);
+    projectDeleter =
+        new ProjectDeleter(projectService, projectSearchIndex, suggestionIndex, facetIndex);
   }
 
   @Test
@@ -40,6 +50,9 @@ public class ProjectDeleterTest {
     assertTrue(response.getSuccess());
     assertEquals("", response.getErrorMessage());
     verify(projectService, times(1)).deleteById(projectId);
+    verify(projectSearchIndex, times(1)).removeProject(projectId);
+    verify(suggestionIndex, times(1)).removeProject(projectId);
+    verify(facetIndex, times(1)).removeProject(projectId);
   }
 
   @Test
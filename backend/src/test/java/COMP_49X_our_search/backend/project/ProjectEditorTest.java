@@ -16,6 +16,9 @@ import COMP_49X_our_search.backend.database.services.MajorService;
 import COMP_49X_our_search.backend.database.services.ProjectService;
 import COMP_49X_our_search.backend.database.services.ResearchPeriodService;
 import COMP_49X_our_search.backend.database.services.UmbrellaTopicService;
+import COMP_49X_our_search.backend.fetcher.FacetIndex;
+import COMP_49X_our_search.backend.search.ProjectSearchIndex;
+import COMP_49X_our_search.backend.search.SuggestionIndex;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
@@ -31,6 +34,9 @@ public class ProjectEditorTest {
   private MajorService majorService;
   private UmbrellaTopicService umbrellaTopicService;
   private ResearchPeriodService researchPeriodService;
+  private ProjectSearchIndex projectSearchIndex;
+  private SuggestionIndex suggestionIndex;
+  private FacetIndex facetIndex;
   private ProjectEditor projectEditor;
 
   @BeforeEach
@@ -39,12 +45,18 @@ public class ProjectEditorTest {
     majorService = mock(MajorService.class);
     umbrellaTopicService = mock(UmbrellaTopicService.class);
     researchPeriodService = mock(ResearchPeriodService.class);
+    projectSearchIndex = mock(ProjectSearchIndex.class);
+    suggestionIndex = mock(SuggestionIndex.class);
+    facetIndex = mock(FacetIndex.class);
     projectEditor =
         new ProjectEditor(
             projectService,
             majorService,
             umbrellaTopicService,
-            researchPeriodService);
+            researchPeriodService,
+            projectSearchIndex,
+            suggestionIndex,
+            facetIndex);
   }
 
   @Test
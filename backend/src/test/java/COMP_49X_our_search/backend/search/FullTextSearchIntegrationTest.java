@@ -0,0 +1,254 @@
+/**
+ * Integration test for the "fulltext" search backend, using the H2 database
+ * of the test profile, where FullTextSearch falls back to LIKE queries. Run
+ * against MySQL, the benchmark measures the FULLTEXT queries instead.
+ */
+package COMP_49X_our_search.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import COMP_49X_our_search.backend.database.entities.Department;
+import COMP_49X_our_search.backend.database.entities.Discipline;
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.Student;
+import COMP_49X_our_search.backend.database.repositories.DepartmentRepository;
+import COMP_49X_our_search.backend.database.repositories.DisciplineRepository;
+import COMP_49X_our_search.backend.database.repositories.FacultyRepository;
+import COMP_49X_our_search.backend.database.repositories.MajorRepository;
+import COMP_49X_our_search.backend.database.repositories.ProjectRepository;
+import COMP_49X_our_search.backend.database.repositories.StudentRepository;
+import COMP_49X_our_search.backend.fetcher.Fetcher;
+import COMP_49X_our_search.backend.fetcher.ProjectFetcher;
+import COMP_49X_our_search.backend.fetcher.StudentFetcher;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import proto.data.Entities.ProjectProto;
+import proto.data.Entities.StudentProto;
+import proto.fetcher.DataTypes.MajorWithEntityCollection;
+import proto.fetcher.FetcherModule.FetcherRequest;
+import proto.fetcher.FetcherModule.FetcherResponse;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+import proto.fetcher.FetcherModule.FilteredType;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@TestPropertySource(properties = {"DOMAIN=http://localhost", "search.backend=fulltext"})
+public class FullTextSearchIntegrationTest {
+
+  @Autowired private FullTextSearch fullTextSearch;
+  @Autowired private ProjectFetcher projectFetcher;
+  @Autowired private StudentFetcher studentFetcher;
+  @Autowired private DisciplineRepository disciplineRepository;
+  @Autowired private MajorRepository majorRepository;
+  @Autowired private DepartmentRepository departmentRepository;
+  @Autowired private FacultyRepository facultyRepository;
+  @Autowired private ProjectRepository projectRepository;
+  @Autowired private StudentRepository studentRepository;
+
+  private Major major;
+  private Faculty lovelace;
+  private Faculty smith;
+
+  @BeforeEach
+  void setUp() {
+    Discipline discipline = disciplineRepository.save(new Discipline("Engineering"));
+    major = new Major("Robotics Engineering");
+    major.setDisciplines(Set.of(discipline));
+    major = majorRepository.save(major);
+    Department department = departmentRepository.save(new Department("Engineering"));
+    lovelace =
+        facultyRepository.save(
+            new Faculty("Ada", "Lovelace", "ada@test.com", Set.of(department)));
+    smith =
+        facultyRepository.save(
+            new Faculty("John", "Smith", "john@test.com", Set.of(department)));
+  }
+
+  @Test
+  public void testIsEnabled() {
+    assertTrue(fullTextSearch.isEnabled());
+  }
+
+  @Test
+  public void testFetchProjects_matchesTextAndFacultyName() {
+    Project robots = saveProject("Robot arms", "Build ROBOTS", "C++", smith);
+    Project reefs = saveProject("Reefs", "Study reefs", "Diving", lovelace);
+    Project ethics = saveProject("Ethics", "Philosophy", "Reading", smith);
+
+    assertEquals(Set.of(robots.getId()), fetchProjectIds("robot"));
+    assertEquals(Set.of(reefs.getId(), ethics.getId()), fetchProjectIds("diving, philo"));
+    // Lovelace is only in the faculty name.
+    assertEquals(Set.of(reefs.getId()), fetchProjectIds("lovelace"));
+    assertTrue(fetchProjectIds("chemistry").isEmpty());
+  }
+
+  @Test
+  public void testFetchStudents_matchesInterestReasonAndName() {
+    Student sam = saveStudent("Sam", "Fox", "sam@test.com", "I love robotics");
+    Student robin = saveStudent("Robin", "Lee", "robin@test.com", "Marine life");
+
+    assertEquals(Set.of(sam.getId()), fetchStudentIds("ROBOTICS"));
+    assertEquals(Set.of(sam.getId(), robin.getId()), fetchStudentIds("rob"));
+    assertEquals(Set.of(robin.getId()), fetchStudentIds("marine"));
+    assertTrue(fetchStudentIds("chemistry").isEmpty());
+  }
+
+  @Test
+  public void testToBooleanQuery_prefixesWordsAndDropsOperators() {
+    assertEquals(
+        "robot* c* vision*", FullTextSearch.toBooleanQuery(List.of("robot", "c++", "-vision")));
+    assertEquals("", FullTextSearch.toBooleanQuery(List.of("+-")));
+  }
+
+  /**
+   * Benchmark of the 95th percentile latency of 200 keyword searches over
+   * 5,000 projects, through FullTextSearch.matchProjects and through what the
+   * fetchers did before: loading every project and scanning its text in Java.
+   * Both must find the project each keyword was taken from.
+   */
+  @Test
+  @Tag("benchmark")
+  public void benchmarkMatchProjects_p95AgainstJavaScan() {
+    Random random = new Random(49);
+    List<String> vocabulary = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder word = new StringBuilder();
+      for (int length = 4 + random.nextInt(8); length > 0; length--) {
+        word.append((char) ('a' + random.nextInt(20)));
+      }
+      vocabulary.add(word.toString());
+    }
+    List<Project> projects = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      Project project = new Project();
+      project.setName(pickWords(random, vocabulary, 3));
+      project.setDescription(pickWords(random, vocabulary, 20));
+      project.setDesiredQualifications(pickWords(random, vocabulary, 5));
+      project.setIsActive(true);
+      project.setFaculty(random.nextBoolean() ? lovelace : smith);
+      project.setMajors(Set.of(major));
+      project.setCreatedAt(LocalDateTime.now());
+      projects.add(project);
+    }
+    projects = projectRepository.saveAllAndFlush(projects);
+    List<Project> searched = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      searched.add(projects.get(random.nextInt(projects.size())));
+    }
+
+    long[] scanNanos = new long[searched.size()];
+    long[] fullTextNanos = new long[searched.size()];
+    for (int i = 0; i < searched.size(); i++) {
+      Project project = searched.get(i);
+      // A whole word, so it is also a word prefix for FULLTEXT.
+      String[] words = project.getDescription().split(" ");
+      List<String> keywords = List.of(words[random.nextInt(words.length)]);
+
+      long start = System.nanoTime();
+      Set<Integer> scanned =
+          projectRepository.findAll().stream()
+              .filter(
+                  candidate ->
+                      containsKeyword(candidate.getName(), keywords)
+                          || containsKeyword(candidate.getDescription(), keywords)
+                          || containsKeyword(candidate.getDesiredQualifications(), keywords))
+              .map(Project::getId)
+              .collect(Collectors.toSet());
+      scanNanos[i] = System.nanoTime() - start;
+
+      start = System.nanoTime();
+      Set<Integer> matched = fullTextSearch.matchProjects(keywords);
+      fullTextNanos[i] = System.nanoTime() - start;
+
+      assertTrue(scanned.contains(project.getId()));
+      assertTrue(matched.contains(project.getId()));
+    }
+
+    assertTrue(p95(fullTextNanos) < p95(scanNanos));
+  }
+
+  // The substring match the fetchers did before pushing keywords to the database.
+  private static boolean containsKeyword(String text, List<String> keywords) {
+    String lowercaseText = text.toLowerCase();
+    return keywords.stream().anyMatch(lowercaseText::contains);
+  }
+
+  private static long p95(long[] nanos) {
+    long[] sorted = nanos.clone();
+    Arrays.sort(sorted);
+    return sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+  }
+
+  private static String pickWords(Random random, List<String> vocabulary, int count) {
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      words.add(vocabulary.get(random.nextInt(vocabulary.size())));
+    }
+    return String.join(" ", words);
+  }
+
+  private Set<Integer> fetchProjectIds(String keywords) {
+    return fetch(FilteredType.FILTERED_TYPE_PROJECTS, keywords, projectFetcher).stream()
+        .flatMap(major -> major.getProjectCollection().getProjectsList().stream())
+        .map(ProjectProto::getProjectId)
+        .collect(Collectors.toSet());
+  }
+
+  private Set<Integer> fetchStudentIds(String keywords) {
+    return fetch(FilteredType.FILTERED_TYPE_STUDENTS, keywords, studentFetcher).stream()
+        .flatMap(major -> major.getStudentCollection().getStudentsList().stream())
+        .map(StudentProto::getStudentId)
+        .collect(Collectors.toSet());
+  }
+
+  private List<MajorWithEntityCollection> fetch(
+      FilteredType type, String keywords, Fetcher fetcher) {
+    FetcherResponse response =
+        fetcher.fetch(
+            FetcherRequest.newBuilder()
+                .setFilteredFetcher(
+                    FilteredFetcher.newBuilder().setFilteredType(type).setKeywords(keywords))
+                .build());
+    return response.getProjectHierarchy().getDisciplinesList().stream()
+        .flatMap(discipline -> discipline.getMajorsList().stream())
+        .toList();
+  }
+
+  private Project saveProject(
+      String name, String description, String qualifications, Faculty faculty) {
+    Project project = new Project();
+    project.setName(name);
+    project.setDescription(description);
+    project.setDesiredQualifications(qualifications);
+    project.setIsActive(true);
+    project.setFaculty(faculty);
+    project.setMajors(Set.of(major));
+    project.setCreatedAt(LocalDateTime.now());
+    return projectRepository.saveAndFlush(project);
+  }
+
+  private Student saveStudent(
+      String firstName, String lastName, String email, String interestReason) {
+    Student student = new Student(firstName, lastName, email, 3, 2027, interestReason, false);
+    student.setIsActive(true);
+    student.setMajors(Set.of(major));
+    return studentRepository.saveAndFlush(student);
+  }
+}
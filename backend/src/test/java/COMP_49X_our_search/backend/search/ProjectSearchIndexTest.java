@@ -0,0 +1,413 @@
+package COMP_49X_our_search.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.services.ProjectService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class ProjectSearchIndexTest {
+
+  private ProjectService projectService;
+  private ProjectSearchIndex projectSearchIndex;
+  private Faculty faculty;
+
+  @BeforeEach
+  void setUp() {
+    projectService = mock(ProjectService.class);
+    projectSearchIndex = new ProjectSearchIndex(projectService);
+
+    faculty = new Faculty();
+    faculty.setId(1);
+    faculty.setFirstName("Ada");
+    faculty.setLastName("Lovelace");
+    faculty.setEmail("ada@test.com");
+  }
+
+  private Project buildProject(int id, String name, String description, String qualifications) {
+    Project project = new Project();
+    project.setId(id);
+    project.setName(name);
+    project.setDescription(description);
+    project.setDesiredQualifications(qualifications);
+    project.setIsActive(true);
+    project.setFaculty(faculty);
+    return project;
+  }
+
+  @Test
+  public void testSearch_buildsIndexLazilyFromDatabase() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(
+            List.of(
+                buildProject(1, "Quantum AI", "Quantum computing research", "Linear algebra"),
+                buildProject(2, "Robotics", "Autonomous drones", "Python, C++")));
+
+    assertEquals(Set.of(1), projectSearchIndex.search("quantum"));
+    assertEquals(Set.of(2), projectSearchIndex.search("drones"));
+    assertEquals(2, projectSearchIndex.size());
+    verify(projectService, times(1)).getAllResearchOpportunities();
+  }
+
+  @Test
+  public void testRebuild_updateWhileReadingDatabase_isNotOverwritten() throws Exception {
+    Project added = buildProject(2, "Robotics", "Autonomous drones", "Python");
+    Thread[] indexer = new Thread[1];
+    when(projectService.getAllResearchOpportunities())
+        .thenAnswer(
+            invocation -> {
+              // A project created while the old snapshot is being read.
+              indexer[0] = new Thread(() -> projectSearchIndex.indexProject(added));
+              indexer[0].start();
+              indexer[0].join(200);
+              return List.of(buildProject(1, "Quantum AI", "Quantum computing", "Algebra"));
+            });
+
+    projectSearchIndex.rebuild();
+    indexer[0].join();
+
+    assertEquals(Set.of(2), projectSearchIndex.search("drones"));
+    assertEquals(2, projectSearchIndex.size());
+  }
+
+  @Test
+  public void testIndexProject_insideTransaction_appliedOnlyOnCommit() {
+    when(projectService.getAllResearchOpportunities()).thenReturn(List.of());
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      projectSearchIndex.indexProject(buildProject(1, "Quantum AI", "Rolled back", "None"));
+    } finally {
+      // Rolled back: the synchronizations are dropped without committing.
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      projectSearchIndex.indexProject(buildProject(2, "Quantum AI", "Committed", "None"));
+      assertTrue(projectSearchIndex.search("quantum").isEmpty());
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertEquals(Set.of(2), projectSearchIndex.search("quantum"));
+  }
+
+  @Test
+  public void testSearch_matchesSubstringsCaseInsensitively() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(
+            List.of(buildProject(1, "Machine Learning", "Neural networks", "Statistics")));
+
+    assertEquals(Set.of(1), projectSearchIndex.search("LEARN"));
+    assertEquals(Set.of(1), projectSearchIndex.search("network"));
+    assertTrue(projectSearchIndex.search("biology").isEmpty());
+  }
+
+  @Test
+  public void testSearch_anyKeywordMatches() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(
+            List.of(
+                buildProject(1, "Quantum AI", "Quantum computing research", "Linear algebra"),
+                buildProject(2, "Robotics", "Autonomous drones", "Python, C++")));
+
+    assertEquals(Set.of(1, 2), projectSearchIndex.search("quantum, python"));
+  }
+
+  @Test
+  public void testSearch_matchesFacultyName() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(List.of(buildProject(1, "Robotics", "Autonomous drones", "Python")));
+
+    assertEquals(Set.of(1), projectSearchIndex.search("lovelace"));
+  }
+
+  @Test
+  public void testIndexProject_replacesPreviousVersion() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(List.of(buildProject(1, "Robotics", "Autonomous drones", "Python")));
+    projectSearchIndex.search("robotics");
+
+    projectSearchIndex.indexProject(buildProject(1, "Genomics", "DNA sequencing", "Biology"));
+
+    assertTrue(projectSearchIndex.search("robotics").isEmpty());
+    assertEquals(Set.of(1), projectSearchIndex.search("genomics"));
+    assertEquals(1, projectSearchIndex.size());
+  }
+
+  @Test
+  public void testRemoveProject_removesFromResults() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(List.of(buildProject(1, "Robotics", "Autonomous drones", "Python")));
+    projectSearchIndex.search("robotics");
+
+    projectSearchIndex.removeProject(1);
+
+    assertTrue(projectSearchIndex.search("robotics").isEmpty());
+    assertEquals(0, projectSearchIndex.size());
+  }
+
+  @Test
+  public void testUpdateFaculty_reindexesFacultyName() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(List.of(buildProject(1, "Robotics", "Autonomous drones", "Python")));
+    projectSearchIndex.search("robotics");
+
+    Faculty renamed = new Faculty();
+    renamed.setId(1);
+    renamed.setFirstName("Grace");
+    renamed.setLastName("Hopper");
+    projectSearchIndex.updateFaculty(renamed);
+
+    assertTrue(projectSearchIndex.search("lovelace").isEmpty());
+    assertEquals(Set.of(1), projectSearchIndex.search("hopper"));
+    assertEquals(Set.of(1), projectSearchIndex.search("drones"));
+  }
+
+  @Test
+  public void testRemoveFaculty_removesTheirProjects() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(List.of(buildProject(1, "Robotics", "Autonomous drones", "Python")));
+    projectSearchIndex.search("robotics");
+
+    projectSearchIndex.removeFaculty(1);
+
+    assertEquals(0, projectSearchIndex.size());
+  }
+
+  @Test
+  public void testScore_nameMatchOutranksDescriptionMatch() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(
+            List.of(
+                buildProject(1, "Ocean studies", "Robotics for reefs", "Diving"),
+                buildProject(2, "Robotics", "Ocean studies for reefs", "Diving")));
+
+    Map<Integer, Double> scores = projectSearchIndex.score(Set.of("robot"));
+
+    assertEquals(Set.of(1, 2), scores.keySet());
+    assertTrue(scores.get(2) > scores.get(1));
+  }
+
+  @Test
+  public void testScore_rarerKeywordScoresHigher() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(
+            List.of(
+                buildProject(1, "Drones", "Python tools", "Diving"),
+                buildProject(2, "Reefs", "Genomics tools", "Diving"),
+                buildProject(3, "Ethics", "Python tools", "Diving")));
+
+    Map<Integer, Double> scores = projectSearchIndex.score(Set.of("python", "genomics"));
+
+    // Genomics is in one project, python in two.
+    assertTrue(scores.get(2) > scores.get(1));
+    assertEquals(scores.get(1), scores.get(3));
+  }
+
+  @Test
+  public void testScore_matchesTheSameProjectsAsSearch() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(
+            List.of(
+                buildProject(1, "Quantum AI", "Quantum computing research", "Linear algebra"),
+                buildProject(2, "Robotics", "Autonomous drones", "Python, C++")));
+
+    assertEquals(
+        projectSearchIndex.search("quantum, lovelace, drone"),
+        projectSearchIndex.score(Set.of("quantum", "lovelace", "drone")).keySet());
+    assertTrue(projectSearchIndex.score(Set.of()).isEmpty());
+  }
+
+  @Test
+  public void testScore_followsFacultyUpdates() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(List.of(buildProject(1, "Robotics", "Autonomous drones", "Python")));
+
+    Faculty renamed = new Faculty();
+    renamed.setId(1);
+    renamed.setFirstName("Grace");
+    renamed.setLastName("Hopper");
+    projectSearchIndex.score(Set.of("robotics"));
+    projectSearchIndex.updateFaculty(renamed);
+
+    assertTrue(projectSearchIndex.score(Set.of("lovelace")).isEmpty());
+    assertEquals(Set.of(1), projectSearchIndex.score(Set.of("hopper")).keySet());
+  }
+
+  @Test
+  public void testSearch_matchesMisspelledKeywordsFuzzily() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(
+            List.of(
+                buildProject(1, "Robotics", "Autonomous drones", "Python"),
+                buildProject(2, "Genomics", "DNA sequencing", "Biology")));
+
+    assertEquals(Set.of(1), projectSearchIndex.search("robtics"));
+    assertEquals(Set.of(1, 2), projectSearchIndex.search("lovelase"));
+    assertEquals(Set.of(1, 2), projectSearchIndex.score(Set.of("lovelase")).keySet());
+    assertTrue(projectSearchIndex.search("chemistry").isEmpty());
+  }
+
+  @Test
+  public void testSearch_keywordsMatchingAsTheyAreAreNotMatchedFuzzily() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(
+            List.of(
+                buildProject(1, "Drones", "Autonomous drones", "Python"),
+                buildProject(2, "Dunes", "Desert drone", "Biology")));
+
+    // "drones" is one typo away from "drone", but is found as it is.
+    assertEquals(Set.of(1), projectSearchIndex.search("drones"));
+  }
+
+  @Test
+  public void testSearch_fuzzyMatchesFollowIndexUpdates() {
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(List.of(buildProject(1, "Robotics", "Autonomous drones", "Python")));
+    projectSearchIndex.search("robotics");
+
+    projectSearchIndex.indexProject(buildProject(1, "Genomics", "DNA sequencing", "Biology"));
+
+    assertTrue(projectSearchIndex.search("robtics").isEmpty());
+    assertEquals(Set.of(1), projectSearchIndex.search("genomcis"));
+  }
+
+  @Test
+  public void testTokenizeKeywords_splitsOnSpacesAndCommas() {
+    assertEquals(Set.of("quantum", "ai", "ml"), ProjectSearchIndex.tokenizeKeywords("Quantum AI,ML"));
+    assertTrue(ProjectSearchIndex.tokenizeKeywords(" , ").isEmpty());
+  }
+
+  /**
+   * Benchmark of keyword searches over 10,000 and 100,000 projects, through
+   * the index and through the substring scan of every project the fetchers
+   * used to do (containsKeyword), checking both find the same projects. The
+   * keywords are parts of words used by the projects, so none of them is
+   * matched fuzzily.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {10_000, 100_000})
+  @Tag("benchmark")
+  public void benchmarkSearch_againstSubstringScan(int projectCount) {
+    Random random = new Random(49);
+    List<String> vocabulary = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      vocabulary.add(randomWord(random, 4 + random.nextInt(8)));
+    }
+    List<Faculty> members = new ArrayList<>();
+    for (int i = 1; i <= 500; i++) {
+      Faculty member = new Faculty();
+      member.setId(i);
+      member.setFirstName(pickWords(random, vocabulary, 1));
+      member.setLastName(pickWords(random, vocabulary, 1));
+      members.add(member);
+    }
+    List<Project> projects = new ArrayList<>();
+    for (int i = 1; i <= projectCount; i++) {
+      Project project =
+          buildProject(
+              i,
+              pickWords(random, vocabulary, 3),
+              pickWords(random, vocabulary, 20),
+              pickWords(random, vocabulary, 5));
+      project.setFaculty(members.get(random.nextInt(members.size())));
+      projects.add(project);
+    }
+    List<String> searches = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      Project project = projects.get(random.nextInt(projects.size()));
+      String[] words = project.getDescription().split(" ");
+      String word = words[random.nextInt(words.length)];
+      int from = random.nextInt(word.length() - 3);
+      searches.add(
+          word.substring(from, from + 4 + random.nextInt(word.length() - from - 3))
+              + " "
+              + pickWords(random, vocabulary, 1));
+    }
+    when(projectService.getAllResearchOpportunities()).thenReturn(projects);
+    projectSearchIndex.rebuild();
+
+    long start = System.nanoTime();
+    List<Set<Integer>> expected = new ArrayList<>();
+    for (String keywords : searches) {
+      expected.add(
+          projects.stream()
+              .filter(
+                  project ->
+                      containsKeyword(project.getName(), keywords)
+                          || containsKeyword(project.getDescription(), keywords)
+                          || containsKeyword(project.getDesiredQualifications(), keywords)
+                          || containsKeyword(
+                              project.getFaculty().getFirstName()
+                                  + " "
+                                  + project.getFaculty().getLastName(),
+                              keywords))
+              .map(Project::getId)
+              .collect(Collectors.toSet()));
+    }
+    long scanMillis = (System.nanoTime() - start) / 1_000_000;
+
+    start = System.nanoTime();
+    List<Set<Integer>> actual = new ArrayList<>();
+    for (String keywords : searches) {
+      actual.add(projectSearchIndex.search(keywords));
+    }
+    long indexedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertEquals(expected, actual);
+    assertTrue(indexedMillis < scanMillis);
+  }
+
+  // The substring match the fetchers did before the index.
+  private static boolean containsKeyword(String text, String keywords) {
+    if (text == null || keywords == null || keywords.trim().isEmpty()) {
+      return false;
+    }
+
+    String lowercaseText = text.toLowerCase();
+    Set<String> keywordSet =
+        Arrays.stream(keywords.toLowerCase().split("[ ,]"))
+            .filter(k -> !k.trim().isEmpty())
+            .collect(Collectors.toSet());
+
+    return keywordSet.isEmpty() || keywordSet.stream().anyMatch(lowercaseText::contains);
+  }
+
+  private static String pickWords(Random random, List<String> vocabulary, int count) {
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      words.add(vocabulary.get(random.nextInt(vocabulary.size())));
+    }
+    return String.join(" ", words);
+  }
+
+  private static String randomWord(Random random, int length) {
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      word.append((char) ('a' + random.nextInt(20)));
+    }
+    return word.toString();
+  }
+}
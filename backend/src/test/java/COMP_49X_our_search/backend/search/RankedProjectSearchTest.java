@@ -0,0 +1,98 @@
+package COMP_49X_our_search.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.services.ProjectService;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+import proto.fetcher.FetcherModule.FilteredFetcher;
+
+public class RankedProjectSearchTest {
+
+  private ProjectSearchIndex projectSearchIndex;
+  private ProjectService projectService;
+  private RankedProjectSearch rankedProjectSearch;
+
+  @BeforeEach
+  void setUp() {
+    projectSearchIndex = mock(ProjectSearchIndex.class);
+    projectService = mock(ProjectService.class);
+    rankedProjectSearch = new RankedProjectSearch(projectSearchIndex, projectService);
+  }
+
+  private static Project buildProject(int id) {
+    Project project = new Project();
+    project.setId(id);
+    return project;
+  }
+
+  @Test
+  public void testTopK_returnsBestFirstAndBreaksTiesById() {
+    Map<Integer, Double> scores = Map.of(1, 0.5, 2, 2.0, 3, 1.0, 4, 2.0, 5, 0.1);
+
+    assertEquals(List.of(2, 4, 3), RankedProjectSearch.topK(scores, 3, id -> true));
+    assertEquals(List.of(2, 4, 3, 1, 5), RankedProjectSearch.topK(scores, 10, id -> true));
+  }
+
+  @Test
+  public void testTopK_skipsRejectedProjects() {
+    Map<Integer, Double> scores = Map.of(1, 0.5, 2, 2.0, 3, 1.0);
+
+    assertEquals(List.of(3, 1), RankedProjectSearch.topK(scores, 2, id -> id != 2));
+  }
+
+  @Test
+  public void testSearch_withoutKeywordsReturnsNothing() {
+    when(projectSearchIndex.score(Set.of())).thenReturn(Map.of());
+
+    assertTrue(rankedProjectSearch.search(FilteredFetcher.getDefaultInstance(), 10).isEmpty());
+    verifyNoInteractions(projectService);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSearch_loadsOnlyTheTopProjectsInRankOrder() {
+    when(projectSearchIndex.score(Set.of("robot"))).thenReturn(Map.of(1, 1.0, 2, 3.0, 3, 2.0));
+    // Project 3 was deleted since it was scored.
+    when(projectService.getProjectsWithAssociations(any(Specification.class)))
+        .thenReturn(List.of(buildProject(2)));
+
+    List<Project> results =
+        rankedProjectSearch.search(FilteredFetcher.newBuilder().setKeywords("robot").build(), 2);
+
+    assertEquals(List.of(2), results.stream().map(Project::getId).toList());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSearch_withFiltersRanksOnlyMatchingIdsAndLoadsTheTopOnes() {
+    when(projectSearchIndex.score(Set.of("robot")))
+        .thenReturn(Map.of(1, 1.0, 2, 3.0, 3, 2.0, 4, 0.5));
+    // The database left out project 2, which doesn't match the major filter.
+    when(projectService.getProjectIds(any(Specification.class))).thenReturn(Set.of(1, 3, 4));
+    when(projectService.getProjectsWithAssociations(any(Specification.class)))
+        .thenReturn(List.of(buildProject(1), buildProject(3)));
+
+    List<Project> results =
+        rankedProjectSearch.search(
+            FilteredFetcher.newBuilder().setKeywords("robot").addMajorIds(4).build(), 2);
+
+    assertEquals(List.of(3, 1), results.stream().map(Project::getId).toList());
+    // Only the top 2 are loaded, in a single query.
+    verify(projectService, times(1)).getProjectsWithAssociations(any(Specification.class));
+    verify(projectService, never()).getAllProjectsWithAssociations();
+  }
+}
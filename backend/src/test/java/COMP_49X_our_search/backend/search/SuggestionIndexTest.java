@@ -0,0 +1,176 @@
+package COMP_49X_our_search.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Major;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.database.entities.UmbrellaTopic;
+import COMP_49X_our_search.backend.database.repositories.MajorRepository;
+import COMP_49X_our_search.backend.database.repositories.UmbrellaTopicRepository;
+import COMP_49X_our_search.backend.database.services.FacultyService;
+import COMP_49X_our_search.backend.database.services.ProjectService;
+import COMP_49X_our_search.backend.search.SuggestionIndex.Suggestion;
+import COMP_49X_our_search.backend.search.SuggestionIndex.SuggestionType;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SuggestionIndexTest {
+
+  private ProjectService projectService;
+  private FacultyService facultyService;
+  private MajorRepository majorRepository;
+  private UmbrellaTopicRepository umbrellaTopicRepository;
+  private SuggestionIndex suggestionIndex;
+  private Faculty faculty;
+
+  @BeforeEach
+  void setUp() {
+    projectService = mock(ProjectService.class);
+    facultyService = mock(FacultyService.class);
+    majorRepository = mock(MajorRepository.class);
+    umbrellaTopicRepository = mock(UmbrellaTopicRepository.class);
+    suggestionIndex =
+        new SuggestionIndex(
+            projectService, facultyService, majorRepository, umbrellaTopicRepository);
+
+    faculty = new Faculty();
+    faculty.setId(1);
+    faculty.setFirstName("Ada");
+    faculty.setLastName("Lovelace");
+
+    when(facultyService.getAllFaculty()).thenReturn(List.of(faculty));
+    when(projectService.getAllResearchOpportunities())
+        .thenReturn(
+            List.of(
+                buildProject(1, "Machine Learning for Reefs"),
+                buildProject(2, "Robot Arms")));
+    when(majorRepository.findAll()).thenReturn(List.of(new Major(3, "Computer Science")));
+    when(umbrellaTopicRepository.findAll())
+        .thenReturn(List.of(new UmbrellaTopic(4, "Machine Vision")));
+  }
+
+  private Project buildProject(int id, String name) {
+    Project project = new Project();
+    project.setId(id);
+    project.setName(name);
+    project.setFaculty(faculty);
+    return project;
+  }
+
+  @Test
+  public void testSuggest_buildsIndexLazilyFromDatabase() {
+    assertEquals(
+        List.of(new Suggestion("Robot Arms", SuggestionType.PROJECT)),
+        suggestionIndex.suggest("rob", 10));
+    assertEquals(5, suggestionIndex.size());
+    suggestionIndex.suggest("ada", 10);
+    verify(projectService, times(1)).getAllResearchOpportunities();
+  }
+
+  @Test
+  public void testSuggest_matchesTheStartOfAnyWordCaseInsensitively() {
+    assertEquals(
+        List.of(
+            new Suggestion("Machine Learning for Reefs", SuggestionType.PROJECT),
+            new Suggestion("Machine Vision", SuggestionType.UMBRELLA_TOPIC)),
+        suggestionIndex.suggest("MACH", 10));
+    assertEquals(
+        List.of(new Suggestion("Machine Learning for Reefs", SuggestionType.PROJECT)),
+        suggestionIndex.suggest("learning  for", 10));
+    assertEquals(
+        List.of(new Suggestion("Ada Lovelace", SuggestionType.FACULTY)),
+        suggestionIndex.suggest("love", 10));
+    assertTrue(suggestionIndex.suggest("earning", 10).isEmpty());
+    assertTrue(suggestionIndex.suggest("  ", 10).isEmpty());
+  }
+
+  @Test
+  public void testSuggest_stopsAtLimit() {
+    assertEquals(1, suggestionIndex.suggest("m", 1).size());
+  }
+
+  @Test
+  public void testSuggest_returnsDuplicateNamesOnce() {
+    suggestionIndex.suggest("rob", 10);
+    suggestionIndex.putProject(buildProject(5, "Robot Arms"));
+
+    assertEquals(1, suggestionIndex.suggest("robot", 10).size());
+    suggestionIndex.removeProject(2);
+    assertEquals(1, suggestionIndex.suggest("robot", 10).size());
+  }
+
+  @Test
+  public void testPutProject_replacesPreviousName() {
+    suggestionIndex.suggest("rob", 10);
+
+    suggestionIndex.putProject(buildProject(2, "Coral Genomics"));
+
+    assertTrue(suggestionIndex.suggest("rob", 10).isEmpty());
+    assertEquals(
+        List.of(new Suggestion("Coral Genomics", SuggestionType.PROJECT)),
+        suggestionIndex.suggest("genom", 10));
+  }
+
+  @Test
+  public void testRemoveFaculty_removesTheirProjects() {
+    suggestionIndex.suggest("rob", 10);
+
+    suggestionIndex.removeFaculty(1);
+
+    assertTrue(suggestionIndex.suggest("ada", 10).isEmpty());
+    assertTrue(suggestionIndex.suggest("rob", 10).isEmpty());
+    assertEquals(2, suggestionIndex.size());
+  }
+
+  @Test
+  public void testCorrectFacultyNames_onlyCorrectsKeywordsWithoutMatches() {
+    assertEquals(
+        Set.of("lovelace"), suggestionIndex.correctFacultyNames(Set.of("lovelase", "ada")));
+    assertTrue(suggestionIndex.correctFacultyNames(Set.of("love")).isEmpty());
+    // Project names are not faculty names.
+    assertTrue(suggestionIndex.correctFacultyNames(Set.of("robott")).isEmpty());
+  }
+
+  @Test
+  public void testCorrectFacultyNames_followsFacultyUpdates() {
+    Faculty grace = new Faculty();
+    grace.setId(2);
+    grace.setFirstName("Grace");
+    grace.setLastName("Hopper");
+    suggestionIndex.suggest("ada", 10);
+
+    suggestionIndex.putFaculty(grace);
+    suggestionIndex.removeFaculty(1);
+
+    assertEquals(Set.of("hopper"), suggestionIndex.correctFacultyNames(Set.of("hoper")));
+    assertTrue(suggestionIndex.correctFacultyNames(Set.of("lovelase")).isEmpty());
+  }
+
+  @Test
+  public void testMajorsAndUmbrellaTopics_areKeptUpToDate() {
+    suggestionIndex.suggest("comp", 10);
+
+    suggestionIndex.putMajor(new Major(3, "Computer Engineering"));
+    suggestionIndex.removeUmbrellaTopic(4);
+    suggestionIndex.putUmbrellaTopic(new UmbrellaTopic(6, "Climate"));
+
+    assertEquals(
+        List.of(
+            new Suggestion("Climate", SuggestionType.UMBRELLA_TOPIC),
+            new Suggestion("Computer Engineering", SuggestionType.MAJOR)),
+        suggestionIndex.suggest("c", 10));
+    assertEquals(
+        List.of(new Suggestion("Machine Learning for Reefs", SuggestionType.PROJECT)),
+        suggestionIndex.suggest("machine", 10));
+    suggestionIndex.removeMajor(3);
+    assertEquals(1, suggestionIndex.suggest("c", 10).size());
+  }
+}
@@ -0,0 +1,215 @@
+package COMP_49X_our_search.backend.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+public class TrigramIndexTest {
+
+  @Test
+  public void testFuzzyMatches_findsTermsWithinTheAllowedEdits() {
+    TrigramIndex index = new TrigramIndex();
+    List.of("lovelace", "robotics", "robot", "genomics", "love").forEach(index::add);
+
+    // Replaced, missing, extra and swapped characters.
+    assertEquals(Set.of("lovelace"), index.fuzzyMatches("lovelase"));
+    assertEquals(Set.of("robotics"), index.fuzzyMatches("robtics"));
+    assertEquals(Set.of("genomics"), index.fuzzyMatches("geenomics"));
+    assertEquals(Set.of("robotics"), index.fuzzyMatches("rbootics"));
+    // Two typos are only allowed in long keywords.
+    assertEquals(Set.of("lovelace"), index.fuzzyMatches("lvoelase"));
+    assertTrue(index.fuzzyMatches("rbtoo").isEmpty());
+    // Too short to tell a typo from another word.
+    assertTrue(index.fuzzyMatches("lve").isEmpty());
+  }
+
+  @Test
+  public void testRemove_dropsTheTerm() {
+    TrigramIndex index = new TrigramIndex();
+    index.add("robotics");
+    index.add("robotics");
+    assertEquals(1, index.size());
+
+    index.remove("robotics");
+
+    assertTrue(index.fuzzyMatches("robtics").isEmpty());
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  public void testContaining_findsTermsWithTheKeywordAnywhere() {
+    TrigramIndex index = new TrigramIndex();
+    List.of("lovelace", "robotics", "robot", "genomics", "love").forEach(index::add);
+
+    assertEquals(Set.of("robotics", "robot"), index.containing("obot"));
+    assertEquals(Set.of("robotics", "genomics"), index.containing("ics"));
+    assertEquals(Set.of("lovelace", "love"), index.containing("lo"));
+    assertEquals(Set.of("robotics"), index.containing("robotics"));
+    assertTrue(index.containing("xyz").isEmpty());
+    // Every trigram of the keyword is in some term, but no term has them all.
+    index.add("abcd");
+    index.add("bcde");
+    assertTrue(index.containing("abcde").isEmpty());
+  }
+
+  @Test
+  public void testEditDistance() {
+    assertEquals(0, TrigramIndex.editDistance("robot", "robot", 2));
+    assertEquals(1, TrigramIndex.editDistance("robot", "rboot", 2));
+    assertEquals(2, TrigramIndex.editDistance("kitten", "sittin", 2));
+    // Gives up past the limit.
+    assertEquals(2, TrigramIndex.editDistance("kitten", "sitting", 1));
+    assertEquals(3, TrigramIndex.editDistance("a", "abcdef", 2));
+  }
+
+  // Checks the candidates against a plain scan of a synthetic vocabulary with
+  // the same edit distance, so no match is lost to the trigram filter.
+  @Test
+  public void testFuzzyMatches_matchesAScanOfEveryTerm() {
+    Random random = new Random(49);
+    List<String> vocabulary = new ArrayList<>();
+    TrigramIndex index = new TrigramIndex();
+    for (int i = 0; i < 2000; i++) {
+      String term = randomWord(random, 4 + random.nextInt(8));
+      vocabulary.add(term);
+      index.add(term);
+    }
+
+    for (int i = 0; i < 300; i++) {
+      String keyword = misspell(random, vocabulary.get(random.nextInt(vocabulary.size())));
+      int maxEdits = TrigramIndex.maxEdits(keyword.length());
+      Set<String> expected =
+          maxEdits == 0
+              ? Set.of()
+              : Set.copyOf(
+                  vocabulary.stream()
+                      .filter(
+                          term -> TrigramIndex.editDistance(keyword, term, maxEdits) <= maxEdits)
+                      .toList());
+      assertEquals(expected, index.fuzzyMatches(keyword), keyword);
+    }
+  }
+
+  /**
+   * Benchmark of substring lookups over a vocabulary of 50,000 terms, through
+   * the rarest trigram of each keyword and through a scan of every term (what
+   * ProjectSearchIndex used to do), checking both find the same terms.
+   */
+  @Test
+  @Tag("benchmark")
+  public void benchmarkContaining_50000Terms() {
+    Random random = new Random(49);
+    List<String> vocabulary = new ArrayList<>();
+    TrigramIndex index = new TrigramIndex();
+    for (int i = 0; i < 50_000; i++) {
+      String term = randomWord(random, 4 + random.nextInt(8), 20);
+      vocabulary.add(term);
+      index.add(term);
+    }
+    List<String> keywords = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      String term = vocabulary.get(random.nextInt(vocabulary.size()));
+      int from = random.nextInt(term.length() - 3);
+      keywords.add(term.substring(from, from + 3 + random.nextInt(term.length() - from - 2)));
+    }
+
+    long start = System.nanoTime();
+    List<Set<String>> expected = new ArrayList<>();
+    for (String keyword : keywords) {
+      expected.add(
+          Set.copyOf(vocabulary.stream().filter(term -> term.contains(keyword)).toList()));
+    }
+    long scanMillis = (System.nanoTime() - start) / 1_000_000;
+
+    start = System.nanoTime();
+    List<Set<String>> actual = new ArrayList<>();
+    for (String keyword : keywords) {
+      actual.add(index.containing(keyword));
+    }
+    long indexedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertEquals(expected, actual);
+    assertTrue(indexedMillis < scanMillis);
+  }
+
+  /**
+   * Benchmark of typo lookups over a vocabulary of 50,000 terms, through the
+   * trigrams shared with each keyword and through an edit distance check of
+   * every term, checking both find the same terms.
+   */
+  @Test
+  @Tag("benchmark")
+  public void benchmarkFuzzyMatches_50000Terms() {
+    Random random = new Random(49);
+    List<String> vocabulary = new ArrayList<>();
+    TrigramIndex index = new TrigramIndex();
+    for (int i = 0; i < 50_000; i++) {
+      String term = randomWord(random, 4 + random.nextInt(8), 20);
+      vocabulary.add(term);
+      index.add(term);
+    }
+    List<String> keywords = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      keywords.add(misspell(random, vocabulary.get(random.nextInt(vocabulary.size()))));
+    }
+
+    long start = System.nanoTime();
+    List<Set<String>> expected = new ArrayList<>();
+    for (String keyword : keywords) {
+      int maxEdits = TrigramIndex.maxEdits(keyword.length());
+      expected.add(
+          maxEdits == 0
+              ? Set.of()
+              : Set.copyOf(
+                  vocabulary.stream()
+                      .filter(
+                          term -> TrigramIndex.editDistance(keyword, term, maxEdits) <= maxEdits)
+                      .toList()));
+    }
+    long scanMillis = (System.nanoTime() - start) / 1_000_000;
+
+    start = System.nanoTime();
+    List<Set<String>> actual = new ArrayList<>();
+    for (String keyword : keywords) {
+      actual.add(index.fuzzyMatches(keyword));
+    }
+    long indexedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    assertEquals(expected, actual);
+    assertTrue(indexedMillis < scanMillis);
+  }
+
+  private static String randomWord(Random random, int length) {
+    return randomWord(random, length, 8);
+  }
+
+  private static String randomWord(Random random, int length, int letters) {
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      word.append((char) ('a' + random.nextInt(letters)));
+    }
+    return word.toString();
+  }
+
+  // One typo: a replaced, missing, extra or swapped character.
+  private static String misspell(Random random, String word) {
+    StringBuilder typo = new StringBuilder(word);
+    int at = random.nextInt(word.length() - 1);
+    switch (random.nextInt(4)) {
+      case 0 -> typo.setCharAt(at, (char) ('a' + random.nextInt(8)));
+      case 1 -> typo.deleteCharAt(at);
+      case 2 -> typo.insert(at, (char) ('a' + random.nextInt(8)));
+      default -> {
+        typo.setCharAt(at, word.charAt(at + 1));
+        typo.setCharAt(at + 1, word.charAt(at));
+      }
+    }
+    return typo.toString();
+  }
+}
@@ -0,0 +1,76 @@
+package COMP_49X_our_search.backend.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import COMP_49X_our_search.backend.database.entities.Faculty;
+import COMP_49X_our_search.backend.database.entities.Project;
+import COMP_49X_our_search.backend.fetcher.ConversionStats;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import proto.data.Entities.ProjectProto;
+
+public class ConversionContextTest {
+
+  @Test
+  public void testToProjectProto_convertsEachProjectAndFacultyOnce() {
+    Faculty faculty = faculty(1);
+    Project first = project(1, faculty);
+    Project second = project(2, faculty);
+    ConversionContext context = new ConversionContext();
+
+    ProjectProto firstProto = context.toProjectProto(first);
+    assertSame(firstProto, context.toProjectProto(first));
+    ProjectProto secondProto = context.toProjectProto(second);
+
+    assertEquals(ProtoConverter.toProjectProto(first), firstProto);
+    assertEquals(ProtoConverter.toProjectProto(second), secondProto);
+    assertSame(firstProto.getFaculty(), secondProto.getFaculty());
+    // Two projects and their faculty member, out of five conversions asked.
+    assertEquals(3, context.getConversions());
+    assertEquals(2, context.getSavedConversions());
+  }
+
+  @Test
+  public void testConversionStats_recordsSavedConversionsPerRequest() {
+    ConversionStats stats = new ConversionStats();
+    Faculty faculty = faculty(1);
+
+    ConversionContext first = stats.newContext();
+    first.toFacultyProto(faculty);
+    first.toFacultyProto(faculty);
+    first.toFacultyProto(faculty);
+    stats.record("test", first);
+    ConversionContext second = stats.newContext();
+    second.toFacultyProto(faculty);
+    stats.record("test", second);
+
+    assertEquals(2, stats.getRequests());
+    assertEquals(2, stats.getConversions());
+    assertEquals(2, stats.getSavedConversions());
+    assertEquals(1.0, stats.getSavedConversionsPerRequest());
+  }
+
+  private static Faculty faculty(int id) {
+    Faculty faculty = new Faculty();
+    faculty.setId(id);
+    faculty.setFirstName("Dr.");
+    faculty.setLastName("Faculty");
+    faculty.setEmail("faculty@test.com");
+    return faculty;
+  }
+
+  private static Project project(int id, Faculty faculty) {
+    Project project = new Project();
+    project.setId(id);
+    project.setName("Project " + id);
+    project.setDescription("Project description");
+    project.setDesiredQualifications("Project qualifications");
+    project.setIsActive(true);
+    project.setMajors(Set.of());
+    project.setUmbrellaTopics(Set.of());
+    project.setResearchPeriods(Set.of());
+    project.setFaculty(faculty);
+    return project;
+  }
+}